@@ -130,6 +130,36 @@ public class AdaptableSupportTests {
 	private class ParameterType2 extends Object {
 	}
 
+	@Test
+	public void cachedRetrievalIsUpdatedOnChanges() {
+		AdaptableSupportWrapper td = new AdaptableSupportWrapper();
+		ParameterType1 adapter1 = new ParameterType1();
+		ParameterType1 adapter2 = new ParameterType1();
+
+		// unsuccessful lookups
+		td.setAdapter(new ParameterType2());
+		assertNull(td.getAdapter(ParameterType1.class));
+		assertNull(td.getAdapter(AdapterKey.get(ParameterType1.class, "a")));
+
+		// lookups reflect a registered adapter
+		td.setAdapter(adapter1, "a");
+		assertEquals(adapter1, td.getAdapter(ParameterType1.class));
+		assertEquals(adapter1, td.getAdapter(TypeToken.of(ParameterType1.class)));
+		assertEquals(adapter1,
+				td.getAdapter(AdapterKey.get(ParameterType1.class, "a")));
+
+		// lookups reflect an ambiguity
+		td.setAdapter(adapter2, "b");
+		assertNull(td.getAdapter(ParameterType1.class));
+		assertEquals(adapter2,
+				td.getAdapter(AdapterKey.get(ParameterType1.class, "b")));
+
+		// lookups reflect an unregistered adapter
+		td.unsetAdapter(adapter1);
+		assertEquals(adapter2, td.getAdapter(ParameterType1.class));
+		assertNull(td.getAdapter(AdapterKey.get(ParameterType1.class, "a")));
+	}
+
 	@SuppressWarnings({ "serial", "rawtypes" })
 	@Test
 	public void registrationWithAdapterTypeOnly() {
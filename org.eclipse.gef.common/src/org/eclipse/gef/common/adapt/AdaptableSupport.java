@@ -26,6 +26,7 @@ import com.google.common.reflect.TypeToken;
 
 import javafx.beans.property.ReadOnlyMapProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.MapChangeListener;
 import javafx.collections.ObservableMap;
 
 /**
@@ -33,6 +34,11 @@ import javafx.collections.ObservableMap;
  * all methods defined by {@link IAdaptable}, while not formally implementing
  * the interface, and can thus be used by a source {@link IAdaptable} as a
  * delegate.
+ * <p>
+ * The results of the adapter lookups (see {@link #getAdapter(Class)},
+ * {@link #getAdapter(TypeToken)}, and {@link #getAdapter(AdapterKey)}) are
+ * cached, so that repeated lookups are simple hash map hits. The cache is
+ * invalidated whenever an adapter is registered or unregistered.
  *
  * @author anyssen
  *
@@ -52,6 +58,13 @@ public class AdaptableSupport<A extends IAdaptable> implements IDisposable {
 	private ReadOnlyMapWrapperEx<AdapterKey<?>, Object> adaptersUnmodifiableProperty;
 	private A source;
 
+	// marks a cached lookup that did not yield an adapter
+	private static final Object NO_ADAPTER = new Object();
+
+	// caches the results of adapter lookups by Class, TypeToken, or
+	// AdapterKey (i.e. TypeToken and role)
+	private Map<Object, Object> lookupCache = new HashMap<>();
+
 	/**
 	 * Creates a new {@link AdaptableSupport} for the given source
 	 * {@link IAdaptable} and a related {@link PropertyChangeSupport}.
@@ -66,6 +79,17 @@ public class AdaptableSupport<A extends IAdaptable> implements IDisposable {
 			throw new IllegalArgumentException("source may not be null.");
 		}
 		this.source = source;
+		// XXX: The cache is invalidated by the first listener that is
+		// registered, so that listeners that are notified later on can
+		// already perform lookups on the changed adapters.
+		adapters.addListener(
+				new MapChangeListener<AdapterKey<?>, Object>() {
+					@Override
+					public void onChanged(
+							MapChangeListener.Change<? extends AdapterKey<?>, ? extends Object> change) {
+						lookupCache.clear();
+					}
+				});
 	}
 
 	/**
@@ -131,7 +155,19 @@ public class AdaptableSupport<A extends IAdaptable> implements IDisposable {
 		if (adapters.isEmpty()) {
 			return null;
 		}
+		Object adapter = lookupCache.get(key);
+		if (adapter == null) {
+			adapter = findAdapter(key);
+			lookupCache.put(key, adapter == null ? NO_ADAPTER : adapter);
+		}
+		return unwrap(adapter);
+	}
 
+	/**
+	 * Retrieves the adapter for the given {@link AdapterKey} (without
+	 * consulting the cache).
+	 */
+	private <T> T findAdapter(AdapterKey<T> key) {
 		// see if we can unambiguously retrieve a matching adapter
 		Map<AdapterKey<? extends T>, T> adaptersForTypeKey = getAdapters(
 				key.getKey(), key.getRole());
@@ -162,7 +198,16 @@ public class AdaptableSupport<A extends IAdaptable> implements IDisposable {
 	 * @see IAdaptable#getAdapter(Class)
 	 */
 	public <T> T getAdapter(Class<T> key) {
-		return this.<T> getAdapter(TypeToken.of(key));
+		if (adapters.isEmpty()) {
+			return null;
+		}
+		// look up by class first, so that no TypeToken has to be created
+		Object adapter = lookupCache.get(key);
+		if (adapter == null) {
+			adapter = this.<T> getAdapter(TypeToken.of(key));
+			lookupCache.put(key, adapter == null ? NO_ADAPTER : adapter);
+		}
+		return unwrap(adapter);
 	}
 
 	/**
@@ -184,6 +229,22 @@ public class AdaptableSupport<A extends IAdaptable> implements IDisposable {
 	 * @see IAdaptable#getAdapter(TypeToken)
 	 */
 	public <T> T getAdapter(TypeToken<T> key) {
+		if (adapters.isEmpty()) {
+			return null;
+		}
+		Object adapter = lookupCache.get(key);
+		if (adapter == null) {
+			adapter = findAdapter(key);
+			lookupCache.put(key, adapter == null ? NO_ADAPTER : adapter);
+		}
+		return unwrap(adapter);
+	}
+
+	/**
+	 * Retrieves the adapter for the given {@link TypeToken} key (without
+	 * consulting the cache).
+	 */
+	private <T> T findAdapter(TypeToken<T> key) {
 		// if we have only one adapter (instance) for the given type key
 		// (disregarding the
 		// role), return this one
@@ -324,6 +385,15 @@ public class AdaptableSupport<A extends IAdaptable> implements IDisposable {
 		return typeSafeAdapters;
 	}
 
+	/**
+	 * Returns the given cached lookup result as an adapter, i.e. returns
+	 * <code>null</code> for {@link #NO_ADAPTER}.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> T unwrap(Object adapter) {
+		return adapter == NO_ADAPTER ? null : (T) adapter;
+	}
+
 	/**
 	 * Registers the given adapter under the default role (see
 	 * {@link AdapterKey#DEFAULT_ROLE}.
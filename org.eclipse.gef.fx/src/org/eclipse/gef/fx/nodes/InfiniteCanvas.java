@@ -1221,8 +1221,30 @@ public class InfiniteCanvas extends Region {
 	 *            The child {@link Node} to reveal.
 	 */
 	public void reveal(Node child) {
-		Bounds bounds = sceneToLocal(
-				child.localToScene(child.getBoundsInLocal()));
+		revealLocalBounds(sceneToLocal(
+				child.localToScene(child.getBoundsInLocal())));
+	}
+
+	/**
+	 * Ensures that the given bounds, which are interpreted in the local
+	 * coordinate system of the {@link #getContentGroup() content group}, are
+	 * fully visible in the viewport, i.e. scrolls the viewport as described
+	 * for {@link #reveal(Node)}.
+	 * <p>
+	 * This allows to reveal an area of the contents, e.g. the bounds of a
+	 * content node that are known already, without the need to transform the
+	 * bounds of a content node through the scene graph.
+	 *
+	 * @param contentBounds
+	 *            The {@link Bounds} to reveal, in local coordinates of the
+	 *            {@link #getContentGroup() content group}.
+	 */
+	public void reveal(Bounds contentBounds) {
+		revealLocalBounds(sceneToLocal(
+				getContentGroup().localToScene(contentBounds)));
+	}
+
+	private void revealLocalBounds(Bounds bounds) {
 		if (bounds.getHeight() <= getHeight()) {
 			if (bounds.getMinY() < 0) {
 				setVerticalScrollOffset(
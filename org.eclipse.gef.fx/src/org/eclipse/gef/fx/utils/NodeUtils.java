@@ -14,7 +14,10 @@
 package org.eclipse.gef.fx.utils;
 
 import java.awt.geom.NoninvertibleTransformException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -257,29 +260,45 @@ public class NodeUtils {
 			double sceneY) {
 		List<Node> picked = new ArrayList<>();
 
-		// start with given root node
-		List<Node> nodes = new ArrayList<>();
-		nodes.add(root);
+		// start with given root node; the nodes are processed in depth-first
+		// order, and the position (in local coordinates of the parent) is
+		// pushed along with each child node, so that it can be transformed
+		// incrementally instead of transforming it from the scene for each
+		// node
+		Deque<Node> nodes = new ArrayDeque<>();
+		Deque<Point2D> positionsInParent = new ArrayDeque<>();
+		nodes.push(root);
 
 		while (!nodes.isEmpty()) {
-			Node current = nodes.remove(0);
+			Node current = nodes.pop();
 			// transform to local coordinates
-			Point2D pLocal = current.sceneToLocal(sceneX, sceneY);
+			Point2D pLocal = current == root
+					? current.sceneToLocal(sceneX, sceneY)
+					: current.parentToLocal(positionsInParent.pop());
 			// check if bounds contains (necessary to find children in mouse
 			// transparent regions)
 			if (!current.isMouseTransparent()
 					&& current.getBoundsInLocal().contains(pLocal)) {
 				// check precisely
 				if (current.contains(pLocal)) {
-					picked.add(0, current);
+					picked.add(current);
 				}
-				// test all children, too
+				// test all children, too (pushed in reverse order, so that
+				// they are processed in order)
 				if (current instanceof Parent) {
-					nodes.addAll(0,
-							((Parent) current).getChildrenUnmodifiable());
+					List<Node> children = ((Parent) current)
+							.getChildrenUnmodifiable();
+					for (int i = children.size() - 1; i >= 0; i--) {
+						nodes.push(children.get(i));
+						positionsInParent.push(pLocal);
+					}
 				}
 			}
 		}
+
+		// nodes are picked in painting order, while the top-most node is
+		// expected to be first
+		Collections.reverse(picked);
 		return picked;
 	}
 
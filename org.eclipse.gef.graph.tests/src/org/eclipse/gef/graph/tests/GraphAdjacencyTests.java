@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthias Wienand (itemis AG) - initial API & implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.graph.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.eclipse.gef.graph.Edge;
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.graph.Node;
+import org.junit.Test;
+
+public class GraphAdjacencyTests {
+
+	@Test
+	public void indexInitialEdges() {
+		Node n = new Node();
+		Node m = new Node();
+		Node o = new Node();
+		Edge nm = new Edge(n, m);
+		Edge no = new Edge(n, o);
+		Edge mo = new Edge(m, o);
+		Graph g = new Graph(Arrays.asList(n, m, o), Arrays.asList(nm, no, mo));
+
+		assertEquals(Arrays.asList(nm, no), g.getOutgoingEdges(n));
+		assertEquals(Collections.emptyList(), g.getIncomingEdges(n));
+		assertEquals(Arrays.asList(nm), g.getIncomingEdges(m));
+		assertEquals(Arrays.asList(no, mo), g.getIncomingEdges(o));
+		assertEquals(Arrays.asList(n, m), g.getPredecessorNodes(o));
+		assertEquals(Arrays.asList(m, o), g.getSuccessorNodes(n));
+		assertEquals(2, n.getOutgoingEdges().size());
+		assertEquals(2, o.getPredecessorNodes().size());
+	}
+
+	@Test
+	public void updateOnEdgeListChange() {
+		Node n = new Node();
+		Node m = new Node();
+		Graph g = new Graph(Arrays.asList(n, m), Collections.<Edge> emptyList());
+		assertTrue(g.getOutgoingEdges(n).isEmpty());
+
+		Edge nm = new Edge(n, m);
+		g.getEdges().add(nm);
+		assertEquals(Arrays.asList(nm), g.getOutgoingEdges(n));
+		assertEquals(Arrays.asList(n), g.getPredecessorNodes(m));
+
+		Edge mn = new Edge(m, n);
+		g.getEdges().setAll(mn);
+		assertTrue(g.getIncomingEdges(m).isEmpty());
+		assertEquals(Arrays.asList(mn), g.getIncomingEdges(n));
+
+		g.getEdges().clear();
+		assertTrue(g.getIncomingEdges(n).isEmpty());
+		assertTrue(n.getIncomingEdges().isEmpty());
+	}
+
+	@Test
+	public void updateOnEdgeReconnect() {
+		Node n = new Node();
+		Node m = new Node();
+		Node o = new Node();
+		Edge nm = new Edge(n, m);
+		Graph g = new Graph(Arrays.asList(n, m, o), Arrays.asList(nm));
+
+		nm.setTarget(o);
+		assertTrue(g.getIncomingEdges(m).isEmpty());
+		assertEquals(Arrays.asList(nm), g.getIncomingEdges(o));
+
+		nm.setSource(m);
+		assertTrue(g.getOutgoingEdges(n).isEmpty());
+		assertEquals(Arrays.asList(o), g.getSuccessorNodes(m));
+
+		// detached edges are no longer reindexed
+		g.getEdges().remove(nm);
+		nm.setSource(n);
+		assertTrue(g.getOutgoingEdges(n).isEmpty());
+	}
+
+	@Test
+	public void updateOnEdgeRemoval() {
+		Node n = new Node();
+		Node m = new Node();
+		Node o = new Node();
+		Node p = new Node();
+		Edge nm = new Edge(n, m);
+		Edge no = new Edge(n, o);
+		Edge np = new Edge(n, p);
+		Graph g = new Graph(Arrays.asList(n, m, o, p), Arrays.asList(nm, no, np));
+
+		// the order of the remaining edges is preserved
+		g.getEdges().remove(no);
+		assertEquals(Arrays.asList(nm, np), g.getOutgoingEdges(n));
+		assertEquals(Arrays.asList(m, p), g.getSuccessorNodes(n));
+		assertTrue(g.getIncomingEdges(o).isEmpty());
+
+		// an edge that is contained twice is indexed until both are removed
+		g.getEdges().add(nm);
+		g.getEdges().remove(nm);
+		assertEquals(Arrays.asList(nm, np), g.getOutgoingEdges(n));
+		g.getEdges().remove(nm);
+		assertEquals(Arrays.asList(np), g.getOutgoingEdges(n));
+		assertTrue(g.getIncomingEdges(m).isEmpty());
+	}
+
+	@Test
+	public void updateOnNodeListChange() {
+		Node n = new Node();
+		Node m = new Node();
+		Node o = new Node();
+		Edge nm = new Edge(n, m);
+		Edge om = new Edge(o, m);
+		Graph g = new Graph(Arrays.asList(n, m, o), Arrays.asList(nm, om));
+
+		// the adjacency of removed nodes is dropped
+		g.getNodes().remove(m);
+		assertTrue(g.getIncomingEdges(m).isEmpty());
+		assertEquals(Arrays.asList(nm), g.getOutgoingEdges(n));
+
+		// and restored when they are added again
+		Edge mn = new Edge(m, n);
+		g.getEdges().add(mn);
+		g.getNodes().add(m);
+		assertEquals(Arrays.asList(nm, om), g.getIncomingEdges(m));
+		assertEquals(Arrays.asList(mn), g.getOutgoingEdges(m));
+		assertEquals(Arrays.asList(mn), g.getIncomingEdges(n));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void viewsAreReadOnly() {
+		Node n = new Node();
+		Node m = new Node();
+		Graph g = new Graph(Arrays.asList(n, m), Arrays.asList(new Edge(n, m)));
+		g.getOutgoingEdges(n).clear();
+	}
+}
@@ -13,9 +13,11 @@
  *******************************************************************************/
 package org.eclipse.gef.graph;
 
+import java.lang.ref.WeakReference;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -216,6 +218,9 @@ public class Edge implements IAttributeStore {
 	private Node source;
 	private Node target;
 	private Graph graph; // associated graph
+	// graphs whose edges contain this edge (referenced weakly, so that the
+	// graphs can be garbage collected while the edge is still referenced)
+	private List<WeakReference<Graph>> indexingGraphs;
 
 	/**
 	 * Constructs a new {@link Edge} which connects the given <i>source</i>
@@ -307,7 +312,11 @@ public class Edge implements IAttributeStore {
 	 *            The new source {@link Node} for this {@link Edge}.
 	 */
 	public void setSource(Node source) {
+		Node oldSource = this.source;
 		this.source = source;
+		if (oldSource != source) {
+			reindex(oldSource, target);
+		}
 	}
 
 	/**
@@ -317,7 +326,62 @@ public class Edge implements IAttributeStore {
 	 *            The new target {@link Node} for this {@link Edge}.
 	 */
 	public void setTarget(Node target) {
+		Node oldTarget = this.target;
 		this.target = target;
+		if (oldTarget != target) {
+			reindex(source, oldTarget);
+		}
+	}
+
+	private void reindex(Node oldSource, Node oldTarget) {
+		if (indexingGraphs != null) {
+			Iterator<WeakReference<Graph>> it = indexingGraphs.iterator();
+			while (it.hasNext()) {
+				Graph g = it.next().get();
+				if (g == null) {
+					it.remove();
+				} else {
+					g.reindex(this, oldSource, oldTarget);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Registers the given {@link Graph}, which contains this {@link Edge}, so
+	 * that its adjacency index is updated when the source or target of this
+	 * {@link Edge} changes. A {@link Graph} is registered once per occurrence
+	 * of this {@link Edge} within its edges.
+	 *
+	 * @param graph
+	 *            The {@link Graph} to register.
+	 */
+	void addIndexingGraph(Graph graph) {
+		if (indexingGraphs == null) {
+			indexingGraphs = new ArrayList<>(1);
+		}
+		indexingGraphs.add(new WeakReference<>(graph));
+	}
+
+	/**
+	 * Unregisters the given {@link Graph} (once).
+	 *
+	 * @param graph
+	 *            The {@link Graph} to unregister.
+	 */
+	void removeIndexingGraph(Graph graph) {
+		if (indexingGraphs != null) {
+			Iterator<WeakReference<Graph>> it = indexingGraphs.iterator();
+			boolean removed = false;
+			while (it.hasNext()) {
+				Graph g = it.next().get();
+				// prune references to graphs that were garbage collected
+				if (g == null || (!removed && g == graph)) {
+					removed |= g != null;
+					it.remove();
+				}
+			}
+		}
 	}
 
 	@Override
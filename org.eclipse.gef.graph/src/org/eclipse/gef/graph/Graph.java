@@ -13,16 +13,23 @@
  *******************************************************************************/
 package org.eclipse.gef.graph;
 
+import java.util.AbstractList;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.WeakHashMap;
 import java.util.function.BiConsumer;
 
 import org.eclipse.gef.common.attributes.IAttributeStore;
@@ -35,6 +42,7 @@ import javafx.beans.property.ReadOnlyListWrapper;
 import javafx.beans.property.ReadOnlyMapProperty;
 import javafx.beans.property.ReadOnlyMapWrapper;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.collections.ObservableMap;
 
@@ -48,6 +56,99 @@ import javafx.collections.ObservableMap;
  */
 public final class Graph implements IAttributeStore {
 
+	/**
+	 * The {@link Edge}s that are incident to a {@link Node} in a specific
+	 * direction, together with read-only views on them.
+	 */
+	private static final class Adjacency {
+
+		// the number of occurrences per edge within the edges of the graph, in
+		// insertion order, so that an edge can be removed in constant time
+		// (edges do not override equals(), i.e. they are compared by identity)
+		private final Map<Edge, Integer> edges = new LinkedHashMap<>(4);
+		private final List<Edge> edgesView;
+		private final List<Node> nodesView;
+
+		private Adjacency(final boolean incoming) {
+			edgesView = Collections.unmodifiableList(new AbstractList<Edge>() {
+				@Override
+				public Edge get(int index) {
+					return getEdge(index);
+				}
+
+				@Override
+				public Iterator<Edge> iterator() {
+					return edges.keySet().iterator();
+				}
+
+				@Override
+				public int size() {
+					return edges.size();
+				}
+			});
+			nodesView = Collections.unmodifiableList(new AbstractList<Node>() {
+				@Override
+				public Node get(int index) {
+					return getNode(getEdge(index));
+				}
+
+				private Node getNode(Edge edge) {
+					return incoming ? edge.getSource() : edge.getTarget();
+				}
+
+				@Override
+				public Iterator<Node> iterator() {
+					final Iterator<Edge> edgesIterator = edges.keySet()
+							.iterator();
+					return new Iterator<Node>() {
+						@Override
+						public boolean hasNext() {
+							return edgesIterator.hasNext();
+						}
+
+						@Override
+						public Node next() {
+							return getNode(edgesIterator.next());
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return edges.size();
+				}
+			});
+		}
+
+		private void add(Edge edge) {
+			Integer count = edges.get(edge);
+			edges.put(edge, count == null ? 1 : count + 1);
+		}
+
+		private Edge getEdge(int index) {
+			if (index < 0 || index >= edges.size()) {
+				throw new IndexOutOfBoundsException("Index: " + index);
+			}
+			Iterator<Edge> iterator = edges.keySet().iterator();
+			for (int i = 0; i < index; i++) {
+				iterator.next();
+			}
+			return iterator.next();
+		}
+
+		private void remove(Edge edge) {
+			Integer count = edges.get(edge);
+			if (count == null) {
+				return;
+			}
+			if (count > 1) {
+				edges.put(edge, count - 1);
+			} else {
+				edges.remove(edge);
+			}
+		}
+	}
+
 	/**
 	 * The {@link Builder} can be used to construct a new {@link Graph} little
 	 * by little.
@@ -331,6 +432,72 @@ public final class Graph implements IAttributeStore {
 	 */
 	private Node nestingNode; // when contained as a nested graph within a node
 
+	/**
+	 * Index of the incoming and outgoing {@link Edge}s per {@link Node}, which
+	 * is kept in sync with the {@link #edgesProperty() edges}.
+	 */
+	private final Map<Node, Adjacency> incomingAdjacency = new IdentityHashMap<>();
+	private final Map<Node, Adjacency> outgoingAdjacency = new IdentityHashMap<>();
+
+	/**
+	 * {@link Node}s that were removed from this {@link Graph} while they were
+	 * still connected by its {@link Edge}s, so that their adjacency has to be
+	 * re-computed when they are added again. The {@link Node}s are referenced
+	 * weakly, so that they can be garbage collected.
+	 */
+	private final Set<Node> unindexedNodes = Collections.newSetFromMap(new WeakHashMap<Node, Boolean>());
+
+	private final ListChangeListener<Node> nodesObserver = new ListChangeListener<Node>() {
+		@Override
+		public void onChanged(ListChangeListener.Change<? extends Node> change) {
+			List<Node> reindexedNodes = null;
+			while (change.next()) {
+				if (change.wasPermutated() || change.wasUpdated()) {
+					continue;
+				}
+				for (Node n : change.getRemoved()) {
+					// drop the adjacency, so that removed nodes are not retained
+					// by the index
+					boolean indexed = outgoingAdjacency.remove(n) != null;
+					indexed |= incomingAdjacency.remove(n) != null;
+					if (indexed) {
+						unindexedNodes.add(n);
+					}
+				}
+				for (Node n : change.getAddedSubList()) {
+					if (unindexedNodes.remove(n)) {
+						if (reindexedNodes == null) {
+							reindexedNodes = new ArrayList<>();
+						}
+						reindexedNodes.add(n);
+					}
+				}
+			}
+			if (reindexedNodes != null) {
+				reindex(reindexedNodes);
+			}
+		}
+	};
+
+	private final ListChangeListener<Edge> edgesObserver = new ListChangeListener<Edge>() {
+		@Override
+		public void onChanged(ListChangeListener.Change<? extends Edge> change) {
+			while (change.next()) {
+				if (change.wasPermutated() || change.wasUpdated()) {
+					continue;
+				}
+				for (Edge e : change.getRemoved()) {
+					unindex(e, e.getSource(), e.getTarget());
+					e.removeIndexingGraph(Graph.this);
+				}
+				for (Edge e : change.getAddedSubList()) {
+					index(e, e.getSource(), e.getTarget());
+					e.addIndexingGraph(Graph.this);
+				}
+			}
+		}
+	};
+
 	/**
 	 * Default constructor, using empty collections for attributes, nodes, and
 	 * edges.
@@ -366,6 +533,8 @@ public final class Graph implements IAttributeStore {
 	 *            List of {@link Edge}s.
 	 */
 	public Graph(Map<String, Object> attributes, Collection<? extends Node> nodes, Collection<? extends Edge> edges) {
+		this.nodesProperty.addListener(nodesObserver);
+		this.edgesProperty.addListener(edgesObserver);
 		this.attributesProperty.putAll(attributes);
 		this.nodesProperty.addAll(nodes);
 		this.edgesProperty.addAll(edges);
@@ -407,6 +576,152 @@ public final class Graph implements IAttributeStore {
 		return edgesProperty.getReadOnlyProperty();
 	}
 
+	/**
+	 * Returns a read-only view on the {@link Edge}s of this {@link Graph} that
+	 * target the given {@link Node}. The view is backed by an index that is
+	 * kept in sync with the {@link #getEdges() edges} of this {@link Graph},
+	 * so that the query takes constant time, and iterating the view takes
+	 * time linear in the number of incoming edges.
+	 *
+	 * @param node
+	 *            The {@link Node} for which to return the incoming
+	 *            {@link Edge}s.
+	 * @return A read-only view on the incoming {@link Edge}s of the given
+	 *         {@link Node}.
+	 */
+	public List<Edge> getIncomingEdges(Node node) {
+		Adjacency adjacency = incomingAdjacency.get(node);
+		return adjacency == null ? Collections.<Edge> emptyList()
+				: adjacency.edgesView;
+	}
+
+	/**
+	 * Returns a read-only view on the {@link Edge}s of this {@link Graph} that
+	 * originate at the given {@link Node}. The view is backed by an index that
+	 * is kept in sync with the {@link #getEdges() edges} of this {@link Graph}
+	 * , so that the query takes constant time, and iterating the view takes
+	 * time linear in the number of outgoing edges.
+	 *
+	 * @param node
+	 *            The {@link Node} for which to return the outgoing
+	 *            {@link Edge}s.
+	 * @return A read-only view on the outgoing {@link Edge}s of the given
+	 *         {@link Node}.
+	 */
+	public List<Edge> getOutgoingEdges(Node node) {
+		Adjacency adjacency = outgoingAdjacency.get(node);
+		return adjacency == null ? Collections.<Edge> emptyList()
+				: adjacency.edgesView;
+	}
+
+	/**
+	 * Returns a read-only view on the sources of the
+	 * {@link #getIncomingEdges(Node) incoming edges} of the given {@link Node}
+	 * . A predecessor is contained multiple times if it is connected to the
+	 * given {@link Node} by multiple {@link Edge}s.
+	 *
+	 * @param node
+	 *            The {@link Node} for which to return the predecessors.
+	 * @return A read-only view on the predecessors of the given {@link Node}.
+	 */
+	public List<Node> getPredecessorNodes(Node node) {
+		Adjacency adjacency = incomingAdjacency.get(node);
+		return adjacency == null ? Collections.<Node> emptyList()
+				: adjacency.nodesView;
+	}
+
+	/**
+	 * Returns a read-only view on the targets of the
+	 * {@link #getOutgoingEdges(Node) outgoing edges} of the given {@link Node}
+	 * . A successor is contained multiple times if it is connected to the
+	 * given {@link Node} by multiple {@link Edge}s.
+	 *
+	 * @param node
+	 *            The {@link Node} for which to return the successors.
+	 * @return A read-only view on the successors of the given {@link Node}.
+	 */
+	public List<Node> getSuccessorNodes(Node node) {
+		Adjacency adjacency = outgoingAdjacency.get(node);
+		return adjacency == null ? Collections.<Node> emptyList()
+				: adjacency.nodesView;
+	}
+
+	private void index(Edge edge, Node source, Node target) {
+		if (source != null) {
+			Adjacency adjacency = outgoingAdjacency.get(source);
+			if (adjacency == null) {
+				adjacency = new Adjacency(false);
+				outgoingAdjacency.put(source, adjacency);
+			}
+			adjacency.add(edge);
+		}
+		if (target != null) {
+			Adjacency adjacency = incomingAdjacency.get(target);
+			if (adjacency == null) {
+				adjacency = new Adjacency(true);
+				incomingAdjacency.put(target, adjacency);
+			}
+			adjacency.add(edge);
+		}
+	}
+
+	private void unindex(Edge edge, Node source, Node target) {
+		if (source != null) {
+			unindex(outgoingAdjacency, source, edge);
+		}
+		if (target != null) {
+			unindex(incomingAdjacency, target, edge);
+		}
+	}
+
+	private static void unindex(Map<Node, Adjacency> adjacencies, Node node,
+			Edge edge) {
+		Adjacency adjacency = adjacencies.get(node);
+		if (adjacency != null) {
+			adjacency.remove(edge);
+			if (adjacency.edges.isEmpty()) {
+				adjacencies.remove(node);
+			}
+		}
+	}
+
+	/**
+	 * Updates the adjacency index after the source or target of the given
+	 * {@link Edge}, which is contained in this {@link Graph}, changed.
+	 *
+	 * @param edge
+	 *            The {@link Edge} whose source or target changed.
+	 * @param oldSource
+	 *            The previous source of the {@link Edge}.
+	 * @param oldTarget
+	 *            The previous target of the {@link Edge}.
+	 */
+	void reindex(Edge edge, Node oldSource, Node oldTarget) {
+		unindex(edge, oldSource, oldTarget);
+		index(edge, edge.getSource(), edge.getTarget());
+	}
+
+	/**
+	 * Re-computes the adjacency of the given {@link Node}s, which were
+	 * removed from and added to this {@link Graph} again, from its
+	 * {@link Edge}s.
+	 */
+	private void reindex(List<Node> nodes) {
+		Set<Node> reindexedNodes = Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+		reindexedNodes.addAll(nodes);
+		for (Node n : reindexedNodes) {
+			// the node may have been connected while it was removed
+			outgoingAdjacency.remove(n);
+			incomingAdjacency.remove(n);
+		}
+		for (Edge e : edgesProperty) {
+			Node source = e.getSource();
+			Node target = e.getTarget();
+			index(e, reindexedNodes.contains(source) ? source : null,
+					reindexedNodes.contains(target) ? target : null);
+		}
+	}
+
 	/**
 	 * Returns the {@link Node} in which this {@link Graph} is nested. Returns
 	 * <code>null</code> when this {@link Graph} is not nested.
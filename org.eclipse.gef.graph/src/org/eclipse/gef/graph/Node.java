@@ -354,7 +354,9 @@ public class Node implements IAttributeStore {
 	/**
 	 * Returns the local incoming {@link Edge}s of this {@link Node}. Only the
 	 * {@link #getGraph() associated graph} is scanned for incoming edges, and
-	 * not the whole graph hierarchy.
+	 * not the whole graph hierarchy. Callers that only need to iterate the
+	 * edges should use {@link Graph#getIncomingEdges(Node)} instead, which
+	 * does not copy them.
 	 *
 	 * @return The local incoming {@link Edge}s.
 	 */
@@ -363,11 +365,7 @@ public class Node implements IAttributeStore {
 			return Collections.emptySet();
 		}
 		Set<Edge> incoming = Collections.newSetFromMap(new IdentityHashMap<Edge, Boolean>());
-		for (Edge e : graph.getEdges()) {
-			if (e.getTarget() == this) {
-				incoming.add(e);
-			}
-		}
+		incoming.addAll(graph.getIncomingEdges(this));
 		return incoming;
 	}
 
@@ -398,7 +396,9 @@ public class Node implements IAttributeStore {
 	/**
 	 * Returns the local outgoing {@link Edge}s of this {@link Node}. Only the
 	 * {@link #getGraph() associated graph} is scanned for outgoing edges, and
-	 * not the whole graph hierarchy.
+	 * not the whole graph hierarchy. Callers that only need to iterate the
+	 * edges should use {@link Graph#getOutgoingEdges(Node)} instead, which
+	 * does not copy them.
 	 *
 	 * @return The local outgoing {@link Edge}s.
 	 */
@@ -407,11 +407,7 @@ public class Node implements IAttributeStore {
 			return Collections.emptySet();
 		}
 		Set<Edge> outgoing = Collections.newSetFromMap(new IdentityHashMap<Edge, Boolean>());
-		for (Edge e : graph.getEdges()) {
-			if (e.getSource() == this) {
-				outgoing.add(e);
-			}
-		}
+		outgoing.addAll(graph.getOutgoingEdges(this));
 		return outgoing;
 	}
 
@@ -423,10 +419,11 @@ public class Node implements IAttributeStore {
 	 * @return The local predecessor {@link Node}s.
 	 */
 	public Set<Node> getPredecessorNodes() {
-		Set<Node> predecessors = Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
-		for (Edge incoming : getIncomingEdges()) {
-			predecessors.add(incoming.getSource());
+		if (graph == null) {
+			return Collections.emptySet();
 		}
+		Set<Node> predecessors = Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+		predecessors.addAll(graph.getPredecessorNodes(this));
 		return predecessors;
 	}
 
@@ -438,10 +435,11 @@ public class Node implements IAttributeStore {
 	 * @return The local successor {@link Node}s.
 	 */
 	public Set<Node> getSuccessorNodes() {
-		Set<Node> successors = Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
-		for (Edge outgoing : getOutgoingEdges()) {
-			successors.add(outgoing.getTarget());
+		if (graph == null) {
+			return Collections.emptySet();
 		}
+		Set<Node> successors = Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+		successors.addAll(graph.getSuccessorNodes(this));
 		return successors;
 	}
 
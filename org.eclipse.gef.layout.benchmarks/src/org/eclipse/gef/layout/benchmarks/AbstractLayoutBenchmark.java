@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthias Wienand (itemis AG) - initial API & implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.graph.Node;
+import org.eclipse.gef.layout.LayoutContext;
+import org.eclipse.gef.layout.LayoutProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Common base class of the layout benchmarks. It creates a {@link Graph} of
+ * the {@link GraphType} and size given by the subclass once per trial, and
+ * measures how many clean layout passes of the given
+ * {@link LayoutAlgorithmType} can be performed per second. Before each pass,
+ * the nodes are moved back to their initial (random) locations, so that every
+ * pass performs the same work.
+ * <p>
+ * The subclasses group algorithms of similar complexity, so that each of them
+ * can use a range of graph sizes that completes in reasonable time. The
+ * parameters can be overridden on the command line (e.g.
+ * <code>-p nodeCount=100,1000</code>).
+ *
+ * @author mwienand
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Djava.awt.headless=true", "-Xms2g",
+		"-Xmx2g" })
+public abstract class AbstractLayoutBenchmark {
+
+	/**
+	 * The seed used to create the graphs, so that all benchmarks (and all
+	 * runs) use the same graphs.
+	 */
+	public static final long SEED = 4711;
+
+	private Graph graph;
+	private LayoutContext context;
+	private Node[] nodes;
+	private Point[] initialLocations;
+
+	/**
+	 * Returns the {@link LayoutAlgorithmType} to benchmark.
+	 *
+	 * @return The {@link LayoutAlgorithmType} to benchmark.
+	 */
+	protected abstract LayoutAlgorithmType getAlgorithm();
+
+	/**
+	 * Returns the {@link GraphType} to lay out.
+	 *
+	 * @return The {@link GraphType} to lay out.
+	 */
+	protected abstract GraphType getGraphType();
+
+	/**
+	 * Returns the number of nodes of the graph to lay out.
+	 *
+	 * @return The number of nodes.
+	 */
+	protected abstract int getNodeCount();
+
+	/**
+	 * Creates the {@link Graph} and the {@link LayoutContext}.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		graph = getGraphType().createGraph(getNodeCount(), new Random(SEED));
+		List<Node> graphNodes = graph.getNodes();
+		nodes = graphNodes.toArray(new Node[graphNodes.size()]);
+		initialLocations = new Point[nodes.length];
+		for (int i = 0; i < nodes.length; i++) {
+			initialLocations[i] = LayoutProperties.getLocation(nodes[i])
+					.getCopy();
+		}
+		context = new LayoutContext();
+		context.setGraph(graph);
+		context.setLayoutAlgorithm(getAlgorithm().createLayoutAlgorithm());
+	}
+
+	/**
+	 * Restores the initial node locations. This is done outside of the
+	 * measurement; layouts take long enough that the timing overhead of
+	 * {@link Level#Invocation} does not matter.
+	 */
+	@Setup(Level.Invocation)
+	public void resetLocations() {
+		for (int i = 0; i < nodes.length; i++) {
+			LayoutProperties.setLocation(nodes[i],
+					initialLocations[i].getCopy());
+		}
+	}
+
+	/**
+	 * Performs a clean layout pass.
+	 *
+	 * @return The laid out {@link Graph}, so that the work cannot be
+	 *         eliminated.
+	 */
+	@Benchmark
+	public Graph applyLayout() {
+		context.applyLayout(true, null);
+		return graph;
+	}
+
+}
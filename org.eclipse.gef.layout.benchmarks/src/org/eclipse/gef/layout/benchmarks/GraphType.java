@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthias Wienand (itemis AG) - initial API & implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.gef.geometry.planar.Dimension;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.geometry.planar.Rectangle;
+import org.eclipse.gef.graph.Edge;
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.graph.Node;
+import org.eclipse.gef.layout.LayoutProperties;
+
+/**
+ * The kinds of synthetic {@link Graph}s that are used by the layout
+ * benchmarks. All graphs are created from a {@link Random} so that they can be
+ * reproduced. Nodes have random sizes and are placed at random locations within
+ * the graph's bounds, which grow with the number of nodes.
+ *
+ * @author mwienand
+ *
+ */
+public enum GraphType {
+
+	/**
+	 * A random graph with (on average) two edges per node.
+	 */
+	RANDOM {
+		@Override
+		protected void createEdges(List<Node> nodes, List<Edge> edges,
+				Random random) {
+			int n = nodes.size();
+			if (n < 2) {
+				return;
+			}
+			for (int i = 0; i < 2 * n; i++) {
+				int source = random.nextInt(n);
+				int target = random.nextInt(n - 1);
+				if (target >= source) {
+					target++;
+				}
+				edges.add(new Edge(nodes.get(source), nodes.get(target)));
+			}
+		}
+	},
+
+	/**
+	 * A scale-free graph created by preferential attachment
+	 * (Barabási-Albert), where every new node is connected to two existing
+	 * ones.
+	 */
+	SCALE_FREE {
+		@Override
+		protected void createEdges(List<Node> nodes, List<Edge> edges,
+				Random random) {
+			// every node occurs once per incident edge, so that picking a
+			// random entry is proportional to the degree
+			List<Node> endpoints = new ArrayList<>();
+			for (int i = 1; i < nodes.size(); i++) {
+				Node node = nodes.get(i);
+				for (int j = 0; j < Math.min(i, 2); j++) {
+					Node target = endpoints.isEmpty() ? nodes.get(0)
+							: endpoints.get(random.nextInt(endpoints.size()));
+					edges.add(new Edge(target, node));
+					endpoints.add(target);
+					endpoints.add(node);
+				}
+			}
+		}
+	},
+
+	/**
+	 * A random tree in which every inner node has one to four children.
+	 */
+	TREE {
+		@Override
+		protected void createEdges(List<Node> nodes, List<Edge> edges,
+				Random random) {
+			int parent = 0;
+			int next = 1;
+			while (next < nodes.size()) {
+				int children = 1 + random.nextInt(4);
+				for (int i = 0; i < children && next < nodes.size(); i++) {
+					edges.add(new Edge(nodes.get(parent), nodes.get(next++)));
+				}
+				parent++;
+			}
+		}
+	},
+
+	/**
+	 * A directed acyclic graph, whose nodes are partitioned into levels of
+	 * (about) the square root of the number of nodes. Every node below the
+	 * first level has one to three predecessors within the two levels above.
+	 */
+	DAG {
+		@Override
+		protected void createEdges(List<Node> nodes, List<Edge> edges,
+				Random random) {
+			int levelSize = Math.max(1, (int) Math.sqrt(nodes.size()));
+			for (int i = levelSize; i < nodes.size(); i++) {
+				int level = i / levelSize;
+				int first = Math.max(0, level - 2) * levelSize;
+				int last = level * levelSize;
+				int predecessors = 1 + random.nextInt(3);
+				for (int j = 0; j < predecessors; j++) {
+					int source = first + random.nextInt(last - first);
+					edges.add(new Edge(nodes.get(source), nodes.get(i)));
+				}
+			}
+		}
+	},
+
+	/**
+	 * A square grid, in which every node is connected to its right and lower
+	 * neighbor.
+	 */
+	GRID {
+		@Override
+		protected void createEdges(List<Node> nodes, List<Edge> edges,
+				Random random) {
+			int columns = (int) Math.ceil(Math.sqrt(nodes.size()));
+			for (int i = 0; i < nodes.size(); i++) {
+				if ((i + 1) % columns != 0 && i + 1 < nodes.size()) {
+					edges.add(new Edge(nodes.get(i), nodes.get(i + 1)));
+				}
+				if (i + columns < nodes.size()) {
+					edges.add(new Edge(nodes.get(i), nodes.get(i + columns)));
+				}
+			}
+		}
+	};
+
+	/**
+	 * Creates a new {@link Graph} of this type.
+	 *
+	 * @param nodeCount
+	 *            The number of nodes.
+	 * @param random
+	 *            The {@link Random} that determines sizes, locations, and
+	 *            edges.
+	 * @return A new {@link Graph} with the given number of nodes and with
+	 *         size, location, and bounds layout properties set.
+	 */
+	public Graph createGraph(int nodeCount, Random random) {
+		double extent = Math.max(1, Math.sqrt(nodeCount)) * 50;
+		List<Node> nodes = new ArrayList<>(nodeCount);
+		for (int i = 0; i < nodeCount; i++) {
+			Node node = new Node();
+			LayoutProperties.setSize(node, new Dimension(
+					10 + random.nextInt(30), 10 + random.nextInt(20)));
+			LayoutProperties.setLocation(node, new Point(
+					random.nextDouble() * extent, random.nextDouble() * extent));
+			nodes.add(node);
+		}
+		List<Edge> edges = new ArrayList<>();
+		createEdges(nodes, edges, random);
+		Graph graph = new Graph(nodes, edges);
+		LayoutProperties.setBounds(graph,
+				new Rectangle(0, 0, extent, extent));
+		return graph;
+	}
+
+	/**
+	 * Creates the edges of a graph of this type.
+	 *
+	 * @param nodes
+	 *            The nodes of the graph.
+	 * @param edges
+	 *            The list to which the created edges are added.
+	 * @param random
+	 *            The {@link Random} to use.
+	 */
+	protected abstract void createEdges(List<Node> nodes, List<Edge> edges,
+			Random random);
+
+}
@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthias Wienand (itemis AG) - initial API & implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout.benchmarks;
+
+import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.BoxLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.CompositeLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.GridLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.HorizontalShiftAlgorithm;
+import org.eclipse.gef.layout.algorithms.MultilevelLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.RadialLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.SpaceTreeLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.SpringLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.SugiyamaLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.SugiyamaLayoutAlgorithm.BrandesKoepfCoordinateAssigner;
+import org.eclipse.gef.layout.algorithms.SugiyamaLayoutAlgorithm.DFSLayerProvider;
+import org.eclipse.gef.layout.algorithms.SugiyamaLayoutAlgorithm.Direction;
+import org.eclipse.gef.layout.algorithms.SugiyamaLayoutAlgorithm.NetworkSimplexLayerProvider;
+import org.eclipse.gef.layout.algorithms.SugiyamaLayoutAlgorithm.SimpleLayerProvider;
+import org.eclipse.gef.layout.algorithms.TreeLayoutAlgorithm;
+
+/**
+ * The {@link ILayoutAlgorithm}s (and configurations thereof) that can be
+ * benchmarked. Configurations that are not the default (e.g. Barnes-Hut
+ * approximation or tidy tree placement) are listed separately, so that they
+ * can be compared against the default.
+ *
+ * @author mwienand
+ *
+ */
+public enum LayoutAlgorithmType {
+
+	/**
+	 * {@link BoxLayoutAlgorithm}
+	 */
+	BOX {
+		@Override
+		public ILayoutAlgorithm createLayoutAlgorithm() {
+			return new BoxLayoutAlgorithm();
+		}
+	},
+
+	/**
+	 * {@link GridLayoutAlgorithm}
+	 */
+	GRID {
+		@Override
+		public ILayoutAlgorithm createLayoutAlgorithm() {
+			return new GridLayoutAlgorithm();
+		}
+	},
+
+	/**
+	 * {@link HorizontalShiftAlgorithm}
+	 */
+	HORIZONTAL_SHIFT {
+		@Override
+		public ILayoutAlgorithm createLayoutAlgorithm() {
+			return new HorizontalShiftAlgorithm();
+		}
+	},
+
+	/**
+	 * {@link RadialLayoutAlgorithm}
+	 */
+	RADIAL {
+		@Override
+		public ILayoutAlgorithm createLayoutAlgorithm() {
+			return new RadialLayoutAlgorithm();
+		}
+	},
+
+	/**
+	 * {@link TreeLayoutAlgorithm}
+	 */
+	TREE {
+		@Override
+		public ILayoutAlgorithm createLayoutAlgorithm() {
+			return new TreeLayoutAlgorithm();
+		}
+	},
+
+	/**
+	 * {@link TreeLayoutAlgorithm} with tidy placement
+	 */
+	TREE_TIDY {
+		@Override
+		public ILayoutAlgorithm createLayoutAlgorithm() {
+			TreeLayoutAlgorithm algorithm = new TreeLayoutAlgorithm();
+			algorithm.setTidy(true);
+			return algorithm;
+		}
+	},
+
+	/**
+	 * {@link CompositeLayoutAlgorithm} combining a
+	 * {@link TreeLayoutAlgorithm} and a {@link HorizontalShiftAlgorithm}
+	 */
+	COMPOSITE {
+		@Override
+		public ILayoutAlgorithm createLayoutAlgorithm() {
+			return new CompositeLayoutAlgorithm(
+					new ILayoutAlgorithm[] { new TreeLayoutAlgorithm(),
+							new HorizontalShiftAlgorithm() });
+		}
+	},
+
+	/**
+	 * {@link SpaceTreeLayoutAlgorithm}
+	 */
+	SPACE_TREE {
+		@Override
+		public ILayoutAlgorithm createLayoutAlgorithm() {
+			return new SpaceTreeLayoutAlgorithm();
+		}
+	},
+
+	/**
+	 * {@link SpringLayoutAlgorithm} with exact force computation
+	 */
+	SPRING {
+		@Override
+		public ILayoutAlgorithm createLayoutAlgorithm() {
+			return createSpringLayoutAlgorithm(false);
+		}
+	},
+
+	/**
+	 * {@link SpringLayoutAlgorithm} with Barnes-Hut approximation
+	 */
+	SPRING_BARNES_HUT {
+		@Override
+		public ILayoutAlgorithm createLayoutAlgorithm() {
+			return createSpringLayoutAlgorithm(true);
+		}
+	},
+
+	/**
+	 * {@link MultilevelLayoutAlgorithm} with Barnes-Hut approximation
+	 */
+	MULTILEVEL {
+		@Override
+		public ILayoutAlgorithm createLayoutAlgorithm() {
+			return new MultilevelLayoutAlgorithm(
+					createSpringLayoutAlgorithm(true));
+		}
+	},
+
+	/**
+	 * {@link SugiyamaLayoutAlgorithm} with default strategies. Note that the
+	 * default {@link SimpleLayerProvider} only supports acyclic graphs with at
+	 * most 10 layers.
+	 */
+	SUGIYAMA {
+		@Override
+		public ILayoutAlgorithm createLayoutAlgorithm() {
+			return new SugiyamaLayoutAlgorithm();
+		}
+	},
+
+	/**
+	 * {@link SugiyamaLayoutAlgorithm} with {@link DFSLayerProvider}
+	 */
+	SUGIYAMA_DFS {
+		@Override
+		public ILayoutAlgorithm createLayoutAlgorithm() {
+			return new SugiyamaLayoutAlgorithm(Direction.VERTICAL,
+					new DFSLayerProvider());
+		}
+	},
+
+	/**
+	 * {@link SugiyamaLayoutAlgorithm} with {@link NetworkSimplexLayerProvider}
+	 * and {@link BrandesKoepfCoordinateAssigner}
+	 */
+	SUGIYAMA_NETWORK_SIMPLEX {
+		@Override
+		public ILayoutAlgorithm createLayoutAlgorithm() {
+			return new SugiyamaLayoutAlgorithm(Direction.VERTICAL, null,
+					new NetworkSimplexLayerProvider(), null,
+					new BrandesKoepfCoordinateAssigner());
+		}
+	};
+
+	/**
+	 * The number of iterations performed by the {@link SpringLayoutAlgorithm}
+	 * configurations. No timeout is used, so that the amount of work does not
+	 * depend on the speed of the machine.
+	 */
+	public static final int SPRING_ITERATIONS = 100;
+
+	private static SpringLayoutAlgorithm createSpringLayoutAlgorithm(
+			boolean barnesHut) {
+		SpringLayoutAlgorithm algorithm = new SpringLayoutAlgorithm();
+		algorithm.setRandom(false);
+		algorithm.setSpringTimeout(0);
+		algorithm.setIterations(SPRING_ITERATIONS);
+		algorithm.setBarnesHut(barnesHut);
+		return algorithm;
+	}
+
+	/**
+	 * Creates a new, configured instance of the {@link ILayoutAlgorithm}.
+	 *
+	 * @return A new {@link ILayoutAlgorithm}.
+	 */
+	public abstract ILayoutAlgorithm createLayoutAlgorithm();
+
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthias Wienand (itemis AG) - initial API & implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout.benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar. It accepts the regular JMH command line
+ * options, but, unless specified otherwise, writes the results as JSON (to
+ * {@value #DEFAULT_RESULT_FILE}) and measures allocation using the
+ * {@link GCProfiler}. For example, the following runs the tree layout
+ * benchmarks on graphs with 1,000 nodes:
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar ScalableLayoutBenchmark -p algorithm=TREE,TREE_TIDY -p nodeCount=1000
+ * </pre>
+ *
+ * @author mwienand
+ *
+ */
+public class LayoutBenchmarks {
+
+	/**
+	 * The file the results are written to, unless specified otherwise using
+	 * <code>-rff</code>.
+	 */
+	public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+	/**
+	 * Runs the benchmarks.
+	 *
+	 * @param args
+	 *            JMH command line options
+	 * @throws CommandLineOptionException
+	 *             if the options cannot be parsed
+	 * @throws RunnerException
+	 *             if running the benchmarks fails
+	 * @throws IOException
+	 *             if listing the benchmarks fails
+	 */
+	public static void main(String[] args) throws CommandLineOptionException,
+			RunnerException, IOException {
+		CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList()
+				|| commandLineOptions.shouldListProfilers()
+				|| commandLineOptions.shouldListResultFormats()) {
+			// let JMH handle informational requests
+			org.openjdk.jmh.Main.main(args);
+			return;
+		}
+		ChainedOptionsBuilder options = new OptionsBuilder()
+				.parent(commandLineOptions);
+		if (!commandLineOptions.getResultFormat().hasValue()) {
+			options.resultFormat(ResultFormatType.JSON);
+		}
+		if (!commandLineOptions.getResult().hasValue()) {
+			options.result(DEFAULT_RESULT_FILE);
+		}
+		if (commandLineOptions.getProfilers().isEmpty()) {
+			options.addProfiler(GCProfiler.class);
+		}
+		new Runner(options.build()).run();
+	}
+
+}
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthias Wienand (itemis AG) - initial API & implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout.benchmarks;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks the layout algorithms that (roughly) scale linearly with the
+ * size of the graph, on all {@link GraphType}s with up to 100,000 nodes.
+ *
+ * @author mwienand
+ *
+ */
+public class ScalableLayoutBenchmark extends AbstractLayoutBenchmark {
+
+	@Param({ "BOX", "GRID", "HORIZONTAL_SHIFT", "RADIAL", "TREE",
+			"TREE_TIDY", "COMPOSITE" })
+	public LayoutAlgorithmType algorithm;
+
+	@Param
+	public GraphType graphType;
+
+	@Param({ "100", "1000", "10000", "100000" })
+	public int nodeCount;
+
+	@Override
+	protected LayoutAlgorithmType getAlgorithm() {
+		return algorithm;
+	}
+
+	@Override
+	protected GraphType getGraphType() {
+		return graphType;
+	}
+
+	@Override
+	protected int getNodeCount() {
+		return nodeCount;
+	}
+
+}
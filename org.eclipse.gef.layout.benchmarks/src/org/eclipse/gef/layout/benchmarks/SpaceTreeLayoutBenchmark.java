@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthias Wienand (itemis AG) - initial API & implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout.benchmarks;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks the {@link org.eclipse.gef.layout.algorithms.SpaceTreeLayoutAlgorithm},
+ * which expects its input to be a tree.
+ *
+ * @author mwienand
+ *
+ */
+public class SpaceTreeLayoutBenchmark extends AbstractLayoutBenchmark {
+
+	@Param({ "SPACE_TREE" })
+	public LayoutAlgorithmType algorithm;
+
+	@Param({ "TREE" })
+	public GraphType graphType;
+
+	@Param({ "100", "1000" })
+	public int nodeCount;
+
+	@Override
+	protected LayoutAlgorithmType getAlgorithm() {
+		return algorithm;
+	}
+
+	@Override
+	protected GraphType getGraphType() {
+		return graphType;
+	}
+
+	@Override
+	protected int getNodeCount() {
+		return nodeCount;
+	}
+
+}
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthias Wienand (itemis AG) - initial API & implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout.benchmarks;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks the layered (Sugiyama) layout algorithms. The default
+ * configuration ({@link LayoutAlgorithmType#SUGIYAMA}) is not included, because
+ * it cannot handle most of the generated graphs (see there).
+ *
+ * @author mwienand
+ *
+ */
+public class SugiyamaLayoutBenchmark extends AbstractLayoutBenchmark {
+
+	@Param({ "SUGIYAMA_DFS", "SUGIYAMA_NETWORK_SIMPLEX" })
+	public LayoutAlgorithmType algorithm;
+
+	@Param
+	public GraphType graphType;
+
+	@Param({ "100", "1000" })
+	public int nodeCount;
+
+	@Override
+	protected LayoutAlgorithmType getAlgorithm() {
+		return algorithm;
+	}
+
+	@Override
+	protected GraphType getGraphType() {
+		return graphType;
+	}
+
+	@Override
+	protected int getNodeCount() {
+		return nodeCount;
+	}
+
+}
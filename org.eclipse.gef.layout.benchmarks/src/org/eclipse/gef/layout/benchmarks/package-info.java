@@ -0,0 +1,21 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthias Wienand (itemis AG) - initial API & implementation
+ *
+ *******************************************************************************/
+/**
+ * This package provides JMH benchmarks for the layout algorithms of
+ * {@link org.eclipse.gef.layout.algorithms}. They are built (headless) using
+ * the <code>benchmarks</code> Maven profile, which produces
+ * <code>target/benchmarks.jar</code>; see
+ * {@link org.eclipse.gef.layout.benchmarks.LayoutBenchmarks} for how to run
+ * them.
+ */
+package org.eclipse.gef.layout.benchmarks;
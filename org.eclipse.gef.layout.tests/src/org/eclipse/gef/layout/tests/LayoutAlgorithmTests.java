@@ -10,7 +10,48 @@
  *******************************************************************************/
 package org.eclipse.gef.layout.tests;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.eclipse.gef.geometry.planar.Dimension;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.geometry.planar.Rectangle;
+import org.eclipse.gef.graph.Edge;
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.graph.Node;
 import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.LayoutCache;
+import org.eclipse.gef.layout.LayoutContext;
+import org.eclipse.gef.layout.LayoutProperties;
+import org.eclipse.gef.layout.algorithms.ConnectedComponentsLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.GridLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.HorizontalShiftAlgorithm;
+import org.eclipse.gef.layout.algorithms.MultilevelLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.SpaceTreeLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.SpringLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.SugiyamaLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.SugiyamaLayoutAlgorithm.BarycentricCrossingReducer;
+import org.eclipse.gef.layout.algorithms.SugiyamaLayoutAlgorithm.BrandesKoepfCoordinateAssigner;
+import org.eclipse.gef.layout.algorithms.SugiyamaLayoutAlgorithm.CrossingCounter;
+import org.eclipse.gef.layout.algorithms.SugiyamaLayoutAlgorithm.NetworkSimplexLayerProvider;
+import org.eclipse.gef.layout.algorithms.SugiyamaLayoutAlgorithm.NodeWrapper;
+import org.eclipse.gef.layout.algorithms.SugiyamaLayoutAlgorithm.SimpleLayerProvider;
+import org.eclipse.gef.layout.algorithms.TreeLayoutAlgorithm;
 import org.eclipse.gef.layout.algorithms.TreeLayoutObserver;
 import org.junit.Assert;
 import org.junit.Test;
@@ -23,6 +64,27 @@ import org.junit.Test;
  */
 public class LayoutAlgorithmTests {
 
+	/* Counts the clean layout passes and iterations that are performed: */
+	private static class CountingSpringLayoutAlgorithm
+			extends SpringLayoutAlgorithm {
+		int cleanLayoutPasses;
+		int iterations;
+
+		@Override
+		protected void computeOneIteration() {
+			iterations++;
+			super.computeOneIteration();
+		}
+
+		@Override
+		public void applyLayout(boolean clean, Object extra) {
+			if (clean) {
+				cleanLayoutPasses++;
+			}
+			super.applyLayout(clean, extra);
+		}
+	}
+
 	/* Use a private subclass to access protected members: */
 	private static class TestNode extends TreeLayoutObserver.TreeNode {
 		protected TestNode() {
@@ -83,4 +145,1214 @@ public class LayoutAlgorithmTests {
 		Assert.assertFalse(node3.isAncestorOf(node4));
 		Assert.assertFalse(node4.isAncestorOf(node3));
 	}
+
+	/**
+	 * Creates a {@link Graph} with the given number of nodes, which are
+	 * arranged on a diagonal, and which are connected to form a "ladder", i.e.
+	 * each node is connected to its successor and to the node after its
+	 * successor.
+	 */
+	private static Graph createLadderGraph(int nodeCount) {
+		List<Node> nodes = new ArrayList<>();
+		List<Edge> edges = new ArrayList<>();
+		for (int i = 0; i < nodeCount; i++) {
+			Node node = new Node();
+			LayoutProperties.setLocation(node, new Point(i * 10, i * 10));
+			LayoutProperties.setSize(node, new Dimension(10, 10));
+			nodes.add(node);
+			if (i > 0) {
+				edges.add(new Edge(nodes.get(i - 1), node));
+			}
+			if (i > 1) {
+				edges.add(new Edge(nodes.get(i - 2), node));
+			}
+		}
+		Graph graph = new Graph(nodes, edges);
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 500, 500));
+		return graph;
+	}
+
+	private static LayoutContext createContext(Graph graph,
+			ILayoutAlgorithm algorithm) {
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		context.setLayoutAlgorithm(algorithm);
+		return context;
+	}
+
+	private static SpringLayoutAlgorithm createSpringLayoutAlgorithm() {
+		SpringLayoutAlgorithm algorithm = new SpringLayoutAlgorithm();
+		algorithm.setRandom(false);
+		algorithm.setSpringTimeout(0);
+		algorithm.setIterations(50);
+		return algorithm;
+	}
+
+	/**
+	 * Tests that the Barnes-Hut approximation of the
+	 * {@link SpringLayoutAlgorithm} yields the same layout as the exact
+	 * computation when the opening angle is zero.
+	 */
+	@Test
+	public void testSpringLayoutBarnesHutWithoutApproximation() {
+		Graph exactGraph = createLadderGraph(40);
+		createContext(exactGraph, createSpringLayoutAlgorithm())
+				.applyLayout(true, null);
+
+		Graph barnesHutGraph = createLadderGraph(40);
+		SpringLayoutAlgorithm barnesHut = createSpringLayoutAlgorithm();
+		barnesHut.setBarnesHut(true);
+		barnesHut.setBarnesHutTheta(0);
+		createContext(barnesHutGraph, barnesHut).applyLayout(true, null);
+
+		for (int i = 0; i < exactGraph.getNodes().size(); i++) {
+			Point expected = LayoutProperties
+					.getLocation(exactGraph.getNodes().get(i));
+			Point actual = LayoutProperties
+					.getLocation(barnesHutGraph.getNodes().get(i));
+			Assert.assertEquals(expected.x, actual.x, 1e-3);
+			Assert.assertEquals(expected.y, actual.y, 1e-3);
+		}
+	}
+
+	/**
+	 * Tests that the Barnes-Hut approximation of the
+	 * {@link SpringLayoutAlgorithm} keeps all nodes within the layout bounds.
+	 */
+	@Test
+	public void testSpringLayoutBarnesHut() {
+		Graph graph = createLadderGraph(200);
+		SpringLayoutAlgorithm algorithm = createSpringLayoutAlgorithm();
+		algorithm.setBarnesHut(true);
+		createContext(graph, algorithm).applyLayout(true, null);
+
+		Rectangle bounds = LayoutProperties.getBounds(graph)
+				.getExpanded(1, 1);
+		for (Node node : graph.getNodes()) {
+			Assert.assertTrue(
+					bounds.contains(LayoutProperties.getLocation(node)));
+		}
+	}
+
+	/**
+	 * Tests that the parallel force computation of the
+	 * {@link SpringLayoutAlgorithm} is deterministic and yields the same layout
+	 * as the sequential computation (up to rounding, which is amplified by
+	 * subsequent iterations, so only a few iterations are performed).
+	 */
+	@Test
+	public void testSpringLayoutParallel() {
+		for (boolean barnesHut : new boolean[] { false, true }) {
+			Graph sequentialGraph = createLadderGraph(100);
+			SpringLayoutAlgorithm sequential = createSpringLayoutAlgorithm();
+			sequential.setBarnesHut(barnesHut);
+			sequential.setIterations(10);
+			createContext(sequentialGraph, sequential).applyLayout(true, null);
+
+			Graph[] parallelGraphs = new Graph[] { createLadderGraph(100),
+					createLadderGraph(100) };
+			for (Graph parallelGraph : parallelGraphs) {
+				SpringLayoutAlgorithm parallel = createSpringLayoutAlgorithm();
+				parallel.setBarnesHut(barnesHut);
+				parallel.setParallelism(4);
+				parallel.setIterations(10);
+				createContext(parallelGraph, parallel).applyLayout(true, null);
+			}
+
+			for (int i = 0; i < sequentialGraph.getNodes().size(); i++) {
+				Point expected = LayoutProperties
+						.getLocation(sequentialGraph.getNodes().get(i));
+				Point first = LayoutProperties
+						.getLocation(parallelGraphs[0].getNodes().get(i));
+				Point second = LayoutProperties
+						.getLocation(parallelGraphs[1].getNodes().get(i));
+				Assert.assertEquals(first, second);
+				Assert.assertEquals(expected.x, first.x, 1e-6);
+				Assert.assertEquals(expected.y, first.y, 1e-6);
+			}
+		}
+	}
+
+	/**
+	 * Tests that a non-clean layout pass keeps the positions of the nodes that
+	 * are not affected by the changes since the last layout pass.
+	 */
+	@Test
+	public void testIncrementalLayout() {
+		ILayoutAlgorithm[] algorithms = new ILayoutAlgorithm[] {
+				new TreeLayoutAlgorithm(), new SugiyamaLayoutAlgorithm(),
+				createSpringLayoutAlgorithm() };
+		for (ILayoutAlgorithm algorithm : algorithms) {
+			// two trees: a -> b, a -> c, and d -> e
+			List<Node> nodes = new ArrayList<>();
+			for (int i = 0; i < 5; i++) {
+				Node node = new Node();
+				LayoutProperties.setSize(node, new Dimension(10, 10));
+				nodes.add(node);
+			}
+			List<Edge> edges = new ArrayList<>();
+			edges.add(new Edge(nodes.get(0), nodes.get(1)));
+			edges.add(new Edge(nodes.get(0), nodes.get(2)));
+			edges.add(new Edge(nodes.get(3), nodes.get(4)));
+			Graph graph = new Graph(nodes, edges);
+			LayoutProperties.setBounds(graph, new Rectangle(0, 0, 500, 500));
+			LayoutContext context = createContext(graph, algorithm);
+			context.applyLayout(true, null);
+			List<Point> locations = new ArrayList<>();
+			for (Node node : nodes) {
+				locations.add(LayoutProperties.getLocation(node).getCopy());
+			}
+
+			// add a child to b
+			Node f = new Node();
+			LayoutProperties.setSize(f, new Dimension(10, 10));
+			graph.getNodes().add(f);
+			graph.getEdges().add(new Edge(nodes.get(1), f));
+			context.applyLayout(false, null);
+
+			Assert.assertNotNull(LayoutProperties.getLocation(f));
+			for (int i = 3; i < 5; i++) {
+				Assert.assertEquals(algorithm.toString(), locations.get(i),
+						LayoutProperties.getLocation(nodes.get(i)));
+			}
+			if (!(algorithm instanceof SpringLayoutAlgorithm)) {
+				// the root of the affected tree keeps its position, too
+				Assert.assertEquals(locations.get(0),
+						LayoutProperties.getLocation(nodes.get(0)));
+			}
+		}
+	}
+
+	/**
+	 * Creates a graph of two trees (a -> b, a -> c, and d -> e) with the
+	 * given layout bounds.
+	 */
+	private static Graph createForest(Rectangle bounds) {
+		List<Node> nodes = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			Node node = new Node();
+			LayoutProperties.setSize(node, new Dimension(10, 10));
+			nodes.add(node);
+		}
+		List<Edge> edges = new ArrayList<>();
+		edges.add(new Edge(nodes.get(0), nodes.get(1)));
+		edges.add(new Edge(nodes.get(0), nodes.get(2)));
+		edges.add(new Edge(nodes.get(3), nodes.get(4)));
+		Graph graph = new Graph(nodes, edges);
+		LayoutProperties.setBounds(graph, bounds);
+		return graph;
+	}
+
+	private static List<Point> getLocations(Graph graph) {
+		List<Point> locations = new ArrayList<>();
+		for (Node node : graph.getNodes()) {
+			locations.add(LayoutProperties.getLocation(node).getCopy());
+		}
+		return locations;
+	}
+
+	/**
+	 * Tests that the trees that are re-computed by a non-clean pass of the
+	 * {@link TreeLayoutAlgorithm} are scaled like in the last clean pass, and
+	 * that a clean pass is performed if the bounds changed in the meantime.
+	 */
+	@Test
+	public void testTreeIncrementalLayoutScaling() {
+		Graph graph = createForest(new Rectangle(0, 0, 500, 500));
+		LayoutContext context = createContext(graph,
+				new TreeLayoutAlgorithm());
+		context.applyLayout(true, null);
+		List<Point> locations = getLocations(graph);
+
+		// re-compute the first tree, which does not change its structure
+		context.markChanged(graph.getNodes().get(1));
+		context.applyLayout(false, null);
+		Assert.assertEquals(locations, getLocations(graph));
+
+		// enlarge the bounds
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 1000, 1000));
+		context.markChanged(graph.getNodes().get(4));
+		context.applyLayout(false, null);
+		List<Point> incrementalLocations = getLocations(graph);
+		context.applyLayout(true, null);
+		Assert.assertEquals(getLocations(graph), incrementalLocations);
+	}
+
+	/**
+	 * Tests that a non-clean pass of the {@link SugiyamaLayoutAlgorithm}
+	 * preserves the layout of the unchanged nodes when the passes are
+	 * performed asynchronously, i.e. for copies of the graph, and that a clean
+	 * pass is performed if the bounds changed in the meantime.
+	 */
+	@Test
+	public void testSugiyamaIncrementalLayoutAfterAsyncLayout()
+			throws Exception {
+		Graph graph = createForest(new Rectangle(0, 0, 500, 500));
+		LayoutContext context = createContext(graph,
+				new SugiyamaLayoutAlgorithm());
+		Executor direct = Runnable::run;
+		context.setLayoutExecutor(direct);
+		context.setResultExecutor(direct);
+		context.applyLayoutAsync(true, null).get();
+		List<Point> locations = getLocations(graph);
+
+		// move a node out of its layer, which is re-placed within its layer
+		// while the other nodes keep their locations (even if they were
+		// moved within their layer)
+		Node moved = graph.getNodes().get(2);
+		LayoutProperties.setLocation(moved, new Point(1000, 1000));
+		locations.get(4).translate(1, 0);
+		LayoutProperties.setLocation(graph.getNodes().get(4),
+				locations.get(4).getCopy());
+		context.markChanged(moved);
+		context.applyLayoutAsync(false, null).get();
+		List<Point> incrementalLocations = getLocations(graph);
+		for (int i = 0; i < locations.size(); i++) {
+			if (i != 2) {
+				Assert.assertEquals(locations.get(i),
+						incrementalLocations.get(i));
+			}
+		}
+		Assert.assertEquals(locations.get(1).y,
+				incrementalLocations.get(2).y, 0);
+		Assert.assertNotEquals(locations.get(1).x,
+				incrementalLocations.get(2).x, 0);
+
+		// enlarge the bounds
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 1000, 1000));
+		context.markChanged(moved);
+		context.applyLayoutAsync(false, null).get();
+		incrementalLocations = getLocations(graph);
+		context.applyLayout(true, null);
+		Assert.assertEquals(getLocations(graph), incrementalLocations);
+	}
+
+	/**
+	 * Tests that the {@link CrossingCounter} yields the same number of
+	 * crossings as a pairwise comparison of all edges.
+	 */
+	@Test
+	public void testCrossingCounter() {
+		Random random = new Random(0);
+		for (int run = 0; run < 20; run++) {
+			int edgeCount = random.nextInt(100);
+			int[] sources = new int[edgeCount];
+			int[] targets = new int[edgeCount];
+			for (int e = 0; e < edgeCount; e++) {
+				sources[e] = random.nextInt(10);
+				targets[e] = random.nextInt(20);
+			}
+			long expected = 0;
+			for (int e = 0; e < edgeCount; e++) {
+				for (int f = 0; f < edgeCount; f++) {
+					if (sources[e] < sources[f] && targets[e] > targets[f]) {
+						expected++;
+					}
+				}
+			}
+			Assert.assertEquals(expected, CrossingCounter
+					.countCrossings(sources, targets, edgeCount));
+		}
+	}
+
+	/**
+	 * Tests that multiple (parallel) starts of the
+	 * {@link BarycentricCrossingReducer} do not yield more crossings than a
+	 * single start.
+	 */
+	@Test
+	public void testBarycentricCrossingReducerMultiStart() {
+		long[] crossings = new long[2];
+		for (int i = 0; i < crossings.length; i++) {
+			// random layered graph
+			Random random = new Random(0);
+			List<Node> nodes = new ArrayList<>();
+			List<Edge> edges = new ArrayList<>();
+			for (int n = 0; n < 60; n++) {
+				Node node = new Node();
+				if (n >= 10) {
+					for (int e = 0; e < 2; e++) {
+						int layer = n / 10 - 1;
+						edges.add(new Edge(
+								nodes.get(layer * 10 + random.nextInt(10)),
+								node));
+					}
+				}
+				nodes.add(node);
+			}
+			Graph graph = new Graph(nodes, edges);
+			LayoutProperties.setBounds(graph, new Rectangle(0, 0, 500, 500));
+			BarycentricCrossingReducer reducer = new BarycentricCrossingReducer();
+			if (i == 1) {
+				reducer.setStarts(4);
+				reducer.setParallelism(2);
+			}
+			List<List<NodeWrapper>> layers = new SimpleLayerProvider()
+					.calculateLayers(new ArrayList<>(nodes));
+			reducer.crossReduction(layers);
+			crossings[i] = CrossingCounter.countCrossings(layers);
+			for (List<NodeWrapper> layer : layers) {
+				Assert.assertEquals(10, layer.size());
+			}
+		}
+		Assert.assertTrue(crossings[1] <= crossings[0]);
+	}
+
+	@Test
+	public void testBrandesKoepfCoordinateAssigner() {
+		// random layered graph with long edges
+		Random random = new Random(0);
+		List<Node> nodes = new ArrayList<>();
+		List<Edge> edges = new ArrayList<>();
+		for (int n = 0; n < 50; n++) {
+			Node node = new Node();
+			if (n >= 10) {
+				int layer = n / 10 - 1;
+				edges.add(new Edge(nodes.get(layer * 10 + random.nextInt(10)),
+						node));
+				edges.add(new Edge(nodes.get(random.nextInt(10)), node));
+			}
+			nodes.add(node);
+		}
+		Graph graph = new Graph(nodes, edges);
+		List<List<NodeWrapper>> layers = new SimpleLayerProvider()
+				.calculateLayers(new ArrayList<>(nodes));
+		new BarycentricCrossingReducer().crossReduction(layers);
+		Map<NodeWrapper, Double> positions = new BrandesKoepfCoordinateAssigner()
+				.assignCoordinates(layers);
+		for (List<NodeWrapper> layer : layers) {
+			for (int i = 0; i < layer.size(); i++) {
+				Assert.assertTrue(positions.get(layer.get(i)) >= 0);
+				if (i > 0) {
+					Assert.assertTrue(positions.get(layer.get(i))
+							- positions.get(layer.get(i - 1)) >= 1 - 1e-9);
+				}
+			}
+		}
+
+		// all nodes are placed within the bounds
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 500, 500));
+		LayoutContext context = createContext(graph,
+				new SugiyamaLayoutAlgorithm(
+						SugiyamaLayoutAlgorithm.Direction.VERTICAL, null, null,
+						null, new BrandesKoepfCoordinateAssigner()));
+		context.applyLayout(true, null);
+		for (Node node : nodes) {
+			Point location = LayoutProperties.getLocation(node);
+			Assert.assertTrue(location.x >= 0 && location.x <= 500);
+			Assert.assertTrue(location.y >= 0 && location.y <= 500);
+		}
+	}
+
+	/**
+	 * Tests that the {@link BrandesKoepfCoordinateAssigner} separates the
+	 * adjacent nodes of each layer for random graphs with long edges, whose
+	 * blocks are compacted into several classes.
+	 */
+	@Test
+	public void testBrandesKoepfCoordinateAssignerSeparation() {
+		for (int seed = 0; seed < 20; seed++) {
+			Random random = new Random(seed);
+			List<Node> nodes = new ArrayList<>();
+			List<Edge> edges = new ArrayList<>();
+			for (int n = 0; n < 100; n++) {
+				Node node = new Node();
+				int edgeCount = n == 0 ? 0 : 1 + random.nextInt(3);
+				for (int e = 0; e < edgeCount; e++) {
+					edges.add(new Edge(nodes.get(random.nextInt(n)), node));
+				}
+				nodes.add(node);
+			}
+			new Graph(nodes, edges);
+			List<List<NodeWrapper>> layers = new NetworkSimplexLayerProvider()
+					.calculateLayers(new ArrayList<>(nodes));
+			new BarycentricCrossingReducer().crossReduction(layers);
+			Map<NodeWrapper, Double> positions = new BrandesKoepfCoordinateAssigner()
+					.assignCoordinates(layers);
+			for (List<NodeWrapper> layer : layers) {
+				for (int i = 1; i < layer.size(); i++) {
+					Assert.assertTrue(positions.get(layer.get(i))
+							- positions.get(layer.get(i - 1)) >= 1 - 1e-9);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testNetworkSimplexLayerProvider() {
+		// random graph with long edges and cycles
+		Random random = new Random(0);
+		List<Node> nodes = new ArrayList<>();
+		List<Edge> edges = new ArrayList<>();
+		for (int n = 0; n < 200; n++) {
+			Node node = new Node();
+			nodes.add(node);
+			if (n > 0) {
+				edges.add(new Edge(nodes.get(n - 1 - random.nextInt(n)), node));
+				edges.add(new Edge(nodes.get(random.nextInt(n)), node));
+			}
+			if (n > 5 && random.nextInt(10) == 0) {
+				edges.add(new Edge(node, nodes.get(n - 5)));
+			}
+		}
+		Graph graph = new Graph(nodes, edges);
+
+		int[] dummies = new int[2];
+		for (int i = 0; i < dummies.length; i++) {
+			NetworkSimplexLayerProvider provider = new NetworkSimplexLayerProvider();
+			if (i == 0) {
+				// longest path layering
+				provider.setMaxIterations(0);
+			}
+			for (List<NodeWrapper> layer : provider
+					.calculateLayers(new ArrayList<>(nodes))) {
+				dummies[i] += layer.size();
+			}
+			dummies[i] -= nodes.size();
+		}
+		Assert.assertTrue(dummies[1] < dummies[0]);
+
+		// adjacent nodes are placed on different layers
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 500, 500));
+		createContext(graph,
+				new SugiyamaLayoutAlgorithm(
+						SugiyamaLayoutAlgorithm.Direction.VERTICAL,
+						new NetworkSimplexLayerProvider()))
+								.applyLayout(true, null);
+		for (Edge edge : edges) {
+			Assert.assertNotEquals(
+					LayoutProperties.getLocation(edge.getSource()).y,
+					LayoutProperties.getLocation(edge.getTarget()).y, 1e-9);
+		}
+	}
+
+	@Test
+	public void testTreeLayoutObserverDeepTree() {
+		// a long chain with a leaf at each node, given in reverse order
+		int depth = 20000;
+		List<Node> nodes = new ArrayList<>();
+		List<Edge> edges = new ArrayList<>();
+		for (int i = 0; i < depth; i++) {
+			Node node = new Node();
+			Node leaf = new Node();
+			if (i > 0) {
+				edges.add(new Edge(nodes.get(nodes.size() - 2), node));
+			}
+			edges.add(new Edge(node, leaf));
+			nodes.add(node);
+			nodes.add(leaf);
+		}
+		for (Node node : nodes) {
+			LayoutProperties.setSize(node, new Dimension(10, 10));
+		}
+		Collections.reverse(nodes);
+		Graph graph = new Graph(nodes, edges);
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 500, 500));
+		LayoutContext context = createContext(graph, new TreeLayoutAlgorithm());
+
+		TreeLayoutObserver observer = new TreeLayoutObserver(context, null);
+		TreeLayoutObserver.TreeNode superRoot = observer.getSuperRoot();
+		Assert.assertEquals(1, superRoot.getChildren().size());
+		Assert.assertEquals(depth + 1, superRoot.getHeight());
+		Assert.assertEquals(depth, superRoot.getNumOfLeaves());
+		Assert.assertEquals(2 * depth, superRoot.getNumOfDescendants());
+		TreeLayoutObserver.TreeNode deepest = observer
+				.getTreeNode(nodes.get(1));
+		Assert.assertEquals(depth - 1, deepest.getDepth());
+
+		context.applyLayout(true, null);
+		for (Node node : nodes) {
+			Assert.assertNotNull(LayoutProperties.getLocation(node));
+		}
+	}
+
+	@Test
+	public void testTidyTreeLayout() {
+		// random tree with differently sized nodes
+		Random random = new Random(0);
+		List<Node> nodes = new ArrayList<>();
+		List<Edge> edges = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			Node node = new Node();
+			LayoutProperties.setSize(node, new Dimension(5 + random.nextInt(30),
+					5 + random.nextInt(30)));
+			if (i > 0) {
+				edges.add(new Edge(
+						nodes.get(i - 1 - random.nextInt(Math.min(i, 10))),
+						node));
+			}
+			nodes.add(node);
+		}
+		Graph graph = new Graph(nodes, edges);
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 500, 500));
+
+		for (int direction : new int[] { TreeLayoutAlgorithm.TOP_DOWN,
+				TreeLayoutAlgorithm.BOTTOM_UP, TreeLayoutAlgorithm.LEFT_RIGHT,
+				TreeLayoutAlgorithm.RIGHT_LEFT }) {
+			TreeLayoutAlgorithm algorithm = new TreeLayoutAlgorithm(direction);
+			algorithm.setTidy(true);
+			LayoutContext context = createContext(graph, algorithm);
+			context.applyLayout(true, null);
+
+			// nodes do not overlap
+			for (int i = 0; i < nodes.size(); i++) {
+				Rectangle r1 = getBounds(nodes.get(i));
+				for (int j = i + 1; j < nodes.size(); j++) {
+					Rectangle r2 = getBounds(nodes.get(j));
+					Assert.assertFalse(r1.getX() < r2.getRight().x - 1e-6
+							&& r2.getX() < r1.getRight().x - 1e-6
+							&& r1.getY() < r2.getBottom().y - 1e-6
+							&& r2.getY() < r1.getBottom().y - 1e-6);
+				}
+			}
+
+			// parents are centered at their children
+			boolean vertical = direction == TreeLayoutAlgorithm.TOP_DOWN
+					|| direction == TreeLayoutAlgorithm.BOTTOM_UP;
+			for (Node node : nodes) {
+				List<Node> children = new ArrayList<>(
+						node.getSuccessorNodes());
+				if (!children.isEmpty()) {
+					double min = Double.POSITIVE_INFINITY;
+					double max = Double.NEGATIVE_INFINITY;
+					for (Node child : children) {
+						Point location = LayoutProperties.getLocation(child);
+						min = Math.min(min, vertical ? location.x : location.y);
+						max = Math.max(max, vertical ? location.x : location.y);
+					}
+					Point location = LayoutProperties.getLocation(node);
+					Assert.assertEquals((min + max) / 2,
+							vertical ? location.x : location.y, 1e-6);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSpaceTreeLayoutChain() {
+		// chains force many moves that are reverted again
+		List<Node> nodes = new ArrayList<>();
+		List<Edge> edges = new ArrayList<>();
+		for (int i = 0; i < 60; i++) {
+			Node node = new Node();
+			LayoutProperties.setSize(node, new Dimension(10 + i % 7, 10));
+			LayoutProperties.setLocation(node, new Point());
+			if (i > 0) {
+				edges.add(new Edge(nodes.get(i - 1), node));
+			}
+			nodes.add(node);
+		}
+		Graph graph = new Graph(nodes, edges);
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 500, 500));
+		LayoutContext context = createContext(graph,
+				new SpaceTreeLayoutAlgorithm());
+		context.applyLayout(true, null);
+		List<Point> locations = new ArrayList<>();
+		for (Node node : nodes) {
+			locations.add(LayoutProperties.getLocation(node));
+		}
+
+		// a second run yields the same result
+		context.applyLayout(true, null);
+		for (int i = 0; i < nodes.size(); i++) {
+			Assert.assertEquals(locations.get(i),
+					LayoutProperties.getLocation(nodes.get(i)));
+		}
+		for (int i = 1; i < nodes.size(); i++) {
+			Assert.assertTrue(LayoutProperties.getLocation(nodes.get(i - 1)).y
+					< LayoutProperties.getLocation(nodes.get(i)).y);
+		}
+	}
+
+	@Test
+	public void testSpaceTreeLayoutCollapse() {
+		// a root with three children, each having three children of their own
+		List<Node> nodes = new ArrayList<>();
+		List<Edge> edges = new ArrayList<>();
+		for (int i = 0; i < 13; i++) {
+			Node node = new Node();
+			LayoutProperties.setSize(node, new Dimension(20, 10));
+			LayoutProperties.setLocation(node, new Point());
+			if (i > 0) {
+				edges.add(new Edge(nodes.get((i - 1) / 3), node));
+			}
+			nodes.add(node);
+		}
+		Graph graph = new Graph(nodes, edges);
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 500, 500));
+		SpaceTreeLayoutAlgorithm algorithm = new SpaceTreeLayoutAlgorithm();
+		LayoutContext context = createContext(graph, algorithm);
+		context.applyLayout(true, null);
+		List<Point> locations = new ArrayList<>();
+		for (Node node : nodes) {
+			locations.add(LayoutProperties.getLocation(node));
+		}
+
+		// locations that are set by the next pass have been recomputed
+		Point unchanged = new Point(-1, -1);
+		for (Node node : nodes) {
+			LayoutProperties.setLocation(node, unchanged);
+		}
+		Node branch = nodes.get(2);
+		Assert.assertTrue(algorithm.isExpanded(branch));
+		algorithm.setExpanded(branch, false);
+		Assert.assertFalse(algorithm.isExpanded(branch));
+		context.applyLayout(false, null);
+
+		// only the collapsed branch and its ancestor are recomputed
+		for (int i = 0; i < nodes.size(); i++) {
+			Point location = LayoutProperties.getLocation(nodes.get(i));
+			if (i == 0 || i == 2) {
+				Assert.assertEquals(locations.get(i), location);
+			} else {
+				Assert.assertEquals(unchanged, location);
+			}
+		}
+
+		// expanding the branch shows its children again (centered below it)
+		algorithm.setExpanded(branch, true);
+		Assert.assertTrue(algorithm.isExpanded(branch));
+		context.applyLayout(false, null);
+		double sum = 0;
+		for (int i = 7; i < 10; i++) {
+			Point location = LayoutProperties.getLocation(nodes.get(i));
+			Assert.assertEquals(locations.get(i).y, location.y, 1e-6);
+			sum += location.x;
+		}
+		Assert.assertEquals(LayoutProperties.getLocation(branch).x, sum / 3,
+				1e-6);
+	}
+
+	@Test
+	public void testLayoutCache() {
+		Graph graph = createLadderGraph(20);
+		CountingSpringLayoutAlgorithm algorithm = new CountingSpringLayoutAlgorithm();
+		algorithm.setSpringTimeout(0);
+		algorithm.setIterations(20);
+		LayoutContext context = createContext(graph, algorithm);
+		LayoutCache cache = new LayoutCache();
+		context.setLayoutCache(cache);
+		context.applyLayout(true, null);
+		Assert.assertEquals(1, algorithm.cleanLayoutPasses);
+		Assert.assertEquals(1, cache.getMissCount());
+		List<Point> locations = new ArrayList<>();
+		for (Node node : graph.getNodes()) {
+			locations.add(LayoutProperties.getLocation(node).getCopy());
+			LayoutProperties.setLocation(node, new Point());
+		}
+
+		// the cached result is restored without applying the algorithm
+		context.applyLayout(true, null);
+		Assert.assertEquals(1, algorithm.cleanLayoutPasses);
+		Assert.assertEquals(1, cache.getHitCount());
+		for (int i = 0; i < locations.size(); i++) {
+			Assert.assertEquals(locations.get(i), LayoutProperties
+					.getLocation(graph.getNodes().get(i)));
+		}
+
+		// parameters, sizes, and topology are part of the fingerprint
+		algorithm.setSpringLength(algorithm.getSpringLength() * 2);
+		context.applyLayout(true, null);
+		Assert.assertEquals(2, algorithm.cleanLayoutPasses);
+		LayoutProperties.setSize(graph.getNodes().get(0),
+				new Dimension(20, 20));
+		context.applyLayout(true, null);
+		Assert.assertEquals(3, algorithm.cleanLayoutPasses);
+		graph.getEdges().remove(0);
+		context.applyLayout(true, null);
+		Assert.assertEquals(4, algorithm.cleanLayoutPasses);
+		Assert.assertEquals(4, cache.size());
+	}
+
+	/**
+	 * Tests that the locations of pinned (i.e. not movable) nodes are part of
+	 * the fingerprint, so that a cached result never moves a pinned node.
+	 */
+	@Test
+	public void testLayoutCachePinnedNodes() {
+		Graph graph = createLadderGraph(20);
+		Node pinned = graph.getNodes().get(0);
+		pinned.getAttributes().put(LayoutProperties.MOVABLE_PROPERTY, false);
+		LayoutProperties.setLocation(pinned, new Point(100, 100));
+		// the grid layout does not move pinned nodes
+		LayoutContext context = createContext(graph,
+				new GridLayoutAlgorithm());
+		LayoutCache cache = new LayoutCache();
+		context.setLayoutCache(cache);
+		context.applyLayout(true, null);
+		Assert.assertEquals(1, cache.getMissCount());
+
+		// moving the pinned node results in a cache miss
+		LayoutProperties.setLocation(pinned, new Point(200, 200));
+		context.applyLayout(true, null);
+		Assert.assertEquals(2, cache.getMissCount());
+		Assert.assertEquals(0, cache.getHitCount());
+		Assert.assertEquals(new Point(200, 200),
+				LayoutProperties.getLocation(pinned));
+
+		// moving it back results in a cache hit
+		LayoutProperties.setLocation(pinned, new Point(100, 100));
+		context.applyLayout(true, null);
+		Assert.assertEquals(2, cache.getMissCount());
+		Assert.assertEquals(1, cache.getHitCount());
+		Assert.assertEquals(new Point(100, 100),
+				LayoutProperties.getLocation(pinned));
+	}
+
+	@Test
+	public void testLayoutCachePersistence() throws IOException {
+		Path directory = Files.createTempDirectory("layoutCache");
+		try {
+			CountingSpringLayoutAlgorithm algorithm = new CountingSpringLayoutAlgorithm();
+			algorithm.setSpringTimeout(0);
+			algorithm.setIterations(5);
+			LayoutCache cache = new LayoutCache(2, directory);
+			for (int n = 5; n <= 7; n++) {
+				LayoutContext context = createContext(createLadderGraph(n),
+						algorithm);
+				context.setLayoutCache(cache);
+				context.applyLayout(true, null);
+			}
+			// the least recently used result is evicted
+			Assert.assertEquals(3, algorithm.cleanLayoutPasses);
+			Assert.assertEquals(2, cache.size());
+
+			// the remaining results are available in a new session
+			cache = new LayoutCache(2, directory);
+			Assert.assertEquals(2, cache.size());
+			Graph graph = createLadderGraph(7);
+			LayoutContext context = createContext(graph, algorithm);
+			context.setLayoutCache(cache);
+			context.applyLayout(true, null);
+			Assert.assertEquals(3, algorithm.cleanLayoutPasses);
+			Assert.assertEquals(1, cache.getHitCount());
+			context.setGraph(createLadderGraph(5));
+			context.applyLayout(true, null);
+			Assert.assertEquals(4, algorithm.cleanLayoutPasses);
+
+			cache.clear();
+			Assert.assertEquals(0, cache.size());
+			try (DirectoryStream<Path> files = Files
+					.newDirectoryStream(directory)) {
+				Assert.assertFalse(files.iterator().hasNext());
+			}
+		} finally {
+			try (DirectoryStream<Path> files = Files
+					.newDirectoryStream(directory)) {
+				for (Path file : files) {
+					Files.delete(file);
+				}
+			}
+			Files.delete(directory);
+		}
+	}
+
+	/**
+	 * Tests that a persisted result whose node count does not match the length
+	 * of its file is treated as not being cached, instead of allocating the
+	 * data for the node count.
+	 */
+	@Test
+	public void testLayoutCacheCorruptFile() throws IOException {
+		Path directory = Files.createTempDirectory("layoutCache");
+		try {
+			CountingSpringLayoutAlgorithm algorithm = new CountingSpringLayoutAlgorithm();
+			algorithm.setSpringTimeout(0);
+			algorithm.setIterations(5);
+			LayoutContext context = createContext(createLadderGraph(5),
+					algorithm);
+			context.setLayoutCache(new LayoutCache(2, directory));
+			context.applyLayout(true, null);
+			Path file;
+			try (DirectoryStream<Path> files = Files
+					.newDirectoryStream(directory)) {
+				file = files.iterator().next();
+			}
+			// overwrite the node count (following magic and version)
+			byte[] bytes = Files.readAllBytes(file);
+			ByteBuffer.wrap(bytes).putInt(8, Integer.MAX_VALUE);
+			Files.write(file, bytes);
+
+			LayoutCache cache = new LayoutCache(2, directory);
+			context.setLayoutCache(cache);
+			context.applyLayout(true, null);
+			Assert.assertEquals(2, algorithm.cleanLayoutPasses);
+			Assert.assertEquals(0, cache.getHitCount());
+			Assert.assertEquals(1, cache.getMissCount());
+			// the corrupt result is replaced
+			Assert.assertEquals(1, cache.size());
+			context.applyLayout(true, null);
+			Assert.assertEquals(2, algorithm.cleanLayoutPasses);
+			Assert.assertEquals(1, cache.getHitCount());
+		} finally {
+			try (DirectoryStream<Path> files = Files
+					.newDirectoryStream(directory)) {
+				for (Path file : files) {
+					Files.delete(file);
+				}
+			}
+			Files.delete(directory);
+		}
+	}
+
+	/**
+	 * Tests that only the results of algorithms that can be identified by
+	 * their layout key are cached.
+	 */
+	@Test
+	public void testLayoutCacheLayoutKey() {
+		Graph graph = createLadderGraph(10);
+		LayoutCache cache = new LayoutCache();
+		LayoutContext context = createContext(graph,
+				new SugiyamaLayoutAlgorithm(
+						SugiyamaLayoutAlgorithm.Direction.VERTICAL,
+						new BarycentricCrossingReducer()));
+		context.setLayoutCache(cache);
+		context.applyLayout(true, null);
+		context.applyLayout(true, null);
+		Assert.assertEquals(1, cache.getHitCount());
+		Assert.assertEquals(1, cache.size());
+
+		// the parameters of a client-defined strategy are unknown
+		context.setLayoutAlgorithm(new SugiyamaLayoutAlgorithm(
+				SugiyamaLayoutAlgorithm.Direction.VERTICAL,
+				new BarycentricCrossingReducer() {
+				}));
+		context.applyLayout(true, null);
+		context.applyLayout(true, null);
+		Assert.assertEquals(1, cache.getHitCount());
+		Assert.assertEquals(1, cache.getMissCount());
+		Assert.assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testSpringLayoutConvergence() {
+		CountingSpringLayoutAlgorithm algorithm = new CountingSpringLayoutAlgorithm();
+		algorithm.setRandom(false);
+		algorithm.setSpringTimeout(0);
+		algorithm.setIterations(100);
+		LayoutContext context = createContext(createLadderGraph(20),
+				algorithm);
+		context.applyLayout(true, null);
+		Assert.assertEquals(100, algorithm.iterations);
+
+		// a huge threshold is reached after the first iteration
+		algorithm.iterations = 0;
+		algorithm.setConvergenceThreshold(Double.MAX_VALUE);
+		context.applyLayout(true, null);
+		Assert.assertEquals(1, algorithm.iterations);
+	}
+
+	@Test
+	public void testProgressiveLayout() throws Exception {
+		Graph graph = createLadderGraph(40);
+		SpringLayoutAlgorithm algorithm = createSpringLayoutAlgorithm();
+		algorithm.setIterations(300);
+		LayoutContext context = createContext(graph, algorithm);
+		Executor direct = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				command.run();
+			}
+		};
+		context.setLayoutExecutor(direct);
+		context.setResultExecutor(direct);
+		context.setMaximumFrameRate(1000);
+		final int[] frames = new int[1];
+		context.schedulePostLayoutPass(new Runnable() {
+			@Override
+			public void run() {
+				frames[0]++;
+			}
+		});
+		Future<Void> future = context.applyLayoutProgressive(true, null);
+		Assert.assertTrue(future.isDone());
+		future.get();
+		// at least one intermediate result and the final one are applied
+		Assert.assertTrue(frames[0] > 1);
+
+		// the final result is the same as for a synchronous layout
+		Graph expectedGraph = createLadderGraph(40);
+		SpringLayoutAlgorithm expectedAlgorithm = createSpringLayoutAlgorithm();
+		expectedAlgorithm.setIterations(300);
+		createContext(expectedGraph, expectedAlgorithm).applyLayout(true,
+				null);
+		for (int i = 0; i < graph.getNodes().size(); i++) {
+			Assert.assertEquals(
+					LayoutProperties
+							.getLocation(expectedGraph.getNodes().get(i)),
+					LayoutProperties.getLocation(graph.getNodes().get(i)));
+		}
+	}
+
+	/**
+	 * Tests that the {@link MultilevelLayoutAlgorithm} is deterministic, keeps
+	 * all nodes within the layout bounds, and unfolds the ladder, i.e.
+	 * connected nodes are placed much closer to each other than the first and
+	 * the last node.
+	 */
+	@Test
+	public void testMultilevelLayout() {
+		Graph graph = createLadderGraph(1000);
+		MultilevelLayoutAlgorithm algorithm = new MultilevelLayoutAlgorithm();
+		algorithm.setCoarsestSize(10);
+		algorithm.getSpringLayoutAlgorithm().setIterations(100);
+		createContext(graph, algorithm).applyLayout(true, null);
+
+		Rectangle bounds = LayoutProperties.getBounds(graph)
+				.getExpanded(1, 1);
+		double maxEdgeLength = 0;
+		for (Node node : graph.getNodes()) {
+			Assert.assertTrue(
+					bounds.contains(LayoutProperties.getLocation(node)));
+		}
+		for (Edge edge : graph.getEdges()) {
+			maxEdgeLength = Math.max(maxEdgeLength,
+					LayoutProperties.getLocation(edge.getSource()).getDistance(
+							LayoutProperties.getLocation(edge.getTarget())));
+		}
+		List<Node> nodes = graph.getNodes();
+		double extent = LayoutProperties.getLocation(nodes.get(0)).getDistance(
+				LayoutProperties.getLocation(nodes.get(nodes.size() - 1)));
+		Assert.assertTrue(maxEdgeLength < extent / 10);
+
+		Graph expectedGraph = createLadderGraph(1000);
+		MultilevelLayoutAlgorithm expectedAlgorithm = new MultilevelLayoutAlgorithm();
+		expectedAlgorithm.setCoarsestSize(10);
+		expectedAlgorithm.getSpringLayoutAlgorithm().setIterations(100);
+		createContext(expectedGraph, expectedAlgorithm).applyLayout(true,
+				null);
+		for (int i = 0; i < nodes.size(); i++) {
+			Assert.assertEquals(
+					LayoutProperties
+							.getLocation(expectedGraph.getNodes().get(i)),
+					LayoutProperties.getLocation(nodes.get(i)));
+		}
+	}
+
+	/**
+	 * Tests that the {@link ConnectedComponentsLayoutAlgorithm} lays out each
+	 * connected component separately (in parallel), and packs the components
+	 * within the layout bounds without overlaps.
+	 */
+	@Test
+	public void testConnectedComponentsLayout() {
+		List<List<Node>> components = new ArrayList<>();
+		Graph graph = createComponentsGraph(components);
+		final List<SpringLayoutAlgorithm> algorithms = Collections
+				.synchronizedList(new ArrayList<SpringLayoutAlgorithm>());
+		ConnectedComponentsLayoutAlgorithm algorithm = new ConnectedComponentsLayoutAlgorithm(
+				new Supplier<ILayoutAlgorithm>() {
+					@Override
+					public ILayoutAlgorithm get() {
+						SpringLayoutAlgorithm spring = createSpringLayoutAlgorithm();
+						algorithms.add(spring);
+						return spring;
+					}
+				});
+		algorithm.setParallelism(2);
+		createContext(graph, algorithm).applyLayout(true, null);
+
+		// isolated nodes are not laid out
+		Assert.assertEquals(3, algorithms.size());
+		assertComponentsSeparated(graph, components);
+	}
+
+	/**
+	 * Tests that the {@link ConnectedComponentsLayoutAlgorithm} scales the
+	 * node sizes together with the packing if the packing does not fit into
+	 * the layout bounds, so that the components do not overlap.
+	 */
+	@Test
+	public void testConnectedComponentsLayoutScaledDown() {
+		List<List<Node>> components = new ArrayList<>();
+		Graph graph = createComponentsGraph(components);
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 60, 40));
+		ConnectedComponentsLayoutAlgorithm algorithm = new ConnectedComponentsLayoutAlgorithm(
+				new Supplier<ILayoutAlgorithm>() {
+					@Override
+					public ILayoutAlgorithm get() {
+						return new GridLayoutAlgorithm();
+					}
+				});
+		algorithm.setParallelism(1);
+		createContext(graph, algorithm).applyLayout(true, null);
+
+		Assert.assertTrue(LayoutProperties
+				.getSize(components.get(0).get(0)).width < 10);
+		assertComponentsSeparated(graph, components);
+	}
+
+	/**
+	 * Tests that the {@link ConnectedComponentsLayoutAlgorithm} stops waiting
+	 * for the concurrent component layouts when the calling thread is
+	 * interrupted, and that it interrupts the component layouts.
+	 */
+	@Test
+	public void testConnectedComponentsLayoutCancelled() throws Exception {
+		List<List<Node>> components = new ArrayList<>();
+		final Graph graph = createComponentsGraph(components);
+		// the calling thread and one thread of the executor
+		final CountDownLatch started = new CountDownLatch(2);
+		final CountDownLatch interrupted = new CountDownLatch(2);
+		final ConnectedComponentsLayoutAlgorithm algorithm = new ConnectedComponentsLayoutAlgorithm(
+				new Supplier<ILayoutAlgorithm>() {
+					@Override
+					public ILayoutAlgorithm get() {
+						return new GridLayoutAlgorithm() {
+							@Override
+							public void applyLayout(boolean clean,
+									Object extra) {
+								started.countDown();
+								try {
+									Thread.sleep(60000);
+								} catch (InterruptedException e) {
+									interrupted.countDown();
+									Thread.currentThread().interrupt();
+								}
+							}
+						};
+					}
+				});
+		algorithm.setParallelism(2);
+		final Point location = LayoutProperties
+				.getLocation(components.get(0).get(0));
+		Thread caller = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				createContext(graph, algorithm).applyLayout(true, null);
+			}
+		});
+		caller.start();
+		Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+		caller.interrupt();
+		Assert.assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+		caller.join(10000);
+		Assert.assertFalse(caller.isAlive());
+		// the results are not written back
+		Assert.assertEquals(location,
+				LayoutProperties.getLocation(components.get(0).get(0)));
+	}
+
+	/**
+	 * Creates a {@link Graph} that consists of two ladders, a pair of nodes,
+	 * and two isolated nodes, and adds the nodes of these connected
+	 * components to the given list.
+	 */
+	private static Graph createComponentsGraph(List<List<Node>> components) {
+		List<Node> nodes = new ArrayList<>();
+		List<Edge> edges = new ArrayList<>();
+		for (int size : new int[] { 30, 10, 2, 1, 1 }) {
+			Graph ladder = createLadderGraph(size);
+			List<Node> component = new ArrayList<>(ladder.getNodes());
+			for (Edge edge : ladder.getEdges()) {
+				edges.add(new Edge(edge.getSource(), edge.getTarget()));
+			}
+			nodes.addAll(component);
+			components.add(component);
+		}
+		Graph graph = new Graph(nodes, edges);
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 500, 500));
+		return graph;
+	}
+
+	private static void assertComponentsSeparated(Graph graph,
+			List<List<Node>> components) {
+		Rectangle bounds = LayoutProperties.getBounds(graph).getExpanded(1,
+				1);
+		List<Rectangle> componentBounds = new ArrayList<>();
+		for (List<Node> component : components) {
+			Rectangle union = null;
+			for (Node node : component) {
+				Assert.assertTrue(bounds.contains(getBounds(node)));
+				union = union == null ? getBounds(node)
+						: union.getUnioned(getBounds(node));
+			}
+			componentBounds.add(union);
+		}
+		for (int i = 0; i < componentBounds.size(); i++) {
+			for (int j = i + 1; j < componentBounds.size(); j++) {
+				Rectangle intersection = componentBounds.get(i)
+						.getIntersected(componentBounds.get(j));
+				Assert.assertTrue(intersection == null
+						|| intersection.getWidth() <= 1e-9
+						|| intersection.getHeight() <= 1e-9);
+			}
+		}
+	}
+
+	private static Rectangle getBounds(Node node) {
+		Point location = LayoutProperties.getLocation(node);
+		Dimension size = LayoutProperties.getSize(node);
+		return new Rectangle(location.x - size.width / 2,
+				location.y - size.height / 2, size.width, size.height);
+	}
+
+	/**
+	 * Tests that the {@link GridLayoutAlgorithm} places every node in its own
+	 * cell, and that it does not copy the nodes of the {@link LayoutContext}
+	 * per node (which made it quadratic in the number of nodes).
+	 */
+	@Test
+	public void testGridLayout() {
+		int[] getNodesCalls = new int[2];
+		int[] nodeCounts = new int[] { 10, 100 };
+		for (int i = 0; i < nodeCounts.length; i++) {
+			List<Node> nodes = new ArrayList<>();
+			for (int n = 0; n < nodeCounts[i]; n++) {
+				Node node = new Node();
+				LayoutProperties.setSize(node, new Dimension(5, 5));
+				LayoutProperties.setLocation(node, new Point());
+				nodes.add(node);
+			}
+			Graph graph = new Graph(nodes, Collections.<Edge> emptyList());
+			LayoutProperties.setBounds(graph, new Rectangle(0, 0, 500, 500));
+			final int index = i;
+			LayoutContext context = new LayoutContext() {
+				@Override
+				public Node[] getNodes() {
+					getNodesCalls[index]++;
+					return super.getNodes();
+				}
+			};
+			context.setGraph(graph);
+			context.setLayoutAlgorithm(new GridLayoutAlgorithm());
+			context.applyLayout(true, null);
+
+			Set<Point> locations = new HashSet<>();
+			for (Node node : nodes) {
+				locations.add(LayoutProperties.getLocation(node));
+			}
+			Assert.assertEquals(nodes.size(), locations.size());
+		}
+		Assert.assertEquals(getNodesCalls[0], getNodesCalls[1]);
+	}
+
+	/**
+	 * Tests that the {@link HorizontalShiftAlgorithm} orders the nodes of a
+	 * row by their vertical locations, even if these differ by less than one
+	 * (which the comparators used to truncate, violating the contract of
+	 * {@link java.util.Comparator}).
+	 */
+	@Test
+	public void testHorizontalShiftFractionalLocations() {
+		List<Node> nodes = new ArrayList<>();
+		for (int n = 0; n < 100; n++) {
+			Node node = new Node();
+			LayoutProperties.setSize(node, new Dimension(5, 5));
+			// a single row, in descending vertical order
+			LayoutProperties.setLocation(node, new Point(0, 9.9 - n * 0.099));
+			nodes.add(node);
+		}
+		Graph graph = new Graph(nodes, Collections.<Edge> emptyList());
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 500, 500));
+		createContext(graph, new HorizontalShiftAlgorithm()).applyLayout(true,
+				null);
+
+		// ascending vertical order from left to right
+		for (int n = 1; n < nodes.size(); n++) {
+			Assert.assertTrue(LayoutProperties.getLocation(nodes.get(n)).x
+					< LayoutProperties.getLocation(nodes.get(n - 1)).x);
+		}
+	}
 }
@@ -0,0 +1,377 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthias Wienand (itemis AG) - initial API & implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import org.eclipse.gef.geometry.planar.Dimension;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.geometry.planar.Rectangle;
+import org.eclipse.gef.graph.Edge;
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.graph.Node;
+import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.LayoutContext;
+import org.eclipse.gef.layout.LayoutProperties;
+import org.eclipse.gef.layout.LayoutSnapshot;
+import org.eclipse.gef.layout.NestedGraphLayoutDriver;
+import org.eclipse.gef.layout.algorithms.SugiyamaLayoutAlgorithm;
+import org.junit.Test;
+
+import javafx.collections.MapChangeListener;
+
+/**
+ * Tests for the {@link LayoutContext}.
+ *
+ * @author mwienand
+ *
+ */
+public class LayoutContextTests {
+
+	/**
+	 * Places all nodes on a horizontal line, in order, using the given
+	 * spacing.
+	 */
+	private static class LineLayoutAlgorithm implements ILayoutAlgorithm {
+		private LayoutContext context;
+		private double spacing;
+
+		public LineLayoutAlgorithm(double spacing) {
+			this.spacing = spacing;
+		}
+
+		@Override
+		public void applyLayout(boolean clean, Object extra) {
+			List<Node> nodes = context.getGraph().getNodes();
+			for (int i = 0; i < nodes.size(); i++) {
+				LayoutProperties.setLocation(nodes.get(i),
+						new Point(i * spacing, 0));
+			}
+		}
+
+		@Override
+		public LayoutContext getLayoutContext() {
+			return context;
+		}
+
+		@Override
+		public void setLayoutContext(LayoutContext context) {
+			this.context = context;
+		}
+	}
+
+	private static Node createNode(double x, double y) {
+		Node node = new Node();
+		LayoutProperties.setLocation(node, new Point(x, y));
+		LayoutProperties.setSize(node, new Dimension(10, 10));
+		return node;
+	}
+
+	@Test
+	public void changeTracking() {
+		Node n = createNode(0, 0);
+		Node m = createNode(10, 20);
+		Graph graph = new Graph(Arrays.asList(n, m), Arrays.<Edge> asList());
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		context.setLayoutAlgorithm(new LineLayoutAlgorithm(10));
+		assertTrue(context.getChangedNodes().isEmpty());
+
+		Node o = createNode(0, 0);
+		Edge mo = new Edge(m, o);
+		graph.getNodes().add(o);
+		graph.getEdges().add(mo);
+		assertEquals(new HashSet<>(Arrays.asList(o)),
+				context.getChangedNodes());
+		assertEquals(new HashSet<>(Arrays.asList(mo)),
+				context.getChangedEdges());
+		assertEquals(new HashSet<>(Arrays.asList(m, o)),
+				context.getAffectedNodes());
+
+		// the changes are cleared by a layout pass
+		context.applyLayout(false, null);
+		assertTrue(context.getChangedNodes().isEmpty());
+		assertTrue(context.getChangedEdges().isEmpty());
+
+		// removed nodes are not affected
+		graph.getNodes().remove(n);
+		context.markChanged(m);
+		assertEquals(new HashSet<>(Arrays.asList(n, m)),
+				context.getChangedNodes());
+		assertEquals(new HashSet<>(Arrays.asList(m)),
+				context.getAffectedNodes());
+	}
+
+	@Test
+	public void nestedGraphLayout() {
+		// root graph with two nesting nodes, one of which contains another
+		// nesting node
+		Node inner = createNode(0, 0);
+		Graph innerGraph = new Graph(
+				Arrays.asList(createNode(0, 0), createNode(0, 0)),
+				Arrays.<Edge> asList());
+		inner.setNestedGraph(innerGraph);
+		Node a = createNode(0, 0);
+		Graph aGraph = new Graph(
+				Arrays.asList(createNode(0, 0), inner, createNode(0, 0)),
+				Arrays.<Edge> asList());
+		a.setNestedGraph(aGraph);
+		Node b = createNode(0, 0);
+		Graph bGraph = new Graph(
+				Arrays.asList(createNode(0, 0), createNode(0, 0),
+						createNode(0, 0)),
+				Arrays.<Edge> asList());
+		b.setNestedGraph(bGraph);
+		Graph root = new Graph(Arrays.asList(a, createNode(0, 0), b),
+				Arrays.<Edge> asList());
+		LayoutProperties.setBounds(root, new Rectangle(0, 0, 500, 500));
+
+		final List<Graph> order = Collections
+				.synchronizedList(new ArrayList<Graph>());
+		NestedGraphLayoutDriver driver = new NestedGraphLayoutDriver(
+				new Function<Graph, ILayoutAlgorithm>() {
+					@Override
+					public ILayoutAlgorithm apply(final Graph graph) {
+						return new LineLayoutAlgorithm(20) {
+							@Override
+							public void applyLayout(boolean clean,
+									Object extra) {
+								order.add(graph);
+								super.applyLayout(clean, extra);
+							}
+						};
+					}
+				});
+		driver.setParallelism(2);
+		driver.applyLayout(root, true);
+
+		// each graph is laid out once, nested graphs before their parents
+		assertEquals(4, order.size());
+		assertEquals(new HashSet<>(Arrays.asList(root, aGraph, bGraph,
+				innerGraph)), new HashSet<>(order));
+		assertTrue(order.indexOf(innerGraph) < order.indexOf(aGraph));
+		assertTrue(order.indexOf(aGraph) < order.indexOf(root));
+		assertTrue(order.indexOf(bGraph) < order.indexOf(root));
+
+		// the sizes are propagated bottom-up (plus a padding of 10 per side):
+		// the inner line spans 30x10, and the line of a spans 50x30, as it
+		// contains the inner node (in the middle)
+		assertEquals(new Dimension(50, 30), LayoutProperties.getSize(inner));
+		assertEquals(new Dimension(70, 50), LayoutProperties.getSize(a));
+		assertEquals(new Dimension(70, 30), LayoutProperties.getSize(b));
+		assertEquals(new Point(20, 0), LayoutProperties.getLocation(
+				root.getNodes().get(1)));
+		assertSame(root, driver.getLayoutContext(root).getGraph());
+
+		// the contexts of graphs that are no longer nested are discarded
+		root.getNodes().remove(b);
+		driver.applyLayout(root, false);
+		assertNull(driver.getLayoutContext(bGraph));
+		assertSame(innerGraph, driver.getLayoutContext(innerGraph).getGraph());
+	}
+
+	@Test
+	public void snapshot() {
+		Node n = createNode(0, 0);
+		Node m = createNode(10, 20);
+		Node o = createNode(30, 40);
+		LayoutProperties.setResizable(o, false);
+		Edge nm = new Edge(n, m);
+		Edge no = new Edge(n, o);
+		Edge mo = new Edge(m, o);
+		LayoutProperties.setWeight(mo, 2);
+		// edge to a node that is not part of the graph
+		Edge outer = new Edge(o, new Node());
+		Graph graph = new Graph(Arrays.asList(n, m, o),
+				Arrays.asList(nm, no, mo, outer));
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 100, 100));
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+
+		LayoutSnapshot snapshot = context.createSnapshot();
+		assertEquals(3, snapshot.getNodeCount());
+		assertEquals(3, snapshot.getEdgeCount());
+		assertEquals(1, snapshot.indexOf(m));
+		assertEquals(-1, snapshot.indexOf(new Node()));
+		assertSame(mo, snapshot.getEdge(2));
+		assertArrayEquals(new double[] { 0, 10, 30 },
+				snapshot.getLocationsX(), 0);
+		assertArrayEquals(new double[] { 0, 0, 2 }, snapshot.getEdgeWeights(),
+				0);
+		assertTrue(snapshot.getResizable().get(1));
+		assertFalse(snapshot.getResizable().get(2));
+		assertEquals(new Rectangle(0, 0, 100, 100), snapshot.getBounds());
+
+		// CSR adjacency
+		assertArrayEquals(new int[] { 0, 2, 3, 3 },
+				snapshot.getOutgoingOffsets());
+		assertArrayEquals(new int[] { 0, 1, 2 },
+				snapshot.getOutgoingEdgeIndices());
+		assertArrayEquals(new int[] { 0, 0, 1, 3 },
+				snapshot.getIncomingOffsets());
+		assertArrayEquals(new int[] { 0, 1, 2 },
+				snapshot.getIncomingEdgeIndices());
+	}
+
+	@Test
+	public void snapshotCommitsChangesOnly() {
+		Node n = createNode(0, 0);
+		Node m = createNode(10, 20);
+		Graph graph = new Graph(Arrays.asList(n, m), Arrays.<Edge> asList());
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		LayoutSnapshot snapshot = context.createSnapshot();
+
+		final int[] changes = new int[1];
+		MapChangeListener<String, Object> listener = change -> changes[0]++;
+		n.attributesProperty().addListener(listener);
+		m.attributesProperty().addListener(listener);
+
+		snapshot.getLocationsX()[1] = 50;
+		snapshot.getWidths()[1] = 5;
+		snapshot.commit();
+		assertEquals(2, changes[0]);
+		assertEquals(new Point(50, 20), LayoutProperties.getLocation(m));
+		assertEquals(new Dimension(5, 10), LayoutProperties.getSize(m));
+		assertEquals(new Point(0, 0), LayoutProperties.getLocation(n));
+
+		// nothing changed since the last commit
+		snapshot.commit();
+		assertEquals(2, changes[0]);
+	}
+
+	@Test
+	public void applyLayoutAsync() throws Exception {
+		Node n = createNode(0, 0);
+		Node m = createNode(0, 0);
+		Graph graph = new Graph(Arrays.asList(n, m),
+				Arrays.asList(new Edge(n, m)));
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		context.setLayoutAlgorithm(new LineLayoutAlgorithm(10));
+		final List<Runnable> results = new ArrayList<>();
+		context.setLayoutExecutor(Runnable::run);
+		context.setResultExecutor(results::add);
+
+		Future<Void> first = context.applyLayoutAsync(true, null);
+		// computed, but not yet applied (the results are applied and the
+		// algorithm is bound to the context again by the result executor)
+		assertEquals(2, results.size());
+		assertFalse(first.isDone());
+		assertEquals(new Point(0, 0), LayoutProperties.getLocation(m));
+
+		// supersede first layout
+		context.setLayoutAlgorithm(new LineLayoutAlgorithm(20));
+		Future<Void> second = context.applyLayoutAsync(true, null);
+		assertTrue(first.isCancelled());
+		for (Runnable r : results) {
+			r.run();
+		}
+		assertTrue(second.isDone());
+		assertFalse(second.isCancelled());
+		second.get();
+		assertEquals(new Point(20, 0), LayoutProperties.getLocation(m));
+	}
+
+	@Test
+	public void applyLayoutAsyncRestoresLayoutContext() throws Exception {
+		Node n = createNode(0, 0);
+		Node m = createNode(0, 0);
+		Graph graph = new Graph(Arrays.asList(n, m),
+				Arrays.asList(new Edge(n, m)));
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		LineLayoutAlgorithm algorithm = new LineLayoutAlgorithm(10);
+		context.setLayoutAlgorithm(algorithm);
+		context.applyLayout(true, null);
+		assertSame(context, algorithm.getLayoutContext());
+
+		final List<Runnable> results = new ArrayList<>();
+		context.setLayoutExecutor(Runnable::run);
+		context.setResultExecutor(results::add);
+		Future<Void> layout = context.applyLayoutAsync(true, null);
+		// the algorithm is bound to the copied graph until the result
+		// executor binds it to the context again, so that the graph is not
+		// accessed from the layout thread
+		assertNotSame(context, algorithm.getLayoutContext());
+		assertNotSame(graph, algorithm.getLayoutContext().getGraph());
+		for (Runnable r : results) {
+			r.run();
+		}
+		layout.get();
+		assertSame(context, algorithm.getLayoutContext());
+	}
+
+	@Test
+	public void applyLayoutAsyncUsesDedicatedThread() throws Exception {
+		Node n = createNode(0, 0);
+		Graph graph = new Graph(Arrays.asList(n), Collections.<Edge> emptyList());
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		final Thread[] layoutThread = new Thread[1];
+		context.setLayoutAlgorithm(new LineLayoutAlgorithm(10) {
+			@Override
+			public void applyLayout(boolean clean, Object extra) {
+				layoutThread[0] = Thread.currentThread();
+				super.applyLayout(clean, extra);
+			}
+		});
+		context.setResultExecutor(Runnable::run);
+		context.applyLayoutAsync(true, null).get();
+		// the common pool is not blocked by layouts that wait for their
+		// algorithm
+		assertFalse(layoutThread[0] instanceof ForkJoinWorkerThread);
+		assertTrue(layoutThread[0].isDaemon());
+	}
+
+	@Test
+	public void interruptedLayoutIsAborted() {
+		Node n = createNode(0, 0);
+		Node m = createNode(0, 0);
+		Graph graph = new Graph(Arrays.asList(n, m),
+				Arrays.asList(new Edge(n, m)));
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 100, 100));
+		context.setLayoutAlgorithm(new SugiyamaLayoutAlgorithm());
+
+		// a cancelled asynchronous layout interrupts the computing thread
+		Thread.currentThread().interrupt();
+		try {
+			context.applyLayout(true, null);
+		} finally {
+			assertTrue(Thread.interrupted());
+		}
+		assertEquals(new Point(0, 0), LayoutProperties.getLocation(n));
+		assertEquals(new Point(0, 0), LayoutProperties.getLocation(m));
+
+		context.applyLayout(true, null);
+		assertFalse(LayoutProperties.getLocation(n)
+				.equals(LayoutProperties.getLocation(m)));
+	}
+}
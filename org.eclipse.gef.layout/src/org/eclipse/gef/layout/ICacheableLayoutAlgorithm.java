@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthias Wienand (itemis AG) - initial API & implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout;
+
+/**
+ * An {@link ICacheableLayoutAlgorithm} is an {@link ILayoutAlgorithm} whose
+ * results can be reused by a {@link LayoutCache}, because it can identify the
+ * parameters that determine the computed layout (see {@link #getLayoutKey()}).
+ * The results of other {@link ILayoutAlgorithm}s are not cached.
+ *
+ * @author mwienand
+ *
+ */
+public interface ICacheableLayoutAlgorithm extends ILayoutAlgorithm {
+
+	/**
+	 * Returns a {@link String} that identifies the parameters of this
+	 * {@link ICacheableLayoutAlgorithm} which determine the computed layout
+	 * (the type of the algorithm is identified by the {@link LayoutCache}).
+	 * Equal keys have to imply equal layouts for the same graph. If the
+	 * layout cannot be identified with the current configuration (e.g.
+	 * because it depends on a client-defined strategy), <code>null</code> is
+	 * returned, so that the results are not cached.
+	 *
+	 * @return A {@link String} that identifies the parameters of this
+	 *         algorithm, or <code>null</code> if the results cannot be
+	 *         cached.
+	 */
+	public String getLayoutKey();
+
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthias Wienand (itemis AG) - initial API & implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout;
+
+/**
+ * An {@link IProgressiveLayoutAlgorithm} is an iterative
+ * {@link ILayoutAlgorithm} that can be applied in bounded time slices, so that
+ * intermediate results can be displayed while the layout converges (i.e. it
+ * is an "anytime" algorithm). A layout pass consists of one call to
+ * {@link #startLayout(boolean, Object)}, followed by calls to
+ * {@link #performLayoutSlice(long)} as long as it returns <code>true</code>
+ * (or until the intermediate result is good enough), followed by one call to
+ * {@link #finishLayout()}. The {@link LayoutContext} performs such a pass on
+ * a background thread using
+ * {@link LayoutContext#applyLayoutProgressive(boolean, Object)}.
+ * <p>
+ * {@link #applyLayout(boolean, Object)} has to be equivalent to a complete
+ * progressive layout pass.
+ *
+ * @author mwienand
+ *
+ */
+public interface IProgressiveLayoutAlgorithm extends ILayoutAlgorithm {
+
+	/**
+	 * Finishes the layout pass that was started using
+	 * {@link #startLayout(boolean, Object)}, and writes the final locations
+	 * and sizes to the nodes.
+	 */
+	public void finishLayout();
+
+	/**
+	 * Performs layout iterations for (at most) the given time, but at least
+	 * one iteration, and writes the intermediate locations and sizes to the
+	 * nodes.
+	 *
+	 * @param timeSlice
+	 *            The time (in milliseconds) after which no further iteration
+	 *            is started.
+	 * @return <code>true</code> if further iterations are needed, or
+	 *         <code>false</code> if the layout converged or the maximum
+	 *         number of iterations was reached.
+	 */
+	public boolean performLayoutSlice(long timeSlice);
+
+	/**
+	 * Starts a new layout pass, which is performed by subsequent calls to
+	 * {@link #performLayoutSlice(long)}.
+	 *
+	 * @param clean
+	 *            <code>true</code> to indicate that the algorithm has to fully
+	 *            re-compute the layout, otherwise <code>false</code>.
+	 * @param extra
+	 *            An extra {@link Object} parameter (see
+	 *            {@link ILayoutAlgorithm#applyLayout(boolean, Object)}).
+	 */
+	public void startLayout(boolean clean, Object extra);
+
+}
@@ -0,0 +1,614 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthias Wienand (itemis AG) - initial API & implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.gef.geometry.planar.Dimension;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.geometry.planar.Rectangle;
+import org.eclipse.gef.graph.Edge;
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.graph.Node;
+
+/**
+ * A {@link LayoutCache} stores the results (i.e. the locations and sizes of
+ * the {@link Node}s) of clean layout passes, so that laying out the same graph
+ * again does not require to apply the {@link ILayoutAlgorithm}. It can be
+ * enabled per {@link LayoutContext} using
+ * {@link LayoutContext#setLayoutCache(LayoutCache)}, and can be shared between
+ * multiple contexts.
+ * <p>
+ * The results are identified by a fingerprint of
+ * <ul>
+ * <li>the topology of the graph, i.e. the number of nodes, and the source and
+ * target (index) of each edge,
+ * <li>the sizes, the movable, resizable, and preferred aspect ratio
+ * properties of the nodes, and the weights of the edges,
+ * <li>the locations of the nodes that are not movable,
+ * <li>the nodes and edges that are {@link ILayoutFilter filtered},
+ * <li>the layout {@link LayoutProperties#getBounds(Graph) bounds}, and
+ * <li>the type and parameters of the {@link ILayoutAlgorithm} (see
+ * {@link #getAlgorithmFingerprint(ILayoutAlgorithm)}).
+ * </ul>
+ * The current locations of the movable nodes are not part of the
+ * fingerprint, i.e. a cached result is reused even if the algorithm would
+ * compute a different layout from different start locations. Non-clean
+ * layout passes, layout passes with an extra parameter, and layout passes of
+ * algorithms that cannot be identified (e.g. that are not
+ * {@link ICacheableLayoutAlgorithm}s) are never cached.
+ * <p>
+ * The number of cached results is limited. When the limit is reached, the
+ * least recently used result is evicted. Optionally, the results can be
+ * persisted within a directory, so that they are available across sessions.
+ * In this case, the directory contains one file per cached result, which is
+ * deleted when the result is evicted.
+ * <p>
+ * All methods of the {@link LayoutCache} are thread-safe, and the persisted
+ * results are read and written without holding its lock. The persistence is
+ * best-effort, i.e. results that cannot be read or written are treated as not
+ * being cached.
+ *
+ * @author mwienand
+ *
+ */
+public class LayoutCache {
+
+	/**
+	 * A cached layout result, i.e. the location and size per node index. The
+	 * data is <code>null</code> as long as a persisted result was not loaded.
+	 */
+	private static final class CachedLayout {
+		private double[] data;
+
+		private CachedLayout(double[] data) {
+			this.data = data;
+		}
+	}
+
+	/**
+	 * Feeds primitive values into a {@link MessageDigest}.
+	 */
+	private static final class Fingerprint {
+		private final MessageDigest digest;
+		private final byte[] buffer = new byte[8];
+
+		private Fingerprint() {
+			try {
+				digest = MessageDigest.getInstance("SHA-256");
+			} catch (NoSuchAlgorithmException e) {
+				// every Java platform is required to support SHA-256
+				throw new IllegalStateException(e);
+			}
+		}
+
+		private void putBoolean(boolean value) {
+			digest.update(value ? (byte) 1 : (byte) 0);
+		}
+
+		private void putDouble(double value) {
+			putLong(Double.doubleToLongBits(value));
+		}
+
+		private void putInt(int value) {
+			for (int i = 0; i < 4; i++) {
+				buffer[i] = (byte) (value >>> (24 - 8 * i));
+			}
+			digest.update(buffer, 0, 4);
+		}
+
+		private void putLong(long value) {
+			for (int i = 0; i < 8; i++) {
+				buffer[i] = (byte) (value >>> (56 - 8 * i));
+			}
+			digest.update(buffer, 0, 8);
+		}
+
+		private void putString(String value) {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			putInt(bytes.length);
+			digest.update(bytes);
+		}
+
+		private String toHexString() {
+			StringBuilder sb = new StringBuilder();
+			for (byte b : digest.digest()) {
+				sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+				sb.append(Character.forDigit(b & 0xf, 16));
+			}
+			return sb.toString();
+		}
+	}
+
+	/**
+	 * The default maximum number of cached results.
+	 */
+	public static final int DEFAULT_MAXIMUM_SIZE = 32;
+
+	/**
+	 * The file extension of persisted results.
+	 */
+	private static final String FILE_EXTENSION = ".layout";
+
+	// identifies the file format and the fingerprint computation
+	private static final int MAGIC = 0x4745464c;
+	private static final int VERSION = 3;
+	// the length of the header, i.e. magic, version, and node count
+	private static final int HEADER_LENGTH = 12;
+
+	private final int maximumSize;
+	private final Path directory;
+	private final LinkedHashMap<String, CachedLayout> layouts;
+	// evicted results whose files have not been deleted yet
+	private final List<String> evicted = new ArrayList<>();
+	private long hitCount;
+	private long missCount;
+
+	/**
+	 * Creates a new in-memory {@link LayoutCache} that stores at most
+	 * {@link #DEFAULT_MAXIMUM_SIZE} results.
+	 */
+	public LayoutCache() {
+		this(DEFAULT_MAXIMUM_SIZE);
+	}
+
+	/**
+	 * Creates a new in-memory {@link LayoutCache} that stores at most the
+	 * given number of results.
+	 *
+	 * @param maximumSize
+	 *            The maximum number of results to store.
+	 */
+	public LayoutCache(int maximumSize) {
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException(
+					"The maximum size has to be positive: " + maximumSize);
+		}
+		this.maximumSize = maximumSize;
+		this.directory = null;
+		layouts = createLayouts();
+	}
+
+	/**
+	 * Creates a new {@link LayoutCache} that stores at most the given number
+	 * of results, and persists them within the given directory (if any). The
+	 * results that were persisted within the directory before are available
+	 * immediately (they are loaded on demand). If the directory contains more
+	 * results than allowed, the least recently used ones are deleted.
+	 *
+	 * @param maximumSize
+	 *            The maximum number of results to store.
+	 * @param directory
+	 *            The directory in which to persist the results, or
+	 *            <code>null</code> to only store them in memory. It is created
+	 *            if it does not exist.
+	 * @throws IOException
+	 *             if the directory cannot be created or read.
+	 */
+	public LayoutCache(int maximumSize, Path directory) throws IOException {
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException(
+					"The maximum size has to be positive: " + maximumSize);
+		}
+		this.maximumSize = maximumSize;
+		this.directory = directory;
+		layouts = createLayouts();
+		if (directory != null) {
+			Files.createDirectories(directory);
+			loadIndex();
+			deleteEvicted();
+		}
+	}
+
+	/**
+	 * Removes all results from this {@link LayoutCache}, including the
+	 * persisted ones.
+	 */
+	public void clear() {
+		List<String> keys;
+		synchronized (this) {
+			keys = new ArrayList<>(layouts.keySet());
+			layouts.clear();
+		}
+		for (String key : keys) {
+			delete(key);
+		}
+	}
+
+	private LinkedHashMap<String, CachedLayout> createLayouts() {
+		// access order, so that the eldest entry is the least recently used
+		return new LinkedHashMap<String, CachedLayout>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					Map.Entry<String, CachedLayout> eldest) {
+				if (size() > maximumSize) {
+					if (directory != null) {
+						evicted.add(eldest.getKey());
+					}
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Computes the fingerprint of the layout that the given
+	 * {@link ILayoutAlgorithm} would compute for the {@link Graph} of the
+	 * given {@link LayoutContext}.
+	 */
+	String computeFingerprint(LayoutContext context,
+			ILayoutAlgorithm algorithm) {
+		String algorithmFingerprint = getAlgorithmFingerprint(algorithm);
+		if (algorithmFingerprint == null) {
+			return null;
+		}
+		Fingerprint fingerprint = new Fingerprint();
+		fingerprint.putInt(VERSION);
+		fingerprint.putString(algorithmFingerprint);
+
+		Graph graph = context.getGraph();
+		Rectangle bounds = LayoutProperties.getBounds(graph);
+		fingerprint.putBoolean(bounds != null);
+		if (bounds != null) {
+			fingerprint.putDouble(bounds.getX());
+			fingerprint.putDouble(bounds.getY());
+			fingerprint.putDouble(bounds.getWidth());
+			fingerprint.putDouble(bounds.getHeight());
+		}
+
+		List<Node> nodes = graph.getNodes();
+		Map<Node, Integer> indices = new IdentityHashMap<>(nodes.size());
+		fingerprint.putInt(nodes.size());
+		for (Node node : nodes) {
+			indices.put(node, indices.size());
+			Dimension size = LayoutProperties.getSize(node);
+			fingerprint.putBoolean(size != null);
+			if (size != null) {
+				fingerprint.putDouble(size.width);
+				fingerprint.putDouble(size.height);
+			}
+			boolean movable = LayoutProperties.isMovable(node);
+			fingerprint.putBoolean(movable);
+			if (!movable) {
+				// applying a cached result must not move pinned nodes
+				Point location = LayoutProperties.getLocation(node);
+				fingerprint.putBoolean(location != null);
+				if (location != null) {
+					fingerprint.putDouble(location.x);
+					fingerprint.putDouble(location.y);
+				}
+			}
+			fingerprint.putBoolean(LayoutProperties.isResizable(node));
+			fingerprint.putDouble(
+					LayoutProperties.getPreferredAspectRatio(node));
+			fingerprint.putBoolean(context.isLayoutIrrelevant(node));
+		}
+
+		List<Edge> edges = graph.getEdges();
+		fingerprint.putInt(edges.size());
+		for (Edge edge : edges) {
+			Integer source = indices.get(edge.getSource());
+			Integer target = indices.get(edge.getTarget());
+			fingerprint.putInt(source == null ? -1 : source);
+			fingerprint.putInt(target == null ? -1 : target);
+			fingerprint.putDouble(LayoutProperties.getWeight(edge));
+			fingerprint.putBoolean(context.isLayoutIrrelevant(edge));
+		}
+		return fingerprint.toHexString();
+	}
+
+	private void delete(String key) {
+		if (directory == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(getFile(key));
+		} catch (IOException e) {
+			// the file will be overwritten or deleted later on
+		}
+	}
+
+	/**
+	 * Deletes the files of the results that were evicted since the last call.
+	 * Must not be called while holding the lock of this {@link LayoutCache}.
+	 */
+	private void deleteEvicted() {
+		List<String> keys;
+		synchronized (this) {
+			if (evicted.isEmpty()) {
+				return;
+			}
+			keys = new ArrayList<>();
+			for (String key : evicted) {
+				// the result may have been stored again in the meantime
+				if (!layouts.containsKey(key)) {
+					keys.add(key);
+				}
+			}
+			evicted.clear();
+		}
+		for (String key : keys) {
+			delete(key);
+		}
+	}
+
+	/**
+	 * Returns a {@link String} that identifies the type and the parameters of
+	 * the given {@link ILayoutAlgorithm}, or <code>null</code> if the
+	 * algorithm cannot be identified, so that its results are not cached.
+	 * Algorithms that produce the same layout for the same graph have to be
+	 * mapped to the same {@link String}, and algorithms that (may) produce
+	 * different layouts have to be mapped to different {@link String}s.
+	 * <p>
+	 * The default implementation combines the name of the algorithm's class
+	 * with its {@link ICacheableLayoutAlgorithm#getLayoutKey() layout key}, and
+	 * returns <code>null</code> for algorithms that are not
+	 * {@link ICacheableLayoutAlgorithm}s. Clients may override this method to
+	 * identify other algorithms.
+	 *
+	 * @param algorithm
+	 *            The {@link ILayoutAlgorithm} to identify.
+	 * @return A {@link String} that identifies the type and the parameters of
+	 *         the given {@link ILayoutAlgorithm}, or <code>null</code>.
+	 */
+	protected String getAlgorithmFingerprint(ILayoutAlgorithm algorithm) {
+		if (!(algorithm instanceof ICacheableLayoutAlgorithm)) {
+			return null;
+		}
+		String key = ((ICacheableLayoutAlgorithm) algorithm).getLayoutKey();
+		return key == null ? null
+				: algorithm.getClass().getName() + "{" + key + "}";
+	}
+
+	/**
+	 * Returns the data that is cached for the given fingerprint, loading it
+	 * from its file (without holding the lock) if it was persisted in a
+	 * previous session.
+	 */
+	private double[] get(String fingerprint) {
+		CachedLayout layout;
+		synchronized (this) {
+			layout = layouts.get(fingerprint);
+			if (layout == null || layout.data != null) {
+				return layout == null ? null : layout.data;
+			}
+		}
+		double[] data = load(fingerprint);
+		synchronized (this) {
+			if (data != null) {
+				if (layout.data == null) {
+					layout.data = data;
+				}
+				return layout.data;
+			}
+			// the persisted result is corrupt or was removed externally
+			if (layout.data != null || !layouts.remove(fingerprint, layout)) {
+				// the result was stored concurrently
+				return layout.data;
+			}
+		}
+		delete(fingerprint);
+		return null;
+	}
+
+	/**
+	 * Returns the number of layout passes for which a cached result was
+	 * applied.
+	 *
+	 * @return The number of cache hits.
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Returns the directory in which the results are persisted, or
+	 * <code>null</code> if the results are only stored in memory.
+	 *
+	 * @return The directory in which the results are persisted, may be
+	 *         <code>null</code>.
+	 */
+	public Path getDirectory() {
+		return directory;
+	}
+
+	private Path getFile(String key) {
+		return directory.resolve(key + FILE_EXTENSION);
+	}
+
+	/**
+	 * Returns the maximum number of results that are stored by this
+	 * {@link LayoutCache}.
+	 *
+	 * @return The maximum number of results.
+	 */
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * Returns the number of layout passes for which no cached result was
+	 * available.
+	 *
+	 * @return The number of cache misses.
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	private double[] load(String key) {
+		Path file = getFile(key);
+		try (SeekableByteChannel channel = Files.newByteChannel(file);
+				DataInputStream in = new DataInputStream(
+						new BufferedInputStream(
+								Channels.newInputStream(channel)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				return null;
+			}
+			// validate the node count before allocating the data, so that a
+			// corrupt file cannot exhaust the memory
+			int nodeCount = in.readInt();
+			if (nodeCount < 0 || channel.size() != HEADER_LENGTH
+					+ 4L * Double.BYTES * nodeCount) {
+				return null;
+			}
+			double[] data = new double[4 * nodeCount];
+			for (int i = 0; i < data.length; i++) {
+				data[i] = in.readDouble();
+			}
+			// record the access, so that the order is restored across sessions
+			Files.setLastModifiedTime(file,
+					FileTime.fromMillis(System.currentTimeMillis()));
+			return data;
+		} catch (IOException | RuntimeException e) {
+			// treated like a file of another version
+			return null;
+		}
+	}
+
+	private void loadIndex() throws IOException {
+		final Map<Path, FileTime> files = new LinkedHashMap<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+				"*" + FILE_EXTENSION)) {
+			for (Path file : stream) {
+				files.put(file, Files.getLastModifiedTime(file));
+			}
+		}
+		List<Path> sorted = new ArrayList<>(files.keySet());
+		Collections.sort(sorted, new Comparator<Path>() {
+			@Override
+			public int compare(Path p1, Path p2) {
+				return files.get(p1).compareTo(files.get(p2));
+			}
+		});
+		// insert least recently used first, evicting surplus results
+		for (Path file : sorted) {
+			String name = file.getFileName().toString();
+			layouts.put(
+					name.substring(0,
+							name.length() - FILE_EXTENSION.length()),
+					new CachedLayout(null));
+		}
+	}
+
+	/**
+	 * Applies the result that is cached for the given fingerprint (if any) to
+	 * the {@link Graph} of the given {@link LayoutContext}.
+	 *
+	 * @return <code>true</code> if a result was applied, otherwise
+	 *         <code>false</code>.
+	 */
+	boolean restore(String fingerprint, LayoutContext context) {
+		double[] data = get(fingerprint);
+		LayoutSnapshot snapshot = data == null ? null
+				: context.createSnapshot();
+		synchronized (this) {
+			if (snapshot == null
+					|| data.length != 4 * snapshot.getNodeCount()) {
+				missCount++;
+				return false;
+			}
+			hitCount++;
+		}
+		LayoutContext.applyFrame(data, snapshot);
+		return true;
+	}
+
+	/**
+	 * Returns the number of results that are currently stored by this
+	 * {@link LayoutCache}.
+	 *
+	 * @return The number of stored results.
+	 */
+	public synchronized int size() {
+		return layouts.size();
+	}
+
+	/**
+	 * Stores the current locations and sizes of the {@link Node}s of the
+	 * given {@link LayoutContext} for the given fingerprint.
+	 */
+	void store(String fingerprint, LayoutContext context) {
+		double[] data = LayoutContext.createFrame(context.getGraph());
+		synchronized (this) {
+			layouts.put(fingerprint, new CachedLayout(data));
+		}
+		if (directory != null) {
+			write(fingerprint, data);
+			deleteEvicted();
+		}
+	}
+
+	private void write(String key, double[] data) {
+		Path file = getFile(key);
+		Path temporaryFile = null;
+		try {
+			temporaryFile = Files.createTempFile(directory, key, ".tmp");
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(
+							Files.newOutputStream(temporaryFile)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(data.length / 4);
+				for (double value : data) {
+					out.writeDouble(value);
+				}
+			}
+			// replace atomically, so that concurrent readers (e.g. other
+			// sessions) never see a partially written file
+			try {
+				Files.move(temporaryFile, file,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporaryFile, file,
+						StandardCopyOption.REPLACE_EXISTING);
+			}
+			temporaryFile = null;
+		} catch (IOException e) {
+			// the result is still available in memory
+		} finally {
+			if (temporaryFile != null) {
+				try {
+					Files.deleteIfExists(temporaryFile);
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+	}
+}
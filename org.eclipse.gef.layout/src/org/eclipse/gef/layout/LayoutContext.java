@@ -13,32 +13,99 @@
 package org.eclipse.gef.layout;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.eclipse.gef.geometry.planar.Dimension;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.geometry.planar.Rectangle;
 import org.eclipse.gef.graph.Edge;
 import org.eclipse.gef.graph.Graph;
 import org.eclipse.gef.graph.Node;
 
+import javafx.application.Platform;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.ListChangeListener;
 
 /**
  * The {@link LayoutContext} provides the context in which to layout a
  * {@link Graph}. It maintains an {@link ILayoutAlgorithm} that can be applied,
  * supports the handling and execution of pre and post {@link Runnable}s, and
  * filtering of layout objects using {@link ILayoutFilter}.
+ * <p>
+ * The {@link LayoutContext} records which {@link Node}s and {@link Edge}s of
+ * its {@link #getGraph() graph} were added or removed since the last layout
+ * pass (see {@link #getChangedNodes()} and {@link #getChangedEdges()}), so
+ * that layout algorithms can restrict a non-clean layout pass to the affected
+ * part of the graph.
+ * <p>
+ * Optionally, a {@link LayoutCache} can be {@link #setLayoutCache(LayoutCache)
+ * set}, so that the results of clean layout passes are reused when the same
+ * graph is laid out again.
  * 
  * @author mwienand
  *
  */
 public class LayoutContext {
 
+	/**
+	 * The {@link Future} that is returned by
+	 * {@link LayoutContext#applyLayoutAsync(boolean, Object)}. Cancelling it
+	 * interrupts the thread that computes the layout (if any), and prevents
+	 * the results from being applied.
+	 */
+	private static final class AsyncLayout extends CompletableFuture<Void> {
+
+		private Thread worker;
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled) {
+				synchronized (this) {
+					if (worker != null) {
+						worker.interrupt();
+					}
+				}
+			}
+			return cancelled;
+		}
+
+		private synchronized void setWorker(Thread worker) {
+			this.worker = worker;
+			if (worker == null) {
+				// do not leak the interrupt to the next task of the executor
+				Thread.interrupted();
+			}
+		}
+	}
+
 	/**
 	 * An {@link LayoutContext} notifies registered listeners about changes to
 	 * the layout algorithm using this property name.
 	 */
 	public static final String LAYOUT_ALGORITHM_PROPERTY = "layoutAlgorithm";
 
+	/**
+	 * The default maximum number of intermediate results per second that are
+	 * applied during a progressive layout.
+	 *
+	 * @see #setMaximumFrameRate(double)
+	 */
+	public static final double DEFAULT_MAXIMUM_FRAME_RATE = 30;
+
 	private ObjectProperty<ILayoutAlgorithm> layoutAlgorithmProperty = new SimpleObjectProperty<>(
 			this, LAYOUT_ALGORITHM_PROPERTY);
 
@@ -48,6 +115,48 @@ public class LayoutContext {
 	private final List<Runnable> preLayoutPass = new ArrayList<>();
 	private final List<ILayoutFilter> layoutFilters = new ArrayList<>();
 
+	// computes the asynchronous layouts of all contexts, unless a layout
+	// executor is set (created lazily)
+	private static Executor defaultLayoutExecutor;
+
+	private Executor layoutExecutor;
+	private Executor resultExecutor = new Executor() {
+		@Override
+		public void execute(Runnable command) {
+			Platform.runLater(command);
+		}
+	};
+	private AsyncLayout asyncLayout;
+	private double maximumFrameRate = DEFAULT_MAXIMUM_FRAME_RATE;
+
+	private LayoutCache layoutCache;
+	// the algorithm whose last clean layout pass was skipped, because a
+	// cached result was applied instead
+	private ILayoutAlgorithm skippedLayoutAlgorithm;
+
+	private final Set<Node> changedNodes = Collections
+			.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+	private final Set<Edge> changedEdges = Collections
+			.newSetFromMap(new IdentityHashMap<Edge, Boolean>());
+	private final ListChangeListener<Node> nodesObserver = new ListChangeListener<Node>() {
+		@Override
+		public void onChanged(ListChangeListener.Change<? extends Node> c) {
+			while (c.next()) {
+				changedNodes.addAll(c.getRemoved());
+				changedNodes.addAll(c.getAddedSubList());
+			}
+		}
+	};
+	private final ListChangeListener<Edge> edgesObserver = new ListChangeListener<Edge>() {
+		@Override
+		public void onChanged(ListChangeListener.Change<? extends Edge> c) {
+			while (c.next()) {
+				changedEdges.addAll(c.getRemoved());
+				changedEdges.addAll(c.getAddedSubList());
+			}
+		}
+	};
+
 	/**
 	 * Adds the given ILayoutFilter to this {@link LayoutContext}.
 	 * 
@@ -62,6 +171,12 @@ public class LayoutContext {
 	 * Applies the layout algorithm of this LayoutContext. The clean flag is
 	 * passed-in to the layout algorithm to indicate whether the context changed
 	 * significantly since the last layout pass.
+	 * <p>
+	 * If a {@link #setLayoutCache(LayoutCache) layout cache} is set and a
+	 * result is cached for a clean layout pass (without extra parameter), the
+	 * result is applied instead of the layout algorithm. As the algorithm
+	 * cannot rely on state of the skipped pass, the next non-clean layout pass
+	 * is performed as a clean one in this case.
 	 * 
 	 * @param clear
 	 *            <code>true</code> to indicate that the algorithm has to fully
@@ -72,15 +187,443 @@ public class LayoutContext {
 	 *            {@link ILayoutAlgorithm#applyLayout(boolean, Object)}.
 	 */
 	public void applyLayout(boolean clear, Object extra) {
+		cancelAsyncLayout();
 		ILayoutAlgorithm layoutAlgorithm = layoutAlgorithmProperty.get();
 		if (layoutAlgorithm != null) {
 			preLayout();
-			layoutAlgorithm.setLayoutContext(this);
-			layoutAlgorithm.applyLayout(clear, extra);
+			if (skippedLayoutAlgorithm == layoutAlgorithm) {
+				clear = true;
+			}
+			String fingerprint = null;
+			if (layoutCache != null && clear && extra == null) {
+				fingerprint = layoutCache.computeFingerprint(this,
+						layoutAlgorithm);
+			}
+			if (fingerprint != null
+					&& layoutCache.restore(fingerprint, this)) {
+				skippedLayoutAlgorithm = layoutAlgorithm;
+			} else {
+				synchronized (layoutAlgorithm) {
+					layoutAlgorithm.setLayoutContext(this);
+					layoutAlgorithm.applyLayout(clear, extra);
+				}
+				skippedLayoutAlgorithm = null;
+				// the results of a cancelled layout are incomplete
+				if (fingerprint != null
+						&& !Thread.currentThread().isInterrupted()) {
+					layoutCache.store(fingerprint, this);
+				}
+			}
+			clearChanges();
 			postLayout();
 		}
 	}
 
+	/**
+	 * Applies the layout algorithm of this {@link LayoutContext}
+	 * asynchronously. The pre-layout pass is executed and a copy of the
+	 * {@link #getGraph() graph} is created on the calling thread. The layout
+	 * algorithm is then applied to that copy using the
+	 * {@link #setLayoutExecutor(Executor) layout executor}. Finally, the
+	 * resulting locations and sizes are written back to the graph in a single
+	 * batch, followed by the post-layout pass, using the
+	 * {@link #setResultExecutor(Executor) result executor}, which defaults to
+	 * the JavaFX application thread.
+	 * <p>
+	 * A layout that is still in progress is cancelled when a new layout is
+	 * requested (either asynchronously or synchronously), so that the results
+	 * of outdated layouts are never applied. As the layout algorithm instance
+	 * is shared between subsequent layouts, its application is synchronized
+	 * on the algorithm, i.e. a superseding layout is computed after the
+	 * superseded computation is finished or aborted. A cancelled computation
+	 * is aborted by interrupting the computing thread, and the layout
+	 * algorithms check for the interruption between their phases and
+	 * iterations.
+	 * <p>
+	 * While the layout is computed, the layout algorithm is bound to the copy.
+	 * Afterwards (whether the computation is finished or aborted), it is bound
+	 * to this {@link LayoutContext} again using the result executor, so that
+	 * the algorithm does not access the graph from the layout thread. This is
+	 * skipped if a superseding layout is in progress, which binds the
+	 * algorithm again when it is finished.
+	 *
+	 * @param clear
+	 *            <code>true</code> to indicate that the algorithm has to fully
+	 *            re-compute the layout, otherwise <code>false</code>.
+	 * @param extra
+	 *            An extra {@link Object} parameter that can be used to pass-on
+	 *            additional information to
+	 *            {@link ILayoutAlgorithm#applyLayout(boolean, Object)}.
+	 * @return A {@link Future} that is completed after the results have been
+	 *         applied, and that can be used to cancel the layout.
+	 */
+	public Future<Void> applyLayoutAsync(final boolean clear,
+			final Object extra) {
+		cancelAsyncLayout();
+		final AsyncLayout layout = new AsyncLayout();
+		final ILayoutAlgorithm layoutAlgorithm = layoutAlgorithmProperty.get();
+		if (layoutAlgorithm == null) {
+			layout.complete(null);
+			return layout;
+		}
+		asyncLayout = layout;
+
+		// prepare and copy the graph on the calling thread
+		preLayout();
+		final LayoutSnapshot snapshot = createSnapshot();
+		final Graph copy = copyGraph(snapshot);
+		final List<Node> copiedChangedNodes = new ArrayList<>(changedNodes);
+		final List<Edge> copiedChangedEdges = new ArrayList<>(changedEdges);
+		final LayoutContext copyContext = new LayoutContext();
+		copyContext.setGraph(copy);
+		copyContext.layoutCache = layoutCache;
+		copyContext.skippedLayoutAlgorithm = skippedLayoutAlgorithm;
+		copyChanges(snapshot, copyContext);
+
+		getLayoutExecutor().execute(new Runnable() {
+			@Override
+			public void run() {
+				if (layout.isDone()) {
+					return;
+				}
+				layout.setWorker(Thread.currentThread());
+				try {
+					synchronized (layoutAlgorithm) {
+						if (layout.isDone()) {
+							return;
+						}
+						copyContext.setLayoutAlgorithm(layoutAlgorithm);
+						copyContext.applyLayout(clear, extra);
+					}
+					loadResults(copy, snapshot);
+				} catch (Throwable t) {
+					layout.completeExceptionally(t);
+					return;
+				} finally {
+					layout.setWorker(null);
+					rebindLayoutAlgorithm(layoutAlgorithm, copyContext, layout);
+				}
+				if (layout.isDone()) {
+					return;
+				}
+				resultExecutor.execute(new Runnable() {
+					@Override
+					public void run() {
+						if (layout.isDone() || asyncLayout != layout) {
+							return;
+						}
+						asyncLayout = null;
+						// changes that were recorded in the meantime are kept
+						// for the next layout pass
+						changedNodes.removeAll(copiedChangedNodes);
+						changedEdges.removeAll(copiedChangedEdges);
+						skippedLayoutAlgorithm = copyContext
+								.skippedLayoutAlgorithm;
+						snapshot.commit();
+						postLayout();
+						layout.complete(null);
+					}
+				});
+			}
+		});
+		return layout;
+	}
+
+	/**
+	 * Applies the layout algorithm of this {@link LayoutContext}
+	 * progressively, if it is an {@link IProgressiveLayoutAlgorithm}.
+	 * Otherwise, the layout is {@link #applyLayoutAsync(boolean, Object)
+	 * applied asynchronously}.
+	 * <p>
+	 * Like an asynchronous layout, a progressive layout is computed on a copy
+	 * of the {@link #getGraph() graph} using the
+	 * {@link #setLayoutExecutor(Executor) layout executor}. However, the
+	 * algorithm is applied in time slices of
+	 * <code>1 / {@link #getMaximumFrameRate() maximum frame rate}</code>
+	 * seconds, and the intermediate locations and sizes are applied to the
+	 * graph (followed by the post-layout pass) after each slice, using the
+	 * {@link #setResultExecutor(Executor) result executor}. If the previous
+	 * intermediate result was not applied yet when a slice ends, it is
+	 * superseded by the newer one, so that at most one intermediate result
+	 * is pending at a time. The layout ends when the algorithm converged or
+	 * performed its maximum number of iterations, or when it is cancelled.
+	 * <p>
+	 * Progressive layouts do not use the {@link #setLayoutCache(LayoutCache)
+	 * layout cache}.
+	 *
+	 * @param clear
+	 *            <code>true</code> to indicate that the algorithm has to fully
+	 *            re-compute the layout, otherwise <code>false</code>.
+	 * @param extra
+	 *            An extra {@link Object} parameter that can be used to pass-on
+	 *            additional information to
+	 *            {@link IProgressiveLayoutAlgorithm#startLayout(boolean, Object)}.
+	 * @return A {@link Future} that is completed after the final results have
+	 *         been applied, and that can be used to cancel the layout.
+	 */
+	public Future<Void> applyLayoutProgressive(final boolean clear,
+			final Object extra) {
+		ILayoutAlgorithm layoutAlgorithm = layoutAlgorithmProperty.get();
+		if (!(layoutAlgorithm instanceof IProgressiveLayoutAlgorithm)) {
+			return applyLayoutAsync(clear, extra);
+		}
+		cancelAsyncLayout();
+		final IProgressiveLayoutAlgorithm algorithm = (IProgressiveLayoutAlgorithm) layoutAlgorithm;
+		final AsyncLayout layout = new AsyncLayout();
+		asyncLayout = layout;
+
+		// prepare and copy the graph on the calling thread
+		preLayout();
+		final LayoutSnapshot snapshot = createSnapshot();
+		final Graph copy = copyGraph(snapshot);
+		final List<Node> copiedChangedNodes = new ArrayList<>(changedNodes);
+		final List<Edge> copiedChangedEdges = new ArrayList<>(changedEdges);
+		final LayoutContext copyContext = new LayoutContext();
+		copyContext.setGraph(copy);
+		copyChanges(snapshot, copyContext);
+		final boolean clean = clear || skippedLayoutAlgorithm == algorithm;
+		final long timeSlice = Math.max(1, (long) (1000 / maximumFrameRate));
+
+		getLayoutExecutor().execute(new Runnable() {
+			// the latest intermediate result that was not applied yet
+			private final AtomicReference<double[]> pendingFrame = new AtomicReference<>();
+
+			private void publish(double[] frame) {
+				if (pendingFrame.getAndSet(frame) != null) {
+					// the pending runnable applies the newer frame
+					return;
+				}
+				resultExecutor.execute(new Runnable() {
+					@Override
+					public void run() {
+						double[] frame = pendingFrame.getAndSet(null);
+						if (layout.isDone() || asyncLayout != layout) {
+							return;
+						}
+						applyFrame(frame, snapshot);
+						postLayout();
+					}
+				});
+			}
+
+			@Override
+			public void run() {
+				if (layout.isDone()) {
+					return;
+				}
+				layout.setWorker(Thread.currentThread());
+				final double[] result;
+				try {
+					synchronized (algorithm) {
+						if (layout.isDone()) {
+							return;
+						}
+						algorithm.setLayoutContext(copyContext);
+						algorithm.startLayout(clean, extra);
+						while (algorithm.performLayoutSlice(timeSlice)) {
+							if (layout.isDone() || Thread.currentThread()
+									.isInterrupted()) {
+								return;
+							}
+							publish(createFrame(copy));
+						}
+						algorithm.finishLayout();
+					}
+					result = createFrame(copy);
+				} catch (Throwable t) {
+					layout.completeExceptionally(t);
+					return;
+				} finally {
+					layout.setWorker(null);
+					rebindLayoutAlgorithm(algorithm, copyContext, layout);
+				}
+				if (layout.isDone()) {
+					return;
+				}
+				resultExecutor.execute(new Runnable() {
+					@Override
+					public void run() {
+						if (layout.isDone() || asyncLayout != layout) {
+							return;
+						}
+						asyncLayout = null;
+						// changes that were recorded in the meantime are kept
+						// for the next layout pass
+						changedNodes.removeAll(copiedChangedNodes);
+						changedEdges.removeAll(copiedChangedEdges);
+						skippedLayoutAlgorithm = null;
+						applyFrame(result, snapshot);
+						postLayout();
+						layout.complete(null);
+					}
+				});
+			}
+		});
+		return layout;
+	}
+
+	/**
+	 * Cancels the asynchronous layout that is currently in progress (if any).
+	 *
+	 * @see #applyLayoutAsync(boolean, Object)
+	 * @see #applyLayoutProgressive(boolean, Object)
+	 */
+	public void cancelAsyncLayout() {
+		if (asyncLayout != null) {
+			asyncLayout.cancel(true);
+			asyncLayout = null;
+		}
+	}
+
+	/**
+	 * Clears the {@link Node}s and {@link Edge}s that were recorded as changed.
+	 * This is done automatically after each layout pass.
+	 *
+	 * @see #getChangedNodes()
+	 * @see #getChangedEdges()
+	 */
+	public void clearChanges() {
+		changedNodes.clear();
+		changedEdges.clear();
+	}
+
+	/**
+	 * Transfers the changes that are recorded by this {@link LayoutContext} to
+	 * the given {@link LayoutContext}, which operates on a copy of the graph
+	 * that was created from the given {@link LayoutSnapshot}. As removed
+	 * {@link Edge}s are not part of the copy, the source and target nodes of
+	 * all changed {@link Edge}s are recorded as changed, too.
+	 */
+	private void copyChanges(LayoutSnapshot snapshot, LayoutContext target) {
+		List<Node> copiedNodes = target.getGraph().getNodes();
+		for (Node node : changedNodes) {
+			int index = snapshot.indexOf(node);
+			if (index >= 0) {
+				target.changedNodes.add(copiedNodes.get(index));
+			}
+		}
+		List<Edge> copiedEdges = target.getGraph().getEdges();
+		for (int e = 0; e < snapshot.getEdgeCount(); e++) {
+			if (changedEdges.contains(snapshot.getEdge(e))) {
+				target.changedEdges.add(copiedEdges.get(e));
+			}
+		}
+		for (Edge edge : changedEdges) {
+			for (Node node : new Node[] { edge.getSource(),
+					edge.getTarget() }) {
+				int index = node == null ? -1 : snapshot.indexOf(node);
+				if (index >= 0) {
+					target.changedNodes.add(copiedNodes.get(index));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates a copy of the {@link Node}s and {@link Edge}s of the given
+	 * {@link LayoutSnapshot}, including the attributes of the graph, nodes,
+	 * and edges. Mutable geometric attribute values are copied, so that the
+	 * copy can be layouted concurrently.
+	 */
+	private Graph copyGraph(LayoutSnapshot snapshot) {
+		List<Node> nodes = new ArrayList<>(snapshot.getNodeCount());
+		for (int i = 0; i < snapshot.getNodeCount(); i++) {
+			Node copy = new Node();
+			copyAttributes(snapshot.getNode(i).getAttributes(),
+					copy.getAttributes());
+			nodes.add(copy);
+		}
+		List<Edge> edges = new ArrayList<>(snapshot.getEdgeCount());
+		for (int e = 0; e < snapshot.getEdgeCount(); e++) {
+			Edge copy = new Edge(nodes.get(snapshot.getEdgeSources()[e]),
+					nodes.get(snapshot.getEdgeTargets()[e]));
+			copyAttributes(snapshot.getEdge(e).getAttributes(),
+					copy.getAttributes());
+			edges.add(copy);
+		}
+		Graph copy = new Graph(nodes, edges);
+		copyAttributes(graph.getAttributes(), copy.getAttributes());
+		return copy;
+	}
+
+	private static void copyAttributes(Map<String, Object> source,
+			Map<String, Object> target) {
+		for (Entry<String, Object> entry : source.entrySet()) {
+			Object value = entry.getValue();
+			if (value instanceof Point) {
+				value = ((Point) value).getCopy();
+			} else if (value instanceof Dimension) {
+				value = ((Dimension) value).getCopy();
+			} else if (value instanceof Rectangle) {
+				value = ((Rectangle) value).getCopy();
+			}
+			target.put(entry.getKey(), value);
+		}
+	}
+
+	/**
+	 * Returns the locations and sizes of the nodes of the given {@link Graph}
+	 * as an array that contains x, y, width, and height per node, where
+	 * missing values are represented by {@link Double#NaN}.
+	 */
+	static double[] createFrame(Graph graph) {
+		List<Node> nodes = graph.getNodes();
+		double[] frame = new double[4 * nodes.size()];
+		Arrays.fill(frame, Double.NaN);
+		for (int i = 0; i < nodes.size(); i++) {
+			Point location = LayoutProperties.getLocation(nodes.get(i));
+			if (location != null) {
+				frame[4 * i] = location.x;
+				frame[4 * i + 1] = location.y;
+			}
+			Dimension size = LayoutProperties.getSize(nodes.get(i));
+			if (size != null) {
+				frame[4 * i + 2] = size.width;
+				frame[4 * i + 3] = size.height;
+			}
+		}
+		return frame;
+	}
+
+	/**
+	 * Transfers the locations and sizes of the given frame (see
+	 * {@link #createFrame(Graph)}) into the given {@link LayoutSnapshot}, and
+	 * commits them.
+	 */
+	static void applyFrame(double[] frame, LayoutSnapshot snapshot) {
+		for (int i = 0; i < snapshot.getNodeCount(); i++) {
+			if (!Double.isNaN(frame[4 * i])) {
+				snapshot.getLocationsX()[i] = frame[4 * i];
+				snapshot.getLocationsY()[i] = frame[4 * i + 1];
+			}
+			if (!Double.isNaN(frame[4 * i + 2])) {
+				snapshot.getWidths()[i] = frame[4 * i + 2];
+				snapshot.getHeights()[i] = frame[4 * i + 3];
+			}
+		}
+		snapshot.commit();
+	}
+
+	/**
+	 * Transfers the locations and sizes of the (copied) nodes of the given
+	 * {@link Graph} into the given {@link LayoutSnapshot}.
+	 */
+	private static void loadResults(Graph copy, LayoutSnapshot snapshot) {
+		List<Node> nodes = copy.getNodes();
+		for (int i = 0; i < nodes.size(); i++) {
+			Point location = LayoutProperties.getLocation(nodes.get(i));
+			if (location != null) {
+				snapshot.getLocationsX()[i] = location.x;
+				snapshot.getLocationsY()[i] = location.y;
+			}
+			Dimension size = LayoutProperties.getSize(nodes.get(i));
+			if (size != null) {
+				snapshot.getWidths()[i] = size.width;
+				snapshot.getHeights()[i] = size.height;
+			}
+		}
+	}
+
 	/**
 	 * Initiated by the context or by an {@link ILayoutAlgorithm} to perform
 	 * steps that are scheduled to be run after the layout pass. Should not be
@@ -103,6 +646,98 @@ public class LayoutContext {
 		}
 	}
 
+	/**
+	 * Creates a new {@link LayoutSnapshot} of the {@link #getGraph() graph}
+	 * that is to be layouted, which can be used by {@link ILayoutAlgorithm}s
+	 * to compute a layout without accessing the attributes of the individual
+	 * {@link Node}s and {@link Edge}s. The results can be written back using
+	 * {@link LayoutSnapshot#commit()}.
+	 *
+	 * @return A new {@link LayoutSnapshot} of the graph to layout.
+	 */
+	public LayoutSnapshot createSnapshot() {
+		return new LayoutSnapshot(graph.getNodes(), graph.getEdges(),
+				LayoutProperties.getBounds(graph));
+	}
+
+	/**
+	 * Returns the {@link Node}s of the {@link #getGraph() graph} that are
+	 * affected by the recorded changes, i.e. the {@link #getChangedNodes()
+	 * changed nodes} and the source and target nodes of the
+	 * {@link #getChangedEdges() changed edges}, that are still contained in
+	 * the graph.
+	 *
+	 * @return A new {@link Set} containing the affected {@link Node}s.
+	 */
+	public Set<Node> getAffectedNodes() {
+		Set<Node> affectedNodes = Collections
+				.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+		if (changedNodes.isEmpty() && changedEdges.isEmpty()) {
+			return affectedNodes;
+		}
+		Set<Node> nodes = Collections
+				.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+		nodes.addAll(graph.getNodes());
+		for (Node node : changedNodes) {
+			if (nodes.contains(node)) {
+				affectedNodes.add(node);
+			}
+		}
+		for (Edge edge : changedEdges) {
+			if (nodes.contains(edge.getSource())) {
+				affectedNodes.add(edge.getSource());
+			}
+			if (nodes.contains(edge.getTarget())) {
+				affectedNodes.add(edge.getTarget());
+			}
+		}
+		return affectedNodes;
+	}
+
+	/**
+	 * Returns the {@link Edge}s that were added to or removed from the
+	 * {@link #getGraph() graph}, or that were {@link #markChanged(Edge)
+	 * marked as changed}, since the last layout pass.
+	 *
+	 * @return An unmodifiable {@link Set} of the changed {@link Edge}s.
+	 */
+	public Set<Edge> getChangedEdges() {
+		return Collections.unmodifiableSet(changedEdges);
+	}
+
+	/**
+	 * Returns the {@link Node}s that were added to or removed from the
+	 * {@link #getGraph() graph}, or that were {@link #markChanged(Node)
+	 * marked as changed}, since the last layout pass.
+	 *
+	 * @return An unmodifiable {@link Set} of the changed {@link Node}s.
+	 */
+	public Set<Node> getChangedNodes() {
+		return Collections.unmodifiableSet(changedNodes);
+	}
+
+	/**
+	 * Returns the {@link LayoutCache} that is used by this
+	 * {@link LayoutContext}, or <code>null</code> if layout results are not
+	 * cached.
+	 *
+	 * @return The {@link LayoutCache}, may be <code>null</code>.
+	 */
+	public LayoutCache getLayoutCache() {
+		return layoutCache;
+	}
+
+	/**
+	 * Returns the maximum number of intermediate results per second that are
+	 * applied during a progressive layout.
+	 *
+	 * @return The maximum frame rate.
+	 * @see #applyLayoutProgressive(boolean, Object)
+	 */
+	public double getMaximumFrameRate() {
+		return maximumFrameRate;
+	}
+
 	/**
 	 * Returns the graph that is to be layouted.
 	 * 
@@ -124,7 +759,14 @@ public class LayoutContext {
 		if (graph == null) {
 			graph = new Graph();
 		}
+		if (this.graph != null) {
+			this.graph.getNodes().removeListener(nodesObserver);
+			this.graph.getEdges().removeListener(edgesObserver);
+		}
 		this.graph = graph;
+		graph.getNodes().addListener(nodesObserver);
+		graph.getEdges().addListener(edgesObserver);
+		clearChanges();
 	}
 
 	/**
@@ -159,6 +801,31 @@ public class LayoutContext {
 		return layoutAlgorithmProperty.get();
 	}
 
+	/**
+	 * Returns the {@link Executor} that is used to compute asynchronous
+	 * layouts, i.e. the {@link #setLayoutExecutor(Executor) layout executor}
+	 * if one is set, or the default executor otherwise.
+	 */
+	private Executor getLayoutExecutor() {
+		if (layoutExecutor != null) {
+			return layoutExecutor;
+		}
+		synchronized (LayoutContext.class) {
+			if (defaultLayoutExecutor == null) {
+				defaultLayoutExecutor = Executors
+						.newSingleThreadExecutor(new ThreadFactory() {
+							@Override
+							public Thread newThread(Runnable r) {
+								Thread thread = new Thread(r, "Layout");
+								thread.setDaemon(true);
+								return thread;
+							}
+						});
+			}
+			return defaultLayoutExecutor;
+		}
+	}
+
 	/**
 	 * Returns <code>true</code> when the given {@link Edge} is not relevant for
 	 * layout according to the configured {@link ILayoutFilter layout filters}.
@@ -212,6 +879,55 @@ public class LayoutContext {
 		return layoutAlgorithmProperty;
 	};
 
+	/**
+	 * Records the given {@link Edge} as changed, so that it is considered by
+	 * the next (non-clean) layout pass. Additions and removals of edges are
+	 * recorded automatically.
+	 *
+	 * @param edge
+	 *            The {@link Edge} that changed.
+	 */
+	public void markChanged(Edge edge) {
+		changedEdges.add(edge);
+	}
+
+	/**
+	 * Records the given {@link Node} as changed (e.g. because its size
+	 * changed), so that it is considered by the next (non-clean) layout pass.
+	 * Additions and removals of nodes are recorded automatically.
+	 *
+	 * @param node
+	 *            The {@link Node} that changed.
+	 */
+	public void markChanged(Node node) {
+		changedNodes.add(node);
+	}
+
+	/**
+	 * Binds the given layout algorithm to this {@link LayoutContext} again
+	 * after it was applied to the given copy context by the given layout. The
+	 * algorithm is bound using the result executor, because binding it may
+	 * access the graph (e.g. to initialize the algorithm). If a superseding
+	 * layout is in progress, the algorithm is bound when that layout is
+	 * finished instead.
+	 */
+	private void rebindLayoutAlgorithm(final ILayoutAlgorithm layoutAlgorithm,
+			final LayoutContext copyContext, final AsyncLayout layout) {
+		resultExecutor.execute(new Runnable() {
+			@Override
+			public void run() {
+				if (asyncLayout != null && asyncLayout != layout) {
+					return;
+				}
+				synchronized (layoutAlgorithm) {
+					if (layoutAlgorithm.getLayoutContext() == copyContext) {
+						layoutAlgorithm.setLayoutContext(LayoutContext.this);
+					}
+				}
+			}
+		});
+	}
+
 	/**
 	 * Removes the given ILayoutFilter from this {@link LayoutContext}.
 	 * 
@@ -258,6 +974,71 @@ public class LayoutContext {
 		}
 	}
 
+	/**
+	 * Sets the {@link Executor} that is used to compute asynchronous layouts.
+	 * Defaults to a single daemon thread that is shared by all
+	 * {@link LayoutContext}s, so that waiting for a layout algorithm that is
+	 * still in use does not block the threads of a shared pool.
+	 *
+	 * @param layoutExecutor
+	 *            The {@link Executor} to compute asynchronous layouts.
+	 * @see #applyLayoutAsync(boolean, Object)
+	 */
+	public void setLayoutExecutor(Executor layoutExecutor) {
+		if (layoutExecutor == null) {
+			throw new IllegalArgumentException("Executor may not be null.");
+		}
+		this.layoutExecutor = layoutExecutor;
+	}
+
+	/**
+	 * Sets the {@link Executor} that is used to apply the results of
+	 * asynchronous layouts. Defaults to an {@link Executor} that runs the
+	 * results on the JavaFX application thread.
+	 *
+	 * @param resultExecutor
+	 *            The {@link Executor} to apply the results of asynchronous
+	 *            layouts.
+	 * @see #applyLayoutAsync(boolean, Object)
+	 */
+	public void setResultExecutor(Executor resultExecutor) {
+		if (resultExecutor == null) {
+			throw new IllegalArgumentException("Executor may not be null.");
+		}
+		this.resultExecutor = resultExecutor;
+	}
+
+	/**
+	 * Sets the {@link LayoutCache} that is used to reuse the results of clean
+	 * layout passes. Caching is disabled by default.
+	 *
+	 * @param layoutCache
+	 *            The {@link LayoutCache} to use, or <code>null</code> to
+	 *            disable caching.
+	 * @see #applyLayout(boolean, Object)
+	 */
+	public void setLayoutCache(LayoutCache layoutCache) {
+		this.layoutCache = layoutCache;
+	}
+
+	/**
+	 * Sets the maximum number of intermediate results per second that are
+	 * applied during a progressive layout. Defaults to
+	 * {@link #DEFAULT_MAXIMUM_FRAME_RATE}.
+	 *
+	 * @param maximumFrameRate
+	 *            The maximum frame rate, which has to be positive.
+	 * @see #applyLayoutProgressive(boolean, Object)
+	 */
+	public void setMaximumFrameRate(double maximumFrameRate) {
+		if (!(maximumFrameRate > 0)) {
+			throw new IllegalArgumentException(
+					"The maximum frame rate has to be positive: "
+							+ maximumFrameRate);
+		}
+		this.maximumFrameRate = maximumFrameRate;
+	}
+
 	/**
 	 * Sets the layout algorithm for this context.
 	 * 
@@ -0,0 +1,407 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthias Wienand (itemis AG) - initial API & implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.gef.geometry.planar.Dimension;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.geometry.planar.Rectangle;
+import org.eclipse.gef.graph.Edge;
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.graph.Node;
+
+/**
+ * A {@link LayoutSnapshot} is a compact, index-based copy of the layout
+ * relevant data of a {@link Graph}, which can be created via
+ * {@link LayoutContext#createSnapshot()}. {@link Node}s and {@link Edge}s are
+ * identified by their index, locations and sizes are stored in primitive
+ * arrays, and the adjacency is stored in compressed sparse row (CSR) format,
+ * i.e. the indices of the outgoing edges of node <code>i</code> are stored in
+ * {@link #getOutgoingEdgeIndices()} from
+ * <code>getOutgoingOffsets()[i]</code> (inclusive) to
+ * <code>getOutgoingOffsets()[i + 1]</code> (exclusive).
+ * <p>
+ * Layout algorithms can read and modify the arrays of the snapshot without
+ * accessing the attributes of the {@link Node}s, and {@link #commit() commit}
+ * the results in a single pass afterwards. Only {@link Edge}s whose source and
+ * target are both contained in the snapshot are considered.
+ *
+ * @author mwienand
+ *
+ */
+public final class LayoutSnapshot {
+
+	private final Node[] nodes;
+	private final Map<Node, Integer> nodeIndices;
+	private final Edge[] edges;
+	private final Rectangle bounds;
+
+	private final double[] locationsX, locationsY, widths, heights;
+	private final double[] initialLocationsX, initialLocationsY,
+			initialWidths, initialHeights;
+	private final BitSet movable, resizable;
+
+	private final int[] edgeSources, edgeTargets;
+	private final double[] edgeWeights;
+	private final int[] outgoingOffsets, outgoingEdgeIndices;
+	private final int[] incomingOffsets, incomingEdgeIndices;
+
+	/**
+	 * Creates a new {@link LayoutSnapshot} for the given {@link Node}s and
+	 * {@link Edge}s.
+	 *
+	 * @param nodes
+	 *            The {@link Node}s to include.
+	 * @param edges
+	 *            The {@link Edge}s to include. {@link Edge}s whose source or
+	 *            target is not contained in the given nodes are skipped.
+	 * @param bounds
+	 *            The layout bounds, may be <code>null</code>.
+	 */
+	public LayoutSnapshot(List<Node> nodes, List<Edge> edges,
+			Rectangle bounds) {
+		this.bounds = bounds == null ? null : bounds.getCopy();
+		int n = nodes.size();
+		this.nodes = nodes.toArray(new Node[n]);
+		nodeIndices = new IdentityHashMap<>(n);
+		locationsX = new double[n];
+		locationsY = new double[n];
+		widths = new double[n];
+		heights = new double[n];
+		movable = new BitSet(n);
+		resizable = new BitSet(n);
+		for (int i = 0; i < n; i++) {
+			Node node = this.nodes[i];
+			nodeIndices.put(node, i);
+			Point location = LayoutProperties.getLocation(node);
+			if (location != null) {
+				locationsX[i] = location.x;
+				locationsY[i] = location.y;
+			}
+			Dimension size = LayoutProperties.getSize(node);
+			if (size != null) {
+				widths[i] = size.width;
+				heights[i] = size.height;
+			}
+			movable.set(i, LayoutProperties.isMovable(node));
+			resizable.set(i, LayoutProperties.isResizable(node));
+		}
+		initialLocationsX = locationsX.clone();
+		initialLocationsY = locationsY.clone();
+		initialWidths = widths.clone();
+		initialHeights = heights.clone();
+
+		// collect relevant edges
+		Edge[] relevantEdges = new Edge[edges.size()];
+		int[] sources = new int[edges.size()];
+		int[] targets = new int[edges.size()];
+		int m = 0;
+		for (Edge edge : edges) {
+			Integer source = nodeIndices.get(edge.getSource());
+			Integer target = nodeIndices.get(edge.getTarget());
+			if (source == null || target == null) {
+				continue;
+			}
+			relevantEdges[m] = edge;
+			sources[m] = source;
+			targets[m] = target;
+			m++;
+		}
+		this.edges = Arrays.copyOf(relevantEdges, m);
+		edgeSources = Arrays.copyOf(sources, m);
+		edgeTargets = Arrays.copyOf(targets, m);
+		edgeWeights = new double[m];
+		for (int e = 0; e < m; e++) {
+			edgeWeights[e] = LayoutProperties.getWeight(this.edges[e]);
+		}
+
+		// build CSR adjacency
+		outgoingOffsets = new int[n + 1];
+		incomingOffsets = new int[n + 1];
+		outgoingEdgeIndices = new int[m];
+		incomingEdgeIndices = new int[m];
+		buildAdjacency(edgeSources, outgoingOffsets, outgoingEdgeIndices);
+		buildAdjacency(edgeTargets, incomingOffsets, incomingEdgeIndices);
+	}
+
+	private static void buildAdjacency(int[] endpoints, int[] offsets,
+			int[] edgeIndices) {
+		int n = offsets.length - 1;
+		for (int e = 0; e < endpoints.length; e++) {
+			offsets[endpoints[e] + 1]++;
+		}
+		for (int i = 0; i < n; i++) {
+			offsets[i + 1] += offsets[i];
+		}
+		int[] next = Arrays.copyOf(offsets, n);
+		for (int e = 0; e < endpoints.length; e++) {
+			edgeIndices[next[endpoints[e]]++] = e;
+		}
+	}
+
+	/**
+	 * Writes the locations and sizes that changed since this snapshot was
+	 * created back to the {@link Node}s. Locations and sizes that did not
+	 * change are not written, so that no change notifications are fired for
+	 * them. Afterwards, the current values are considered to be unchanged.
+	 */
+	public void commit() {
+		for (int i = 0; i < nodes.length; i++) {
+			if (locationsX[i] != initialLocationsX[i]
+					|| locationsY[i] != initialLocationsY[i]) {
+				LayoutProperties.setLocation(nodes[i],
+						new Point(locationsX[i], locationsY[i]));
+				initialLocationsX[i] = locationsX[i];
+				initialLocationsY[i] = locationsY[i];
+			}
+			if (widths[i] != initialWidths[i]
+					|| heights[i] != initialHeights[i]) {
+				LayoutProperties.setSize(nodes[i],
+						new Dimension(widths[i], heights[i]));
+				initialWidths[i] = widths[i];
+				initialHeights[i] = heights[i];
+			}
+		}
+	}
+
+	/**
+	 * Returns the layout bounds at the time this snapshot was created, or
+	 * <code>null</code> if no bounds were specified.
+	 *
+	 * @return The layout bounds.
+	 */
+	public Rectangle getBounds() {
+		return bounds;
+	}
+
+	/**
+	 * Returns the {@link Edge} with the given index.
+	 *
+	 * @param index
+	 *            The index of the {@link Edge}.
+	 * @return The {@link Edge} with the given index.
+	 */
+	public Edge getEdge(int index) {
+		return edges[index];
+	}
+
+	/**
+	 * Returns the number of {@link Edge}s in this snapshot.
+	 *
+	 * @return The number of {@link Edge}s.
+	 */
+	public int getEdgeCount() {
+		return edges.length;
+	}
+
+	/**
+	 * Returns the source node indices per edge index.
+	 *
+	 * @return The source node indices.
+	 */
+	public int[] getEdgeSources() {
+		return edgeSources;
+	}
+
+	/**
+	 * Returns the target node indices per edge index.
+	 *
+	 * @return The target node indices.
+	 */
+	public int[] getEdgeTargets() {
+		return edgeTargets;
+	}
+
+	/**
+	 * Returns the {@link LayoutProperties#WEIGHT_PROPERTY weights} per edge
+	 * index.
+	 *
+	 * @return The edge weights.
+	 */
+	public double[] getEdgeWeights() {
+		return edgeWeights;
+	}
+
+	/**
+	 * Returns the heights per node index. Modifications are written back to
+	 * the {@link Node}s on {@link #commit()}.
+	 *
+	 * @return The heights.
+	 */
+	public double[] getHeights() {
+		return heights;
+	}
+
+	/**
+	 * Returns the edge indices of the incoming edges, grouped by target node
+	 * (see {@link #getIncomingOffsets()}).
+	 *
+	 * @return The edge indices of the incoming edges.
+	 */
+	public int[] getIncomingEdgeIndices() {
+		return incomingEdgeIndices;
+	}
+
+	/**
+	 * Returns the offsets into {@link #getIncomingEdgeIndices()} per node
+	 * index. The array contains one more element than there are nodes.
+	 *
+	 * @return The offsets of the incoming edges.
+	 */
+	public int[] getIncomingOffsets() {
+		return incomingOffsets;
+	}
+
+	/**
+	 * Returns the x-coordinates (of the centers) per node index. Modifications
+	 * are written back to the {@link Node}s on {@link #commit()}.
+	 *
+	 * @return The x-coordinates.
+	 */
+	public double[] getLocationsX() {
+		return locationsX;
+	}
+
+	/**
+	 * Returns the y-coordinates (of the centers) per node index. Modifications
+	 * are written back to the {@link Node}s on {@link #commit()}.
+	 *
+	 * @return The y-coordinates.
+	 */
+	public double[] getLocationsY() {
+		return locationsY;
+	}
+
+	/**
+	 * Returns a {@link BitSet} that contains the indices of all
+	 * {@link LayoutProperties#isMovable(Node) movable} nodes.
+	 *
+	 * @return The movable node indices.
+	 */
+	public BitSet getMovable() {
+		return movable;
+	}
+
+	/**
+	 * Returns the {@link Node} with the given index.
+	 *
+	 * @param index
+	 *            The index of the {@link Node}.
+	 * @return The {@link Node} with the given index.
+	 */
+	public Node getNode(int index) {
+		return nodes[index];
+	}
+
+	/**
+	 * Returns the number of {@link Node}s in this snapshot.
+	 *
+	 * @return The number of {@link Node}s.
+	 */
+	public int getNodeCount() {
+		return nodes.length;
+	}
+
+	/**
+	 * Returns the {@link Node}s of this snapshot ordered by index. Replacing
+	 * elements in the returned array does not affect this snapshot.
+	 *
+	 * @return The {@link Node}s.
+	 */
+	public Node[] getNodes() {
+		return nodes.clone();
+	}
+
+	/**
+	 * Returns the edge indices of the outgoing edges, grouped by source node
+	 * (see {@link #getOutgoingOffsets()}).
+	 *
+	 * @return The edge indices of the outgoing edges.
+	 */
+	public int[] getOutgoingEdgeIndices() {
+		return outgoingEdgeIndices;
+	}
+
+	/**
+	 * Returns the offsets into {@link #getOutgoingEdgeIndices()} per node
+	 * index. The array contains one more element than there are nodes.
+	 *
+	 * @return The offsets of the outgoing edges.
+	 */
+	public int[] getOutgoingOffsets() {
+		return outgoingOffsets;
+	}
+
+	/**
+	 * Returns a {@link BitSet} that contains the indices of all
+	 * {@link LayoutProperties#isResizable(Node) resizable} nodes.
+	 *
+	 * @return The resizable node indices.
+	 */
+	public BitSet getResizable() {
+		return resizable;
+	}
+
+	/**
+	 * Returns the widths per node index. Modifications are written back to the
+	 * {@link Node}s on {@link #commit()}.
+	 *
+	 * @return The widths.
+	 */
+	public double[] getWidths() {
+		return widths;
+	}
+
+	/**
+	 * Returns the index of the given {@link Node} within this snapshot, or
+	 * <code>-1</code> if it is not contained.
+	 *
+	 * @param node
+	 *            The {@link Node} whose index is returned.
+	 * @return The index of the given {@link Node}, or <code>-1</code>.
+	 */
+	public int indexOf(Node node) {
+		Integer index = nodeIndices.get(node);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Resets the initial values that are used to determine the changes that
+	 * are written back on {@link #commit()} to the current values of the
+	 * {@link Node}s, i.e. reloads the current locations and sizes of the
+	 * {@link Node}s into this snapshot.
+	 */
+	public void reload() {
+		for (int i = 0; i < nodes.length; i++) {
+			Point location = LayoutProperties.getLocation(nodes[i]);
+			if (location != null) {
+				locationsX[i] = location.x;
+				locationsY[i] = location.y;
+			}
+			Dimension size = LayoutProperties.getSize(nodes[i]);
+			if (size != null) {
+				widths[i] = size.width;
+				heights[i] = size.height;
+			}
+		}
+		System.arraycopy(locationsX, 0, initialLocationsX, 0, nodes.length);
+		System.arraycopy(locationsY, 0, initialLocationsY, 0, nodes.length);
+		System.arraycopy(widths, 0, initialWidths, 0, nodes.length);
+		System.arraycopy(heights, 0, initialHeights, 0, nodes.length);
+	}
+}
@@ -0,0 +1,356 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthias Wienand (itemis AG) - initial API & implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+import org.eclipse.gef.geometry.planar.Dimension;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.geometry.planar.Rectangle;
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.graph.Node;
+
+/**
+ * The {@link NestedGraphLayoutDriver} lays out a {@link Graph} together with
+ * all {@link Node#getNestedGraph() nested graphs}, bottom-up: the nested
+ * graphs of a graph are laid out first (sibling nested graphs concurrently),
+ * then the sizes of the nesting nodes are updated to fit the nested layouts
+ * (see {@link #computeNestingNodeSize(Node, Rectangle)}), and finally the
+ * graph itself is laid out. Thereby, the layout of each graph is applied
+ * exactly once per layout pass, and always with the final sizes of its nodes.
+ * <p>
+ * Each graph is laid out within a {@link LayoutContext} of its own, which is
+ * kept across layout passes (so that non-clean layout passes only process the
+ * changes, see {@link LayoutContext#getAffectedNodes()}), and using the
+ * {@link ILayoutAlgorithm} that is provided for it. Nested graphs without
+ * {@link LayoutProperties#getBounds(Graph) layout bounds} are laid out within
+ * bounds that are computed from the sizes of their nodes (see
+ * {@link #computeLayoutBounds(Graph)}).
+ * <p>
+ * The {@link LayoutContext}s of graphs that are no longer reachable from the
+ * laid out graph are discarded after each layout pass.
+ * <p>
+ * If the {@link #setParallelism(int) parallelism} is greater than
+ * <code>1</code>, nested graphs are laid out concurrently, so that the graphs
+ * should not be observed by listeners that need to be notified on a specific
+ * thread (e.g. the JavaFX application thread). Therefore, all graphs are laid
+ * out on the calling thread by default.
+ *
+ * @author mwienand
+ *
+ */
+public class NestedGraphLayoutDriver {
+
+	/**
+	 * The default value for the space between the nested layout and the border
+	 * of its nesting node.
+	 */
+	public static final double DEFAULT_PADDING = 10;
+
+	private final Function<? super Graph, ? extends ILayoutAlgorithm> layoutAlgorithmProvider;
+	private final Map<Graph, LayoutContext> contexts = Collections
+			.synchronizedMap(new IdentityHashMap<Graph, LayoutContext>());
+	// graphs whose layout bounds were computed (and have to be re-computed)
+	private final Set<Graph> computedBounds = Collections
+			.synchronizedSet(Collections
+					.newSetFromMap(new IdentityHashMap<Graph, Boolean>()));
+	private double padding = DEFAULT_PADDING;
+	private int parallelism = 1;
+	private ForkJoinPool pool;
+
+	/**
+	 * Constructs a new {@link NestedGraphLayoutDriver} that lays out each
+	 * graph using the {@link ILayoutAlgorithm} that is provided for it by the
+	 * given function. As graphs are laid out concurrently, the function has to
+	 * return a new {@link ILayoutAlgorithm} for each graph. If it returns
+	 * <code>null</code>, the corresponding graph is not laid out (but the
+	 * sizes of its nesting nodes are still updated).
+	 *
+	 * @param layoutAlgorithmProvider
+	 *            The function that provides the {@link ILayoutAlgorithm} for a
+	 *            {@link Graph}. It is called once per {@link Graph}.
+	 */
+	public NestedGraphLayoutDriver(
+			Function<? super Graph, ? extends ILayoutAlgorithm> layoutAlgorithmProvider) {
+		if (layoutAlgorithmProvider == null) {
+			throw new IllegalArgumentException(
+					"The layout algorithm provider may not be null.");
+		}
+		this.layoutAlgorithmProvider = layoutAlgorithmProvider;
+	}
+
+	/**
+	 * Lays out the given {@link Graph} and all its nested graphs (recursively).
+	 *
+	 * @param graph
+	 *            The (root) {@link Graph} to lay out.
+	 * @param clean
+	 *            <code>true</code> to indicate that the algorithms have to
+	 *            fully re-compute the layouts, otherwise <code>false</code>.
+	 */
+	public void applyLayout(final Graph graph, final boolean clean) {
+		final Set<Graph> visited = Collections.synchronizedSet(
+				Collections.newSetFromMap(new IdentityHashMap<Graph, Boolean>()));
+		if (parallelism > 1) {
+			if (pool == null) {
+				pool = new ForkJoinPool(parallelism);
+			}
+			pool.invoke(new RecursiveAction() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected void compute() {
+					applyLayout(graph, clean, true, visited);
+				}
+			});
+		} else {
+			applyLayout(graph, clean, false, visited);
+		}
+		prune(visited);
+	}
+
+	private void applyLayout(Graph graph, final boolean clean,
+			boolean parallel, final Set<Graph> visited) {
+		visited.add(graph);
+		List<Node> nestingNodes = new ArrayList<>();
+		for (Node node : graph.getNodes()) {
+			if (node.getNestedGraph() != null) {
+				nestingNodes.add(node);
+			}
+		}
+
+		// lay out the nested graphs
+		if (parallel && nestingNodes.size() > 1) {
+			List<RecursiveAction> tasks = new ArrayList<>(nestingNodes.size());
+			for (final Node node : nestingNodes) {
+				tasks.add(new RecursiveAction() {
+					private static final long serialVersionUID = 1L;
+
+					@Override
+					protected void compute() {
+						applyLayout(node.getNestedGraph(), clean, true,
+								visited);
+					}
+				});
+			}
+			ForkJoinTask.invokeAll(tasks);
+		} else {
+			for (Node node : nestingNodes) {
+				applyLayout(node.getNestedGraph(), clean, parallel, visited);
+			}
+		}
+
+		// propagate the sizes of the nested layouts
+		for (Node node : nestingNodes) {
+			if (!LayoutProperties.isResizable(node)) {
+				continue;
+			}
+			Rectangle nestedBounds = getLayoutExtent(node.getNestedGraph());
+			if (nestedBounds != null) {
+				Dimension size = computeNestingNodeSize(node, nestedBounds);
+				if (!size.equals(LayoutProperties.getSize(node))) {
+					LayoutProperties.setSize(node, size);
+				}
+			}
+		}
+
+		// lay out the graph itself
+		LayoutContext context = getLayoutContext(graph);
+		if (context == null) {
+			ILayoutAlgorithm algorithm = layoutAlgorithmProvider.apply(graph);
+			if (algorithm == null) {
+				return;
+			}
+			context = new LayoutContext();
+			context.setGraph(graph);
+			context.setLayoutAlgorithm(algorithm);
+			contexts.put(graph, context);
+		}
+		if (LayoutProperties.getBounds(graph) == null
+				|| computedBounds.contains(graph)) {
+			computedBounds.add(graph);
+			LayoutProperties.setBounds(graph, computeLayoutBounds(graph));
+		}
+		context.applyLayout(clean, null);
+	}
+
+	/**
+	 * Computes the layout bounds for the given {@link Graph}, which does not
+	 * specify {@link LayoutProperties#getBounds(Graph) layout bounds}. The
+	 * default implementation returns a square whose area is twice the sum of
+	 * the (padded) node areas.
+	 *
+	 * @param graph
+	 *            The {@link Graph} for which to compute the layout bounds.
+	 * @return The layout bounds for the given {@link Graph}.
+	 */
+	protected Rectangle computeLayoutBounds(Graph graph) {
+		double area = 0;
+		for (Node node : graph.getNodes()) {
+			Dimension size = LayoutProperties.getSize(node);
+			if (size != null) {
+				area += (size.width + 2 * padding)
+						* (size.height + 2 * padding);
+			} else {
+				area += 4 * padding * padding;
+			}
+		}
+		double side = Math.sqrt(2 * area);
+		return new Rectangle(0, 0, side, side);
+	}
+
+	/**
+	 * Computes the size of the given nesting {@link Node}, so that it fits the
+	 * layout of its nested graph. The default implementation adds the
+	 * {@link #getPadding() padding} to each side of the nested layout.
+	 *
+	 * @param nestingNode
+	 *            The {@link Node} whose size is computed.
+	 * @param nestedLayoutBounds
+	 *            The bounds of the nested layout (i.e. of the nodes of the
+	 *            nested graph).
+	 * @return The new size of the nesting {@link Node}.
+	 */
+	protected Dimension computeNestingNodeSize(Node nestingNode,
+			Rectangle nestedLayoutBounds) {
+		return new Dimension(nestedLayoutBounds.getWidth() + 2 * padding,
+				nestedLayoutBounds.getHeight() + 2 * padding);
+	}
+
+	/**
+	 * Returns the {@link LayoutContext} that is used to lay out the given
+	 * {@link Graph}, or <code>null</code> if the {@link Graph} was not laid
+	 * out yet.
+	 *
+	 * @param graph
+	 *            The {@link Graph} for which to return the
+	 *            {@link LayoutContext}.
+	 * @return The {@link LayoutContext} for the given {@link Graph}, or
+	 *         <code>null</code>.
+	 */
+	public LayoutContext getLayoutContext(Graph graph) {
+		return contexts.get(graph);
+	}
+
+	/**
+	 * Returns the bounds of the nodes of the given {@link Graph}, or
+	 * <code>null</code> if the {@link Graph} does not contain nodes.
+	 */
+	private static Rectangle getLayoutExtent(Graph graph) {
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		for (Node node : graph.getNodes()) {
+			Point location = LayoutProperties.getLocation(node);
+			Dimension size = LayoutProperties.getSize(node);
+			if (location == null) {
+				continue;
+			}
+			double width = size == null ? 0 : size.width;
+			double height = size == null ? 0 : size.height;
+			minX = Math.min(minX, location.x - width / 2);
+			minY = Math.min(minY, location.y - height / 2);
+			maxX = Math.max(maxX, location.x + width / 2);
+			maxY = Math.max(maxY, location.y + height / 2);
+		}
+		if (minX > maxX) {
+			return null;
+		}
+		return new Rectangle(minX, minY, maxX - minX, maxY - minY);
+	}
+
+	/**
+	 * Discards the {@link LayoutContext}s (and computed bounds) of all graphs
+	 * that were not laid out in the last layout pass, i.e. that are no longer
+	 * reachable from the laid out graph, so that they can be garbage
+	 * collected.
+	 */
+	private void prune(Collection<Graph> visited) {
+		synchronized (contexts) {
+			contexts.keySet().retainAll(visited);
+		}
+		synchronized (computedBounds) {
+			computedBounds.retainAll(visited);
+		}
+	}
+
+	/**
+	 * Returns the space between the nested layout and the border of its
+	 * nesting node.
+	 *
+	 * @return The padding.
+	 */
+	public double getPadding() {
+		return padding;
+	}
+
+	/**
+	 * Returns the number of threads that are used to lay out nested graphs.
+	 *
+	 * @return The parallelism level.
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Sets the space between the nested layout and the border of its nesting
+	 * node.
+	 *
+	 * @param padding
+	 *            The padding (default is {@value #DEFAULT_PADDING}).
+	 */
+	public void setPadding(double padding) {
+		if (padding < 0) {
+			throw new IllegalArgumentException(
+					"The padding may not be negative, but is <" + padding
+							+ ">.");
+		}
+		this.padding = padding;
+	}
+
+	/**
+	 * Sets the number of threads that are used to lay out nested graphs. For a
+	 * value greater than <code>1</code>, the layout passes are performed by a
+	 * dedicated fork-join pool, which is shut down when the parallelism is
+	 * changed.
+	 *
+	 * @param parallelism
+	 *            The number of threads to use, <code>1</code> (the default) to
+	 *            lay out all graphs on the calling thread.
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException(
+					"Parallelism has to be positive, but is <" + parallelism
+							+ ">.");
+		}
+		if (this.parallelism != parallelism && pool != null) {
+			pool.shutdown();
+			pool = null;
+		}
+		this.parallelism = parallelism;
+	}
+
+}
@@ -12,6 +12,19 @@
  ******************************************************************************/
 package org.eclipse.gef.layout.algorithms;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+
 import org.eclipse.gef.geometry.planar.Dimension;
 import org.eclipse.gef.geometry.planar.Point;
 import org.eclipse.gef.geometry.planar.Rectangle;
@@ -40,6 +53,13 @@ class AlgorithmHelper {
 	 */
 	private static double PADDING_PERCENT = 0.8;
 
+	/**
+	 * The pool of daemon threads that is shared by the layout algorithms to
+	 * compute independent tasks concurrently (see
+	 * {@link #runInParallel(int, int, IntConsumer)}).
+	 */
+	private static ThreadPoolExecutor executor;
+
 	/**
 	 * Fits given entities within given bounds, preserving their relative
 	 * locations. If an entity is resizable and the <i>resize</i> flag is set to
@@ -60,7 +80,31 @@ class AlgorithmHelper {
 			fitSingleEntity(entities[0], destinationBounds, resize);
 			return;
 		}
-		Rectangle startingBounds = getLayoutBounds(entities, false);
+		fitWithinBounds(entities, getLayoutBounds(entities, false),
+				destinationBounds, resize);
+	}
+
+	/**
+	 * Maps the given entities from the given starting bounds to the given
+	 * destination bounds, preserving their relative locations, like
+	 * {@link #fitWithinBounds(Node[], Rectangle, boolean)} does for the
+	 * current layout bounds of the entities. This allows to map a subset of
+	 * the entities in the same way as all entities were mapped before.
+	 * 
+	 * @param entities
+	 *            The {@link Node}s to fit.
+	 * @param startingBounds
+	 *            The {@link Rectangle} that is mapped to the destination
+	 *            bounds.
+	 * @param destinationBounds
+	 *            The {@link Rectangle} representing the layout bounds.
+	 * @param resize
+	 *            <code>true</code> to indicate that the entities can be
+	 *            resized, otherwise <code>false</code>.
+	 */
+	public static void fitWithinBounds(Node[] entities,
+			Rectangle startingBounds, Rectangle destinationBounds,
+			boolean resize) {
 		double sizeScale = Math.min(
 				destinationBounds.getWidth() / startingBounds.getWidth(),
 				destinationBounds.getHeight() / startingBounds.getHeight());
@@ -259,4 +303,101 @@ class AlgorithmHelper {
 		}
 		return horAndVertdistance;
 	}
+
+	/**
+	 * Returns the pool of daemon threads (one per available processor) that is
+	 * shared by the layout algorithms, and whose threads terminate when idle.
+	 */
+	private static Executor getExecutor() {
+		synchronized (AlgorithmHelper.class) {
+			if (executor == null) {
+				int threads = Runtime.getRuntime().availableProcessors();
+				executor = new ThreadPoolExecutor(threads, threads, 60,
+						TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+						new ThreadFactory() {
+							private final AtomicInteger threadCount = new AtomicInteger();
+
+							@Override
+							public Thread newThread(Runnable r) {
+								Thread thread = new Thread(r, "Layout Worker "
+										+ threadCount.incrementAndGet());
+								thread.setDaemon(true);
+								return thread;
+							}
+						});
+				// do not keep idle threads alive
+				executor.allowCoreThreadTimeOut(true);
+			}
+			return executor;
+		}
+	}
+
+	/**
+	 * Runs the given task for each index from <code>0</code> (inclusive) to
+	 * the given task count (exclusive), using up to the given number of
+	 * threads. The calling thread participates, and the other threads are
+	 * taken from a pool of daemon threads that is shared by the layout
+	 * algorithms, so that the tasks are completed even if all threads of the
+	 * pool are busy. Returns when all tasks are completed (even if the calling
+	 * thread is interrupted in the meantime), and rethrows the first exception
+	 * that is thrown by a task.
+	 * 
+	 * @param parallelism
+	 *            The maximum number of threads to use.
+	 * @param taskCount
+	 *            The number of tasks to run.
+	 * @param task
+	 *            The task to run for each index.
+	 */
+	static void runInParallel(int parallelism, final int taskCount,
+			final IntConsumer task) {
+		final AtomicInteger nextTask = new AtomicInteger();
+		final CountDownLatch done = new CountDownLatch(taskCount);
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		Runnable worker = () -> {
+			for (int t = nextTask.getAndIncrement(); t < taskCount; t = nextTask
+					.getAndIncrement()) {
+				try {
+					task.accept(t);
+				} catch (Throwable e) {
+					failure.compareAndSet(null, e);
+				} finally {
+					done.countDown();
+				}
+			}
+		};
+		List<FutureTask<Void>> helpers = new ArrayList<>();
+		for (int i = 1; i < Math.min(parallelism, taskCount); i++) {
+			FutureTask<Void> helper = new FutureTask<>(worker, null);
+			helpers.add(helper);
+			getExecutor().execute(helper);
+		}
+		worker.run();
+
+		// all tasks are claimed, wait for those that are run by helpers
+		boolean interrupted = false;
+		while (true) {
+			try {
+				done.await();
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		for (FutureTask<Void> helper : helpers) {
+			// helpers that did not start yet do not need to run
+			helper.cancel(false);
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		Throwable t = failure.get();
+		if (t instanceof RuntimeException) {
+			throw (RuntimeException) t;
+		} else if (t instanceof Error) {
+			throw (Error) t;
+		} else if (t != null) {
+			throw new RuntimeException(t);
+		}
+	}
 }
@@ -53,6 +53,11 @@ public class BoxLayoutAlgorithm extends GridLayoutAlgorithm {
 		setOrientation(orientation);
 	}
 
+	@Override
+	public String getLayoutKey() {
+		return super.getLayoutKey() + ";orientation=" + orientation;
+	}
+
 	/**
 	 * Returns the orientation of this {@link BoxLayoutAlgorithm}, either
 	 * {@link #HORIZONTAL} or {@link #VERTICAL}.
@@ -12,6 +12,7 @@
  ******************************************************************************/
 package org.eclipse.gef.layout.algorithms;
 
+import org.eclipse.gef.layout.ICacheableLayoutAlgorithm;
 import org.eclipse.gef.layout.ILayoutAlgorithm;
 import org.eclipse.gef.layout.LayoutContext;
 
@@ -24,7 +25,7 @@ import org.eclipse.gef.layout.LayoutContext;
  * @author Mateusz Matela
  * @author mwienand
  */
-public class CompositeLayoutAlgorithm implements ILayoutAlgorithm {
+public class CompositeLayoutAlgorithm implements ICacheableLayoutAlgorithm {
 
 	private LayoutContext context = null;
 	private ILayoutAlgorithm[] algorithms = null;
@@ -41,6 +42,17 @@ public class CompositeLayoutAlgorithm implements ILayoutAlgorithm {
 		this.algorithms = algorithms;
 	}
 
+	/**
+	 * Returns the {@link ILayoutAlgorithm}s that are combined by this
+	 * {@link CompositeLayoutAlgorithm}. Replacing elements in the returned
+	 * array does not affect this {@link CompositeLayoutAlgorithm}.
+	 * 
+	 * @return The combined {@link ILayoutAlgorithm}s.
+	 */
+	public ILayoutAlgorithm[] getLayoutAlgorithms() {
+		return algorithms.clone();
+	}
+
 	public void applyLayout(boolean clean, Object extra) {
 		for (int i = 0; i < algorithms.length; i++) {
 			algorithms[i].applyLayout(clean, extra);
@@ -58,4 +70,20 @@ public class CompositeLayoutAlgorithm implements ILayoutAlgorithm {
 		return context;
 	}
 
+	public String getLayoutKey() {
+		// the results can only be cached if all algorithms can be identified
+		StringBuilder sb = new StringBuilder();
+		for (ILayoutAlgorithm algorithm : algorithms) {
+			String key = algorithm instanceof ICacheableLayoutAlgorithm
+					? ((ICacheableLayoutAlgorithm) algorithm).getLayoutKey()
+					: null;
+			if (key == null) {
+				return null;
+			}
+			sb.append(algorithm.getClass().getName()).append('{').append(key)
+					.append('}');
+		}
+		return sb.toString();
+	}
+
 }
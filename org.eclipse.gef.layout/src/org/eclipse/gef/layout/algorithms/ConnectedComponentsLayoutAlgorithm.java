@@ -0,0 +1,652 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthias Wienand (itemis AG) - initial API & implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout.algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.eclipse.gef.geometry.planar.Dimension;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.geometry.planar.Rectangle;
+import org.eclipse.gef.graph.Edge;
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.graph.Node;
+import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.LayoutContext;
+import org.eclipse.gef.layout.LayoutProperties;
+import org.eclipse.gef.layout.LayoutSnapshot;
+
+/**
+ * The {@link ConnectedComponentsLayoutAlgorithm} decorates an
+ * {@link ILayoutAlgorithm}, so that each connected component of the graph is
+ * laid out independently. The components are laid out concurrently (each by
+ * its own {@link ILayoutAlgorithm}, which is created using the given factory)
+ * and are then packed next to each other, before the packing is scaled into
+ * the layout bounds. Components that consist of a single node are not laid
+ * out, but only packed.
+ * <p>
+ * Each component is laid out within a {@link Graph} of its own, whose
+ * {@link Node}s and {@link Edge}s are copies of the original ones (including
+ * their attributes). The layout bounds of a component are proportional to its
+ * number of nodes. Only the locations of
+ * {@link LayoutProperties#isMovable(Node) movable} nodes and the sizes of
+ * {@link LayoutProperties#isResizable(Node) resizable} nodes are written back.
+ * As the whole graph is laid out in each pass, non-clean layout passes are
+ * ignored.
+ *
+ * @author mwienand
+ *
+ */
+public class ConnectedComponentsLayoutAlgorithm implements ILayoutAlgorithm {
+
+	/**
+	 * A connected component, i.e. the indices of its nodes (in the
+	 * {@link LayoutSnapshot}), the indices of its edges, and the bounds of its
+	 * layout (relative to the packing, once packed).
+	 */
+	private static final class Component {
+		private int[] nodes;
+		private int[] edges;
+		private Node[] proxies;
+		private Rectangle bounds;
+	}
+
+	/**
+	 * The default value for the space between two packed components.
+	 */
+	private static final double DEFAULT_SPACING = 10;
+
+	// lays out the components of all algorithms, unless an executor is set
+	// (created lazily)
+	private static ThreadPoolExecutor defaultExecutor;
+
+	private final Supplier<? extends ILayoutAlgorithm> layoutAlgorithmFactory;
+	private double spacing = DEFAULT_SPACING;
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+	private Executor executor;
+	private LayoutContext context;
+
+	/**
+	 * Constructs a new {@link ConnectedComponentsLayoutAlgorithm} that lays
+	 * out the connected components using {@link ILayoutAlgorithm}s that are
+	 * created by the given factory. As the components are laid out
+	 * concurrently, the factory has to create a new {@link ILayoutAlgorithm}
+	 * for each invocation.
+	 *
+	 * @param layoutAlgorithmFactory
+	 *            The factory that creates the {@link ILayoutAlgorithm} per
+	 *            component.
+	 */
+	public ConnectedComponentsLayoutAlgorithm(
+			Supplier<? extends ILayoutAlgorithm> layoutAlgorithmFactory) {
+		if (layoutAlgorithmFactory == null) {
+			throw new IllegalArgumentException(
+					"The layout algorithm factory may not be null.");
+		}
+		this.layoutAlgorithmFactory = layoutAlgorithmFactory;
+	}
+
+	public void applyLayout(boolean clean, final Object extra) {
+		if (!clean)
+			return;
+		LayoutSnapshot snapshot = context.createSnapshot();
+		Rectangle bounds = LayoutProperties.getBounds(context.getGraph());
+		if (snapshot.getNodeCount() == 0 || bounds == null) {
+			return;
+		}
+		List<Component> components = findComponents(snapshot);
+
+		// all components are laid out at the same scale, which is chosen so
+		// that the nodes fit into the bounds if the components are packed
+		// without gaps
+		int n = snapshot.getNodeCount();
+		double maxNodeExtent = 0;
+		for (int i = 0; i < n; i++) {
+			maxNodeExtent = Math.max(maxNodeExtent,
+					Math.max(getWidth(snapshot, i), getHeight(snapshot, i)));
+		}
+		final double scale = Math.max(1, 2 * maxNodeExtent * Math.sqrt(n)
+				/ Math.min(bounds.getWidth(), bounds.getHeight()));
+		final double width = bounds.getWidth() * scale / Math.sqrt(n);
+		final double height = bounds.getHeight() * scale / Math.sqrt(n);
+
+		// lay out the components, largest first, so that the largest one does
+		// not determine the overall duration if it is scheduled last
+		List<Component> layouts = new ArrayList<>();
+		for (Component component : components) {
+			createProxies(snapshot, component);
+			if (component.nodes.length > 1) {
+				layouts.add(component);
+			}
+		}
+		if (parallelism > 1 && layouts.size() > 1) {
+			layoutComponentsConcurrently(layouts, width, height, extra);
+		} else {
+			for (Component component : layouts) {
+				if (Thread.currentThread().isInterrupted()) {
+					break;
+				}
+				layoutComponent(component, width, height, extra);
+			}
+		}
+		if (Thread.currentThread().isInterrupted()) {
+			// the layout was cancelled (see LayoutContext#applyLayoutAsync())
+			return;
+		}
+
+		for (Component component : components) {
+			component.bounds = getLayoutBounds(component.proxies);
+		}
+		pack(components, bounds.getWidth() / bounds.getHeight());
+		writeBack(snapshot, components, bounds);
+		snapshot.commit();
+	}
+
+	/**
+	 * Determines the connected components using union-find. The components
+	 * are sorted by decreasing number of nodes.
+	 */
+	private static List<Component> findComponents(LayoutSnapshot snapshot) {
+		int n = snapshot.getNodeCount();
+		int[] parents = new int[n];
+		for (int i = 0; i < n; i++) {
+			parents[i] = i;
+		}
+		int[] sources = snapshot.getEdgeSources();
+		int[] targets = snapshot.getEdgeTargets();
+		for (int e = 0; e < snapshot.getEdgeCount(); e++) {
+			int s = find(parents, sources[e]);
+			int t = find(parents, targets[e]);
+			if (s != t) {
+				parents[Math.max(s, t)] = Math.min(s, t);
+			}
+		}
+
+		// number the components, and count their nodes and edges
+		int[] componentIndices = new int[n];
+		int componentCount = 0;
+		for (int i = 0; i < n; i++) {
+			int root = find(parents, i);
+			componentIndices[i] = root == i ? componentCount++
+					: componentIndices[root];
+		}
+		int[] nodeCounts = new int[componentCount];
+		int[] edgeCounts = new int[componentCount];
+		for (int i = 0; i < n; i++) {
+			nodeCounts[componentIndices[i]]++;
+		}
+		for (int e = 0; e < snapshot.getEdgeCount(); e++) {
+			edgeCounts[componentIndices[sources[e]]]++;
+		}
+		List<Component> components = new ArrayList<>(componentCount);
+		for (int c = 0; c < componentCount; c++) {
+			Component component = new Component();
+			component.nodes = new int[nodeCounts[c]];
+			component.edges = new int[edgeCounts[c]];
+			components.add(component);
+		}
+		Arrays.fill(nodeCounts, 0);
+		Arrays.fill(edgeCounts, 0);
+		for (int i = 0; i < n; i++) {
+			int c = componentIndices[i];
+			components.get(c).nodes[nodeCounts[c]++] = i;
+		}
+		for (int e = 0; e < snapshot.getEdgeCount(); e++) {
+			int c = componentIndices[sources[e]];
+			components.get(c).edges[edgeCounts[c]++] = e;
+		}
+		// stable sort, so that the packing is deterministic
+		components.sort(new Comparator<Component>() {
+			@Override
+			public int compare(Component c1, Component c2) {
+				return Integer.compare(c2.nodes.length, c1.nodes.length);
+			}
+		});
+		return components;
+	}
+
+	private static int find(int[] parents, int i) {
+		while (parents[i] != i) {
+			// path halving
+			parents[i] = parents[parents[i]];
+			i = parents[i];
+		}
+		return i;
+	}
+
+	/**
+	 * Creates copies of the nodes of the given component, so that they can be
+	 * laid out concurrently (and without notifying listeners of the original
+	 * nodes about intermediate results).
+	 */
+	private static void createProxies(LayoutSnapshot snapshot,
+			Component component) {
+		component.proxies = new Node[component.nodes.length];
+		for (int k = 0; k < component.nodes.length; k++) {
+			int i = component.nodes[k];
+			Node proxy = new Node(snapshot.getNode(i).getAttributes());
+			// the location and size objects are mutable, so that they have to
+			// be copied as well
+			if (!Double.isNaN(snapshot.getLocationsX()[i])) {
+				LayoutProperties.setLocation(proxy,
+						new Point(snapshot.getLocationsX()[i],
+								snapshot.getLocationsY()[i]));
+			}
+			LayoutProperties.setSize(proxy, new Dimension(
+					getWidth(snapshot, i), getHeight(snapshot, i)));
+			component.proxies[k] = proxy;
+		}
+		if (component.nodes.length > 1) {
+			// map the snapshot indices to the proxies
+			int[] proxyIndices = new int[snapshot.getNodeCount()];
+			for (int k = 0; k < component.nodes.length; k++) {
+				proxyIndices[component.nodes[k]] = k;
+			}
+			List<Edge> edges = new ArrayList<>(component.edges.length);
+			for (int e : component.edges) {
+				edges.add(new Edge(snapshot.getEdge(e).getAttributes(),
+						component.proxies[proxyIndices[snapshot
+								.getEdgeSources()[e]]],
+						component.proxies[proxyIndices[snapshot
+								.getEdgeTargets()[e]]]));
+			}
+			new Graph(Arrays.asList(component.proxies), edges);
+		}
+	}
+
+	private void layoutComponent(Component component, double width,
+			double height, Object extra) {
+		double scale = Math.sqrt(component.nodes.length);
+		Graph graph = component.proxies[0].getGraph();
+		LayoutProperties.setBounds(graph,
+				new Rectangle(0, 0, width * scale, height * scale));
+		LayoutContext componentContext = new LayoutContext();
+		componentContext.setGraph(graph);
+		componentContext.setLayoutAlgorithm(layoutAlgorithmFactory.get());
+		componentContext.applyLayout(true, extra);
+	}
+
+	/**
+	 * Lays out the given components using up to {@link #getParallelism()}
+	 * threads, i.e. the calling thread and threads of the
+	 * {@link #setExecutor(Executor) executor}. The calling thread participates,
+	 * so that the components are laid out even if all threads of the executor
+	 * are busy. If the calling thread is interrupted, the remaining components
+	 * are skipped and the threads that lay out components are interrupted.
+	 */
+	private void layoutComponentsConcurrently(final List<Component> layouts,
+			final double width, final double height, final Object extra) {
+		final AtomicInteger next = new AtomicInteger();
+		final AtomicBoolean cancelled = new AtomicBoolean();
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		final CountDownLatch done = new CountDownLatch(layouts.size());
+		Runnable worker = new Runnable() {
+			@Override
+			public void run() {
+				for (int c = next.getAndIncrement(); c < layouts.size(); c = next
+						.getAndIncrement()) {
+					try {
+						if (!cancelled.get()
+								&& !Thread.currentThread().isInterrupted()) {
+							layoutComponent(layouts.get(c), width, height,
+									extra);
+						}
+					} catch (Throwable t) {
+						failure.compareAndSet(null, t);
+						cancelled.set(true);
+					} finally {
+						done.countDown();
+					}
+				}
+			}
+		};
+		Executor executor = getExecutor();
+		List<FutureTask<Void>> helpers = new ArrayList<>();
+		for (int i = 1; i < Math.min(parallelism, layouts.size()); i++) {
+			FutureTask<Void> helper = new FutureTask<>(worker, null);
+			executor.execute(helper);
+			helpers.add(helper);
+		}
+		worker.run();
+		try {
+			if (Thread.currentThread().isInterrupted()) {
+				throw new InterruptedException();
+			}
+			done.await();
+		} catch (InterruptedException e) {
+			// the layout was cancelled (see LayoutContext#applyLayoutAsync()),
+			// so that the components that are still laid out (on copies of
+			// the nodes) are abandoned
+			cancelled.set(true);
+			for (FutureTask<Void> helper : helpers) {
+				helper.cancel(true);
+			}
+			Thread.currentThread().interrupt();
+			return;
+		}
+		Throwable t = failure.get();
+		if (t instanceof RuntimeException) {
+			throw (RuntimeException) t;
+		} else if (t instanceof Error) {
+			throw (Error) t;
+		} else if (t != null) {
+			throw new IllegalStateException(t);
+		}
+	}
+
+	private static Rectangle getLayoutBounds(Node[] nodes) {
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		for (Node node : nodes) {
+			Point location = LayoutProperties.getLocation(node);
+			Dimension size = LayoutProperties.getSize(node);
+			double x = location == null ? 0 : location.x;
+			double y = location == null ? 0 : location.y;
+			minX = Math.min(minX, x - size.width / 2);
+			minY = Math.min(minY, y - size.height / 2);
+			maxX = Math.max(maxX, x + size.width / 2);
+			maxY = Math.max(maxY, y + size.height / 2);
+		}
+		return new Rectangle(minX, minY, maxX - minX, maxY - minY);
+	}
+
+	/**
+	 * Packs the bounds of the given components into rows ("shelves"), whose
+	 * width is chosen so that the packing approximately has the given aspect
+	 * ratio. Afterwards, the bounds of each component specify its location
+	 * within the packing.
+	 */
+	private void pack(List<Component> components, double aspectRatio) {
+		double area = 0;
+		double maxWidth = 0;
+		for (Component component : components) {
+			area += (component.bounds.getWidth() + spacing)
+					* (component.bounds.getHeight() + spacing);
+			maxWidth = Math.max(maxWidth, component.bounds.getWidth());
+		}
+		double rowWidth = Math.max(maxWidth, Math.sqrt(area * aspectRatio));
+		List<Component> sorted = new ArrayList<>(components);
+		sorted.sort(new Comparator<Component>() {
+			@Override
+			public int compare(Component c1, Component c2) {
+				return Double.compare(c2.bounds.getHeight(),
+						c1.bounds.getHeight());
+			}
+		});
+		double x = 0;
+		double y = 0;
+		double rowHeight = 0;
+		for (Component component : sorted) {
+			if (x > 0 && x + component.bounds.getWidth() > rowWidth) {
+				x = 0;
+				y += rowHeight + spacing;
+				rowHeight = 0;
+			}
+			component.bounds = new Rectangle(x, y, component.bounds.getWidth(),
+					component.bounds.getHeight());
+			x += component.bounds.getWidth() + spacing;
+			rowHeight = Math.max(rowHeight, component.bounds.getHeight());
+		}
+	}
+
+	/**
+	 * Scales the packing into the given bounds, and stores the resulting
+	 * locations (and sizes) in the given snapshot. If the packing does not fit
+	 * into the bounds, it is scaled down as a whole, i.e. including the sizes
+	 * of resizable nodes, so that the components do not overlap. Otherwise,
+	 * only the node centers are scaled, so that the node sizes are preserved.
+	 */
+	private static void writeBack(LayoutSnapshot snapshot,
+			List<Component> components, Rectangle bounds) {
+		// compute the locations within the packing
+		int n = snapshot.getNodeCount();
+		double[] x = new double[n];
+		double[] y = new double[n];
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		double maxWidth = 0;
+		double maxHeight = 0;
+		Rectangle packingBounds = null;
+		for (Component component : components) {
+			Rectangle layoutBounds = getLayoutBounds(component.proxies);
+			for (int k = 0; k < component.nodes.length; k++) {
+				int i = component.nodes[k];
+				Node proxy = component.proxies[k];
+				Point location = LayoutProperties.getLocation(proxy);
+				Dimension size = LayoutProperties.getSize(proxy);
+				x[i] = component.bounds.getX() - layoutBounds.getX()
+						+ (location == null ? 0 : location.x);
+				y[i] = component.bounds.getY() - layoutBounds.getY()
+						+ (location == null ? 0 : location.y);
+				minX = Math.min(minX, x[i]);
+				minY = Math.min(minY, y[i]);
+				maxX = Math.max(maxX, x[i]);
+				maxY = Math.max(maxY, y[i]);
+				maxWidth = Math.max(maxWidth, size.width);
+				maxHeight = Math.max(maxHeight, size.height);
+				if (snapshot.getResizable().get(i)) {
+					snapshot.getWidths()[i] = size.width;
+					snapshot.getHeights()[i] = size.height;
+				}
+			}
+			packingBounds = packingBounds == null ? component.bounds
+					: packingBounds.getUnioned(component.bounds);
+		}
+
+		double fit = Math.min(
+				packingBounds.getWidth() == 0 ? Double.POSITIVE_INFINITY
+						: bounds.getWidth() / packingBounds.getWidth(),
+				packingBounds.getHeight() == 0 ? Double.POSITIVE_INFINITY
+						: bounds.getHeight() / packingBounds.getHeight());
+		double scale;
+		double centerX;
+		double centerY;
+		if (fit < 1) {
+			// scale the whole packing (scaling only the node centers would
+			// move the nodes of neighboring components onto each other)
+			scale = fit;
+			centerX = packingBounds.getCenter().x;
+			centerY = packingBounds.getCenter().y;
+			BitSet resizable = snapshot.getResizable();
+			for (int i = resizable.nextSetBit(0); i >= 0; i = resizable
+					.nextSetBit(i + 1)) {
+				snapshot.getWidths()[i] *= scale;
+				snapshot.getHeights()[i] *= scale;
+			}
+		} else {
+			// scale the node centers, so that all nodes are within the bounds
+			double availableWidth = Math.max(0,
+					bounds.getWidth() - maxWidth);
+			double availableHeight = Math.max(0,
+					bounds.getHeight() - maxHeight);
+			scale = Math.min(
+					maxX == minX ? Double.POSITIVE_INFINITY
+							: availableWidth / (maxX - minX),
+					maxY == minY ? Double.POSITIVE_INFINITY
+							: availableHeight / (maxY - minY));
+			if (Double.isInfinite(scale) || scale <= 1) {
+				// the packing fits into the bounds as it is
+				scale = 1;
+				centerX = packingBounds.getCenter().x;
+				centerY = packingBounds.getCenter().y;
+			} else {
+				centerX = (minX + maxX) / 2;
+				centerY = (minY + maxY) / 2;
+			}
+		}
+		double offsetX = bounds.getX() + bounds.getWidth() / 2
+				- centerX * scale;
+		double offsetY = bounds.getY() + bounds.getHeight() / 2
+				- centerY * scale;
+		BitSet movable = snapshot.getMovable();
+		for (int i = movable.nextSetBit(0); i >= 0; i = movable
+				.nextSetBit(i + 1)) {
+			snapshot.getLocationsX()[i] = offsetX + x[i] * scale;
+			snapshot.getLocationsY()[i] = offsetY + y[i] * scale;
+		}
+	}
+
+	private static double getWidth(LayoutSnapshot snapshot, int i) {
+		double width = snapshot.getWidths()[i];
+		return Double.isNaN(width) ? 0 : width;
+	}
+
+	private static double getHeight(LayoutSnapshot snapshot, int i) {
+		double height = snapshot.getHeights()[i];
+		return Double.isNaN(height) ? 0 : height;
+	}
+
+	/**
+	 * Returns the {@link Executor} that is used to lay out the connected
+	 * components concurrently, i.e. the {@link #setExecutor(Executor)
+	 * executor} if one is set, or the default executor otherwise.
+	 */
+	private Executor getExecutor() {
+		if (executor != null) {
+			return executor;
+		}
+		synchronized (ConnectedComponentsLayoutAlgorithm.class) {
+			if (defaultExecutor == null) {
+				int threads = Runtime.getRuntime().availableProcessors();
+				defaultExecutor = new ThreadPoolExecutor(threads, threads, 60,
+						TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+						new ThreadFactory() {
+							private final AtomicInteger threadCount = new AtomicInteger();
+
+							@Override
+							public Thread newThread(Runnable r) {
+								Thread thread = new Thread(r,
+										"Connected Components Layout "
+												+ threadCount
+														.incrementAndGet());
+								thread.setDaemon(true);
+								return thread;
+							}
+						});
+				// do not keep idle threads alive
+				defaultExecutor.allowCoreThreadTimeOut(true);
+			}
+			return defaultExecutor;
+		}
+	}
+
+	public LayoutContext getLayoutContext() {
+		return context;
+	}
+
+	/**
+	 * Returns the factory that creates the {@link ILayoutAlgorithm} per
+	 * connected component.
+	 *
+	 * @return The factory that creates the {@link ILayoutAlgorithm}s.
+	 */
+	public Supplier<? extends ILayoutAlgorithm> getLayoutAlgorithmFactory() {
+		return layoutAlgorithmFactory;
+	}
+
+	/**
+	 * Returns the number of threads that are used to lay out the connected
+	 * components.
+	 *
+	 * @return The parallelism level.
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Returns the space between two packed components (before the packing is
+	 * scaled into the layout bounds).
+	 *
+	 * @return The space between two packed components.
+	 */
+	public double getSpacing() {
+		return spacing;
+	}
+
+	/**
+	 * Sets the {@link Executor} that is used to lay out the connected
+	 * components concurrently. Defaults to a pool of daemon threads (one per
+	 * available processor) that is shared by all
+	 * {@link ConnectedComponentsLayoutAlgorithm}s, and whose threads terminate
+	 * when idle.
+	 *
+	 * @param executor
+	 *            The {@link Executor} to lay out the connected components.
+	 * @see #setParallelism(int)
+	 */
+	public void setExecutor(Executor executor) {
+		if (executor == null) {
+			throw new IllegalArgumentException("Executor may not be null.");
+		}
+		this.executor = executor;
+	}
+
+	public void setLayoutContext(LayoutContext context) {
+		this.context = context;
+	}
+
+	/**
+	 * Sets the number of threads that are used to lay out the connected
+	 * components. The components are laid out largest first by the calling
+	 * thread and by threads of the {@link #setExecutor(Executor) executor}.
+	 *
+	 * @param parallelism
+	 *            The number of threads to use, <code>1</code> to lay out the
+	 *            components on the calling thread. The default is the number
+	 *            of available processors.
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException(
+					"Parallelism has to be positive, but is <" + parallelism
+							+ ">.");
+		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Sets the space between two packed components (before the packing is
+	 * scaled into the layout bounds).
+	 *
+	 * @param spacing
+	 *            The space between two packed components (default is 10).
+	 */
+	public void setSpacing(double spacing) {
+		if (spacing < 0) {
+			throw new IllegalArgumentException(
+					"The spacing may not be negative, but is <" + spacing
+							+ ">.");
+		}
+		this.spacing = spacing;
+	}
+
+}
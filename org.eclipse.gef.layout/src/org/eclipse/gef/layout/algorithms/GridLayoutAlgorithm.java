@@ -16,7 +16,7 @@ import org.eclipse.gef.geometry.planar.Dimension;
 import org.eclipse.gef.geometry.planar.Point;
 import org.eclipse.gef.geometry.planar.Rectangle;
 import org.eclipse.gef.graph.Node;
-import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.ICacheableLayoutAlgorithm;
 import org.eclipse.gef.layout.LayoutContext;
 import org.eclipse.gef.layout.LayoutProperties;
 
@@ -29,7 +29,7 @@ import org.eclipse.gef.layout.LayoutProperties;
  * @author Mateusz Matela
  * @author mwienand
  */
-public class GridLayoutAlgorithm implements ILayoutAlgorithm {
+public class GridLayoutAlgorithm implements ICacheableLayoutAlgorithm {
 
 	private static final double PADDING_PERCENTAGE = 0.95;
 	private static final int MIN_ENTITY_SIZE = 5;
@@ -100,11 +100,12 @@ public class GridLayoutAlgorithm implements ILayoutAlgorithm {
 		Rectangle bounds = LayoutProperties.getBounds(context.getGraph());
 		calculateGrid(bounds);
 
+		Node[] nodes = context.getNodes();
 		int index = 0;
 		for (int i = 0; i < rows; i++) {
 			for (int j = 0; j < cols; j++) {
 				if ((i * cols + j) < numChildren) {
-					Node node = context.getNodes()[index++];
+					Node node = nodes[index++];
 					if (resize && LayoutProperties.isResizable(node))
 						LayoutProperties.setSize(node, new Dimension(
 								Math.max(childrenWidth, MIN_ENTITY_SIZE),
@@ -286,6 +287,15 @@ public class GridLayoutAlgorithm implements ILayoutAlgorithm {
 		return result;
 	}
 
+	/**
+	 * Returns the padding between rows in the grid.
+	 * 
+	 * @return The padding between rows.
+	 */
+	public int getRowPadding() {
+		return rowPadding;
+	}
+
 	/**
 	 * Sets the padding between rows in the grid
 	 * 
@@ -298,6 +308,15 @@ public class GridLayoutAlgorithm implements ILayoutAlgorithm {
 		}
 	}
 
+	/**
+	 * Returns the preferred aspect ratio for layout entities.
+	 * 
+	 * @return The preferred aspect ratio.
+	 */
+	public double getAspectRatio() {
+		return aspectRatio;
+	}
+
 	/**
 	 * Sets the preferred aspect ratio for layout entities. The default aspect
 	 * ratio is 1.
@@ -333,4 +352,9 @@ public class GridLayoutAlgorithm implements ILayoutAlgorithm {
 		return context;
 	}
 
+	public String getLayoutKey() {
+		return "aspectRatio=" + aspectRatio + ";rowPadding=" + rowPadding
+				+ ";resizing=" + resize;
+	}
+
 }
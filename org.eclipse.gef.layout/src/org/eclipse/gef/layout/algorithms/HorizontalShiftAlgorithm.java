@@ -22,7 +22,7 @@ import org.eclipse.gef.geometry.planar.Dimension;
 import org.eclipse.gef.geometry.planar.Point;
 import org.eclipse.gef.geometry.planar.Rectangle;
 import org.eclipse.gef.graph.Node;
-import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.ICacheableLayoutAlgorithm;
 import org.eclipse.gef.layout.LayoutContext;
 import org.eclipse.gef.layout.LayoutProperties;
 
@@ -33,7 +33,7 @@ import org.eclipse.gef.layout.LayoutProperties;
  * @author Mateusz Matela
  * @author mwienand
  */
-public class HorizontalShiftAlgorithm implements ILayoutAlgorithm {
+public class HorizontalShiftAlgorithm implements ICacheableLayoutAlgorithm {
 
 	private static final double DELTA = 10;
 
@@ -55,15 +55,15 @@ public class HorizontalShiftAlgorithm implements ILayoutAlgorithm {
 			public int compare(List<Node> o1, List<Node> o2) {
 				Node entity0 = o1.get(0);
 				Node entity1 = o2.get(0);
-				return (int) (LayoutProperties.getLocation(entity0).y
-						- LayoutProperties.getLocation(entity1).y);
+				return Double.compare(LayoutProperties.getLocation(entity0).y,
+						LayoutProperties.getLocation(entity1).y);
 			}
 		});
 
 		Comparator<Node> entityComparator = new Comparator<Node>() {
 			public int compare(Node o1, Node o2) {
-				return (int) (LayoutProperties.getLocation(o1).y
-						- LayoutProperties.getLocation(o2).y);
+				return Double.compare(LayoutProperties.getLocation(o1).y,
+						LayoutProperties.getLocation(o2).y);
 			}
 		};
 		Rectangle bounds = LayoutProperties.getBounds(context.getGraph());
@@ -99,6 +99,10 @@ public class HorizontalShiftAlgorithm implements ILayoutAlgorithm {
 		return context;
 	}
 
+	public String getLayoutKey() {
+		return "";
+	}
+
 	private void addToRowList(Node entity, ArrayList<List<Node>> rowsList) {
 		double layoutY = LayoutProperties.getLocation(entity).y;
 
@@ -0,0 +1,486 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthias Wienand (itemis AG) - initial API & implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout.algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.gef.geometry.planar.Rectangle;
+import org.eclipse.gef.layout.ICacheableLayoutAlgorithm;
+import org.eclipse.gef.layout.LayoutContext;
+import org.eclipse.gef.layout.LayoutProperties;
+import org.eclipse.gef.layout.LayoutSnapshot;
+
+/**
+ * The {@link MultilevelLayoutAlgorithm} is a force-directed layout algorithm
+ * for large graphs (in the style of Walshaw's multilevel algorithm and FM³).
+ * The graph is repeatedly coarsened by collapsing matched pairs of adjacent
+ * nodes, until it has at most {@link #getCoarsestSize()} nodes. The coarsest
+ * graph is laid out, and then the levels are interpolated and refined
+ * upwards: each node is placed at the location of the node it was collapsed
+ * into, and a few iterations are performed to untangle the level. Each level
+ * is laid out using the force model of the {@link #getSpringLayoutAlgorithm()
+ * SpringLayoutAlgorithm} (including its Barnes-Hut and parallelism settings),
+ * so that the global structure of the graph is determined on the small levels,
+ * and only local adjustments are necessary on the large ones.
+ * <p>
+ * The layout is deterministic, and it is fitted into the layout bounds at the
+ * end (like the {@link SpringLayoutAlgorithm} does). The
+ * {@link LayoutProperties#isMovable(org.eclipse.gef.graph.Node) movable}
+ * property is respected when fitting, i.e. nodes that are not movable keep
+ * their location, but they are not considered as fixed points of the force
+ * model. As the whole graph is laid out in each pass, non-clean layout passes
+ * are ignored.
+ *
+ * @author mwienand
+ *
+ */
+public class MultilevelLayoutAlgorithm implements ICacheableLayoutAlgorithm {
+
+	/**
+	 * A level of the coarsened graph, consisting of the number of nodes, the
+	 * number of original nodes that were collapsed into each node, the edges
+	 * (each connected pair of nodes only once), and the node locations.
+	 */
+	private static final class Level {
+
+		private final int nodeCount;
+		private final int[] mass;
+		private int[] edgeSources, edgeTargets;
+		private double[] edgeWeights;
+		// the index of the node of the next coarser level each node was
+		// collapsed into
+		private int[] parents;
+		private double[] locationsX, locationsY;
+
+		public Level(int nodeCount, int[] mass) {
+			this.nodeCount = nodeCount;
+			this.mass = mass;
+		}
+	}
+
+	/**
+	 * The default value for the maximum number of nodes of the coarsest level.
+	 */
+	private static final int DEFAULT_COARSEST_SIZE = 50;
+
+	/**
+	 * The default value for the number of iterations per refined level.
+	 */
+	private static final int DEFAULT_REFINEMENT_ITERATIONS = 50;
+
+	/**
+	 * Coarsening stops if a level would not be smaller than this fraction of
+	 * the previous level.
+	 */
+	private static final double MIN_COARSENING_RATIO = 0.9;
+
+	// the random number generator is seeded, so that the layout is
+	// deterministic
+	private static final long SEED = 4711;
+
+	private final SpringLayoutAlgorithm springLayoutAlgorithm;
+	private int coarsestSize = DEFAULT_COARSEST_SIZE;
+	private int refinementIterations = DEFAULT_REFINEMENT_ITERATIONS;
+	private LayoutContext context;
+
+	/**
+	 * Constructs a new {@link MultilevelLayoutAlgorithm} that uses a
+	 * {@link SpringLayoutAlgorithm} with Barnes-Hut approximation (see
+	 * {@link SpringLayoutAlgorithm#setBarnesHut(boolean)}).
+	 */
+	public MultilevelLayoutAlgorithm() {
+		springLayoutAlgorithm = new SpringLayoutAlgorithm();
+		springLayoutAlgorithm.setBarnesHut(true);
+	}
+
+	/**
+	 * Constructs a new {@link MultilevelLayoutAlgorithm} that uses the force
+	 * model of the given {@link SpringLayoutAlgorithm}. Its
+	 * {@link SpringLayoutAlgorithm#getIterations() iterations} are performed on
+	 * the coarsest level. The given algorithm should not be used for other
+	 * layouts.
+	 *
+	 * @param springLayoutAlgorithm
+	 *            The {@link SpringLayoutAlgorithm} whose force model is used.
+	 */
+	public MultilevelLayoutAlgorithm(
+			SpringLayoutAlgorithm springLayoutAlgorithm) {
+		if (springLayoutAlgorithm == null) {
+			throw new IllegalArgumentException(
+					"The SpringLayoutAlgorithm may not be null.");
+		}
+		this.springLayoutAlgorithm = springLayoutAlgorithm;
+	}
+
+	public void applyLayout(boolean clean, Object extra) {
+		if (!clean)
+			return;
+		LayoutSnapshot snapshot = context.createSnapshot();
+		int n = snapshot.getNodeCount();
+		if (n == 0) {
+			return;
+		}
+
+		// coarsen
+		int[] identity = new int[n];
+		int[] mass = new int[n];
+		for (int i = 0; i < n; i++) {
+			identity[i] = i;
+			mass[i] = 1;
+		}
+		Level level = new Level(n, mass);
+		double[] weights = new double[snapshot.getEdgeCount()];
+		double[] snapshotWeights = snapshot.getEdgeWeights();
+		for (int e = 0; e < weights.length; e++) {
+			// same as in SpringLayoutAlgorithm
+			weights[e] = snapshotWeights[e] <= 0 ? 0.1 : snapshotWeights[e];
+		}
+		initEdges(level, snapshot.getEdgeSources(), snapshot.getEdgeTargets(),
+				weights, identity);
+		Random random = new Random(SEED);
+		List<Level> levels = new ArrayList<>();
+		levels.add(level);
+		while (level.nodeCount > coarsestSize) {
+			Level coarser = coarsen(level, random);
+			if (coarser.nodeCount > MIN_COARSENING_RATIO * level.nodeCount) {
+				level.parents = null;
+				break;
+			}
+			levels.add(coarser);
+			level = coarser;
+		}
+
+		// lay out the coarsest level
+		double springLength = springLayoutAlgorithm.getSpringLength();
+		double extent = springLength * Math.sqrt(level.nodeCount);
+		level.locationsX = new double[level.nodeCount];
+		level.locationsY = new double[level.nodeCount];
+		for (int i = 0; i < level.nodeCount; i++) {
+			level.locationsX[i] = random.nextDouble() * extent;
+			level.locationsY[i] = random.nextDouble() * extent;
+		}
+		springLayoutAlgorithm.computeIterations(level.locationsX,
+				level.locationsY, level.edgeSources, level.edgeTargets,
+				level.edgeWeights, springLayoutAlgorithm.getIterations());
+
+		// interpolate and refine, unless the layout is cancelled (see
+		// LayoutContext#applyLayoutAsync())
+		for (int l = levels.size() - 2; l >= 0
+				&& !Thread.currentThread().isInterrupted(); l--) {
+			Level coarser = levels.get(l + 1);
+			level = levels.get(l);
+			// the area of a level grows with its number of nodes
+			double scale = Math.sqrt(
+					(double) level.nodeCount / (double) coarser.nodeCount);
+			level.locationsX = new double[level.nodeCount];
+			level.locationsY = new double[level.nodeCount];
+			for (int i = 0; i < level.nodeCount; i++) {
+				int parent = level.parents[i];
+				// jitter separates the nodes that were collapsed together
+				level.locationsX[i] = coarser.locationsX[parent] * scale
+						+ (random.nextDouble() - 0.5) * springLength;
+				level.locationsY[i] = coarser.locationsY[parent] * scale
+						+ (random.nextDouble() - 0.5) * springLength;
+			}
+			coarser.locationsX = null;
+			coarser.locationsY = null;
+			springLayoutAlgorithm.computeIterations(level.locationsX,
+					level.locationsY, level.edgeSources, level.edgeTargets,
+					level.edgeWeights, refinementIterations);
+		}
+
+		if (Thread.currentThread().isInterrupted()) {
+			return;
+		}
+		fitWithinBounds(snapshot, level.locationsX, level.locationsY,
+				LayoutProperties.getBounds(context.getGraph()));
+		snapshot.commit();
+	}
+
+	/**
+	 * Collapses the nodes of the given level by edge matching. The nodes are
+	 * visited in random order, and each unmatched node is matched with its
+	 * unmatched neighbor of minimal mass (so that the masses of the coarse
+	 * nodes are balanced). Nodes whose neighbors are all matched join the
+	 * lightest neighbor (so that stars collapse quickly), and isolated nodes
+	 * are collapsed pairwise.
+	 */
+	private Level coarsen(Level level, Random random) {
+		int n = level.nodeCount;
+
+		// adjacency lists
+		int[] offsets = new int[n + 1];
+		for (int e = 0; e < level.edgeSources.length; e++) {
+			offsets[level.edgeSources[e] + 1]++;
+			offsets[level.edgeTargets[e] + 1]++;
+		}
+		for (int i = 0; i < n; i++) {
+			offsets[i + 1] += offsets[i];
+		}
+		int[] neighbors = new int[offsets[n]];
+		int[] next = Arrays.copyOf(offsets, n);
+		for (int e = 0; e < level.edgeSources.length; e++) {
+			neighbors[next[level.edgeSources[e]]++] = level.edgeTargets[e];
+			neighbors[next[level.edgeTargets[e]]++] = level.edgeSources[e];
+		}
+
+		int[] order = new int[n];
+		for (int i = 0; i < n; i++) {
+			order[i] = i;
+		}
+		for (int i = n - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int tmp = order[i];
+			order[i] = order[j];
+			order[j] = tmp;
+		}
+
+		int[] parents = new int[n];
+		Arrays.fill(parents, -1);
+		int coarseCount = 0;
+		for (int i : order) {
+			if (parents[i] != -1) {
+				continue;
+			}
+			int match = -1;
+			for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+				int j = neighbors[k];
+				if (parents[j] == -1 && (match == -1
+						|| level.mass[j] < level.mass[match])) {
+					match = j;
+				}
+			}
+			if (match != -1) {
+				parents[i] = coarseCount;
+				parents[match] = coarseCount;
+				coarseCount++;
+			}
+		}
+		int isolated = -1;
+		for (int i : order) {
+			if (parents[i] != -1) {
+				continue;
+			}
+			int lightest = -1;
+			for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+				int j = neighbors[k];
+				if (lightest == -1 || level.mass[j] < level.mass[lightest]) {
+					lightest = j;
+				}
+			}
+			if (lightest != -1) {
+				parents[i] = parents[lightest];
+			} else if (isolated != -1) {
+				parents[i] = parents[isolated];
+				isolated = -1;
+			} else {
+				parents[i] = coarseCount++;
+				isolated = i;
+			}
+		}
+
+		int[] mass = new int[coarseCount];
+		for (int i = 0; i < n; i++) {
+			mass[parents[i]] += level.mass[i];
+		}
+		Level coarser = new Level(coarseCount, mass);
+		initEdges(coarser, level.edgeSources, level.edgeTargets,
+				level.edgeWeights, parents);
+		level.parents = parents;
+		return coarser;
+	}
+
+	/**
+	 * Initializes the edges of the given level from the given edges, whose
+	 * end points are mapped to the nodes of the level using the given map.
+	 * Self-loops are omitted, and the weights of edges between the same pair
+	 * of nodes are summed up.
+	 */
+	private static void initEdges(Level level, int[] sources, int[] targets,
+			double[] weights, int[] map) {
+		int n = level.nodeCount;
+		// bucket the edges by their smaller end point
+		int[] offsets = new int[n + 1];
+		for (int e = 0; e < sources.length; e++) {
+			int s = map[sources[e]];
+			int t = map[targets[e]];
+			if (s != t) {
+				offsets[Math.min(s, t) + 1]++;
+			}
+		}
+		for (int i = 0; i < n; i++) {
+			offsets[i + 1] += offsets[i];
+		}
+		int[] bucketTargets = new int[offsets[n]];
+		double[] bucketWeights = new double[offsets[n]];
+		int[] next = Arrays.copyOf(offsets, n);
+		for (int e = 0; e < sources.length; e++) {
+			int s = map[sources[e]];
+			int t = map[targets[e]];
+			if (s != t) {
+				int k = next[Math.min(s, t)]++;
+				bucketTargets[k] = Math.max(s, t);
+				bucketWeights[k] = weights[e];
+			}
+		}
+
+		// merge parallel edges per bucket
+		int[] edgeSources = new int[offsets[n]];
+		int[] edgeTargets = new int[offsets[n]];
+		double[] edgeWeights = new double[offsets[n]];
+		int[] lastSource = new int[n];
+		int[] edgeIndex = new int[n];
+		Arrays.fill(lastSource, -1);
+		int edgeCount = 0;
+		for (int s = 0; s < n; s++) {
+			for (int k = offsets[s]; k < offsets[s + 1]; k++) {
+				int t = bucketTargets[k];
+				if (lastSource[t] == s) {
+					edgeWeights[edgeIndex[t]] += bucketWeights[k];
+				} else {
+					lastSource[t] = s;
+					edgeIndex[t] = edgeCount;
+					edgeSources[edgeCount] = s;
+					edgeTargets[edgeCount] = t;
+					edgeWeights[edgeCount] = bucketWeights[k];
+					edgeCount++;
+				}
+			}
+		}
+		level.edgeSources = Arrays.copyOf(edgeSources, edgeCount);
+		level.edgeTargets = Arrays.copyOf(edgeTargets, edgeCount);
+		level.edgeWeights = Arrays.copyOf(edgeWeights, edgeCount);
+	}
+
+	/**
+	 * Scales the given locations into the given bounds (minus some insets),
+	 * considering the node sizes, and stores them in the given snapshot. Only
+	 * movable nodes are moved.
+	 */
+	private static void fitWithinBounds(LayoutSnapshot snapshot,
+			double[] locationsX, double[] locationsY, Rectangle bounds) {
+		int n = locationsX.length;
+		double[] widths = snapshot.getWidths();
+		double[] heights = snapshot.getHeights();
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < n; i++) {
+			minX = Math.min(minX, locationsX[i]);
+			minY = Math.min(minY, locationsY[i]);
+			maxX = Math.max(maxX, locationsX[i]);
+			maxY = Math.max(maxY, locationsY[i]);
+		}
+		int insets = 4;
+		double x = bounds.getX() + insets;
+		double y = bounds.getY() + insets;
+		double width = bounds.getWidth() - 2 * insets;
+		double height = bounds.getHeight() - 2 * insets;
+		double[] snapshotX = snapshot.getLocationsX();
+		double[] snapshotY = snapshot.getLocationsY();
+		for (int i = snapshot.getMovable().nextSetBit(0); i >= 0; i = snapshot
+				.getMovable().nextSetBit(i + 1)) {
+			double w = Double.isNaN(widths[i]) ? 0 : widths[i];
+			double h = Double.isNaN(heights[i]) ? 0 : heights[i];
+			double percentX = maxX == minX ? 0.5
+					: (locationsX[i] - minX) / (maxX - minX);
+			double percentY = maxY == minY ? 0.5
+					: (locationsY[i] - minY) / (maxY - minY);
+			snapshotX[i] = x + w / 2 + percentX * (width - w);
+			snapshotY[i] = y + h / 2 + percentY * (height - h);
+		}
+	}
+
+	/**
+	 * Returns the maximum number of nodes of the coarsest level.
+	 *
+	 * @return The maximum number of nodes of the coarsest level.
+	 */
+	public int getCoarsestSize() {
+		return coarsestSize;
+	}
+
+	public LayoutContext getLayoutContext() {
+		return context;
+	}
+
+	public String getLayoutKey() {
+		return "coarsestSize=" + coarsestSize + ";refinementIterations="
+				+ refinementIterations + ";spring={"
+				+ springLayoutAlgorithm.getLayoutKey() + "}";
+	}
+
+	/**
+	 * Returns the number of iterations that are performed per refined level.
+	 *
+	 * @return The number of iterations per refined level.
+	 */
+	public int getRefinementIterations() {
+		return refinementIterations;
+	}
+
+	/**
+	 * Returns the {@link SpringLayoutAlgorithm} whose force model is used to
+	 * lay out the levels.
+	 *
+	 * @return The {@link SpringLayoutAlgorithm} whose force model is used.
+	 */
+	public SpringLayoutAlgorithm getSpringLayoutAlgorithm() {
+		return springLayoutAlgorithm;
+	}
+
+	/**
+	 * Sets the maximum number of nodes of the coarsest level, i.e. the graph
+	 * is coarsened until it has at most the given number of nodes (or until
+	 * it cannot be coarsened any further).
+	 *
+	 * @param coarsestSize
+	 *            The maximum number of nodes of the coarsest level (default
+	 *            is 50).
+	 */
+	public void setCoarsestSize(int coarsestSize) {
+		if (coarsestSize < 1) {
+			throw new IllegalArgumentException(
+					"The coarsest size has to be positive, but is <"
+							+ coarsestSize + ">.");
+		}
+		this.coarsestSize = coarsestSize;
+	}
+
+	public void setLayoutContext(LayoutContext context) {
+		this.context = context;
+	}
+
+	/**
+	 * Sets the number of iterations that are performed per refined level. The
+	 * coarsest level is laid out using the
+	 * {@link SpringLayoutAlgorithm#getIterations() iterations} of the
+	 * {@link #getSpringLayoutAlgorithm() SpringLayoutAlgorithm}.
+	 *
+	 * @param refinementIterations
+	 *            The number of iterations per refined level (default is 50).
+	 */
+	public void setRefinementIterations(int refinementIterations) {
+		if (refinementIterations < 0) {
+			throw new IllegalArgumentException(
+					"The number of refinement iterations may not be negative, but is <"
+							+ refinementIterations + ">.");
+		}
+		this.refinementIterations = refinementIterations;
+	}
+
+}
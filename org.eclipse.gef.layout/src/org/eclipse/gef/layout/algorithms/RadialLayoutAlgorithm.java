@@ -15,7 +15,7 @@ package org.eclipse.gef.layout.algorithms;
 import org.eclipse.gef.geometry.planar.Point;
 import org.eclipse.gef.geometry.planar.Rectangle;
 import org.eclipse.gef.graph.Node;
-import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.ICacheableLayoutAlgorithm;
 import org.eclipse.gef.layout.LayoutContext;
 import org.eclipse.gef.layout.LayoutProperties;
 
@@ -29,7 +29,7 @@ import org.eclipse.gef.layout.LayoutProperties;
  * @author Mateusz Matela
  * @author mwienand
  */
-public class RadialLayoutAlgorithm implements ILayoutAlgorithm {
+public class RadialLayoutAlgorithm implements ICacheableLayoutAlgorithm {
 
 	private static final double MAX_DEGREES = Math.PI * 2;
 	private double startDegree = 0;
@@ -96,6 +96,32 @@ public class RadialLayoutAlgorithm implements ILayoutAlgorithm {
 		return context;
 	}
 
+	public String getLayoutKey() {
+		return "startDegree=" + startDegree + ";endDegree=" + endDegree
+				+ ";resizing=" + resize;
+	}
+
+	/**
+	 * Returns the start angle of the range the radial layout uses (in
+	 * radians).
+	 * 
+	 * @return The start angle.
+	 * @see #setRangeToLayout(double, double)
+	 */
+	public double getStartDegree() {
+		return startDegree;
+	}
+
+	/**
+	 * Returns the end angle of the range the radial layout uses (in radians).
+	 * 
+	 * @return The end angle.
+	 * @see #setRangeToLayout(double, double)
+	 */
+	public double getEndDegree() {
+		return endDegree;
+	}
+
 	/**
 	 * Set the range the radial layout will use when
 	 * {@link #applyLayout(boolean, Object)} is called. Both values must be in
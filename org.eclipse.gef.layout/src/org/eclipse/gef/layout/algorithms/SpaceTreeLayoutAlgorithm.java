@@ -15,17 +15,21 @@ package org.eclipse.gef.layout.algorithms;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Set;
 
 import org.eclipse.gef.geometry.planar.Dimension;
 import org.eclipse.gef.geometry.planar.Point;
 import org.eclipse.gef.geometry.planar.Rectangle;
+import org.eclipse.gef.graph.Graph;
 import org.eclipse.gef.graph.Node;
-import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.ICacheableLayoutAlgorithm;
 import org.eclipse.gef.layout.LayoutContext;
 import org.eclipse.gef.layout.LayoutProperties;
 import org.eclipse.gef.layout.algorithms.TreeLayoutObserver.TreeNode;
@@ -38,12 +42,20 @@ import org.eclipse.gef.layout.algorithms.TreeLayoutObserver.TreeNode;
  * to keep the tree structure clearly visible, it also keeps track of the nodes'
  * positions to makes sure they stay in their current layer and don't overlap
  * with each other.
- * 
+ *
+ * The tree is kept between layout passes as long as the layout context and its
+ * graph stay the same. A non-clean layout pass only rebuilds it if nodes or
+ * edges were added or removed, and otherwise only updates the branches that
+ * changed, i.e. that were {@link #setExpanded(Node, boolean) expanded or
+ * collapsed} or contain a node that was
+ * {@link LayoutContext#markChanged(Node) marked as changed} (e.g. resized),
+ * together with their ancestors.
+ *
  * @author Ian Bull
  * @author Mateusz Matela
  * @author mwienand
  */
-public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
+public class SpaceTreeLayoutAlgorithm implements ICacheableLayoutAlgorithm {
 
 	/**
 	 * Tree direction constant for which root is placed at the top and branches
@@ -73,15 +85,47 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 		public boolean expanded = true;
 		public double positionInLayer;
 
+		/**
+		 * Number of occurrences of this node in the layers' node lists.
+		 */
+		private int layerCount = 0;
+		/**
+		 * Index of this node within the layer whose index stamp equals
+		 * {@link #indexStamp}.
+		 */
+		private int indexInLayer;
+		private int indexStamp = -1;
+		/**
+		 * Journal epoch in which the state of this node was last recorded.
+		 */
+		private int journalEpoch = -1;
+		/**
+		 * Set if the location of this node or of one of its descendants has to
+		 * be flushed by the next layout pass, because a position, an expansion
+		 * state or a size changed. Ancestors of a dirty node are dirty, too,
+		 * so that a pass only visits the affected branches.
+		 */
+		private boolean dirty = true;
+		/**
+		 * Memoized extents. They are kept across layout runs and are only
+		 * recomputed after they have been invalidated, i.e. after the size of
+		 * this node or of one of its children changed.
+		 */
+		private double spaceRequiredForNode;
+		private boolean spaceRequiredForNodeDirty = true;
+		private double spaceRequiredForChildren;
+		private boolean spaceRequiredForChildrenDirty = true;
+
 		public SpaceTreeNode(Node node, TreeLayoutObserver owner) {
 			super(node, owner);
 		}
 
 		protected void addChild(TreeLayoutObserver.TreeNode child) {
 			super.addChild(child);
+			spaceRequiredForChildrenDirty = true;
 
 			SpaceTreeNode child2 = (SpaceTreeNode) child;
-			child2.expanded = false;
+			child2.setExpanded(false);
 
 			if (child.depth >= 0)
 				spaceTreeLayers.get(child.depth).removeNode(child2);
@@ -108,7 +152,7 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 		public void precomputeTree() {
 			super.precomputeTree();
 			if (this == owner.getSuperRoot()) {
-				expanded = true;
+				setExpanded(true);
 				while (spaceTreeLayers.size() <= this.height)
 					spaceTreeLayers
 							.add(new SpaceTreeLayer(spaceTreeLayers.size()));
@@ -134,7 +178,77 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 			}
 		}
 
+		/**
+		 * Sets the position of this node within its layer, recording the
+		 * previous state if a snapshot is currently open.
+		 * 
+		 * @param position
+		 *            The new position in layer.
+		 */
+		public void setPositionInLayer(double position) {
+			if (position != positionInLayer) {
+				recordNode(this);
+				positionInLayer = position;
+				layoutVersion++;
+				markDirty();
+			}
+		}
+
+		/**
+		 * Sets the expansion state of this node, recording the previous state
+		 * if a snapshot is currently open.
+		 * 
+		 * @param expanded
+		 *            The new expansion state.
+		 */
+		public void setExpanded(boolean expanded) {
+			if (expanded != this.expanded) {
+				recordNode(this);
+				this.expanded = expanded;
+				markDirty();
+			}
+		}
+
+		/**
+		 * Marks this node and its ancestors as dirty, so that their locations
+		 * are flushed by the next layout pass.
+		 */
+		public void markDirty() {
+			for (SpaceTreeNode node = this; node != null
+					&& !node.dirty; node = (SpaceTreeNode) node.parent) {
+				node.dirty = true;
+			}
+		}
+
+		/**
+		 * Invalidates the memoized extents that depend on the size of this
+		 * node, i.e. its own extent and the extent of its parent's children.
+		 */
+		public void invalidateSize() {
+			spaceRequiredForNodeDirty = true;
+			if (parent != null)
+				((SpaceTreeNode) parent).spaceRequiredForChildrenDirty = true;
+			layoutVersion++;
+			markDirty();
+		}
+
 		public double spaceRequiredForNode() {
+			if (spaceRequiredForNodeDirty) {
+				spaceRequiredForNode = computeSpaceRequiredForNode();
+				spaceRequiredForNodeDirty = false;
+			}
+			return spaceRequiredForNode;
+		}
+
+		public double spaceRequiredForChildren() {
+			if (spaceRequiredForChildrenDirty) {
+				spaceRequiredForChildren = computeSpaceRequiredForChildren();
+				spaceRequiredForChildrenDirty = false;
+			}
+			return spaceRequiredForChildren;
+		}
+
+		private double computeSpaceRequiredForNode() {
 			if (node == null)
 				return 0;
 			switch (direction) {
@@ -148,7 +262,7 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 			throw new RuntimeException("invalid direction");
 		}
 
-		public double spaceRequiredForChildren() {
+		private double computeSpaceRequiredForChildren() {
 			if (children.isEmpty())
 				return 0;
 			double result = 0;
@@ -228,7 +342,7 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 
 		public void centerParentsTopDown() {
 			if (this == owner.getSuperRoot()) {
-				this.positionInLayer = getAvailableSpace() / 2;
+				setPositionInLayer(getAvailableSpace() / 2);
 			}
 			if (!children.isEmpty() && expanded) {
 				SpaceTreeNode firstChild = (SpaceTreeNode) children.get(0);
@@ -271,7 +385,7 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 
 		/**
 		 * Sets locations of nodes in the graph depending on their current layer
-		 * and position in layer.
+		 * and position in layer. Only dirty nodes are visited.
 		 * 
 		 * @param thicknessSoFar
 		 *            sum of thicknesses and gaps for all layers 'above' this
@@ -279,6 +393,10 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 		 * @return true if location of at least one node has changed
 		 */
 		public boolean flushLocationChanges(double thicknessSoFar) {
+			if (!dirty)
+				return false;
+			// cleared upfront, so that changes made while flushing are kept
+			dirty = false;
 			Rectangle bounds = LayoutProperties.getBounds(context.getGraph());
 			boolean madeChanges = false;
 			if (node != null) {
@@ -357,11 +475,80 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 		private final int depth;
 		public double thickness = 0;
 
+		/**
+		 * Stamp of the last index built for this layer, or -1 if the index
+		 * has to be rebuilt.
+		 */
+		private int indexStamp = -1;
+		private boolean sorted = false;
+		/**
+		 * Journal epoch in which the node list of this layer was last
+		 * recorded.
+		 */
+		private int journalEpoch = -1;
+
 		public SpaceTreeLayer(int depth) {
 			this.depth = depth;
 		}
 
+		/**
+		 * Has to be called before the node list is modified.
+		 */
+		private void beforeChange() {
+			recordLayer(this);
+			indexStamp = -1;
+			sorted = false;
+			layoutVersion++;
+		}
+
+		/**
+		 * Replaces the nodes of this layer with the given ones.
+		 * 
+		 * @param nodesToRestore
+		 *            The nodes that make up this layer.
+		 */
+		private void restore(List<SpaceTreeNode> nodesToRestore) {
+			for (SpaceTreeNode node : nodes)
+				node.layerCount--;
+			nodes.clear();
+			nodes.addAll(nodesToRestore);
+			for (SpaceTreeNode node : nodes) {
+				node.layerCount++;
+				node.markDirty();
+			}
+			indexStamp = -1;
+			sorted = false;
+			layoutVersion++;
+		}
+
+		/**
+		 * Returns the index of the given node within this layer, or -1 if it is
+		 * not contained. The index is rebuilt lazily after the node list has
+		 * changed.
+		 * 
+		 * @param node
+		 *            The node to look up.
+		 * @return The index of the node within this layer.
+		 */
+		public int indexOf(SpaceTreeNode node) {
+			if (node.layerCount == 0)
+				return -1;
+			if (indexStamp == -1) {
+				indexStamp = nextIndexStamp++;
+				// iterate backwards so that the first occurrence wins
+				for (int i = nodes.size() - 1; i >= 0; i--) {
+					SpaceTreeNode nodeInLayer = nodes.get(i);
+					nodeInLayer.indexInLayer = i;
+					nodeInLayer.indexStamp = indexStamp;
+				}
+			}
+			if (node.indexStamp == indexStamp)
+				return node.indexInLayer;
+			return nodes.indexOf(node);
+		}
+
 		public void addNodes(List<TreeNode> nodesToAdd) {
+			beforeChange();
 			ListIterator<SpaceTreeNode> layerIterator = nodes.listIterator();
 			SpaceTreeNode previousNode = null;
 			for (Iterator<TreeNode> iterator = nodesToAdd.iterator(); iterator
@@ -376,8 +563,8 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 					double expectedPostion = (previousNode == null) ? 0
 							: previousNode.positionInLayer + expectedDistance(
 									previousNode, nodeInLayer);
-					nodeInLayer.positionInLayer = Math
-							.max(nodeInLayer.positionInLayer, expectedPostion);
+					nodeInLayer.setPositionInLayer(Math
+							.max(nodeInLayer.positionInLayer, expectedPostion));
 					previousNode = nodeInLayer;
 				}
 
@@ -385,11 +572,14 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 					layerIterator.add(nodeToAdd);
 				} else if (nodeInLayer.order == nodeToAdd.order) {
 					layerIterator.set(nodeToAdd);
+					nodeInLayer.layerCount--;
 				} else {
 					if (nodeInLayer.order > nodeToAdd.order)
 						layerIterator.previous();
 					layerIterator.add(nodeToAdd);
 				}
+				nodeToAdd.layerCount++;
+				nodeToAdd.markDirty();
 				layerIterator.previous();
 			}
 			// move the rest of nodes so that they don't overlap
@@ -398,8 +588,8 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 				double expectedPostion = (previousNode == null) ? 0
 						: previousNode.positionInLayer
 								+ expectedDistance(previousNode, nodeInLayer);
-				nodeInLayer.positionInLayer = Math
-						.max(nodeInLayer.positionInLayer, expectedPostion);
+				nodeInLayer.setPositionInLayer(Math
+						.max(nodeInLayer.positionInLayer, expectedPostion));
 				previousNode = nodeInLayer;
 			}
 
@@ -407,14 +597,36 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 		}
 
 		public void removeNode(SpaceTreeNode node) {
-			if (nodes.remove(node)) {
+			int index = indexOf(node);
+			if (index != -1) {
+				beforeChange();
+				nodes.remove(index);
+				node.layerCount--;
 				spaceTreeLayers.get(depth + 1).removeNodes(node.children);
 				refreshThickness();
 			}
 		}
 
 		public void removeNodes(List<TreeNode> nodesToRemove) {
-			if (this.nodes.removeAll(nodesToRemove)) {
+			if (nodesToRemove.isEmpty())
+				return;
+			Collection<TreeNode> lookup = nodesToRemove.size() > 8
+					? new HashSet<>(nodesToRemove) : nodesToRemove;
+			boolean removed = false;
+			int kept = 0;
+			for (int i = 0; i < nodes.size(); i++) {
+				SpaceTreeNode node = nodes.get(i);
+				if (lookup.contains(node)) {
+					if (!removed) {
+						beforeChange();
+						removed = true;
+					}
+					node.layerCount--;
+				} else
+					nodes.set(kept++, node);
+			}
+			if (removed) {
+				nodes.subList(kept, nodes.size()).clear();
 				SpaceTreeLayer nextLayer = spaceTreeLayers.get(depth + 1);
 				for (Iterator<TreeNode> iterator = nodesToRemove
 						.iterator(); iterator.hasNext();) {
@@ -444,7 +656,7 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 
 		public void fitNodesWithinBounds(List<TreeNode> nodeList,
 				double startPosition, double endPosition) {
-			NodeSnapshot[][] snapShot = takeSnapShot();
+			int snapShot = takeSnapShot();
 			SpaceTreeNode[] nodes = nodeList
 					.toArray(new SpaceTreeNode[nodeList.size()]);
 			double initialStartPosition = nodes[0].positionInLayer;
@@ -503,14 +715,25 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 					revertToSnapshot(snapShot);
 				}
 			}
+			releaseSnapshot(snapShot);
 		}
 
 		public void moveNode(SpaceTreeNode node, double newPosition) {
-			Collections.sort(nodes, new Comparator<SpaceTreeNode>() {
-				public int compare(SpaceTreeNode arg0, SpaceTreeNode arg1) {
-					return arg0.order - arg1.order;
+			if (!sorted) {
+				for (int i = 1; i < nodes.size(); i++) {
+					if (nodes.get(i - 1).order > nodes.get(i).order) {
+						beforeChange();
+						Collections.sort(nodes, new Comparator<SpaceTreeNode>() {
+							public int compare(SpaceTreeNode arg0,
+									SpaceTreeNode arg1) {
+								return arg0.order - arg1.order;
+							}
+						});
+						break;
+					}
 				}
-			});
+				sorted = true;
+			}
 			double positionInLayerAtStart = node.positionInLayer;
 			if (newPosition >= positionInLayerAtStart)
 				moveNodeForward(node, newPosition);
@@ -532,11 +755,11 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 		 */
 		private void moveNodeForward(SpaceTreeNode nodeToMove,
 				double newPosition) {
-			int nodeIndex = nodes.indexOf(nodeToMove);
+			int nodeIndex = indexOf(nodeToMove);
 			if (nodeIndex == -1)
 				throw new IllegalArgumentException("node not on this layer");
 			// move forward -> check space to the 'right'
-			NodeSnapshot[][] snapShot = takeSnapShot();
+			int snapShot = takeSnapShot();
 			boolean firstRun = true;
 			mainLoop: while (firstRun
 					|| nodeToMove.positionInLayer < newPosition) {
@@ -576,7 +799,7 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 				SpaceTreeNode currentNodeToMove = nodeToMove;
 				double newPositionForCurrent = newPosition;
 				for (int i = nodeIndex; i < nodes.size(); i++) {
-					currentNodeToMove.positionInLayer = newPositionForCurrent;
+					currentNodeToMove.setPositionInLayer(newPositionForCurrent);
 					// move parent if moved node is its first child
 					if (currentNodeToMove.firstChild) {
 						SpaceTreeNode parent = (SpaceTreeNode) currentNodeToMove.parent;
@@ -634,6 +857,10 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 						}
 					}
 
+					// moving the other layers may have changed this one
+					i = indexOf(currentNodeToMove);
+					if (i == -1)
+						break;
 					if (i < nodes.size() - 1) {
 						SpaceTreeNode nextNode = nodes.get(i + 1);
 						newPositionForCurrent += expectedDistance(
@@ -644,6 +871,7 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 					}
 				}
 			}
+			releaseSnapshot(snapShot);
 		}
 
 		/**
@@ -656,12 +884,12 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 		 */
 		private void moveNodeBackward(SpaceTreeNode nodeToMove,
 				double newPosition) {
-			int nodeIndex = nodes.indexOf(nodeToMove);
+			int nodeIndex = indexOf(nodeToMove);
 			if (nodeIndex == -1)
 				throw new IllegalArgumentException("node not on this layer");
 			// move backward -> check space to the 'left'
 			// move and collapse until there's enough space
-			NodeSnapshot[][] snapShot = takeSnapShot();
+			int snapShot = takeSnapShot();
 			boolean firstRun = true;
 			mainLoop: while (firstRun
 					|| nodeToMove.positionInLayer > newPosition) {
@@ -686,7 +914,7 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 							collapseNode((SpaceTreeNode) nextNode.parent);
 							if (nextNode.parent == nodeToMove.parent)
 								break mainLoop;
-							nodeIndex -= nextNode.parent.children.size();
+							nodeIndex = indexOf(nodeToMove);
 							removed = true;
 							break;
 						}
@@ -702,7 +930,7 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 				SpaceTreeNode currentNodeToMove = nodeToMove;
 				double newPositionForCurrent = newPosition;
 				for (int i = nodeIndex; i >= 0; i--) {
-					currentNodeToMove.positionInLayer = newPositionForCurrent;
+					currentNodeToMove.setPositionInLayer(newPositionForCurrent);
 					// move parent if moved node is its last child
 					if (currentNodeToMove.lastChild) {
 						SpaceTreeNode parent = (SpaceTreeNode) currentNodeToMove.parent;
@@ -759,6 +987,8 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 							}
 						}
 					}
+					// moving the other layers may have changed this one
+					i = indexOf(currentNodeToMove);
 					if (i > 0) {
 						SpaceTreeNode nextNode = nodes.get(i - 1);
 						newPositionForCurrent -= expectedDistance(
@@ -769,6 +999,7 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 					}
 				}
 			}
+			releaseSnapshot(snapShot);
 		}
 
 		public String toString() {
@@ -783,7 +1014,7 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 		}
 
 		private void collapseNode(SpaceTreeNode node) {
-			node.expanded = false;
+			node.setExpanded(false);
 			SpaceTreeLayer layer = spaceTreeLayers.get(node.depth + 1);
 			layer.removeNodes(node.children);
 			for (Iterator<TreeNode> iterator = node.children
@@ -811,6 +1042,7 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 	 */
 	public void setLeafGap(double value) {
 		this.leafGap = value;
+		invalidateTree();
 	}
 
 	/**
@@ -871,6 +1103,36 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 
 	private ArrayList<SpaceTreeLayer> spaceTreeLayers = new ArrayList<>();
 
+	/**
+	 * The graph and the layout bounds for which the tree structure was built
+	 * and the locations were last flushed, as well as the offset of each layer
+	 * at that time. If any of them changes, all locations have to be flushed.
+	 */
+	private Graph treeGraph;
+	private Rectangle flushedBounds;
+	private double[] flushedOffsets = new double[0];
+
+	/**
+	 * Incremented whenever a position in layer, the contents of a layer or a
+	 * node size change, so that the space taken by the layers can be cached.
+	 */
+	private int layoutVersion = 0;
+	private int layersExtentVersion = -1;
+	private double layersExtent;
+
+	private int nextIndexStamp = 0;
+
+	/**
+	 * Undo journal backing {@link #takeSnapShot()} and
+	 * {@link #revertToSnapshot(int)}. While at least one snapshot is open,
+	 * the previous state of every node and layer is recorded once per epoch
+	 * before it is changed, so that snapshots only cost as much as the
+	 * changes made after them.
+	 */
+	private final ArrayList<JournalEntry> journal = new ArrayList<>();
+	private int journalEpoch = 0;
+	private int openSnapshots = 0;
+
 	/**
 	 * If not null, this node and all of its children shall not be collapsed
 	 * during node movements.
@@ -919,6 +1181,7 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 		if (direction == TOP_DOWN || direction == BOTTOM_UP
 				|| direction == LEFT_RIGHT || direction == RIGHT_LEFT) {
 			this.direction = direction;
+			invalidateTree();
 		} else
 			throw new IllegalArgumentException(
 					"Invalid direction: " + direction);
@@ -930,13 +1193,147 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 			return;
 		}
 
-		if (clean) {
+		journal.clear();
+		openSnapshots = 0;
+		if (clean || isTreeChanged()) {
+			spaceTreeLayers.clear();
 			treeObserver.recomputeTree();
+			treeGraph = context.getGraph();
+		} else {
+			// only the branches of resized nodes have to be updated
+			for (Node node : context.getChangedNodes()) {
+				SpaceTreeNode spaceTreeNode = (SpaceTreeNode) treeObserver
+						.getTreeNode(node);
+				spaceTreeNode.invalidateSize();
+				if (spaceTreeNode.depth >= 0)
+					spaceTreeLayers.get(spaceTreeNode.depth).refreshThickness();
+			}
+		}
+		layoutVersion++;
+		for (SpaceTreeLayer layer : spaceTreeLayers)
+			layer.sorted = false;
+		if (clean) {
 			maximizeExpansion((SpaceTreeNode) treeObserver.getSuperRoot());
 		}
-		SpaceTreeNode superRoot = ((SpaceTreeNode) treeObserver.getSuperRoot());
+		SpaceTreeNode superRoot = ((SpaceTreeNode) treeObserver
+				.getSuperRoot());
 		superRoot.flushExpansionChanges();
+		// all locations depend on the bounds and on the layers' offsets
+		double[] offsets = computeLayerOffsets();
+		if (!bounds.equals(flushedBounds)
+				|| !Arrays.equals(offsets, flushedOffsets)) {
+			invalidateTree();
+		}
 		superRoot.flushLocationChanges(0);
+		flushedBounds = bounds;
+		flushedOffsets = offsets;
+	}
+
+	/**
+	 * Computes the offset of each layer, i.e. the sum of the thicknesses of the
+	 * layers above and of the gaps between them. The offsets of empty layers
+	 * are not relevant and reported as 0.
+	 * 
+	 * @return The offsets of the layers.
+	 */
+	private double[] computeLayerOffsets() {
+		double[] offsets = new double[spaceTreeLayers.size()];
+		double thicknessSoFar = layerGap;
+		for (int i = 0; i < offsets.length; i++) {
+			SpaceTreeLayer layer = spaceTreeLayers.get(i);
+			if (!layer.nodes.isEmpty())
+				offsets[i] = thicknessSoFar;
+			thicknessSoFar += layer.thickness + layerGap;
+		}
+		return offsets;
+	}
+
+	/**
+	 * Marks all tree nodes as dirty and invalidates their memoized extents, so
+	 * that everything is recomputed and flushed by the next layout pass.
+	 */
+	private void invalidateTree() {
+		if (treeObserver == null)
+			return;
+		List<TreeNode> nodes = new ArrayList<>();
+		nodes.add(treeObserver.getSuperRoot());
+		for (int i = 0; i < nodes.size(); i++) {
+			SpaceTreeNode node = (SpaceTreeNode) nodes.get(i);
+			node.dirty = true;
+			node.spaceRequiredForNodeDirty = true;
+			node.spaceRequiredForChildrenDirty = true;
+			nodes.addAll(node.children);
+		}
+		layoutVersion++;
+	}
+
+	/**
+	 * Checks whether the tree structure has to be rebuilt, because the graph
+	 * was replaced, or because nodes or edges were added or removed since the
+	 * last layout pass. Other changes to the graph are not observed, so that a
+	 * clean layout pass is needed to pick them up.
+	 * 
+	 * @return <code>true</code> if the tree has to be rebuilt, otherwise
+	 *         <code>false</code>.
+	 */
+	private boolean isTreeChanged() {
+		if (context.getGraph() != treeGraph
+				|| !context.getChangedEdges().isEmpty())
+			return true;
+		Set<Node> changedNodes = context.getChangedNodes();
+		if (changedNodes.isEmpty())
+			return false;
+		Set<Node> affectedNodes = context.getAffectedNodes();
+		if (affectedNodes.size() != changedNodes.size())
+			// a node was removed
+			return true;
+		for (Node node : affectedNodes) {
+			if (treeObserver.getTreeNode(node).getParent() == null)
+				// a node was added
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns whether the children of the given {@link Node} are currently
+	 * shown.
+	 * 
+	 * @param node
+	 *            The {@link Node} in question.
+	 * @return <code>true</code> if the given {@link Node} is expanded,
+	 *         otherwise <code>false</code>.
+	 */
+	public boolean isExpanded(Node node) {
+		SpaceTreeNode spaceTreeNode = (SpaceTreeNode) treeObserver
+				.getTreeNode(node);
+		return spaceTreeNode.expanded && !spaceTreeNode.children.isEmpty();
+	}
+
+	/**
+	 * Expands or collapses the given {@link Node}, which has to be shown
+	 * (otherwise nothing happens). Expanding a node shows as many of its
+	 * descendants as fit into the available space, collapsing a node hides all
+	 * of its descendants. Only the affected branch and its ancestors are
+	 * updated by the next (non-clean) layout pass.
+	 * 
+	 * @param node
+	 *            The {@link Node} to expand or collapse.
+	 * @param expanded
+	 *            <code>true</code> to expand the node, <code>false</code> to
+	 *            collapse it.
+	 */
+	public void setExpanded(Node node, boolean expanded) {
+		SpaceTreeNode spaceTreeNode = (SpaceTreeNode) treeObserver
+				.getTreeNode(node);
+		if (spaceTreeNode.layerCount == 0)
+			return;
+		if (expanded) {
+			maximizeExpansion(spaceTreeNode);
+		} else if (spaceTreeNode.expanded) {
+			spaceTreeLayers.get(spaceTreeNode.depth)
+					.collapseNode(spaceTreeNode);
+		}
 	}
 
 	private void maximizeExpansion(SpaceTreeNode nodeToExpand) {
@@ -952,7 +1349,7 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 		nodesInNextLayer.add(nodeToExpand);
 		double spaceRequiredInNextLayer = nodeToExpand.spaceRequiredForNode();
 		for (int layer = 0; !nodesInNextLayer.isEmpty(); layer++) {
-			NodeSnapshot[][] snapShot = takeSnapShot();
+			int snapShot = takeSnapShot();
 			requiredSpace = Math.max(requiredSpace, spaceRequiredInNextLayer);
 			spaceRequiredInNextLayer = 0;
 
@@ -964,7 +1361,7 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 					.iterator(); iterator.hasNext();) {
 				SpaceTreeNode node = (SpaceTreeNode) iterator.next();
 				if (!node.children.isEmpty()) {
-					node.expanded = true;
+					node.setExpanded(true);
 					spaceRequiredInNextLayer += node.spaceRequiredForChildren();
 					nodesInNextLayer.addAll(node.children);
 					numOfNodesWithChildren++;
@@ -974,11 +1371,13 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 			for (Iterator<TreeNode> iterator = nodesInNextLayer
 					.iterator(); iterator.hasNext();) {
 				SpaceTreeNode node = (SpaceTreeNode) iterator.next();
-				node.expanded = false;
+				node.setExpanded(false);
 			}
 
-			if (numOfNodesWithChildren == 0)
+			if (numOfNodesWithChildren == 0) {
+				releaseSnapshot(snapShot);
 				break;
+			}
 
 			spaceRequiredInNextLayer += branchGap
 					* (numOfNodesWithChildren - 1);
@@ -1013,25 +1412,40 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 			}
 			if (!addedNewLayer) {
 				revertToSnapshot(snapShot);
+				releaseSnapshot(snapShot);
 				break;
 			}
+			releaseSnapshot(snapShot);
 		}
 		nodeToExpand.centerParentsBottomUp();
 		nodeToExpand.centerParentsTopDown();
 	}
 
 	public void setLayoutContext(LayoutContext context) {
+		// keep the tree (and the memoized extents) between layout passes
+		if (context == this.context && context != null
+				&& context.getGraph() == treeGraph) {
+			return;
+		}
 		if (this.context != null) {
 			treeObserver.stop();
 		}
 		this.context = context;
+		spaceTreeLayers.clear();
 		treeObserver = new TreeLayoutObserver(context, spaceTreeNodeFactory);
+		treeGraph = context.getGraph();
+		flushedBounds = null;
 	}
 
 	public LayoutContext getLayoutContext() {
 		return context;
 	}
 
+	public String getLayoutKey() {
+		return "direction=" + direction + ";leafGap=" + leafGap
+				+ ";branchGap=" + branchGap + ";layerGap=" + layerGap;
+	}
+
 	/**
 	 * Available space is the biggest of the following values:
 	 * <ul>
@@ -1047,22 +1461,26 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 		double result = (direction == TOP_DOWN || direction == BOTTOM_UP)
 				? bounds.getWidth() : bounds.getHeight();
 		result = Math.max(result, this.availableSpace);
-		for (Iterator<SpaceTreeLayer> iterator = spaceTreeLayers
-				.iterator(); iterator.hasNext();) {
-			SpaceTreeLayer layer = iterator.next();
-			if (!layer.nodes.isEmpty()) {
-				SpaceTreeNode first = layer.nodes.get(0);
-				SpaceTreeNode last = layer.nodes.get(layer.nodes.size() - 1);
-				result = Math
-						.max(result,
-								last.positionInLayer - first.positionInLayer
-										+ (first.spaceRequiredForNode()
-												+ last.spaceRequiredForNode())
-												/ 2);
-			} else
-				break;
+		if (layersExtentVersion != layoutVersion) {
+			layersExtent = Double.NEGATIVE_INFINITY;
+			for (Iterator<SpaceTreeLayer> iterator = spaceTreeLayers
+					.iterator(); iterator.hasNext();) {
+				SpaceTreeLayer layer = iterator.next();
+				if (!layer.nodes.isEmpty()) {
+					SpaceTreeNode first = layer.nodes.get(0);
+					SpaceTreeNode last = layer.nodes
+							.get(layer.nodes.size() - 1);
+					layersExtent = Math.max(layersExtent,
+							last.positionInLayer - first.positionInLayer
+									+ (first.spaceRequiredForNode()
+											+ last.spaceRequiredForNode())
+											/ 2);
+				} else
+					break;
+			}
+			layersExtentVersion = layoutVersion;
 		}
-		return result;
+		return Math.max(result, layersExtent);
 	}
 
 	/**
@@ -1084,47 +1502,108 @@ public class SpaceTreeLayoutAlgorithm implements ILayoutAlgorithm {
 		return expectedDistance;
 	}
 
-	private class NodeSnapshot {
+	private class JournalEntry {
 		SpaceTreeNode node;
 		double position;
 		boolean expanded;
+		SpaceTreeLayer layer;
+		List<SpaceTreeNode> nodes;
 	}
 
 	/**
-	 * Stores current expansion state of tree nodes and their position in layers
+	 * Records the current position and expansion state of the given node, if
+	 * a snapshot is open and the node was not yet recorded since the last
+	 * snapshot was taken or reverted.
 	 * 
-	 * @return array containing state of all unpruned nodes
+	 * @param node
+	 *            The node that is about to change.
 	 */
-	private NodeSnapshot[][] takeSnapShot() {
-		NodeSnapshot[][] result = new NodeSnapshot[spaceTreeLayers.size()][];
-		for (int i = 0; i < result.length; i++) {
-			SpaceTreeLayer layer = spaceTreeLayers.get(i);
-			result[i] = new NodeSnapshot[layer.nodes.size()];
-			for (int j = 0; j < result[i].length; j++) {
-				result[i][j] = new NodeSnapshot();
-				result[i][j].node = layer.nodes.get(j);
-				result[i][j].position = result[i][j].node.positionInLayer;
-				result[i][j].expanded = result[i][j].node.expanded;
-			}
+	private void recordNode(SpaceTreeNode node) {
+		if (openSnapshots > 0 && node.journalEpoch != journalEpoch) {
+			node.journalEpoch = journalEpoch;
+			JournalEntry entry = new JournalEntry();
+			entry.node = node;
+			entry.position = node.positionInLayer;
+			entry.expanded = node.expanded;
+			journal.add(entry);
 		}
-		return result;
 	}
 
 	/**
-	 * Restores tree nodes' expansion state and position in layers
+	 * Records the current node list of the given layer, if a snapshot is open
+	 * and the layer was not yet recorded since the last snapshot was taken or
+	 * reverted.
+	 * 
+	 * @param layer
+	 *            The layer that is about to change.
+	 */
+	private void recordLayer(SpaceTreeLayer layer) {
+		if (openSnapshots > 0 && layer.journalEpoch != journalEpoch) {
+			layer.journalEpoch = journalEpoch;
+			JournalEntry entry = new JournalEntry();
+			entry.layer = layer;
+			entry.nodes = new ArrayList<>(layer.nodes);
+			journal.add(entry);
+		}
+	}
+
+	/**
+	 * Opens a snapshot of the current expansion state of tree nodes and their
+	 * position in layers. Every snapshot has to be released with
+	 * {@link #releaseSnapshot(int)} when it is no longer needed.
+	 * 
+	 * @return handle to pass to {@link #revertToSnapshot(int)}
+	 */
+	private int takeSnapShot() {
+		openSnapshots++;
+		journalEpoch++;
+		return journal.size();
+	}
+
+	/**
+	 * Releases a snapshot obtained with {@link #takeSnapShot()}. The journal
+	 * is discarded once no snapshot is open anymore.
 	 * 
 	 * @param snapShot
-	 *            state obtained with {@link #takeSnapShot()}
+	 *            handle obtained with {@link #takeSnapShot()}
 	 */
-	private void revertToSnapshot(NodeSnapshot[][] snapShot) {
-		for (int i = 0; i < snapShot.length; i++) {
-			SpaceTreeLayer layer = spaceTreeLayers.get(i);
-			layer.nodes.clear();
-			for (int j = 0; j < snapShot[i].length; j++) {
-				snapShot[i][j].node.positionInLayer = snapShot[i][j].position;
-				snapShot[i][j].node.expanded = snapShot[i][j].expanded;
-				layer.nodes.add(snapShot[i][j].node);
+	private void releaseSnapshot(int snapShot) {
+		if (--openSnapshots == 0)
+			journal.clear();
+	}
+
+	/**
+	 * Restores the layers and, for all nodes that were part of a layer at that
+	 * time, the expansion state and position in layer.
+	 * 
+	 * @param snapShot
+	 *            handle obtained with {@link #takeSnapShot()}
+	 */
+	private void revertToSnapshot(int snapShot) {
+		// restore layers first, so that layer membership is known
+		for (int i = journal.size() - 1; i >= snapShot; i--) {
+			JournalEntry entry = journal.get(i);
+			if (entry.layer != null)
+				entry.layer.restore(entry.nodes);
+		}
+		// nodes that did not belong to a layer keep their state, but their
+		// entries are retained for older snapshots
+		List<JournalEntry> retained = new ArrayList<>();
+		for (int i = journal.size() - 1; i >= snapShot; i--) {
+			JournalEntry entry = journal.get(i);
+			if (entry.node != null) {
+				if (entry.node.layerCount > 0) {
+					entry.node.positionInLayer = entry.position;
+					entry.node.expanded = entry.expanded;
+					entry.node.markDirty();
+				} else
+					retained.add(entry);
 			}
 		}
+		journal.subList(snapShot, journal.size()).clear();
+		Collections.reverse(retained);
+		journal.addAll(retained);
+		journalEpoch++;
+		layoutVersion++;
 	}
 }
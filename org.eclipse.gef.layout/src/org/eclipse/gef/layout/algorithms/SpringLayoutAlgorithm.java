@@ -14,21 +14,33 @@
  ******************************************************************************/
 package org.eclipse.gef.layout.algorithms;
 
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntConsumer;
 
-import org.eclipse.gef.geometry.planar.Dimension;
-import org.eclipse.gef.geometry.planar.Point;
 import org.eclipse.gef.geometry.planar.Rectangle;
-import org.eclipse.gef.graph.Edge;
 import org.eclipse.gef.graph.Node;
+import org.eclipse.gef.layout.ICacheableLayoutAlgorithm;
 import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.IProgressiveLayoutAlgorithm;
 import org.eclipse.gef.layout.LayoutContext;
 import org.eclipse.gef.layout.LayoutProperties;
+import org.eclipse.gef.layout.LayoutSnapshot;
 
 /**
  * The SpringLayoutAlgorithm has its own data repository and relation
  * repository. A user can populate the repository, specify the layout
  * conditions, do the computation and query the computed results.
+ * <p>
+ * The algorithm performs the configured number of iterations (within the
+ * configured timeout), unless the layout converges before, i.e. the total
+ * displacement of the nodes within one iteration drops below the
+ * {@link #setConvergenceThreshold(double) convergence threshold}. As an
+ * {@link IProgressiveLayoutAlgorithm}, it can be applied in time slices, so
+ * that the convergence can be displayed (see
+ * {@link LayoutContext#applyLayoutProgressive(boolean, Object)}).
  * 
  * @author Jingwei Wu
  * @author Rob Lintern
@@ -37,7 +49,290 @@ import org.eclipse.gef.layout.LayoutProperties;
  * @author Mateusz Matela
  * @author mwienand
  */
-public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
+public class SpringLayoutAlgorithm
+		implements IProgressiveLayoutAlgorithm, ICacheableLayoutAlgorithm {
+
+	/**
+	 * A quadtree over the (normalized) node locations, which stores the mass
+	 * (number of nodes) and center of mass per cell, so that the repulsion of
+	 * a distant group of nodes can be approximated by the repulsion of its
+	 * center of mass. The tree is array-based, so that rebuilding it in every
+	 * iteration does not allocate once its capacity suffices.
+	 */
+	private static final class BarnesHutTree {
+
+		// cells are not split any further below this extent (relative to the
+		// root cell), nodes falling into such a cell are chained instead
+		private static final double MIN_CELL_EXTENT = 1e-9;
+
+		private int size;
+		private double[] centerX = new double[0], centerY = new double[0],
+				halfExtent = new double[0];
+		private double[] mass = new double[0], massX = new double[0],
+				massY = new double[0];
+		private int[] children = new int[0];
+		private int[] firstBody = new int[0];
+		private int[] nextBody = new int[0];
+		private double minHalfExtent;
+
+		/**
+		 * Builds the tree for the given (normalized) node locations.
+		 * 
+		 * @param px
+		 *            The x-coordinates of the nodes.
+		 * @param py
+		 *            The y-coordinates of the nodes.
+		 */
+		public void build(double[] px, double[] py) {
+			int n = px.length;
+			size = 0;
+			if (nextBody.length < n) {
+				nextBody = new int[n];
+			}
+			if (n == 0) {
+				return;
+			}
+			double minX = Double.POSITIVE_INFINITY;
+			double minY = Double.POSITIVE_INFINITY;
+			double maxX = Double.NEGATIVE_INFINITY;
+			double maxY = Double.NEGATIVE_INFINITY;
+			for (int i = 0; i < n; i++) {
+				minX = Math.min(minX, px[i]);
+				minY = Math.min(minY, py[i]);
+				maxX = Math.max(maxX, px[i]);
+				maxY = Math.max(maxY, py[i]);
+			}
+			double half = Math.max(Math.max(maxX - minX, maxY - minY) / 2,
+					MIN_DISTANCE);
+			minHalfExtent = half * MIN_CELL_EXTENT;
+			newCell((minX + maxX) / 2, (minY + maxY) / 2, half);
+			for (int i = 0; i < n; i++) {
+				insert(i, px[i], py[i]);
+			}
+		}
+
+		/**
+		 * Adds the repulsion that is exerted on each of the given nodes by all
+		 * other nodes to the given force arrays. The tree has to be built
+		 * before. As the tree is not modified, this method may be called
+		 * concurrently for disjoint ranges of nodes.
+		 * 
+		 * @param from
+		 *            The index of the first node (inclusive).
+		 * @param to
+		 *            The index of the last node (exclusive).
+		 * @param px
+		 *            The x-coordinates of the nodes.
+		 * @param py
+		 *            The y-coordinates of the nodes.
+		 * @param theta
+		 *            The opening angle.
+		 * @param gravitation
+		 *            The gravitation-control value.
+		 * @param forcesX
+		 *            The array to which the x-components of the forces are
+		 *            added.
+		 * @param forcesY
+		 *            The array to which the y-components of the forces are
+		 *            added.
+		 */
+		public void computeRepulsion(int from, int to, double[] px,
+				double[] py, double theta, double gravitation,
+				double[] forcesX, double[] forcesY) {
+			if (size == 0) {
+				return;
+			}
+			int[] stack = new int[size];
+			for (int i = from; i < to; i++) {
+				computeRepulsion(i, px, py, theta, gravitation, forcesX,
+						forcesY, stack);
+			}
+		}
+
+		private void computeRepulsion(int i, double[] px, double[] py,
+				double theta, double gravitation, double[] forcesX,
+				double[] forcesY, int[] stack) {
+			double x = px[i];
+			double y = py[i];
+			double fx = 0;
+			double fy = 0;
+			double thetaSq = theta * theta;
+			int top = 0;
+			stack[top++] = 0;
+			while (top > 0) {
+				int cell = stack[--top];
+				if (children[4 * cell] == -2) {
+					// leaf: compute exact repulsion
+					for (int b = firstBody[cell]; b != -1; b = nextBody[b]) {
+						if (b == i) {
+							continue;
+						}
+						double dx = x - px[b];
+						double dy = y - py[b];
+						double distance_sq = Math.max(
+								MIN_DISTANCE * MIN_DISTANCE, dx * dx + dy * dy);
+						double distance = Math.sqrt(distance_sq);
+						double f = gravitation / distance_sq;
+						fx += f * dx / distance;
+						fy += f * dy / distance;
+					}
+					continue;
+				}
+				double dx = x - massX[cell] / mass[cell];
+				double dy = y - massY[cell] / mass[cell];
+				double d_sq = dx * dx + dy * dy;
+				double extent = 2 * halfExtent[cell];
+				boolean contains = Math.abs(x - centerX[cell]) <= halfExtent[cell]
+						&& Math.abs(y - centerY[cell]) <= halfExtent[cell];
+				if (!contains && extent * extent < thetaSq * d_sq) {
+					// far away: approximate by center of mass
+					double distance_sq = Math.max(MIN_DISTANCE * MIN_DISTANCE,
+							d_sq);
+					double distance = Math.sqrt(distance_sq);
+					double f = mass[cell] * gravitation / distance_sq;
+					fx += f * dx / distance;
+					fy += f * dy / distance;
+				} else {
+					for (int q = 0; q < 4; q++) {
+						int child = children[4 * cell + q];
+						if (child >= 0) {
+							stack[top++] = child;
+						}
+					}
+				}
+			}
+			forcesX[i] += fx;
+			forcesY[i] += fy;
+		}
+
+		private void insert(int i, double x, double y) {
+			int cell = 0;
+			while (true) {
+				mass[cell] += 1;
+				massX[cell] += x;
+				massY[cell] += y;
+				if (children[4 * cell] == -2) {
+					// leaf
+					if (firstBody[cell] == -1
+							|| halfExtent[cell] < minHalfExtent) {
+						nextBody[i] = firstBody[cell];
+						firstBody[cell] = i;
+						return;
+					}
+					// split leaf and move its bodies into a child cell
+					int bodies = firstBody[cell];
+					firstBody[cell] = -1;
+					for (int q = 0; q < 4; q++) {
+						children[4 * cell + q] = -1;
+					}
+					int q = quadrant(cell, massX[cell] - x, massY[cell] - y,
+							mass[cell] - 1);
+					int child = newChild(cell, q);
+					mass[child] = mass[cell] - 1;
+					massX[child] = massX[cell] - x;
+					massY[child] = massY[cell] - y;
+					firstBody[child] = bodies;
+				}
+				int q = quadrant(cell, x, y, 1);
+				int child = children[4 * cell + q];
+				if (child == -1) {
+					child = newChild(cell, q);
+				}
+				cell = child;
+			}
+		}
+
+		private int quadrant(int cell, double sumX, double sumY, double m) {
+			return (sumX / m < centerX[cell] ? 0 : 1)
+					+ (sumY / m < centerY[cell] ? 0 : 2);
+		}
+
+		private int newChild(int cell, int q) {
+			double half = halfExtent[cell] / 2;
+			int child = newCell(centerX[cell] + ((q & 1) == 0 ? -half : half),
+					centerY[cell] + ((q & 2) == 0 ? -half : half), half);
+			children[4 * cell + q] = child;
+			return child;
+		}
+
+		private int newCell(double x, double y, double half) {
+			if (size == centerX.length) {
+				int capacity = Math.max(16, 2 * size);
+				centerX = Arrays.copyOf(centerX, capacity);
+				centerY = Arrays.copyOf(centerY, capacity);
+				halfExtent = Arrays.copyOf(halfExtent, capacity);
+				mass = Arrays.copyOf(mass, capacity);
+				massX = Arrays.copyOf(massX, capacity);
+				massY = Arrays.copyOf(massY, capacity);
+				children = Arrays.copyOf(children, 4 * capacity);
+				firstBody = Arrays.copyOf(firstBody, capacity);
+			}
+			int cell = size++;
+			centerX[cell] = x;
+			centerY[cell] = y;
+			halfExtent[cell] = half;
+			mass[cell] = 0;
+			massX[cell] = 0;
+			massY[cell] = 0;
+			// -2 marks a leaf, -1 an empty quadrant of an inner cell
+			children[4 * cell] = -2;
+			firstBody[cell] = -1;
+			return cell;
+		}
+	}
+
+	/**
+	 * An open-addressing hash table that maps pairs of node indices to edge
+	 * indices, so that the edges between the same pair of nodes can be merged
+	 * without boxing the keys.
+	 */
+	private static final class PairIndex {
+
+		private final long[] keys;
+		private final int[] values;
+		private final int mask;
+
+		/**
+		 * Creates a table for (at most) the given number of pairs.
+		 * 
+		 * @param capacity
+		 *            The maximum number of pairs.
+		 */
+		public PairIndex(int capacity) {
+			// keep the load factor below 0.5
+			int size = Integer.highestOneBit(Math.max(2, 2 * capacity - 1))
+					<< 1;
+			keys = new long[size];
+			values = new int[size];
+			Arrays.fill(values, -1);
+			mask = size - 1;
+		}
+
+		/**
+		 * Returns the value of the given pair, or associates the given value
+		 * with the pair if it is not contained yet.
+		 * 
+		 * @param pair
+		 *            The pair of node indices.
+		 * @param value
+		 *            The value to associate with a new pair.
+		 * @return The value of the pair, or <code>-1</code> if the pair was
+		 *         not contained before.
+		 */
+		public int putIfAbsent(long pair, int value) {
+			// spread the bits of both indices (multiplicative hashing)
+			int slot = (int) ((pair * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+			while (values[slot] != -1) {
+				if (keys[slot] == pair) {
+					return values[slot];
+				}
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = pair;
+			values[slot] = value;
+			return -1;
+		}
+	}
 
 	/**
 	 * The default value for the spring layout number of iterations.
@@ -79,6 +374,16 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 	 */
 	private static final double MIN_DISTANCE = 1.0d;
 
+	/**
+	 * The default value for the Barnes-Hut opening angle.
+	 */
+	private static final double DEFAULT_BARNES_HUT_THETA = 0.8d;
+
+	/**
+	 * The minimum number of nodes for which forces are computed in parallel.
+	 */
+	private static final int MIN_PARALLEL_NODES = 64;
+
 	/**
 	 * The variable can be customized to set the number of iterations used.
 	 */
@@ -122,14 +427,77 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 	 */
 	private boolean resize = false;
 
+	/**
+	 * Variable indicating whether repulsive forces should be approximated using
+	 * a Barnes-Hut quadtree.
+	 */
+	private boolean barnesHut = false;
+
+	/**
+	 * The variable can be customized to set the Barnes-Hut opening angle.
+	 */
+	private double barnesHutTheta = DEFAULT_BARNES_HUT_THETA;
+
+	/**
+	 * The variable can be customized to set the number of threads that are
+	 * used to compute forces.
+	 */
+	private int parallelism = 1;
+
+	/**
+	 * The variable can be customized to stop the iterations once the total
+	 * displacement of the nodes within one iteration is below this value.
+	 */
+	private double convergenceThreshold = 0;
+
+	// the random number generator for placing added nodes is re-seeded for
+	// each incremental layout pass, so that the layout is deterministic
+	private static final long SEED = 4711;
+	private final Random random = new Random(SEED);
+
 	private int iteration;
 
-	private double[][] srcDestToSumOfWeights;
+	// total displacement of the nodes within the last iteration
+	private double displacement;
+
+	// whether a layout pass was started but not finished yet
+	private boolean layoutPassActive;
+
+	// the summed up edge weights per connected pair of nodes (in compressed
+	// sparse row format), where the row of a node only contains the
+	// connected nodes with a greater index (in ascending order)
+	private int[] weightOffsets, weightTargets;
+
+	private double[] weightValues;
+
+	// sparse edge list (one entry per connected pair of nodes)
+	private int[] edgeSources, edgeTargets;
+
+	private double[] edgeWeights;
+
+	private BarnesHutTree barnesHutTree;
+
+	private LayoutSnapshot snapshot;
 
 	private Node[] entities;
 
+	private BitSet movable;
+
+	// whether only the nodes affected by changes are moved
+	private boolean incremental;
+
 	private double[] forcesX, forcesY;
 
+	// the forces and locations of the two steps that are computed per
+	// iteration (see computeForces()), which are allocated once per layout
+	// run (and overwritten in each iteration)
+	private double[][] stepForcesX, stepForcesY;
+	private double[] stepLocationsX, stepLocationsY;
+
+	// per-task force accumulators for the parallel force computation, which
+	// are allocated once per layout run (and zeroed before each use)
+	private double[][] accumulatorsX, accumulatorsY;
+
 	private double[] locationsX, locationsY;
 
 	private double[] sizeW, sizeH;
@@ -145,16 +513,58 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 	private LayoutContext context;
 
 	public void applyLayout(boolean clean, Object extra) {
-		initLayout();
+		startLayout(clean, extra);
+		// stop early when the layout is cancelled (see
+		// LayoutContext#applyLayoutAsync())
+		while (layoutPassActive && performAnotherNonContinuousIteration()
+				&& !Thread.currentThread().isInterrupted()) {
+			computeOneIteration();
+		}
+		finishLayout();
+	}
+
+	public void startLayout(boolean clean, Object extra) {
+		initLayout(clean);
+		layoutPassActive = true;
 		if (!clean) {
-			return;
+			// only move the nodes that are affected by the changes since the
+			// last layout pass (and their neighbors), keep all others in place
+			Set<Node> affectedNodes = context.getAffectedNodes();
+			if (affectedNodes.isEmpty()) {
+				layoutPassActive = false;
+				return;
+			}
+			initIncrementalLayout(affectedNodes);
 		}
+	}
 
-		while (performAnotherNonContinuousIteration()) {
+	public boolean performLayoutSlice(long timeSlice) {
+		if (!layoutPassActive) {
+			return false;
+		}
+		long end = System.currentTimeMillis() + timeSlice;
+		boolean another = performAnotherNonContinuousIteration();
+		while (another) {
 			computeOneIteration();
+			another = performAnotherNonContinuousIteration();
+			if (System.currentTimeMillis() >= end) {
+				break;
+			}
 		}
+		saveLocations();
+		return another;
+	}
 
+	public void finishLayout() {
+		if (!layoutPassActive) {
+			return;
+		}
+		layoutPassActive = false;
 		saveLocations();
+		if (incremental) {
+			// scaling would move the unaffected nodes
+			return;
+		}
 		if (resize)
 			AlgorithmHelper.maximizeSizes(entities);
 
@@ -178,6 +588,16 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 		return context;
 	}
 
+	public String getLayoutKey() {
+		// the parallelism does not affect the layout
+		return "iterations=" + sprIterations + ";timeout=" + maxTimeMS
+				+ ";random=" + sprRandom + ";move=" + sprMove + ";strain="
+				+ sprStrain + ";length=" + sprLength + ";gravitation="
+				+ sprGravitation + ";resizing=" + resize + ";barnesHut="
+				+ barnesHut + ";barnesHutTheta=" + barnesHutTheta
+				+ ";convergenceThreshold=" + convergenceThreshold;
+	}
+
 	/**
 	 * Performs the given number of iterations.
 	 * 
@@ -187,8 +607,6 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 	public void performNIteration(int n) {
 		context.preLayout();
 		if (iteration == 0) {
-			entities = context.getNodes();
-			loadLocations();
 			initLayout();
 		}
 		bounds = LayoutProperties.getBounds(context.getGraph());
@@ -205,8 +623,6 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 	public void performOneIteration() {
 		context.preLayout();
 		if (iteration == 0) {
-			entities = context.getNodes();
-			loadLocations();
 			initLayout();
 		}
 		bounds = LayoutProperties.getBounds(context.getGraph());
@@ -373,59 +789,403 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 		return sprRandom;
 	}
 
+	/**
+	 * Sets whether or not this {@link SpringLayoutAlgorithm} approximates the
+	 * repulsive forces between nodes using a Barnes-Hut quadtree, which reduces
+	 * the costs of an iteration from O(n^2) to O(n log n). Attractive forces
+	 * are computed from a sparse edge list in both modes.
+	 * 
+	 * @param barnesHut
+	 *            <code>true</code> to approximate repulsive forces,
+	 *            <code>false</code> to compute them exactly (default).
+	 */
+	public void setBarnesHut(boolean barnesHut) {
+		this.barnesHut = barnesHut;
+	}
+
+	/**
+	 * Returns whether or not this {@link SpringLayoutAlgorithm} approximates
+	 * the repulsive forces between nodes using a Barnes-Hut quadtree.
+	 * 
+	 * @return <code>true</code> if repulsive forces are approximated, otherwise
+	 *         <code>false</code>.
+	 */
+	public boolean isBarnesHut() {
+		return barnesHut;
+	}
+
+	/**
+	 * Sets the Barnes-Hut opening angle. A group of nodes is approximated by
+	 * its center of mass if the ratio between its extent and its distance is
+	 * smaller than the given value. Smaller values are more accurate, larger
+	 * values are faster. A value of <code>0</code> results in exact forces.
+	 * 
+	 * @param theta
+	 *            The opening angle.
+	 */
+	public void setBarnesHutTheta(double theta) {
+		if (theta < 0) {
+			throw new IllegalArgumentException(
+					"Theta may not be negative, but is <" + theta + ">.");
+		}
+		barnesHutTheta = theta;
+	}
+
+	/**
+	 * Returns the Barnes-Hut opening angle.
+	 * 
+	 * @return The opening angle.
+	 */
+	public double getBarnesHutTheta() {
+		return barnesHutTheta;
+	}
+
+	/**
+	 * Sets the number of threads that are used to compute the forces in each
+	 * iteration. For a value greater than <code>1</code>, repulsive and
+	 * attractive forces are computed by the calling thread and by a pool of
+	 * daemon threads that is shared by the layout algorithms, using per-task
+	 * force accumulators that are reduced in a fixed order at the end
+	 * of each iteration. Therefore, the layout is deterministic for a given
+	 * parallelism level if nodes are not placed randomly (see
+	 * {@link #setRandom(boolean)}).
+	 * 
+	 * @param parallelism
+	 *            The number of threads to use, <code>1</code> (default) to
+	 *            compute the forces on the calling thread.
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException(
+					"Parallelism has to be positive, but is <" + parallelism
+							+ ">.");
+		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Returns the number of threads that are used to compute the forces in
+	 * each iteration.
+	 * 
+	 * @return The parallelism level.
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Sets the convergence threshold. The iterations are stopped as soon as
+	 * the total displacement of the nodes within one iteration (i.e. the sum
+	 * of the distances the nodes moved) is below this value.
+	 * 
+	 * @param threshold
+	 *            The convergence threshold, <code>0</code> (default) to always
+	 *            perform the configured number of iterations.
+	 */
+	public void setConvergenceThreshold(double threshold) {
+		if (threshold < 0) {
+			throw new IllegalArgumentException(
+					"The convergence threshold may not be negative, but is <"
+							+ threshold + ">.");
+		}
+		convergenceThreshold = threshold;
+	}
+
+	/**
+	 * Returns the convergence threshold.
+	 * 
+	 * @return The convergence threshold.
+	 */
+	public double getConvergenceThreshold() {
+		return convergenceThreshold;
+	}
+
 	private long startTime = 0;
 
+	/**
+	 * Performs the given number of iterations on the given node locations,
+	 * independent of a {@link LayoutContext}. The locations are specified in
+	 * the coordinate system of the force model, i.e. connected nodes are pulled
+	 * towards a distance of {@link #getSpringLength()}, and they are neither
+	 * scaled to nor centered within the layout bounds. All nodes are movable.
+	 * This is used by {@link MultilevelLayoutAlgorithm} to lay out the levels
+	 * of a coarsened graph.
+	 * 
+	 * @param locationsX
+	 *            The x-coordinates of the nodes, which are updated.
+	 * @param locationsY
+	 *            The y-coordinates of the nodes, which are updated.
+	 * @param edgeSources
+	 *            The source node indices of the edges (each connected pair of
+	 *            nodes is contained only once).
+	 * @param edgeTargets
+	 *            The target node indices of the edges.
+	 * @param edgeWeights
+	 *            The (positive) weights of the edges.
+	 * @param iterations
+	 *            The number of iterations to perform.
+	 */
+	void computeIterations(double[] locationsX, double[] locationsY,
+			int[] edgeSources, int[] edgeTargets, double[] edgeWeights,
+			int iterations) {
+		int n = locationsX.length;
+		Rectangle layoutBounds = bounds;
+		double layoutBoundsScaleX = boundsScaleX;
+		double layoutBoundsScaleY = boundsScaleY;
+		this.locationsX = locationsX;
+		this.locationsY = locationsY;
+		this.edgeSources = edgeSources;
+		this.edgeTargets = edgeTargets;
+		this.edgeWeights = edgeWeights;
+		initForces(n);
+		movable = new BitSet(n);
+		movable.set(0, n);
+		bounds = new Rectangle(0, 0, 1, 1);
+		boundsScaleX = 1;
+		boundsScaleY = 1;
+		double[][] layoutAccumulatorsX = accumulatorsX;
+		double[][] layoutAccumulatorsY = accumulatorsY;
+		try {
+			initWeights();
+			initAccumulators();
+			for (int i = 0; i < iterations
+					&& !Thread.currentThread().isInterrupted(); i++) {
+				// the bounds scale is fixed, and the layout does not need to be
+				// centered, so that only forces and positions are computed
+				computeForces();
+				computePositions();
+			}
+		} finally {
+			// do not keep the level data, and restore the state of the last
+			// regular layout pass
+			weightOffsets = null;
+			weightTargets = null;
+			weightValues = null;
+			snapshot = null;
+			entities = null;
+			bounds = layoutBounds;
+			boundsScaleX = layoutBoundsScaleX;
+			boundsScaleY = layoutBoundsScaleY;
+			accumulatorsX = layoutAccumulatorsX;
+			accumulatorsY = layoutAccumulatorsY;
+		}
+	}
+
 	private void initLayout() {
-		entities = context.getNodes();
+		initLayout(true);
+	}
+
+	private void initLayout(boolean clean) {
+		snapshot = context.createSnapshot();
+		entities = snapshot.getNodes();
+		movable = snapshot.getMovable();
+		incremental = false;
 		bounds = LayoutProperties.getBounds(context.getGraph());
 		loadLocations();
 
-		srcDestToSumOfWeights = new double[entities.length][entities.length];
-		HashMap<Node, Integer> entityToPosition = new HashMap<>();
-		for (int i = 0; i < entities.length; i++) {
-			entityToPosition.put(entities[i], new Integer(i));
-		}
-
-		Edge[] connections = context.getEdges();
-		for (int i = 0; i < connections.length; i++) {
-			Edge connection = connections[i];
-			Integer source = entityToPosition.get(connection.getSource());
-			Integer target = entityToPosition.get(connection.getTarget());
-			if (source == null || target == null)
+		// sum up the weights per connected pair of nodes
+		int[] snapshotSources = snapshot.getEdgeSources();
+		int[] snapshotTargets = snapshot.getEdgeTargets();
+		double[] snapshotWeights = snapshot.getEdgeWeights();
+		PairIndex pairToEdgeIndex = new PairIndex(snapshot.getEdgeCount());
+		int[] sources = new int[snapshot.getEdgeCount()];
+		int[] targets = new int[snapshot.getEdgeCount()];
+		double[] weights = new double[snapshot.getEdgeCount()];
+		int edgeCount = 0;
+		for (int i = 0; i < snapshot.getEdgeCount(); i++) {
+			int source = snapshotSources[i];
+			int target = snapshotTargets[i];
+			if (source == target)
 				continue;
-			double weight = LayoutProperties.getWeight(connection);
+			int min = Math.min(source, target);
+			int max = Math.max(source, target);
+			double weight = snapshotWeights[i];
 			weight = (weight <= 0 ? 0.1 : weight);
-			srcDestToSumOfWeights[source.intValue()][target
-					.intValue()] += weight;
-			srcDestToSumOfWeights[target.intValue()][source
-					.intValue()] += weight;
+			long pair = ((long) min << 32) | max;
+			int index = pairToEdgeIndex.putIfAbsent(pair, edgeCount);
+			if (index == -1) {
+				sources[edgeCount] = min;
+				targets[edgeCount] = max;
+				weights[edgeCount] = weight;
+				edgeCount++;
+			} else {
+				weights[index] += weight;
+			}
 		}
+		edgeSources = Arrays.copyOf(sources, edgeCount);
+		edgeTargets = Arrays.copyOf(targets, edgeCount);
+		edgeWeights = Arrays.copyOf(weights, edgeCount);
 
-		if (sprRandom)
+		initWeights();
+		initAccumulators();
+
+		if (sprRandom && clean)
 			placeRandomly(); // put vertices in random places
 
 		iteration = 1;
+		displacement = Double.POSITIVE_INFINITY;
 
 		startTime = System.currentTimeMillis();
 	}
 
-	private void loadLocations() {
-		if (locationsX == null || locationsX.length != entities.length) {
-			int length = entities.length;
-			locationsX = new double[length];
-			locationsY = new double[length];
-			sizeW = new double[length];
-			sizeH = new double[length];
-			forcesX = new double[length];
-			forcesY = new double[length];
+	/**
+	 * Allocates the per-task accumulators that are used by the parallel force
+	 * computation, so that they do not need to be allocated per iteration.
+	 * The number of tasks depends on the number of nodes (exact forces) or on
+	 * the number of edges (Barnes-Hut attraction).
+	 */
+	private void initAccumulators() {
+		if (!isParallel()) {
+			accumulatorsX = null;
+			accumulatorsY = null;
+			return;
 		}
-		for (int i = 0; i < entities.length; i++) {
-			Point location = LayoutProperties.getLocation(entities[i]);
-			locationsX[i] = location.x;
-			locationsY[i] = location.y;
-			Dimension size = LayoutProperties.getSize(entities[i]);
-			sizeW[i] = size.width;
-			sizeH[i] = size.height;
+		int n = locationsX.length;
+		int taskCount = getTaskCount(barnesHut ? edgeSources.length : n);
+		if (accumulatorsX == null || accumulatorsX.length < taskCount
+				|| accumulatorsX[0].length != n) {
+			accumulatorsX = new double[taskCount][n];
+			accumulatorsY = new double[taskCount][n];
+		}
+	}
+
+	/**
+	 * Builds the weight rows that are used by the exact force computation
+	 * from the edge list, in which the source index of each edge is smaller
+	 * than its target index.
+	 */
+	private void initWeights() {
+		if (barnesHut) {
+			weightOffsets = null;
+			weightTargets = null;
+			weightValues = null;
+			return;
+		}
+		int n = locationsX.length;
+		int m = edgeSources.length;
+		// sort the edges by target (counting sort), so that distributing them
+		// to the rows of their sources (in that order) sorts each row
+		int[] targetOffsets = new int[n + 1];
+		for (int e = 0; e < m; e++) {
+			targetOffsets[edgeTargets[e] + 1]++;
+		}
+		for (int i = 0; i < n; i++) {
+			targetOffsets[i + 1] += targetOffsets[i];
+		}
+		int[] byTarget = new int[m];
+		for (int e = 0; e < m; e++) {
+			byTarget[targetOffsets[edgeTargets[e]]++] = e;
+		}
+		weightOffsets = new int[n + 1];
+		for (int e = 0; e < m; e++) {
+			weightOffsets[edgeSources[e] + 1]++;
+		}
+		for (int i = 0; i < n; i++) {
+			weightOffsets[i + 1] += weightOffsets[i];
+		}
+		weightTargets = new int[m];
+		weightValues = new double[m];
+		int[] next = Arrays.copyOf(weightOffsets, n);
+		for (int e : byTarget) {
+			int k = next[edgeSources[e]]++;
+			weightTargets[k] = edgeTargets[e];
+			weightValues[k] = edgeWeights[e];
+		}
+	}
+
+	/**
+	 * Restricts the layout to the given affected nodes and their neighbors.
+	 * Added nodes (without a location) are placed at the barycenter of their
+	 * already placed neighbors (or randomly, if there are none).
+	 */
+	private void initIncrementalLayout(Set<Node> affectedNodes) {
+		incremental = true;
+		BitSet affected = new BitSet(entities.length);
+		for (Node node : affectedNodes) {
+			int i = snapshot.indexOf(node);
+			if (i >= 0) {
+				affected.set(i);
+			}
+		}
+		BitSet active = new BitSet(entities.length);
+		active.or(affected);
+		for (int e = 0; e < edgeSources.length; e++) {
+			if (affected.get(edgeSources[e])) {
+				active.set(edgeTargets[e]);
+			}
+			if (affected.get(edgeTargets[e])) {
+				active.set(edgeSources[e]);
+			}
+		}
+		active.and(movable);
+		movable = active;
+
+		// place added nodes next to their neighbors
+		random.setSeed(SEED);
+		double[] sumX = new double[entities.length];
+		double[] sumY = new double[entities.length];
+		int[] count = new int[entities.length];
+		for (int e = 0; e < edgeSources.length; e++) {
+			int source = edgeSources[e];
+			int target = edgeTargets[e];
+			if (!affected.get(target) || hasLocation(target)) {
+				sumX[source] += locationsX[target];
+				sumY[source] += locationsY[target];
+				count[source]++;
+			}
+			if (!affected.get(source) || hasLocation(source)) {
+				sumX[target] += locationsX[source];
+				sumY[target] += locationsY[source];
+				count[target]++;
+			}
+		}
+		for (int i = affected.nextSetBit(0); i >= 0; i = affected
+				.nextSetBit(i + 1)) {
+			if (!movable.get(i) || hasLocation(i)) {
+				continue;
+			}
+			// jitter avoids placing several added nodes at the same location
+			if (count[i] > 0) {
+				locationsX[i] = sumX[i] / count[i] + (random.nextDouble() - 0.5)
+						* sprLength * bounds.getWidth() * boundsScaleX;
+				locationsY[i] = sumY[i] / count[i] + (random.nextDouble() - 0.5)
+						* sprLength * bounds.getHeight() * boundsScaleY;
+			} else {
+				locationsX[i] = bounds.getX()
+						+ random.nextDouble() * bounds.getWidth();
+				locationsY[i] = bounds.getY()
+						+ random.nextDouble() * bounds.getHeight();
+			}
+		}
+	}
+
+	private boolean hasLocation(int i) {
+		return LayoutProperties.getLocation(entities[i]) != null;
+	}
+
+	private void loadLocations() {
+		// the locations and sizes are stored in the snapshot, so that they can
+		// be committed in a single pass
+		locationsX = snapshot.getLocationsX();
+		locationsY = snapshot.getLocationsY();
+		sizeW = snapshot.getWidths();
+		sizeH = snapshot.getHeights();
+		initForces(entities.length);
+	}
+
+	/**
+	 * Allocates the arrays that are used by the force computation for the
+	 * given number of nodes, so that they do not need to be allocated per
+	 * iteration.
+	 */
+	private void initForces(int n) {
+		if (forcesX == null || forcesX.length != n) {
+			forcesX = new double[n];
+			forcesY = new double[n];
+			stepForcesX = new double[2][n];
+			stepForcesY = new double[2][n];
+			stepLocationsX = new double[n];
+			stepLocationsY = new double[n];
 		}
 	}
 
@@ -440,9 +1200,8 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 				locationsX[i] = 0;
 				locationsY[i] = 0;
 			}
-			LayoutProperties.setLocation(entities[i],
-					new Point(locationsX[i], locationsY[i]));
 		}
+		snapshot.commit();
 	}
 
 	/**
@@ -467,11 +1226,13 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 	 * Performs one iteration based on time.
 	 * 
 	 * @return <code>true</code> if the maximum number of iterations was not
-	 *         reached yet, otherwise <code>false</code>.
+	 *         reached yet and the layout did not converge, otherwise
+	 *         <code>false</code>.
 	 */
 	protected boolean performAnotherNonContinuousIteration() {
 		setSprIterationsBasedOnTime();
-		return (iteration <= sprIterations);
+		return iteration <= sprIterations
+				&& !(displacement < convergenceThreshold);
 	}
 
 	/**
@@ -502,7 +1263,9 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 		Rectangle currentBounds = getLayoutBounds();
 		improveBoundScaleX(currentBounds);
 		improveBoundScaleY(currentBounds);
-		moveToCenter(currentBounds);
+		if (!incremental) {
+			moveToCenter(currentBounds);
+		}
 		iteration++;
 	}
 
@@ -539,65 +1302,29 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 	 */
 	protected void computeForces() {
 
-		double forcesX[][] = new double[2][this.forcesX.length];
-		double forcesY[][] = new double[2][this.forcesX.length];
-		double locationsX[] = new double[this.forcesX.length];
-		double locationsY[] = new double[this.forcesX.length];
+		double forcesX[][] = stepForcesX;
+		double forcesY[][] = stepForcesY;
+		double locationsX[] = stepLocationsX;
+		double locationsY[] = stepLocationsY;
 
-		// // initialize all forces to zero
+		// initialize all forces to zero
 		for (int j = 0; j < 2; j++) {
-			for (int i = 0; i < this.forcesX.length; i++) {
-				forcesX[j][i] = 0;
-				forcesY[j][i] = 0;
-				locationsX[i] = this.locationsX[i];
-				locationsY[i] = this.locationsY[i];
-			}
+			Arrays.fill(forcesX[j], 0);
+			Arrays.fill(forcesY[j], 0);
 		}
-		// TODO: Again really really slow!
-
+		System.arraycopy(this.locationsX, 0, locationsX, 0, locationsX.length);
+		System.arraycopy(this.locationsY, 0, locationsY, 0, locationsY.length);
 		for (int k = 0; k < 2; k++) {
-			for (int i = 0; i < this.locationsX.length; i++) {
-
-				for (int j = i + 1; j < locationsX.length; j++) {
-					double dx = (locationsX[i] - locationsX[j])
-							/ bounds.getWidth() / boundsScaleX;
-					double dy = (locationsY[i] - locationsY[j])
-							/ bounds.getHeight() / boundsScaleY;
-					double distance_sq = dx * dx + dy * dy;
-					// make sure distance and distance squared not too small
-					distance_sq = Math.max(MIN_DISTANCE * MIN_DISTANCE,
-							distance_sq);
-					double distance = Math.sqrt(distance_sq);
-
-					// If there are relationships between srcObj and destObj
-					// then decrease force on srcObj (a pull) in direction of
-					// destObj
-					// If no relation between srcObj and destObj then increase
-					// force on srcObj (a push) from direction of destObj.
-					double sumOfWeights = srcDestToSumOfWeights[i][j];
-
-					double f;
-					if (sumOfWeights > 0) {
-						// nodes are pulled towards each other
-						f = -sprStrain * Math.log(distance / sprLength)
-								* sumOfWeights;
-					} else {
-						// nodes are repelled from each other
-						f = sprGravitation / (distance_sq);
-					}
-					double dfx = f * dx / distance;
-					double dfy = f * dy / distance;
-
-					forcesX[k][i] += dfx;
-					forcesY[k][i] += dfy;
-
-					forcesX[k][j] -= dfx;
-					forcesY[k][j] -= dfy;
-				}
+			if (barnesHut) {
+				computeBarnesHutForces(locationsX, locationsY, forcesX[k],
+						forcesY[k]);
+			} else {
+				computeExactForces(locationsX, locationsY, forcesX[k],
+						forcesY[k]);
 			}
 
-			for (int i = 0; i < entities.length; i++) {
-				if (LayoutProperties.isMovable(entities[i])) {
+			for (int i = 0; i < locationsX.length; i++) {
+				if (movable.get(i)) {
 					double deltaX = sprMove * forcesX[k][i];
 					double deltaY = sprMove * forcesY[k][i];
 
@@ -617,8 +1344,8 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 			}
 
 		}
-		// // initialize all forces to zero
-		for (int i = 0; i < this.entities.length; i++) {
+		// drop oscillating forces
+		for (int i = 0; i < this.locationsX.length; i++) {
 			if (forcesX[0][i] * forcesX[1][i] < 0) {
 				this.forcesX[i] = 0;
 			} else {
@@ -635,14 +1362,237 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 
 	}
 
+	/**
+	 * Computes the forces between all pairs of nodes. Connected nodes are
+	 * pulled towards each other, all other nodes are repelled from each other.
+	 * 
+	 * @param locationsX
+	 *            The x-coordinates of the nodes.
+	 * @param locationsY
+	 *            The y-coordinates of the nodes.
+	 * @param forcesX
+	 *            The array to which the x-components of the forces are added.
+	 * @param forcesY
+	 *            The array to which the y-components of the forces are added.
+	 */
+	private void computeExactForces(final double[] locationsX,
+			final double[] locationsY, double[] forcesX, double[] forcesY) {
+		final int n = locationsX.length;
+		if (!isParallel()) {
+			computeExactForces(0, n, locationsX, locationsY, forcesX, forcesY);
+			return;
+		}
+		// split the rows so that each task handles (about) the same number of
+		// pairs, i.e. (n - 1 - i) pairs for row i
+		final int taskCount = getTaskCount(n);
+		final int[] rows = new int[taskCount + 1];
+		double pairsPerTask = (double) n * (n - 1) / 2 / taskCount;
+		long pairs = 0;
+		int task = 1;
+		for (int i = 0; i < n && task < taskCount; i++) {
+			pairs += n - 1 - i;
+			while (task < taskCount && pairs >= task * pairsPerTask) {
+				rows[task++] = i + 1;
+			}
+		}
+		while (task <= taskCount) {
+			rows[task++] = n;
+		}
+		clearAccumulators(taskCount);
+		runInParallel(taskCount, t -> computeExactForces(rows[t], rows[t + 1],
+				locationsX, locationsY, accumulatorsX[t], accumulatorsY[t]));
+		reduce(taskCount, forcesX, forcesY);
+	}
+
+	private void computeExactForces(int from, int to, double[] locationsX,
+			double[] locationsY, double[] forcesX, double[] forcesY) {
+		// all pairs of nodes are visited, i.e. this is O(n^2) per iteration;
+		// the Barnes-Hut approximation (see setBarnesHut(boolean)) is
+		// O(n log n) instead
+		for (int i = from; i < to; i++) {
+			// the connected nodes (with a greater index) in ascending order
+			int k = weightOffsets[i];
+			int end = weightOffsets[i + 1];
+
+			for (int j = i + 1; j < locationsX.length; j++) {
+				double dx = (locationsX[i] - locationsX[j])
+						/ bounds.getWidth() / boundsScaleX;
+				double dy = (locationsY[i] - locationsY[j])
+						/ bounds.getHeight() / boundsScaleY;
+				double distance_sq = dx * dx + dy * dy;
+				// make sure distance and distance squared not too small
+				distance_sq = Math.max(MIN_DISTANCE * MIN_DISTANCE,
+						distance_sq);
+				double distance = Math.sqrt(distance_sq);
+
+				// If there are relationships between srcObj and destObj
+				// then decrease force on srcObj (a pull) in direction of
+				// destObj
+				// If no relation between srcObj and destObj then increase
+				// force on srcObj (a push) from direction of destObj.
+				double sumOfWeights = 0;
+				if (k < end && weightTargets[k] == j) {
+					sumOfWeights = weightValues[k++];
+				}
+
+				double f;
+				if (sumOfWeights > 0) {
+					// nodes are pulled towards each other
+					f = -sprStrain * Math.log(distance / sprLength)
+							* sumOfWeights;
+				} else {
+					// nodes are repelled from each other
+					f = sprGravitation / (distance_sq);
+				}
+				double dfx = f * dx / distance;
+				double dfy = f * dy / distance;
+
+				forcesX[i] += dfx;
+				forcesY[i] += dfy;
+
+				forcesX[j] -= dfx;
+				forcesY[j] -= dfy;
+			}
+		}
+	}
+
+	/**
+	 * Computes the forces between all pairs of nodes, approximating the
+	 * repulsive forces using a Barnes-Hut quadtree. Attractive forces are
+	 * computed from the sparse edge list. As repulsion is approximated for all
+	 * pairs of nodes, the repulsion between connected nodes is subtracted
+	 * again, so that the same force model as in
+	 * {@link #computeExactForces(double[], double[], double[], double[])} is
+	 * used.
+	 * 
+	 * @param locationsX
+	 *            The x-coordinates of the nodes.
+	 * @param locationsY
+	 *            The y-coordinates of the nodes.
+	 * @param forcesX
+	 *            The array to which the x-components of the forces are added.
+	 * @param forcesY
+	 *            The array to which the y-components of the forces are added.
+	 */
+	private void computeBarnesHutForces(double[] locationsX,
+			double[] locationsY, final double[] forcesX,
+			final double[] forcesY) {
+		final int n = locationsX.length;
+		final double[] px = new double[n];
+		final double[] py = new double[n];
+		for (int i = 0; i < n; i++) {
+			px[i] = locationsX[i] / bounds.getWidth() / boundsScaleX;
+			py[i] = locationsY[i] / bounds.getHeight() / boundsScaleY;
+		}
+
+		// repulsion (approximated)
+		if (barnesHutTree == null) {
+			barnesHutTree = new BarnesHutTree();
+		}
+		barnesHutTree.build(px, py);
+		if (!isParallel()) {
+			barnesHutTree.computeRepulsion(0, n, px, py, barnesHutTheta,
+					sprGravitation, forcesX, forcesY);
+			computeAttraction(0, edgeSources.length, px, py, forcesX,
+					forcesY);
+			return;
+		}
+		// each task only writes the forces of its own nodes, so that no
+		// accumulators are needed
+		final int taskCount = getTaskCount(n);
+		runInParallel(taskCount,
+				t -> barnesHutTree.computeRepulsion(t * n / taskCount,
+						(t + 1) * n / taskCount, px, py, barnesHutTheta,
+						sprGravitation, forcesX, forcesY));
+
+		// attraction (sparse)
+		final int m = edgeSources.length;
+		final int edgeTaskCount = getTaskCount(m);
+		clearAccumulators(edgeTaskCount);
+		runInParallel(edgeTaskCount,
+				t -> computeAttraction(t * m / edgeTaskCount,
+						(t + 1) * m / edgeTaskCount, px, py, accumulatorsX[t],
+						accumulatorsY[t]));
+		reduce(edgeTaskCount, forcesX, forcesY);
+	}
+
+	private void computeAttraction(int from, int to, double[] px, double[] py,
+			double[] forcesX, double[] forcesY) {
+		for (int e = from; e < to; e++) {
+			int i = edgeSources[e];
+			int j = edgeTargets[e];
+			double dx = px[i] - px[j];
+			double dy = py[i] - py[j];
+			double distance_sq = Math.max(MIN_DISTANCE * MIN_DISTANCE,
+					dx * dx + dy * dy);
+			double distance = Math.sqrt(distance_sq);
+			// pull connected nodes towards each other and cancel the repulsion
+			// that was applied for them
+			double f = -sprStrain * Math.log(distance / sprLength)
+					* edgeWeights[e] - sprGravitation / distance_sq;
+			double dfx = f * dx / distance;
+			double dfy = f * dy / distance;
+			forcesX[i] += dfx;
+			forcesY[i] += dfy;
+			forcesX[j] -= dfx;
+			forcesY[j] -= dfy;
+		}
+	}
+
+	private boolean isParallel() {
+		return parallelism > 1 && locationsX.length >= MIN_PARALLEL_NODES;
+	}
+
+	/**
+	 * Returns the number of tasks into which the given number of work items is
+	 * split. The number only depends on the parallelism level (and not on the
+	 * scheduling of the tasks), so that the forces are always accumulated in
+	 * the same order.
+	 */
+	private int getTaskCount(int workItems) {
+		return Math.max(1, Math.min(workItems, 4 * parallelism));
+	}
+
+	private void runInParallel(int taskCount, IntConsumer task) {
+		AlgorithmHelper.runInParallel(parallelism, taskCount, task);
+	}
+
+	private void clearAccumulators(int taskCount) {
+		if (accumulatorsX == null || accumulatorsX.length < taskCount
+				|| accumulatorsX[0].length != locationsX.length) {
+			// e.g. the parallelism was changed during a layout run
+			accumulatorsX = new double[taskCount][locationsX.length];
+			accumulatorsY = new double[taskCount][locationsX.length];
+			return;
+		}
+		for (int t = 0; t < taskCount; t++) {
+			Arrays.fill(accumulatorsX[t], 0);
+			Arrays.fill(accumulatorsY[t], 0);
+		}
+	}
+
+	/**
+	 * Adds the first given number of per-task accumulators (in task order) to
+	 * the given forces.
+	 */
+	private void reduce(int taskCount, double[] forcesX, double[] forcesY) {
+		for (int t = 0; t < taskCount; t++) {
+			for (int i = 0; i < forcesX.length; i++) {
+				forcesX[i] += accumulatorsX[t][i];
+				forcesY[i] += accumulatorsY[t][i];
+			}
+		}
+	}
+
 	/**
 	 * Computes the position for each node in this SpringLayoutAlgorithm. The
 	 * computed position will be stored in the data repository. position =
 	 * position + sprMove * force
 	 */
 	protected void computePositions() {
-		for (int i = 0; i < entities.length; i++) {
-			if (LayoutProperties.isMovable(entities[i])) {
+		double totalDisplacement = 0;
+		for (int i = 0; i < locationsX.length; i++) {
+			if (movable.get(i)) {
 				double deltaX = sprMove * forcesX[i];
 				double deltaY = sprMove * forcesY[i];
 
@@ -655,10 +1605,14 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 					deltaY *= maxMovement / dist;
 				}
 
-				locationsX[i] += deltaX * bounds.getWidth() * boundsScaleX;
-				locationsY[i] += deltaY * bounds.getHeight() * boundsScaleY;
+				double moveX = deltaX * bounds.getWidth() * boundsScaleX;
+				double moveY = deltaY * bounds.getHeight() * boundsScaleY;
+				locationsX[i] += moveX;
+				locationsY[i] += moveY;
+				totalDisplacement += Math.sqrt(moveX * moveX + moveY * moveY);
 			}
 		}
+		displacement = totalDisplacement;
 	}
 
 	private Rectangle getLayoutBounds() {
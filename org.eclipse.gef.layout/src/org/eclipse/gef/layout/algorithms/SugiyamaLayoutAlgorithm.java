@@ -18,24 +18,29 @@
 package org.eclipse.gef.layout.algorithms;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Random;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
 
 import org.eclipse.gef.geometry.planar.Dimension;
 import org.eclipse.gef.geometry.planar.Point;
 import org.eclipse.gef.geometry.planar.Rectangle;
 import org.eclipse.gef.graph.Edge;
 import org.eclipse.gef.graph.Node;
-import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.ICacheableLayoutAlgorithm;
 import org.eclipse.gef.layout.LayoutContext;
 import org.eclipse.gef.layout.LayoutProperties;
 
@@ -58,7 +63,7 @@ import org.eclipse.gef.layout.LayoutProperties;
  * @author Adam Kovacs
  * @author mwienand
  */
-public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
+public class SugiyamaLayoutAlgorithm implements ICacheableLayoutAlgorithm {
 
 	/**
 	 * Specifies the direction for the {@link SugiyamaLayoutAlgorithm}.
@@ -93,6 +98,246 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 	}
 
 	/**
+	 * Counts the crossings between the edges of two adjacent layers, using the
+	 * accumulator tree of Barth, Jünger, and Mutzel ("Simple and Efficient
+	 * Bilayer Cross Counting", 2004), i.e. in O(|E| log |V|).
+	 * 
+	 * @author mwienand
+	 */
+	public static class CrossingCounter {
+
+		// below this number of edges, the edges are compared pairwise
+		private static final int SMALL_EDGE_COUNT = 16;
+
+		/**
+		 * Counts the crossings between the given edges of a bilayer graph,
+		 * i.e. the number of pairs of edges <code>(s1, t1)</code> and
+		 * <code>(s2, t2)</code> with <code>s1 &lt; s2</code> and
+		 * <code>t1 &gt; t2</code>.
+		 * 
+		 * @param sources
+		 *            The positions of the source nodes of the edges within the
+		 *            first layer.
+		 * @param targets
+		 *            The positions of the target nodes of the edges within the
+		 *            second layer.
+		 * @param edgeCount
+		 *            The number of edges, i.e. the number of (leading) entries
+		 *            of the given arrays to consider.
+		 * @return The number of crossings.
+		 */
+		public static long countCrossings(int[] sources, int[] targets,
+				int edgeCount) {
+			if (edgeCount < SMALL_EDGE_COUNT) {
+				// pairwise comparison is faster for small inputs
+				long crossings = 0;
+				for (int e = 0; e < edgeCount; e++) {
+					for (int f = e + 1; f < edgeCount; f++) {
+						if ((sources[e] - sources[f])
+								* (long) (targets[e] - targets[f]) < 0) {
+							crossings++;
+						}
+					}
+				}
+				return crossings;
+			}
+			int sourceCount = 0;
+			int targetCount = 0;
+			for (int e = 0; e < edgeCount; e++) {
+				sourceCount = Math.max(sourceCount, sources[e] + 1);
+				targetCount = Math.max(targetCount, targets[e] + 1);
+			}
+			// sort the edges lexicographically by (source, target) using two
+			// stable counting sorts
+			int[] byTarget = sort(targets, identity(edgeCount), edgeCount,
+					targetCount);
+			int[] sorted = sort(sources, byTarget, edgeCount, sourceCount);
+
+			// insert the targets into the accumulator tree, counting the
+			// already inserted targets that are right of each target
+			int firstIndex = 1;
+			while (firstIndex < targetCount) {
+				firstIndex *= 2;
+			}
+			long[] tree = new long[2 * firstIndex - 1];
+			firstIndex -= 1;
+			long crossings = 0;
+			for (int i = 0; i < edgeCount; i++) {
+				int index = targets[sorted[i]] + firstIndex;
+				tree[index]++;
+				while (index > 0) {
+					if ((index & 1) == 1) {
+						crossings += tree[index + 1];
+					}
+					index = (index - 1) / 2;
+					tree[index]++;
+				}
+			}
+			return crossings;
+		}
+
+		/**
+		 * Counts the crossings between the edges that connect the
+		 * {@link NodeWrapper}s of the given adjacent layers, i.e. the
+		 * {@link NodeWrapper#succ successors} of the first layer that are
+		 * contained in the second layer. The {@link NodeWrapper#index index}
+		 * of each {@link NodeWrapper} has to correspond to its position within
+		 * its layer.
+		 * 
+		 * @param upper
+		 *            The first layer.
+		 * @param lower
+		 *            The second layer.
+		 * @return The number of crossings between the two layers.
+		 */
+		public static long countCrossings(List<NodeWrapper> upper,
+				List<NodeWrapper> lower) {
+			int edgeCount = 0;
+			for (NodeWrapper nw : upper) {
+				edgeCount += nw.succ.size();
+			}
+			int[] sources = new int[edgeCount];
+			int[] targets = new int[edgeCount];
+			edgeCount = 0;
+			for (int i = 0; i < upper.size(); i++) {
+				for (NodeWrapper successor : upper.get(i).succ) {
+					int index = successor.index;
+					if (index >= 0 && index < lower.size()
+							&& lower.get(index) == successor) {
+						sources[edgeCount] = i;
+						targets[edgeCount] = index;
+						edgeCount++;
+					}
+				}
+			}
+			return countCrossings(sources, targets, edgeCount);
+		}
+
+		/**
+		 * Counts the crossings between all adjacent layers of the given
+		 * layering (see {@link #countCrossings(List, List)}).
+		 * 
+		 * @param layers
+		 *            The layers for which to count the crossings.
+		 * @return The total number of crossings.
+		 */
+		public static long countCrossings(List<List<NodeWrapper>> layers) {
+			long crossings = 0;
+			for (int i = 0; i < layers.size() - 1; i++) {
+				crossings += countCrossings(layers.get(i), layers.get(i + 1));
+			}
+			return crossings;
+		}
+
+		/**
+		 * Counts the crossings between the edges that connect the given
+		 * {@link NodeWrapper}s (in the given order) to their neighbors. The
+		 * neighbors are looked up in the given {@link Map}, and are projected
+		 * to one layer above and one layer below based on their
+		 * {@link NodeWrapper#index index}, so that edges spanning multiple
+		 * layers are considered as well.
+		 */
+		static long countCrossings(List<NodeWrapper> layer,
+				Map<Node, NodeWrapper> map) {
+			List<List<NodeWrapper>> neighbors = new ArrayList<>(layer.size());
+			for (NodeWrapper nw : layer) {
+				neighbors.add(getNeighbors(nw, map));
+			}
+			return countNeighborCrossings(layer, neighbors);
+		}
+
+		/**
+		 * Counts the crossings between the edges that connect the given
+		 * {@link NodeWrapper}s (in the given order) to the given neighbors
+		 * (see {@link #countCrossings(List, Map)}).
+		 */
+		static long countNeighborCrossings(List<NodeWrapper> layer,
+				List<List<NodeWrapper>> neighbors) {
+			int edgeCount = 0;
+			for (List<NodeWrapper> wrappers : neighbors) {
+				edgeCount += wrappers.size();
+			}
+			int[] sourcesAbove = new int[edgeCount];
+			int[] targetsAbove = new int[edgeCount];
+			int[] sourcesBelow = new int[edgeCount];
+			int[] targetsBelow = new int[edgeCount];
+			int above = 0;
+			int below = 0;
+			for (int i = 0; i < layer.size(); i++) {
+				for (NodeWrapper neighbor : neighbors.get(i)) {
+					if (neighbor.layer < layer.get(i).layer) {
+						sourcesAbove[above] = i;
+						targetsAbove[above++] = neighbor.index;
+					} else {
+						sourcesBelow[below] = i;
+						targetsBelow[below++] = neighbor.index;
+					}
+				}
+			}
+			return countCrossings(sourcesAbove, targetsAbove, above)
+					+ countCrossings(sourcesBelow, targetsBelow, below);
+		}
+
+		/**
+		 * Returns the {@link NodeWrapper}s of the neighbors of the given
+		 * {@link NodeWrapper} that are not on the same layer.
+		 */
+		static List<NodeWrapper> getNeighbors(NodeWrapper nw,
+				Map<Node, NodeWrapper> map) {
+			List<NodeWrapper> wrappers = new ArrayList<>();
+			if (nw.node != null) {
+				for (Node neighbor : SugiyamaLayoutAlgorithm
+						.getNeighbors(nw.node)) {
+					NodeWrapper neighborWrapper = map.get(neighbor);
+					if (neighborWrapper != null
+							&& neighborWrapper.layer != nw.layer) {
+						wrappers.add(neighborWrapper);
+					}
+				}
+			}
+			return wrappers;
+		}
+
+		private static int[] identity(int size) {
+			int[] identity = new int[size];
+			for (int i = 0; i < size; i++) {
+				identity[i] = i;
+			}
+			return identity;
+		}
+
+		/**
+		 * Stable counting sort of the given edge order by the given keys.
+		 */
+		private static int[] sort(int[] keys, int[] order, int edgeCount,
+				int keyCount) {
+			int[] offsets = new int[keyCount + 1];
+			for (int i = 0; i < edgeCount; i++) {
+				offsets[keys[order[i]] + 1]++;
+			}
+			for (int k = 0; k < keyCount; k++) {
+				offsets[k + 1] += offsets[k];
+			}
+			int[] sorted = new int[edgeCount];
+			for (int i = 0; i < edgeCount; i++) {
+				sorted[offsets[keys[order[i]]]++] = order[i];
+			}
+			return sorted;
+		}
+	}
+
+	/**
+	 * Implements the CrossingReducer interface. This algorithm sorts the nodes
+	 * of each layer by the barycenter of their neighbors, alternately sweeping
+	 * down and up the layers, and keeps the ordering with the fewest crossings
+	 * (see {@link CrossingCounter}).
+	 * <p>
+	 * Optionally, multiple independent starts can be performed (see
+	 * {@link #setStarts(int)}), which differ in the direction of the first
+	 * sweep and in the initial ordering of the layers, and which can be
+	 * computed in parallel (see {@link #setParallelism(int)}). The ordering
+	 * with the fewest crossings is used.
+	 * 
 	 * @author Rene Kuhlemann
 	 */
 	public static class BarycentricCrossingReducer implements CrossingReducer {
@@ -100,8 +345,69 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 		private List<List<NodeWrapper>> layers = new ArrayList<>();
 		private Map<Node, NodeWrapper> map = new IdentityHashMap<>();
 		private static final int MAX_SWEEPS = 35;
+		// number of (pairs of) sweeps, and number of refinements without
+		// improvement after which to stop
+		private static final int MAX_WITHOUT_IMPROVEMENT = 2;
 		private int last; // index of the last element in a layer after padding
 							// process
+		private boolean firstSweepUp = false;
+		private int starts = 1;
+		private int parallelism = 1;
+
+		/**
+		 * Returns the number of independent starts.
+		 * 
+		 * @return The number of independent starts.
+		 */
+		public int getStarts() {
+			return starts;
+		}
+
+		/**
+		 * Returns the parallelism level that is used to compute multiple
+		 * starts.
+		 * 
+		 * @return The parallelism level.
+		 */
+		public int getParallelism() {
+			return parallelism;
+		}
+
+		/**
+		 * Sets the number of independent starts. The first start sweeps down
+		 * first, the second start sweeps up first, and all other starts
+		 * additionally shuffle the layers (using a fixed seed) before
+		 * sweeping. Defaults to <code>1</code>.
+		 * 
+		 * @param starts
+		 *            The number of independent starts.
+		 */
+		public void setStarts(int starts) {
+			if (starts < 1) {
+				throw new IllegalArgumentException(
+						"Starts have to be positive, but is <" + starts + ">.");
+			}
+			this.starts = starts;
+		}
+
+		/**
+		 * Sets the parallelism level, i.e. the number of threads that are used
+		 * to compute multiple {@link #setStarts(int) starts}. Defaults to
+		 * <code>1</code>, i.e. the starts are computed sequentially.
+		 * Otherwise, the starts are computed by the calling thread and by a
+		 * pool of daemon threads that is shared by the layout algorithms.
+		 * 
+		 * @param parallelism
+		 *            The parallelism level.
+		 */
+		public void setParallelism(int parallelism) {
+			if (parallelism < 1) {
+				throw new IllegalArgumentException(
+						"Parallelism has to be positive, but is <"
+								+ parallelism + ">.");
+			}
+			this.parallelism = parallelism;
+		}
 
 		/**
 		 * Fills in virtual nodes, so the layer system finally becomes an
@@ -140,19 +446,70 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 		/**
 		 * Reduces connection crossings between two adjacent layers by a
 		 * combined top-down and bottom-up approach. It uses a heuristic
-		 * approach based on the predecessor's barycenter.
+		 * approach based on the predecessor's barycenter. The ordering with
+		 * the fewest crossings is kept, and the sweeps are stopped when the
+		 * number of crossings did not decrease significantly for a number of
+		 * sweeps.
+		 * 
+		 * @return The number of crossings of the resulting ordering.
 		 */
-		private void reduceCrossings() {
-			for (int round = 0; round < MAX_SWEEPS; round++) {
-				if ((round & 1) == 0) { // if round is even then do a bottom-up
-										// scan
+		private long reduceCrossings() {
+			long bestCrossings = CrossingCounter.countCrossings(layers);
+			List<List<NodeWrapper>> bestLayers = copyOrder(layers);
+			int sweepsWithoutImprovement = 0;
+			// stop early when the layout is cancelled (see
+			// LayoutContext#applyLayoutAsync())
+			for (int round = 0; round < MAX_SWEEPS && bestCrossings > 0
+					&& sweepsWithoutImprovement < 2 * MAX_WITHOUT_IMPROVEMENT
+					&& !Thread.currentThread().isInterrupted(); round++) {
+				// even rounds sweep down, unless the first sweep is up
+				if (((round & 1) == 0) != firstSweepUp) {
 					for (int index = 1; index < layers.size(); index++)
 						reduceCrossingsDown(layers.get(index));
 				} else { // else top-down
 					for (int index = layers.size() - 2; index >= 0; index--)
 						reduceCrossingsUp(layers.get(index));
 				}
+				long crossings = CrossingCounter.countCrossings(layers);
+				if (isImprovement(crossings, bestCrossings)) {
+					sweepsWithoutImprovement = 0;
+				} else {
+					sweepsWithoutImprovement++;
+				}
+				if (crossings < bestCrossings) {
+					bestCrossings = crossings;
+					bestLayers = copyOrder(layers);
+				}
+			}
+			restoreOrder(bestLayers);
+			return bestCrossings;
+		}
+
+		/**
+		 * Returns <code>true</code> if the given number of crossings is
+		 * significantly (i.e. by more than 0.1%) smaller than the best number
+		 * of crossings so far.
+		 */
+		private static boolean isImprovement(long crossings,
+				long bestCrossings) {
+			return crossings < bestCrossings - bestCrossings / 1000;
+		}
+
+		private void restoreOrder(List<List<NodeWrapper>> order) {
+			for (int i = 0; i < layers.size(); i++) {
+				layers.get(i).clear();
+				layers.get(i).addAll(order.get(i));
+				updateIndex(layers.get(i));
+			}
+		}
+
+		private static List<List<NodeWrapper>> copyOrder(
+				List<List<NodeWrapper>> layers) {
+			List<List<NodeWrapper>> copy = new ArrayList<>(layers.size());
+			for (List<NodeWrapper> layer : layers) {
+				copy.add(new ArrayList<>(layer));
 			}
+			return copy;
 		}
 
 		private void reduceCrossingsDown(List<NodeWrapper> layer) {
@@ -243,16 +600,139 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 			}
 		}
 
+		/**
+		 * Performs the configured number of independent starts on copies of
+		 * the given layers, and applies the ordering with the fewest crossings
+		 * to the given layers.
+		 */
+		@SuppressWarnings({ "rawtypes", "unchecked" })
+		private void multiStartCrossReduction(
+				final List<List<NodeWrapper>> nodes) {
+			final long[] crossings = new long[starts];
+			final List<List<NodeWrapper>>[] orders = new List[starts];
+			// the starts may be computed by pooled threads, so that the
+			// calling thread is checked for a cancellation
+			final Thread caller = Thread.currentThread();
+			IntConsumer start = s -> {
+				if (caller.isInterrupted()) {
+					return;
+				}
+				Map<NodeWrapper, NodeWrapper> originals = new IdentityHashMap<>();
+				List<List<NodeWrapper>> copy = copyLayers(nodes, originals);
+				if (s > 1) {
+					Random random = new Random(s);
+					for (List<NodeWrapper> layer : copy) {
+						Collections.shuffle(layer, random);
+						for (int i = 0; i < layer.size(); i++)
+							layer.get(i).index = i;
+					}
+				}
+				BarycentricCrossingReducer reducer = new BarycentricCrossingReducer();
+				reducer.firstSweepUp = (s & 1) == 1;
+				reducer.crossReduction(copy);
+				crossings[s] = CrossingCounter.countCrossings(copy);
+				List<List<NodeWrapper>> order = new ArrayList<>(copy.size());
+				for (List<NodeWrapper> layer : copy) {
+					List<NodeWrapper> originalLayer = new ArrayList<>(
+							layer.size());
+					for (NodeWrapper nw : layer)
+						originalLayer.add(originals.get(nw));
+					order.add(originalLayer);
+				}
+				orders[s] = order;
+			};
+			if (parallelism > 1) {
+				AlgorithmHelper.runInParallel(parallelism, starts, start);
+			} else {
+				for (int s = 0; s < starts; s++) {
+					start.accept(s);
+				}
+			}
+
+			if (caller.isInterrupted()) {
+				// the layout was cancelled
+				return;
+			}
+
+			// apply the best ordering (the first one in case of ties)
+			int best = 0;
+			for (int s = 1; s < starts; s++) {
+				if (crossings[s] < crossings[best])
+					best = s;
+			}
+			for (int i = 0; i < nodes.size(); i++) {
+				nodes.get(i).clear();
+				nodes.get(i).addAll(orders[best].get(i));
+				updateIndex(nodes.get(i));
+			}
+		}
+
+		/**
+		 * Copies the given layers, including the links between the
+		 * {@link NodeWrapper}s. The given {@link Map} is filled with the
+		 * original {@link NodeWrapper} for each copy.
+		 */
+		private static List<List<NodeWrapper>> copyLayers(
+				List<List<NodeWrapper>> layers,
+				Map<NodeWrapper, NodeWrapper> originals) {
+			Map<NodeWrapper, NodeWrapper> copies = new IdentityHashMap<>();
+			List<List<NodeWrapper>> copy = new ArrayList<>(layers.size());
+			for (List<NodeWrapper> layer : layers) {
+				List<NodeWrapper> layerCopy = new ArrayList<>(layer.size());
+				for (NodeWrapper nw : layer) {
+					NodeWrapper nwCopy = new NodeWrapper(nw.node, nw.layer);
+					nwCopy.index = nw.index;
+					copies.put(nw, nwCopy);
+					originals.put(nwCopy, nw);
+					layerCopy.add(nwCopy);
+				}
+				copy.add(layerCopy);
+			}
+			for (List<NodeWrapper> layer : layers) {
+				for (NodeWrapper nw : layer) {
+					NodeWrapper nwCopy = copies.get(nw);
+					for (NodeWrapper predecessor : nw.pred) {
+						NodeWrapper predecessorCopy = copies.get(predecessor);
+						if (predecessorCopy != null)
+							nwCopy.addPredecessor(predecessorCopy);
+					}
+					for (NodeWrapper successor : nw.succ) {
+						NodeWrapper successorCopy = copies.get(successor);
+						if (successorCopy != null)
+							nwCopy.addSuccessor(successorCopy);
+					}
+				}
+			}
+			return copy;
+		}
+
 		public void crossReduction(List<List<NodeWrapper>> nodes) {
+			if (starts > 1) {
+				multiStartCrossReduction(nodes);
+				return;
+			}
 			this.layers = nodes;
 			padLayers();
 			// reduce and refine iteratively, depending on the depth of the
-			// graph
-			for (int i = 0; i < layers.size(); i++) {
-				reduceCrossings();
+			// graph, and keep the best ordering
+			long bestCrossings = reduceCrossings();
+			List<List<NodeWrapper>> bestLayers = copyOrder(layers);
+			int refinementsWithoutImprovement = 0;
+			for (int i = 0; i < layers.size() && bestCrossings > 0
+					&& refinementsWithoutImprovement < MAX_WITHOUT_IMPROVEMENT; i++) {
 				refineLayers();
+				long crossings = reduceCrossings();
+				if (isImprovement(crossings, bestCrossings)) {
+					refinementsWithoutImprovement = 0;
+				} else {
+					refinementsWithoutImprovement++;
+				}
+				if (crossings < bestCrossings) {
+					bestCrossings = crossings;
+					bestLayers = copyOrder(layers);
+				}
 			}
-			reduceCrossings();
+			restoreOrder(bestLayers);
 			unpadLayers();
 		}
 	}
@@ -268,118 +748,32 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 	 */
 	public static class SplitCrossingReducer implements CrossingReducer {
 		private final Map<Node, NodeWrapper> map = new IdentityHashMap<>();
+		private final Map<NodeWrapper, List<NodeWrapper>> neighbors = new IdentityHashMap<>();
 
 		/**
-		 * Filters the multiple connections from the two arrays
-		 * 
-		 * @param a
-		 * @param b
-		 * @return
-		 */
-		private ArrayList<Node> unionOfNodes(Collection<Node> a,
-				Collection<Node> b) {
-			ArrayList<Node> res = new ArrayList<>(a);
-			for (Node n : b) {
-				if (!res.contains(n)) {
-					res.add(n);
-				}
-			}
-			return res;
-		}
-
-		/**
-		 * Returns the number of crosses between the two nodes and those
-		 * connected to them.
+		 * Returns the number of crossings between the edges of the two nodes
+		 * (to the nodes connected to them) in case the first node is placed
+		 * before the second node.
 		 * 
 		 * @param nodeA
 		 * @param nodeB
 		 * @return
 		 */
-		private int numberOfCrosses(NodeWrapper nodeA, NodeWrapper nodeB) {
-			int numOfCrosses = 0;
+		private long numberOfCrosses(NodeWrapper nodeA, NodeWrapper nodeB) {
 			if (nodeA.equals(nodeB))
 				return 0;
+			return CrossingCounter.countNeighborCrossings(
+					Arrays.asList(nodeA, nodeB),
+					Arrays.asList(getNeighbors(nodeA), getNeighbors(nodeB)));
+		}
 
-			// Filter nodes connected with bidirectional edges
-			ArrayList<Node> adjacentNodesOfA = unionOfNodes(
-					nodeA.node.getPredecessorNodes(),
-					nodeA.node.getSuccessorNodes());
-			ArrayList<Node> adjacentNodesOfB = unionOfNodes(
-					nodeB.node.getPredecessorNodes(),
-					nodeB.node.getSuccessorNodes());
-
-			for (Node aNode : adjacentNodesOfA) {
-				ArrayList<Integer> alreadyCrossed = new ArrayList<>();
-				NodeWrapper aNodeWrapper = map.get(aNode);
-				for (int i = 0; i < adjacentNodesOfB.size(); i++) {
-					NodeWrapper nw = map.get(adjacentNodesOfB.get(i));
-					if (!alreadyCrossed.contains(i) && nw != null) {
-						// only if on the same side
-						if ((nw.layer > nodeA.layer
-								&& aNodeWrapper.layer > nodeA.layer)
-								|| (nw.layer < nodeA.layer
-										&& aNodeWrapper.layer < nodeA.layer)) {
-							if (nodeA.index < nodeB.index) {
-								if (aNodeWrapper.index > nw.index) {
-									numOfCrosses++;
-									alreadyCrossed.add(i);
-								} else if (nw.index == aNodeWrapper.index) {
-									if (nodeA.index >= nw.index) {
-										// implies nodeB.index > nw.index
-										if ((aNodeWrapper.layer > nw.layer
-												&& nodeA.layer < nw.layer)
-												|| (aNodeWrapper.layer < nw.layer
-														&& nw.layer < nodeA.layer)) {
-											// top-left or bottom-left quarter
-											numOfCrosses++;
-											alreadyCrossed.add(i);
-										}
-									} else if (nodeB.index <= nw.index) {
-										// implies nodeA.index < nw.index
-										if ((aNodeWrapper.layer > nw.layer
-												&& aNodeWrapper.layer < nodeB.layer)
-												|| (aNodeWrapper.layer < nw.layer
-														&& aNodeWrapper.layer > nodeB.layer)) {
-											// top-right or bottom-right quarter
-											numOfCrosses++;
-											alreadyCrossed.add(i);
-										}
-									}
-								}
-							} else if (nodeA.index > nodeB.index) {
-								if (aNodeWrapper.index < nw.index) {
-									numOfCrosses++;
-									alreadyCrossed.add(i);
-								} else if (nw.index == aNodeWrapper.index) {
-									if (nodeB.index >= nw.index) {
-										// implies nodeB.index > nw.index
-										if ((aNodeWrapper.layer > nw.layer
-												&& nodeB.layer > aNodeWrapper.layer)
-												|| (aNodeWrapper.layer < nw.layer
-														&& aNodeWrapper.layer > nodeB.layer)) {
-											// top-left or bottom-left quarter
-											numOfCrosses++;
-											alreadyCrossed.add(i);
-										}
-									} else if (nodeA.index <= nw.index) {
-										// implies nodeA.index < nw.index
-										if ((aNodeWrapper.layer > nw.layer
-												&& nw.layer > nodeA.layer)
-												|| (aNodeWrapper.layer < nw.layer
-														&& nw.layer < nodeA.layer)) {
-											// top-right or bottom-right quarter
-											numOfCrosses++;
-											alreadyCrossed.add(i);
-										}
-									}
-								}
-							}
-						}
-					}
-				}
+		private List<NodeWrapper> getNeighbors(NodeWrapper nw) {
+			List<NodeWrapper> wrappers = neighbors.get(nw);
+			if (wrappers == null) {
+				wrappers = CrossingCounter.getNeighbors(nw, map);
+				neighbors.put(nw, wrappers);
 			}
-
-			return numOfCrosses;
+			return wrappers;
 		}
 
 		/**
@@ -401,24 +795,22 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 			for (NodeWrapper node : layer) {
 				if (!node.equals(pivot) && node.node != null
 						&& pivot.node != null) {
-					int num1 = numberOfCrosses(node, pivot);
-					int num2 = numberOfCrosses(pivot, node);
+					long num1 = numberOfCrosses(node, pivot);
+					long num2 = numberOfCrosses(pivot, node);
 					if (num1 < num2)
 						left.add(node);
 					else if (num1 > num2)
 						right.add(node);
-					else {
-						if (num1 == num2 && num1 > 0) {
-							int tmpindex = map.get(pivot.node).index;
-							map.get(pivot.node).index = map
-									.get(node.node).index;
-							map.get(node.node).index = tmpindex;
-						}
-						if (node.index < pivot.index)
-							left.add(node);
-						else
-							right.add(node);
-					}
+					else if (node.index < pivot.index)
+						left.add(node);
+					else
+						right.add(node);
+				} else if (!node.equals(pivot)) {
+					// keep dummy nodes in their relative order
+					if (node.index < pivot.index)
+						left.add(node);
+					else
+						right.add(node);
 				}
 			}
 
@@ -430,13 +822,19 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 		}
 
 		public void crossReduction(List<List<NodeWrapper>> nodes) {
+			neighbors.clear();
 			// Building the map
 			for (List<NodeWrapper> layer : nodes)
 				for (NodeWrapper nw : layer)
 					map.put(nw.node, nw);
 			for (int i = 0; i < nodes.size(); i++) {
-				if (!nodes.get(i).isEmpty()) {
-					splitHeuristic(nodes.get(i));
+				List<NodeWrapper> layer = nodes.get(i);
+				if (!layer.isEmpty()) {
+					List<NodeWrapper> ordered = splitHeuristic(layer);
+					layer.clear();
+					layer.addAll(ordered);
+					for (int index = 0; index < layer.size(); index++)
+						layer.get(index).index = index;
 				}
 			}
 		}
@@ -452,124 +850,35 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 	 */
 	public static class GreedyCrossingReducer implements CrossingReducer {
 		private final Map<Node, NodeWrapper> map = new IdentityHashMap<>();
-		private List<List<NodeWrapper>> layers = new ArrayList<>();
-		private Map<Integer, Integer> crossesForLayers = new IdentityHashMap<>();
-
-		/**
-		 * Filters the multiple connections from the two arrays.
-		 * 
-		 * @param a
-		 * @param b
-		 * @return
-		 */
-		private ArrayList<Node> unionOfNodes(Collection<Node> a,
-				Collection<Node> b) {
-			ArrayList<Node> res = new ArrayList<>(a);
-			for (Node n : b) {
-				if (!res.contains(n)) {
-					res.add(n);
-				}
-			}
-			return res;
-		}
+		private final Map<NodeWrapper, List<NodeWrapper>> neighbors = new IdentityHashMap<>();
 
 		/**
-		 * Returns the number of crosses between the two nodes and those
-		 * connected to them.
+		 * Returns the number of crossings between the edges of the two nodes
+		 * (to the nodes connected to them) in case the first node is placed
+		 * before the second node.
 		 * 
 		 * @param nodeA
 		 * @param nodeB
 		 * @return
 		 */
-		private int numberOfCrosses(NodeWrapper nodeA, NodeWrapper nodeB) {
-			int numOfCrosses = 0;
-			if (nodeA.equals(nodeB))
-				return 0;
+		private long numberOfCrosses(NodeWrapper nodeA, NodeWrapper nodeB) {
+			return CrossingCounter.countNeighborCrossings(
+					Arrays.asList(nodeA, nodeB),
+					Arrays.asList(getNeighbors(nodeA), getNeighbors(nodeB)));
+		}
 
-			// Filter nodes connected with bidirectional edges
-			ArrayList<Node> adjacentNodesOfA = unionOfNodes(
-					nodeA.node.getPredecessorNodes(),
-					nodeA.node.getSuccessorNodes());
-			ArrayList<Node> adjacentNodesOfB = unionOfNodes(
-					nodeB.node.getPredecessorNodes(),
-					nodeB.node.getSuccessorNodes());
-
-			for (Node aNode : adjacentNodesOfA) {
-				ArrayList<Integer> alreadyCrossed = new ArrayList<>();
-				NodeWrapper aNodeWrapper = map.get(aNode);
-				for (int i = 0; i < adjacentNodesOfB.size(); i++) {
-					NodeWrapper nw = map.get(adjacentNodesOfB.get(i));
-					if (!alreadyCrossed.contains(i) && nw != null) {
-						// only if on the same side
-						if ((nw.layer > nodeA.layer
-								&& aNodeWrapper.layer > nodeA.layer)
-								|| (nw.layer < nodeA.layer
-										&& aNodeWrapper.layer < nodeA.layer)) {
-							if (nodeA.index < nodeB.index) {
-								if (aNodeWrapper.index > nw.index) {
-									numOfCrosses++;
-									alreadyCrossed.add(i);
-								} else if (nw.index == aNodeWrapper.index) {
-									if (nodeA.index >= nw.index) {
-										// implies nodeB.index > nw.index
-										if ((aNodeWrapper.layer > nw.layer
-												&& nodeA.layer < nw.layer)
-												|| (aNodeWrapper.layer < nw.layer
-														&& nw.layer < nodeA.layer)) {
-											// top-left or bottom-left quarter
-											numOfCrosses++;
-											alreadyCrossed.add(i);
-										}
-									} else if (nodeB.index <= nw.index) {
-										// implies nodeA.index < nw.index
-										if ((aNodeWrapper.layer > nw.layer
-												&& aNodeWrapper.layer < nodeB.layer)
-												|| (aNodeWrapper.layer < nw.layer
-														&& aNodeWrapper.layer > nodeB.layer)) {
-											// top-right or bottom-right quarter
-											numOfCrosses++;
-											alreadyCrossed.add(i);
-										}
-									}
-								}
-							} else if (nodeA.index > nodeB.index) {
-								if (aNodeWrapper.index < nw.index) {
-									numOfCrosses++;
-									alreadyCrossed.add(i);
-								} else if (nw.index == aNodeWrapper.index) {
-									if (nodeB.index >= nw.index) {
-										// implies nodeB.index > nw.index
-										if ((aNodeWrapper.layer > nw.layer
-												&& nodeB.layer > aNodeWrapper.layer)
-												|| (aNodeWrapper.layer < nw.layer
-														&& aNodeWrapper.layer > nodeB.layer)) {
-											// top-left or bottom-left quarter
-											numOfCrosses++;
-											alreadyCrossed.add(i);
-										}
-									} else if (nodeA.index <= nw.index) {
-										// implies nodeA.index < nw.index
-										if ((aNodeWrapper.layer > nw.layer
-												&& nw.layer > nodeA.layer)
-												|| (aNodeWrapper.layer < nw.layer
-														&& nw.layer < nodeA.layer)) {
-											// top-right or bottom-right quarter
-											numOfCrosses++;
-											alreadyCrossed.add(i);
-										}
-									}
-								}
-							}
-						}
-					}
-				}
+		private List<NodeWrapper> getNeighbors(NodeWrapper nw) {
+			List<NodeWrapper> wrappers = neighbors.get(nw);
+			if (wrappers == null) {
+				wrappers = CrossingCounter.getNeighbors(nw, map);
+				neighbors.put(nw, wrappers);
 			}
-
-			return numOfCrosses;
+			return wrappers;
 		}
 
 		/**
-		 * Iterates the list and switches that results in less crossings.
+		 * Iterates the list and switches neighboring nodes if that results in
+		 * less crossings.
 		 * 
 		 * @param layer
 		 * @return
@@ -580,28 +889,15 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 				for (int i = 0; i < layer.size() - 1; i++) {
 					if (layer.get(i).node != null
 							&& layer.get(i + 1).node != null) {
-						int num1 = numberOfCrosses(layer.get(i),
+						long num1 = numberOfCrosses(layer.get(i),
 								layer.get(i + 1));
-						int num2 = numberOfCrosses(layer.get(i + 1),
+						long num2 = numberOfCrosses(layer.get(i + 1),
 								layer.get(i));
-						if (num1 > num2 || (num1 == num2 && num1 > 0)) {
-							if (!crossesForLayers
-									.containsKey((layer.get(i).layer))
-									|| crossesForLayers
-											.get(layer.get(i).layer) > num2) {
-								crossesForLayers.put(layer.get(i).layer, num2);
-								res = true;
-								int level = layer.get(0).layer;
-
-								NodeWrapper tmp = layers.get(level).get(i);
-								int tmpindex = layers.get(level).get(i).index;
-								layers.get(level).get(i).index = layers
-										.get(level).get(i + 1).index;
-								layers.get(level).set(i,
-										layers.get(level).get(i + 1));
-								layers.get(level).get(i + 1).index = tmpindex;
-								layers.get(level).set(i + 1, tmp);
-							}
+						// swapping only changes the crossings between the
+						// edges of the two nodes
+						if (num2 < num1) {
+							swap(layer, i);
+							res = true;
 						}
 					}
 				}
@@ -609,10 +905,16 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 			return res;
 		}
 
-		public void crossReduction(List<List<NodeWrapper>> nodes) {
-			crossesForLayers.clear();
-			layers = nodes;
+		private static void swap(List<NodeWrapper> layer, int i) {
+			NodeWrapper tmp = layer.get(i);
+			layer.set(i, layer.get(i + 1));
+			layer.set(i + 1, tmp);
+			layer.get(i).index = i;
+			layer.get(i + 1).index = i + 1;
+		}
 
+		public void crossReduction(List<List<NodeWrapper>> nodes) {
+			neighbors.clear();
 			// Builds the map
 			for (List<NodeWrapper> layer : nodes)
 				for (NodeWrapper node : layer)
@@ -624,7 +926,7 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 			while (iteration < 3) {
 				change = false;
 				for (int i = 0; i < nodes.size(); i++) {
-					if (greedyHeuristic(layers.get(i))) {
+					if (greedyHeuristic(nodes.get(i))) {
 						change = true;
 					}
 				}
@@ -1210,65 +1512,1139 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 
 	}
 
-	private List<List<NodeWrapper>> layers = new ArrayList<>();
-	private Map<Node, NodeWrapper> map = new IdentityHashMap<>();
-	private final Direction direction;
-	private final Dimension dimension;
-
-	private LayoutContext context;
-
-	// index of the last element in a layer after padding process
-	private int last;
-
-	private LayerProvider layerProvider;
-	private CrossingReducer crossingReducer;
-
 	/**
-	 * Constructs a tree-like, layered layout of a directed graph.
-	 * 
-	 * @param dir
-	 *            {@link Direction#HORIZONTAL}: left to right -
-	 *            {@link Direction#VERTICAL} : top to bottom
-	 * 
-	 * @param dim
-	 *            - desired size of the layout area. Uses the BOUNDS_PROPERTY of
-	 *            the LayoutContext if not set
-	 * 
-	 * @param layering
-	 *            - implementation of LayerProvider interface
-	 * 
-	 * @param crossing
-	 *            - implementation of CrossingReducer interface
+	 * Implements the LayerProvider interface using the network simplex
+	 * algorithm of Gansner et al. ("A Technique for Drawing Directed Graphs",
+	 * 1993), which assigns the layers so that the total span of the edges
+	 * (weighted by their multiplicity) is minimal, and hence, so is the number
+	 * of dummy nodes that have to be inserted for long edges. Cycles are
+	 * broken beforehand by reversing the back edges of a depth first search.
+	 * Each connected component starts at the first layer.
 	 */
-	public SugiyamaLayoutAlgorithm(Direction dir, Dimension dim,
-			LayerProvider layering, CrossingReducer crossing) {
-		direction = dir;
-		dimension = dim;
+	public static class NetworkSimplexLayerProvider implements LayerProvider {
+
+		private static final int DEFAULT_MAX_ITERATIONS = 1000;
+
+		private int maxIterations = DEFAULT_MAX_ITERATIONS;
+
+		// the (merged and acyclic) edges, and the edges incident to each node
+		private int[] sources;
+		private int[] targets;
+		private int[] weights;
+		private int[][] incident;
+
+		// the layer of each node, and the feasible spanning forest
+		private int[] rank;
+		private boolean[] treeEdge;
+		private int[] parentEdge;
+		private int[] low;
+		private int[] lim;
+		private int[] cutValue;
+		private int[] postOrder;
+		private int[] roots;
+		private int rootCount;
+		private int leaveSearchStart;
+		private int[] stack;
+		private int[] next;
 
-		layerProvider = (layering == null) ? new SimpleLayerProvider()
-				: layering;
-		crossingReducer = (crossing == null) ? new BarycentricCrossingReducer()
-				: crossing;
-	}
+		/**
+		 * Returns the maximum number of edge exchanges that are performed to
+		 * optimize the initial (feasible) layering.
+		 * 
+		 * @return The maximum number of iterations.
+		 */
+		public int getMaxIterations() {
+			return maxIterations;
+		}
 
-	/**
-	 * Constructs a new {@link SugiyamaLayoutAlgorithm} with the given
-	 * {@link Direction}, {@link LayerProvider}, and {@link CrossingReducer}.
-	 * 
-	 * @param dir
-	 *            The {@link Direction} for this {@link SugiyamaLayoutAlgorithm}
-	 *            .
-	 * @param layerProvider
-	 *            The LayerProvider for this {@link SugiyamaLayoutAlgorithm}.
-	 * @param crossing
-	 *            The CrossingReducer for this {@link SugiyamaLayoutAlgorithm}.
-	 */
-	public SugiyamaLayoutAlgorithm(Direction dir, LayerProvider layerProvider,
-			CrossingReducer crossing) {
-		this(dir, null, layerProvider, crossing);
-	}
+		/**
+		 * Sets the maximum number of edge exchanges that are performed to
+		 * optimize the initial (feasible) layering. The layering is valid
+		 * after each iteration, so that this bounds the running time for large
+		 * graphs.
+		 * 
+		 * @param maxIterations
+		 *            The maximum number of iterations, which has to be
+		 *            non-negative.
+		 */
+		public void setMaxIterations(int maxIterations) {
+			if (maxIterations < 0) {
+				throw new IllegalArgumentException(
+						"The maximum number of iterations may not be negative.");
+			}
+			this.maxIterations = maxIterations;
+		}
 
-	/**
+		public List<List<NodeWrapper>> calculateLayers(List<Node> nodes) {
+			int n = nodes.size();
+			Map<Node, Integer> ids = new IdentityHashMap<>();
+			for (Node node : nodes) {
+				ids.put(node, ids.size());
+			}
+			initEdges(nodes, ids);
+			leaveSearchStart = 0;
+			initRanks(n);
+			feasibleTree(n);
+			initCutValues(n);
+			for (int i = 0; i < maxIterations; i++) {
+				int leave = leaveEdge();
+				int enter = leave < 0 ? -1 : enterEdge(leave);
+				if (enter < 0) {
+					break;
+				}
+				exchangeEdges(leave, enter);
+			}
+			normalizeRanks(n);
+			List<List<NodeWrapper>> layers = createLayers(nodes);
+			sources = targets = weights = null;
+			incident = null;
+			stack = next = null;
+			return layers;
+		}
+
+		/**
+		 * Collects the edges between the given nodes, reversing the back edges
+		 * of a depth first search, ignoring self loops, and merging parallel
+		 * edges into weighted edges.
+		 */
+		private void initEdges(List<Node> nodes, Map<Node, Integer> ids) {
+			int n = nodes.size();
+			int[][] successors = new int[n][];
+			for (int v = 0; v < n; v++) {
+				List<Integer> list = new ArrayList<>();
+				for (Edge e : nodes.get(v).getOutgoingEdges()) {
+					Integer w = ids.get(e.getTarget());
+					if (w != null && w != v) {
+						list.add(w);
+					}
+				}
+				successors[v] = new int[list.size()];
+				for (int i = 0; i < list.size(); i++) {
+					successors[v][i] = list.get(i);
+				}
+			}
+
+			// iterative depth first search, reversing the back edges
+			Map<Long, Integer> merged = new LinkedHashMap<>();
+			int[] state = new int[n]; // 0: new, 1: on stack, 2: finished
+			int[] stack = new int[n];
+			int[] next = new int[n];
+			for (int start = 0; start < n; start++) {
+				if (state[start] != 0) {
+					continue;
+				}
+				int top = 0;
+				stack[0] = start;
+				state[start] = 1;
+				while (top >= 0) {
+					int v = stack[top];
+					if (next[v] == successors[v].length) {
+						state[v] = 2;
+						top--;
+						continue;
+					}
+					int w = successors[v][next[v]++];
+					long key = state[w] == 1 ? (long) w * n + v
+							: (long) v * n + w;
+					Integer weight = merged.get(key);
+					merged.put(key, weight == null ? 1 : weight + 1);
+					if (state[w] == 0) {
+						state[w] = 1;
+						stack[++top] = w;
+					}
+				}
+			}
+
+			int m = merged.size();
+			sources = new int[m];
+			targets = new int[m];
+			weights = new int[m];
+			int[] degree = new int[n];
+			int e = 0;
+			for (Map.Entry<Long, Integer> entry : merged.entrySet()) {
+				sources[e] = (int) (entry.getKey() / n);
+				targets[e] = (int) (entry.getKey() % n);
+				weights[e] = entry.getValue();
+				degree[sources[e]]++;
+				degree[targets[e]]++;
+				e++;
+			}
+			incident = new int[n][];
+			for (int v = 0; v < n; v++) {
+				incident[v] = new int[degree[v]];
+				degree[v] = 0;
+			}
+			for (e = 0; e < m; e++) {
+				incident[sources[e]][degree[sources[e]]++] = e;
+				incident[targets[e]][degree[targets[e]]++] = e;
+			}
+		}
+
+		/**
+		 * Computes an initial layering by the longest path from the sources.
+		 */
+		private void initRanks(int n) {
+			rank = new int[n];
+			int[] inDegree = new int[n];
+			for (int e = 0; e < sources.length; e++) {
+				inDegree[targets[e]]++;
+			}
+			int[] queue = new int[n];
+			int count = 0;
+			for (int v = 0; v < n; v++) {
+				if (inDegree[v] == 0) {
+					queue[count++] = v;
+				}
+			}
+			for (int i = 0; i < count; i++) {
+				int v = queue[i];
+				for (int e : incident[v]) {
+					if (sources[e] == v) {
+						int w = targets[e];
+						rank[w] = Math.max(rank[w], rank[v] + 1);
+						if (--inDegree[w] == 0) {
+							queue[count++] = w;
+						}
+					}
+				}
+			}
+		}
+
+		private int slack(int e) {
+			return rank[targets[e]] - rank[sources[e]] - 1;
+		}
+
+		private int other(int e, int v) {
+			return sources[e] == v ? targets[e] : sources[e];
+		}
+
+		/**
+		 * Computes a spanning forest of tight edges (i.e. edges of minimal
+		 * length), shifting the ranks of the tree nodes towards the incident
+		 * edge of minimal slack whenever no further tight edge is available.
+		 */
+		private void feasibleTree(int n) {
+			treeEdge = new boolean[sources.length];
+			boolean[] inTree = new boolean[n];
+			roots = new int[n];
+			rootCount = 0;
+			int[] component = new int[n];
+			int[] stack = new int[n];
+			for (int start = 0; start < n; start++) {
+				if (inTree[start]) {
+					continue;
+				}
+				roots[rootCount++] = start;
+				inTree[start] = true;
+				component[0] = start;
+				int size = 1;
+				while (true) {
+					size = growTightTree(component, size, inTree, stack);
+					// find the incident edge with minimal slack
+					int best = -1;
+					for (int i = 0; i < size; i++) {
+						int v = component[i];
+						for (int e : incident[v]) {
+							if (!inTree[other(e, v)]
+									&& (best < 0 || slack(e) < slack(best))) {
+								best = e;
+							}
+						}
+					}
+					if (best < 0) {
+						break;
+					}
+					// make that edge tight
+					int delta = inTree[sources[best]] ? slack(best)
+							: -slack(best);
+					for (int i = 0; i < size; i++) {
+						rank[component[i]] += delta;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Adds all nodes to the tree that are reachable via tight edges from
+		 * the given tree nodes. Returns the new size of the tree.
+		 */
+		private int growTightTree(int[] component, int size, boolean[] inTree,
+				int[] stack) {
+			int top = 0;
+			for (int i = 0; i < size; i++) {
+				stack[top++] = component[i];
+			}
+			while (top > 0) {
+				int v = stack[--top];
+				for (int e : incident[v]) {
+					int w = other(e, v);
+					if (!inTree[w] && slack(e) == 0) {
+						inTree[w] = true;
+						treeEdge[e] = true;
+						component[size++] = w;
+						stack[top++] = w;
+					}
+				}
+			}
+			return size;
+		}
+
+		/**
+		 * Computes the post-order numbering of the spanning forest as well as
+		 * the cut values of its edges.
+		 */
+		private void initCutValues(int n) {
+			parentEdge = new int[n];
+			low = new int[n];
+			lim = new int[n];
+			postOrder = new int[n];
+			stack = new int[n];
+			next = new int[n];
+			cutValue = new int[sources.length];
+			int counter = 1;
+			for (int r = 0; r < rootCount; r++) {
+				parentEdge[roots[r]] = -1;
+				counter = traverse(roots[r], counter);
+			}
+			// children are processed before their parents
+			for (int i = 0; i < n; i++) {
+				if (parentEdge[postOrder[i]] >= 0) {
+					calcCutValue(postOrder[i]);
+				}
+			}
+		}
+
+		/**
+		 * Traverses the tree below the given root (whose parent edge is not
+		 * changed), assigning the post-order numbers starting at the given
+		 * counter. Returns the next post-order number.
+		 */
+		private int traverse(int root, int counter) {
+			int top = 0;
+			stack[0] = root;
+			next[root] = 0;
+			low[root] = counter;
+			while (top >= 0) {
+				int v = stack[top];
+				if (next[v] < incident[v].length) {
+					int e = incident[v][next[v]++];
+					if (treeEdge[e] && e != parentEdge[v]) {
+						int w = other(e, v);
+						parentEdge[w] = e;
+						low[w] = counter;
+						next[w] = 0;
+						stack[++top] = w;
+					}
+				} else {
+					lim[v] = counter;
+					postOrder[counter - 1] = v;
+					counter++;
+					top--;
+				}
+			}
+			return counter;
+		}
+
+		private void calcCutValue(int child) {
+			int e = parentEdge[child];
+			boolean childIsTail = sources[e] == child;
+			int cut = weights[e];
+			for (int f : incident[child]) {
+				if (f == e) {
+					continue;
+				}
+				boolean pointsToHead = (sources[f] == child) == childIsTail;
+				cut += pointsToHead ? weights[f] : -weights[f];
+				if (treeEdge[f]) {
+					cut += pointsToHead ? -cutValue[f] : cutValue[f];
+				}
+			}
+			cutValue[e] = cut;
+		}
+
+		private int leaveEdge() {
+			// continue the search where the last one stopped
+			int m = sources.length;
+			for (int i = 0; i < m; i++) {
+				int e = (leaveSearchStart + i) % m;
+				if (treeEdge[e] && cutValue[e] < 0) {
+					leaveSearchStart = e + 1;
+					return e;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Returns the non-tree edge of minimal slack that reconnects the two
+		 * components that result from removing the given tree edge.
+		 */
+		private int enterEdge(int e) {
+			int tail = sources[e];
+			boolean flip = false;
+			if (lim[sources[e]] > lim[targets[e]]) {
+				tail = targets[e];
+				flip = true;
+			}
+			int best = -1;
+			for (int f = 0; f < sources.length; f++) {
+				if (!treeEdge[f]
+						&& flip == isDescendant(sources[f], tail)
+						&& flip != isDescendant(targets[f], tail)
+						&& (best < 0 || slack(f) < slack(best))) {
+					best = f;
+				}
+			}
+			return best;
+		}
+
+		private boolean isDescendant(int v, int root) {
+			return low[root] <= lim[v] && lim[v] <= lim[root];
+		}
+
+		/**
+		 * Replaces the given tree edges, and updates the post-order numbers,
+		 * cut values, and ranks within the subtree rooted at the least common
+		 * ancestor of the end points of the entering edge, because nothing
+		 * changes outside of it.
+		 */
+		private void exchangeEdges(int leave, int enter) {
+			int ancestor = sources[enter];
+			while (!isDescendant(targets[enter], ancestor)) {
+				ancestor = other(parentEdge[ancestor], ancestor);
+			}
+			treeEdge[leave] = false;
+			treeEdge[enter] = true;
+			traverse(ancestor, low[ancestor]);
+			int first = low[ancestor] - 1;
+			int last = lim[ancestor] - 1;
+			for (int i = first; i < last; i++) {
+				calcCutValue(postOrder[i]);
+			}
+			// parents precede their children in reverse post-order
+			for (int i = last - 1; i >= first; i--) {
+				int v = postOrder[i];
+				int e = parentEdge[v];
+				int parent = other(e, v);
+				rank[v] = sources[e] == parent ? rank[parent] + 1
+						: rank[parent] - 1;
+			}
+		}
+
+		/**
+		 * Shifts the ranks of each connected component, so that its minimal
+		 * rank is <code>0</code>.
+		 */
+		private void normalizeRanks(int n) {
+			int[] tree = new int[n];
+			int[] min = new int[n];
+			for (int i = n - 1; i >= 0; i--) {
+				int v = postOrder[i];
+				int e = parentEdge[v];
+				tree[v] = e < 0 ? v : tree[other(e, v)];
+				min[tree[v]] = e < 0 ? rank[v]
+						: Math.min(min[tree[v]], rank[v]);
+			}
+			for (int v = 0; v < n; v++) {
+				rank[v] -= min[tree[v]];
+			}
+		}
+
+		/**
+		 * Wraps the given nodes, and inserts dummy wrappers into the layers
+		 * spanned by long edges, chaining them via their predecessors and
+		 * successors.
+		 */
+		private List<List<NodeWrapper>> createLayers(List<Node> nodes) {
+			List<List<NodeWrapper>> layers = new ArrayList<>();
+			NodeWrapper[] wrappers = new NodeWrapper[nodes.size()];
+			for (int v = 0; v < wrappers.length; v++) {
+				while (layers.size() <= rank[v]) {
+					layers.add(new ArrayList<NodeWrapper>());
+				}
+				wrappers[v] = new NodeWrapper(nodes.get(v), rank[v]);
+				layers.get(rank[v]).add(wrappers[v]);
+			}
+			for (int e = 0; e < sources.length; e++) {
+				NodeWrapper predecessor = wrappers[sources[e]];
+				for (int level = rank[sources[e]]
+						+ 1; level < rank[targets[e]]; level++) {
+					NodeWrapper dummy = new NodeWrapper(level);
+					dummy.addPredecessor(predecessor);
+					predecessor.addSuccessor(dummy);
+					predecessor = dummy;
+					layers.get(level).add(dummy);
+				}
+				wrappers[targets[e]].addPredecessor(predecessor);
+				predecessor.addSuccessor(wrappers[targets[e]]);
+			}
+			for (List<NodeWrapper> layer : layers) {
+				for (int index = 0; index < layer.size(); index++) {
+					layer.get(index).index = index;
+				}
+			}
+			return layers;
+		}
+	}
+
+	/**
+	 * An interface for heuristics that assign the positions of the nodes
+	 * within their layers, after the nodes have been ordered by a
+	 * {@link CrossingReducer}.
+	 */
+	public static interface CoordinateAssigner {
+
+		/**
+		 * Computes the positions of the given {@link NodeWrapper}s within
+		 * their layers. The positions are measured in units of the minimal
+		 * distance between two adjacent nodes of a layer, i.e. adjacent nodes
+		 * have to be at least <code>1</code> apart, and they have to respect
+		 * the order of the nodes within their layers.
+		 * 
+		 * @param layers
+		 *            The ordered layers, represented each as a list of
+		 *            {@link NodeWrapper}s.
+		 * @return A {@link Map} that assigns a position to each
+		 *         {@link NodeWrapper}.
+		 */
+		Map<NodeWrapper, Double> assignCoordinates(
+				List<List<NodeWrapper>> layers);
+	}
+
+	/**
+	 * Implements the CoordinateAssigner interface by using the index of a node
+	 * within its layer as its position, i.e. all layers are left-aligned.
+	 */
+	public static class SimpleCoordinateAssigner implements CoordinateAssigner {
+
+		@Override
+		public Map<NodeWrapper, Double> assignCoordinates(
+				List<List<NodeWrapper>> layers) {
+			Map<NodeWrapper, Double> positions = new IdentityHashMap<>();
+			for (List<NodeWrapper> layer : layers) {
+				for (NodeWrapper nw : layer) {
+					positions.put(nw, (double) nw.index);
+				}
+			}
+			return positions;
+		}
+	}
+
+	/**
+	 * Implements the CoordinateAssigner interface using the algorithm of
+	 * Brandes and Köpf ("Fast and Simple Horizontal Coordinate Assignment",
+	 * 2001). Each node is aligned with a median neighbor in one of the
+	 * adjacent layers, preferring the inner segments of long edges (i.e. the
+	 * segments between dummy nodes), so that long edges are drawn straight.
+	 * Crossings between inner segments (type 2 conflicts) are resolved by
+	 * keeping the leftmost inner segment aligned. The aligned blocks are
+	 * compacted into classes, which are then shifted towards each other, and
+	 * the four layouts that result from aligning upwards or downwards, to the
+	 * left or to the right, are balanced. The running time is linear in the
+	 * number of nodes and edges of the layers (up to sorting the neighbors of
+	 * each node).
+	 * <p>
+	 * The class shifts are computed from the separation constraints between
+	 * adjacent nodes of different classes, as the shifts of the original
+	 * publication may violate them (see Brandes, Walter, and Zink, "Erratum:
+	 * Fast and Simple Horizontal Coordinate Assignment", 2020). If these
+	 * constraints are cyclic, the blocks are compacted individually instead,
+	 * i.e. they are placed as far to the left as possible, and then pulled to
+	 * the right as long as their right neighbors permit.
+	 */
+	public static class BrandesKoepfCoordinateAssigner
+			implements CoordinateAssigner {
+
+		@Override
+		public Map<NodeWrapper, Double> assignCoordinates(
+				List<List<NodeWrapper>> layers) {
+			// index the node wrappers
+			int n = 0;
+			for (List<NodeWrapper> layer : layers) {
+				n += layer.size();
+			}
+			NodeWrapper[] wrappers = new NodeWrapper[n];
+			int[][] order = new int[layers.size()][];
+			int[] pos = new int[n];
+			int[] layerOf = new int[n];
+			Map<NodeWrapper, Integer> ids = new IdentityHashMap<>();
+			Map<Node, Integer> nodeIds = new IdentityHashMap<>();
+			int id = 0;
+			for (int i = 0; i < layers.size(); i++) {
+				List<NodeWrapper> layer = layers.get(i);
+				order[i] = new int[layer.size()];
+				for (int k = 0; k < layer.size(); k++) {
+					NodeWrapper nw = layer.get(k);
+					wrappers[id] = nw;
+					order[i][k] = id;
+					pos[id] = k;
+					layerOf[id] = i;
+					ids.put(nw, id);
+					if (nw.node != null) {
+						nodeIds.put(nw.node, id);
+					}
+					id++;
+				}
+			}
+
+			// determine the neighbors within the adjacent layers
+			int[][] upper = new int[n][];
+			int[][] lower = new int[n][];
+			computeNeighbors(wrappers, ids, nodeIds, pos, layerOf, upper,
+					lower);
+
+			Set<Long> marked = markConflicts(order, upper, wrappers, pos, n);
+
+			// compute the four extreme layouts
+			double[][] xs = new double[4][];
+			int[] root = new int[n];
+			int[] align = new int[n];
+			for (int d = 0; d < 4; d++) {
+				boolean down = d < 2;
+				boolean left = d % 2 == 0;
+				align(order, pos, layerOf, down ? upper : lower, down, left,
+						marked, root, align);
+				xs[d] = compact(order, root, align, left, n);
+			}
+
+			// balance the layouts, aligned to the one of smallest width
+			double[] min = new double[4];
+			double[] max = new double[4];
+			int smallest = 0;
+			for (int d = 0; d < 4; d++) {
+				min[d] = Double.POSITIVE_INFINITY;
+				max[d] = Double.NEGATIVE_INFINITY;
+				for (int v = 0; v < n; v++) {
+					min[d] = Math.min(min[d], xs[d][v]);
+					max[d] = Math.max(max[d], xs[d][v]);
+				}
+				if (max[d] - min[d] < max[smallest] - min[smallest]) {
+					smallest = d;
+				}
+			}
+			double[] candidates = new double[4];
+			double offset = Double.POSITIVE_INFINITY;
+			double[] x = new double[n];
+			for (int v = 0; v < n; v++) {
+				for (int d = 0; d < 4; d++) {
+					double shift = d % 2 == 0 ? min[smallest] - min[d]
+							: max[smallest] - max[d];
+					candidates[d] = xs[d][v] + shift;
+				}
+				Arrays.sort(candidates);
+				x[v] = (candidates[1] + candidates[2]) / 2;
+				offset = Math.min(offset, x[v]);
+			}
+
+			Map<NodeWrapper, Double> positions = new IdentityHashMap<>();
+			for (int v = 0; v < n; v++) {
+				positions.put(wrappers[v], x[v] - offset);
+			}
+			return positions;
+		}
+
+		/**
+		 * Determines the neighbors of each node within the layer above and
+		 * below, sorted by their position. Besides the predecessor and
+		 * successor links of the {@link NodeWrapper}s, the edges of the
+		 * wrapped {@link Node}s are considered, so that layers without dummy
+		 * nodes are supported, too.
+		 */
+		private static void computeNeighbors(NodeWrapper[] wrappers,
+				Map<NodeWrapper, Integer> ids, Map<Node, Integer> nodeIds,
+				int[] pos, int[] layerOf, int[][] upper, int[][] lower) {
+			int n = wrappers.length;
+			// ids are consecutive within a layer
+			int[] layerStart = new int[n == 0 ? 0 : layerOf[n - 1] + 1];
+			for (int v = n - 1; v >= 0; v--) {
+				layerStart[layerOf[v]] = v;
+			}
+			int[] stamp = new int[n];
+			Arrays.fill(stamp, -1);
+			int[] upperPositions = new int[n];
+			int[] lowerPositions = new int[n];
+			List<Integer> candidates = new ArrayList<>();
+			for (int v = 0; v < n; v++) {
+				NodeWrapper nw = wrappers[v];
+				candidates.clear();
+				for (NodeWrapper neighbor : nw.pred) {
+					candidates.add(ids.get(neighbor));
+				}
+				for (NodeWrapper neighbor : nw.succ) {
+					candidates.add(ids.get(neighbor));
+				}
+				if (nw.node != null) {
+					for (Node neighbor : nw.node.getPredecessorNodes()) {
+						candidates.add(nodeIds.get(neighbor));
+					}
+					for (Node neighbor : nw.node.getSuccessorNodes()) {
+						candidates.add(nodeIds.get(neighbor));
+					}
+				}
+				int upperCount = 0;
+				int lowerCount = 0;
+				for (Integer u : candidates) {
+					if (u == null || stamp[u] == v) {
+						continue;
+					}
+					stamp[u] = v;
+					if (layerOf[u] == layerOf[v] - 1) {
+						upperPositions[upperCount++] = pos[u];
+					} else if (layerOf[u] == layerOf[v] + 1) {
+						lowerPositions[lowerCount++] = pos[u];
+					}
+				}
+				upper[v] = toIds(upperPositions, upperCount,
+						upperCount == 0 ? 0 : layerStart[layerOf[v] - 1]);
+				lower[v] = toIds(lowerPositions, lowerCount,
+						lowerCount == 0 ? 0 : layerStart[layerOf[v] + 1]);
+			}
+		}
+
+		private static int[] toIds(int[] positions, int count, int start) {
+			Arrays.sort(positions, 0, count);
+			int[] ids = new int[count];
+			for (int i = 0; i < count; i++) {
+				ids[i] = start + positions[i];
+			}
+			return ids;
+		}
+
+		/**
+		 * Marks the type 1 conflicts, i.e. the non-inner segments that cross
+		 * an inner segment, as well as the type 2 conflicts, i.e. the inner
+		 * segments that cross an inner segment further to the left, so that
+		 * they are not used for the alignment.
+		 */
+		private static Set<Long> markConflicts(int[][] order, int[][] upper,
+				NodeWrapper[] wrappers, int[] pos, int n) {
+			Set<Long> marked = new HashSet<>();
+			for (int i = 0; i + 1 < order.length; i++) {
+				int[] lowerLayer = order[i + 1];
+				int k0 = 0;
+				int l = 0;
+				for (int l1 = 0; l1 < lowerLayer.length; l1++) {
+					int inner = getInnerSegmentSource(lowerLayer[l1], upper,
+							wrappers);
+					if (inner >= 0 && pos[inner] < k0) {
+						// the inner segment crosses an inner segment further
+						// to the left, so that it is treated like a non-inner
+						// segment
+						marked.add(getSegmentKey(inner, lowerLayer[l1], n));
+						inner = -1;
+					}
+					if (l1 == lowerLayer.length - 1 || inner >= 0) {
+						int k1 = inner >= 0 ? pos[inner] : order[i].length - 1;
+						for (; l <= l1; l++) {
+							int v = lowerLayer[l];
+							for (int u : upper[v]) {
+								if (pos[u] < k0 || pos[u] > k1) {
+									marked.add(getSegmentKey(u, v, n));
+								}
+							}
+						}
+						k0 = k1;
+					}
+				}
+			}
+			return marked;
+		}
+
+		// returns the upper dummy node of an inner segment incident to v, or -1
+		private static int getInnerSegmentSource(int v, int[][] upper,
+				NodeWrapper[] wrappers) {
+			if (wrappers[v].isDummy()) {
+				for (int u : upper[v]) {
+					if (wrappers[u].isDummy()) {
+						return u;
+					}
+				}
+			}
+			return -1;
+		}
+
+		private static long getSegmentKey(int u, int v, int n) {
+			return Math.min(u, v) * (long) n + Math.max(u, v);
+		}
+
+		/**
+		 * Aligns each node with one of its median neighbors in the preceding
+		 * layer (w.r.t. the given vertical direction), so that the aligned
+		 * segments do not cross. Stores the root of the block of each node,
+		 * and the next node within its block (the last node of a block
+		 * referring to the root), into the given arrays.
+		 */
+		private static void align(int[][] order, int[] pos, int[] layerOf,
+				int[][] neighbors, boolean down, boolean left,
+				Set<Long> marked, int[] root, int[] align) {
+			int n = root.length;
+			for (int v = 0; v < n; v++) {
+				root[v] = v;
+				align[v] = v;
+			}
+			int h = order.length;
+			for (int s = 1; s < h; s++) {
+				int[] layer = order[down ? s : h - 1 - s];
+				int r = -1;
+				for (int k = 0; k < layer.length; k++) {
+					int v = layer[left ? k : layer.length - 1 - k];
+					int[] nv = neighbors[v];
+					int d = nv.length;
+					for (int m = (d - 1) / 2; m <= d / 2 && d > 0; m++) {
+						if (align[v] != v) {
+							break;
+						}
+						int u = nv[left ? m : d - 1 - m];
+						int pu = left ? pos[u]
+								: order[layerOf[u]].length - 1 - pos[u];
+						if (r < pu && !marked.contains(getSegmentKey(u, v, n))) {
+							align[u] = v;
+							root[v] = root[u];
+							align[v] = root[v];
+							r = pu;
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * Compacts the blocks given by their roots and alignment. Each block is
+		 * placed relative to the blocks to its left that belong to the same
+		 * class, i.e. that share the same sink (a block without left
+		 * neighbors), and the classes are then shifted towards their right
+		 * neighbors. Returns the resulting positions, which are mirrored in
+		 * case of a right alignment.
+		 */
+		private static double[] compact(int[][] order, int[] root,
+				int[] align, boolean left, int n) {
+			// the left neighbor of each node (w.r.t. the horizontal direction)
+			int[] pred = new int[n];
+			for (int[] layer : order) {
+				for (int k = 0; k < layer.length; k++) {
+					pred[layer[left ? k : layer.length - 1 - k]] = k == 0 ? -1
+							: layer[left ? k - 1 : layer.length - k];
+				}
+			}
+
+			// place the blocks within their classes
+			double[] x = new double[n];
+			Arrays.fill(x, Double.NaN);
+			int[] sink = new int[n];
+			for (int v = 0; v < n; v++) {
+				sink[v] = v;
+			}
+			int[] stack = new int[n];
+			int[] next = new int[n];
+			for (int[] layer : order) {
+				for (int k = 0; k < layer.length; k++) {
+					int v = layer[left ? k : layer.length - 1 - k];
+					if (root[v] == v && Double.isNaN(x[v])) {
+						placeBlock(v, pred, root, align, sink, x, stack,
+								next);
+					}
+				}
+			}
+
+			double[] shift = computeClassShifts(pred, root, sink, x, n);
+			if (shift == null) {
+				return compactBlocks(order, root, left, n);
+			}
+			double[] positions = new double[n];
+			for (int v = 0; v < n; v++) {
+				double position = x[root[v]] + shift[sink[root[v]]];
+				positions[v] = left ? position : -position;
+			}
+			return positions;
+		}
+
+		/**
+		 * Places the block of the given root relative to the blocks to its left
+		 * (which are placed first) that belong to the same class. The class of
+		 * a block is the one of the topmost left neighbor of its nodes. The
+		 * recursion of the original publication is replaced by the given
+		 * stack, which stores the roots of the blocks that are placed and the
+		 * next node of each block to process.
+		 */
+		private static void placeBlock(int start, int[] pred, int[] root,
+				int[] align, int[] sink, double[] x, int[] stack, int[] next) {
+			int top = 0;
+			stack[0] = start;
+			next[0] = start;
+			x[start] = 0;
+			while (top >= 0) {
+				int v = stack[top];
+				int w = next[top];
+				if (pred[w] >= 0) {
+					int u = root[pred[w]];
+					if (Double.isNaN(x[u])) {
+						// place the block of the left neighbor first
+						x[u] = 0;
+						top++;
+						stack[top] = u;
+						next[top] = u;
+						continue;
+					}
+					if (sink[v] == v) {
+						sink[v] = sink[u];
+					}
+					if (sink[v] == sink[u]) {
+						x[v] = Math.max(x[v], x[u] + 1);
+					}
+				}
+				w = align[w];
+				if (w == v) {
+					top--;
+				} else {
+					next[top] = w;
+				}
+			}
+		}
+
+		/**
+		 * Computes the shift of each class (given by its sink), so that each
+		 * class is as close to the classes to its right as the adjacent nodes
+		 * of different classes permit, while the classes without right
+		 * neighbors are not shifted. Returns <code>null</code> if the
+		 * constraints between the classes are cyclic.
+		 */
+		private static double[] computeClassShifts(int[] pred, int[] root,
+				int[] sink, double[] x, int n) {
+			// the constraints between adjacent nodes of different classes,
+			// i.e. shift[left] <= shift[right] + separation
+			int[] outDegree = new int[n];
+			int[] inStart = new int[n + 1];
+			int constraintCount = 0;
+			for (int v = 0; v < n; v++) {
+				if (pred[v] >= 0
+						&& sink[root[pred[v]]] != sink[root[v]]) {
+					outDegree[sink[root[pred[v]]]]++;
+					inStart[sink[root[v]] + 1]++;
+					constraintCount++;
+				}
+			}
+			for (int c = 0; c < n; c++) {
+				inStart[c + 1] += inStart[c];
+			}
+			int[] in = new int[constraintCount];
+			double[] separation = new double[constraintCount];
+			int[] fill = Arrays.copyOf(inStart, n);
+			for (int v = 0; v < n; v++) {
+				if (pred[v] >= 0
+						&& sink[root[pred[v]]] != sink[root[v]]) {
+					int j = fill[sink[root[v]]]++;
+					in[j] = sink[root[pred[v]]];
+					separation[j] = x[root[v]] - x[root[pred[v]]] - 1;
+				}
+			}
+
+			// shift the classes from right to left (Kahn)
+			double[] shift = new double[n];
+			int[] queue = new int[n];
+			int count = 0;
+			int classCount = 0;
+			for (int c = 0; c < n; c++) {
+				if (root[c] == c && sink[c] == c) {
+					classCount++;
+					if (outDegree[c] == 0) {
+						queue[count++] = c;
+					} else {
+						shift[c] = Double.POSITIVE_INFINITY;
+					}
+				}
+			}
+			for (int i = 0; i < count; i++) {
+				int c = queue[i];
+				for (int j = inStart[c]; j < inStart[c + 1]; j++) {
+					int l = in[j];
+					shift[l] = Math.min(shift[l], shift[c] + separation[j]);
+					if (--outDegree[l] == 0) {
+						queue[count++] = l;
+					}
+				}
+			}
+			return count == classCount ? shift : null;
+		}
+
+		/**
+		 * Compacts the blocks given by their roots, by placing each block as
+		 * far to the left as possible (longest path in the block graph), and
+		 * then pulling it to the right as long as its right neighbors permit,
+		 * in order to avoid gaps. Returns the resulting positions, which are
+		 * mirrored in case of a right alignment.
+		 */
+		private static double[] compactBlocks(int[][] order, int[] root,
+				boolean left, int n) {
+			// build the block graph (an edge per pair of adjacent nodes)
+			int edgeCount = 0;
+			for (int[] layer : order) {
+				edgeCount += Math.max(0, layer.length - 1);
+			}
+			int[] from = new int[edgeCount];
+			int[] to = new int[edgeCount];
+			int e = 0;
+			for (int[] layer : order) {
+				for (int k = 1; k < layer.length; k++) {
+					int a = layer[left ? k - 1 : layer.length - k];
+					int b = layer[left ? k : layer.length - 1 - k];
+					from[e] = root[a];
+					to[e] = root[b];
+					e++;
+				}
+			}
+			int[] outStart = new int[n + 1];
+			int[] inDegree = new int[n];
+			for (e = 0; e < edgeCount; e++) {
+				outStart[from[e] + 1]++;
+				inDegree[to[e]]++;
+			}
+			for (int v = 0; v < n; v++) {
+				outStart[v + 1] += outStart[v];
+			}
+			int[] out = new int[edgeCount];
+			int[] fill = Arrays.copyOf(outStart, n);
+			for (e = 0; e < edgeCount; e++) {
+				out[fill[from[e]]++] = to[e];
+			}
+
+			// topological order of the block roots (Kahn)
+			int[] topological = new int[n];
+			int count = 0;
+			for (int v = 0; v < n; v++) {
+				if (root[v] == v && inDegree[v] == 0) {
+					topological[count++] = v;
+				}
+			}
+			for (int i = 0; i < count; i++) {
+				int a = topological[i];
+				for (int j = outStart[a]; j < outStart[a + 1]; j++) {
+					if (--inDegree[out[j]] == 0) {
+						topological[count++] = out[j];
+					}
+				}
+			}
+
+			double[] blockX = new double[n];
+			for (int i = 0; i < count; i++) {
+				int a = topological[i];
+				for (int j = outStart[a]; j < outStart[a + 1]; j++) {
+					blockX[out[j]] = Math.max(blockX[out[j]], blockX[a] + 1);
+				}
+			}
+			for (int i = count - 1; i >= 0; i--) {
+				int a = topological[i];
+				if (outStart[a] < outStart[a + 1]) {
+					double max = Double.POSITIVE_INFINITY;
+					for (int j = outStart[a]; j < outStart[a + 1]; j++) {
+						max = Math.min(max, blockX[out[j]] - 1);
+					}
+					blockX[a] = Math.max(blockX[a], max);
+				}
+			}
+
+			double[] x = new double[n];
+			for (int v = 0; v < n; v++) {
+				x[v] = left ? blockX[root[v]] : -blockX[root[v]];
+			}
+			return x;
+		}
+	}
+
+	private List<List<NodeWrapper>> layers = new ArrayList<>();
+	private Map<Node, NodeWrapper> map = new IdentityHashMap<>();
+	private final Direction direction;
+	private final Dimension dimension;
+
+	private LayoutContext context;
+
+	// index of the last element in a layer after padding process
+	private int last;
+
+	private LayerProvider layerProvider;
+	private CrossingReducer crossingReducer;
+	private CoordinateAssigner coordinateAssigner;
+
+	// distances used by the last (clean) layout pass
+	private double dx, dy;
+
+	// the bounds of the last (clean) layout pass, which determine the
+	// distances
+	private Rectangle layoutBounds;
+
+	/**
+	 * Constructs a tree-like, layered layout of a directed graph.
+	 * 
+	 * @param dir
+	 *            {@link Direction#HORIZONTAL}: left to right -
+	 *            {@link Direction#VERTICAL} : top to bottom
+	 * 
+	 * @param dim
+	 *            - desired size of the layout area. Uses the BOUNDS_PROPERTY of
+	 *            the LayoutContext if not set
+	 * 
+	 * @param layering
+	 *            - implementation of LayerProvider interface
+	 * 
+	 * @param crossing
+	 *            - implementation of CrossingReducer interface
+	 */
+	public SugiyamaLayoutAlgorithm(Direction dir, Dimension dim,
+			LayerProvider layering, CrossingReducer crossing) {
+		this(dir, dim, layering, crossing, null);
+	}
+
+	/**
+	 * Constructs a tree-like, layered layout of a directed graph.
+	 * 
+	 * @param dir
+	 *            {@link Direction#HORIZONTAL}: left to right -
+	 *            {@link Direction#VERTICAL} : top to bottom
+	 * 
+	 * @param dim
+	 *            - desired size of the layout area. Uses the BOUNDS_PROPERTY of
+	 *            the LayoutContext if not set
+	 * 
+	 * @param layering
+	 *            - implementation of LayerProvider interface
+	 * 
+	 * @param crossing
+	 *            - implementation of CrossingReducer interface
+	 * 
+	 * @param coordinates
+	 *            - implementation of CoordinateAssigner interface
+	 */
+	public SugiyamaLayoutAlgorithm(Direction dir, Dimension dim,
+			LayerProvider layering, CrossingReducer crossing,
+			CoordinateAssigner coordinates) {
+		direction = dir;
+		dimension = dim;
+
+		layerProvider = (layering == null) ? new SimpleLayerProvider()
+				: layering;
+		crossingReducer = (crossing == null) ? new BarycentricCrossingReducer()
+				: crossing;
+		coordinateAssigner = (coordinates == null)
+				? new SimpleCoordinateAssigner() : coordinates;
+	}
+
+	/**
+	 * Constructs a new {@link SugiyamaLayoutAlgorithm} with the given
+	 * {@link Direction}, {@link LayerProvider}, and {@link CrossingReducer}.
+	 * 
+	 * @param dir
+	 *            The {@link Direction} for this {@link SugiyamaLayoutAlgorithm}
+	 *            .
+	 * @param layerProvider
+	 *            The LayerProvider for this {@link SugiyamaLayoutAlgorithm}.
+	 * @param crossing
+	 *            The CrossingReducer for this {@link SugiyamaLayoutAlgorithm}.
+	 */
+	public SugiyamaLayoutAlgorithm(Direction dir, LayerProvider layerProvider,
+			CrossingReducer crossing) {
+		this(dir, null, layerProvider, crossing);
+	}
+
+	/**
 	 * Constructs a new {@link SugiyamaLayoutAlgorithm} with the given
 	 * {@link Direction}, {@link LayerProvider}, and a
 	 * {@link BarycentricCrossingReducer}.
@@ -1332,6 +2708,55 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 		this(Direction.VERTICAL, null, null, null);
 	}
 
+	/**
+	 * Returns the {@link Direction} of this {@link SugiyamaLayoutAlgorithm}.
+	 * 
+	 * @return The {@link Direction}.
+	 */
+	public Direction getDirection() {
+		return direction;
+	}
+
+	/**
+	 * Returns the desired size of the layout area, or <code>null</code> if the
+	 * layout bounds of the {@link LayoutContext} are used.
+	 * 
+	 * @return The desired size of the layout area, may be <code>null</code>.
+	 */
+	public Dimension getDimension() {
+		return dimension;
+	}
+
+	/**
+	 * Returns the {@link LayerProvider} of this
+	 * {@link SugiyamaLayoutAlgorithm}.
+	 * 
+	 * @return The {@link LayerProvider}.
+	 */
+	public LayerProvider getLayerProvider() {
+		return layerProvider;
+	}
+
+	/**
+	 * Returns the {@link CrossingReducer} of this
+	 * {@link SugiyamaLayoutAlgorithm}.
+	 * 
+	 * @return The {@link CrossingReducer}.
+	 */
+	public CrossingReducer getCrossingReducer() {
+		return crossingReducer;
+	}
+
+	/**
+	 * Returns the {@link CoordinateAssigner} of this
+	 * {@link SugiyamaLayoutAlgorithm}.
+	 * 
+	 * @return The {@link CoordinateAssigner}.
+	 */
+	public CoordinateAssigner getCoordinateAssigner() {
+		return coordinateAssigner;
+	}
+
 	public void setLayoutContext(LayoutContext context) {
 		this.context = context;
 	}
@@ -1340,11 +2765,63 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 		return context;
 	}
 
+	public String getLayoutKey() {
+		String layerProviderKey = getStrategyKey(layerProvider);
+		String crossingReducerKey = getStrategyKey(crossingReducer);
+		String coordinateAssignerKey = getStrategyKey(coordinateAssigner);
+		if (layerProviderKey == null || crossingReducerKey == null
+				|| coordinateAssignerKey == null) {
+			return null;
+		}
+		return "direction=" + direction + ";dimension=" + dimension
+				+ ";layerProvider=" + layerProviderKey + ";crossingReducer="
+				+ crossingReducerKey + ";coordinateAssigner="
+				+ coordinateAssignerKey;
+	}
+
+	/**
+	 * Returns a {@link String} that identifies the given strategy, or
+	 * <code>null</code> if it is not one of the strategies that are provided
+	 * by {@link SugiyamaLayoutAlgorithm} (as the parameters of other
+	 * strategies are unknown).
+	 */
+	private static String getStrategyKey(Object strategy) {
+		Class<?> type = strategy.getClass();
+		if (type == BarycentricCrossingReducer.class) {
+			// the parallelism does not affect the result
+			return type.getSimpleName() + "(starts="
+					+ ((BarycentricCrossingReducer) strategy).getStarts() + ")";
+		} else if (type == NetworkSimplexLayerProvider.class) {
+			return type.getSimpleName() + "(maxIterations="
+					+ ((NetworkSimplexLayerProvider) strategy)
+							.getMaxIterations()
+					+ ")";
+		} else if (type == DFSLayerProvider.class) {
+			// the nodes that are explicitly assigned to layers cannot be
+			// identified independently of the graph
+			return ((DFSLayerProvider) strategy).getAssignedNodes().isEmpty()
+					? type.getSimpleName() : null;
+		} else if (type == SimpleLayerProvider.class
+				|| type == SplitCrossingReducer.class
+				|| type == GreedyCrossingReducer.class
+				|| type == SimpleCoordinateAssigner.class
+				|| type == BrandesKoepfCoordinateAssigner.class) {
+			return type.getSimpleName();
+		}
+		return null;
+	}
+
 	public void applyLayout(boolean clean, Object extra) {
-		if (!clean)
+		if (!clean) {
+			Set<Node> affectedNodes = context.getAffectedNodes();
+			if (!affectedNodes.isEmpty()) {
+				applyIncrementalLayout(affectedNodes);
+			}
 			return;
+		}
 		layers.clear();
 		map.clear();
+		layoutBounds = null;
 
 		ArrayList<Node> nodes = new ArrayList<>();
 		ArrayList<Node> nodes2 = new ArrayList<>();
@@ -1353,7 +2830,14 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 			nodes2.add(node);
 		}
 		layers = layerProvider.calculateLayers(nodes);
+		if (Thread.currentThread().isInterrupted()) {
+			// the layout was cancelled (see LayoutContext#applyLayoutAsync())
+			return;
+		}
 		crossingReducer.crossReduction(layers);
+		if (Thread.currentThread().isInterrupted()) {
+			return;
+		}
 
 		for (List<NodeWrapper> layer : layers) {
 			if (layer.size() > last)
@@ -1366,24 +2850,184 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 	}
 
 	private void calculatePositions() {
-		Rectangle boundary = LayoutProperties.getBounds(context.getGraph());
-		if (dimension != null)
-			boundary = new Rectangle(0, 0, dimension.getWidth(),
-					dimension.getHeight());
-		double dx = boundary.getWidth() / layers.size();
-		double dy = boundary.getHeight() / (last + 1);
-		if (direction == Direction.HORIZONTAL)
+		Rectangle boundary = getLayoutBounds();
+		Map<NodeWrapper, Double> positions = coordinateAssigner
+				.assignCoordinates(layers);
+		double extent = last;
+		for (Double position : positions.values()) {
+			extent = Math.max(extent, position + 1);
+		}
+		if (direction == Direction.HORIZONTAL) {
+			dx = boundary.getWidth() / layers.size();
+			dy = boundary.getHeight() / (extent + 1);
 			for (Node node : context.getNodes()) {
 				NodeWrapper nw = map.get(node);
-				LayoutProperties.setLocation(node, new Point(
-						(nw.layer + 0.5d) * dx, (nw.index + 0.5d) * dy));
+				LayoutProperties.setLocation(node,
+						new Point((nw.layer + 0.5d) * dx,
+								(positions.get(nw) + 0.5d) * dy));
 			}
-		else
+		} else {
+			dx = boundary.getWidth() / (extent + 1);
+			dy = boundary.getHeight() / layers.size();
 			for (Node node : context.getNodes()) {
 				NodeWrapper nw = map.get(node);
-				LayoutProperties.setLocation(node, new Point(
-						(nw.index + 0.5d) * dx, (nw.layer + 0.5d) * dy));
+				LayoutProperties.setLocation(node,
+						new Point((positions.get(nw) + 0.5d) * dx,
+								(nw.layer + 0.5d) * dy));
 			}
+		}
+		layoutBounds = boundary;
+	}
+
+	private Rectangle getLayoutBounds() {
+		if (dimension != null) {
+			return new Rectangle(0, 0, dimension.getWidth(),
+					dimension.getHeight());
+		}
+		return LayoutProperties.getBounds(context.getGraph());
 	}
 
+	/**
+	 * Re-computes the layers, and places the given affected {@link Node}s as
+	 * well as those {@link Node}s that changed their layer, while all other
+	 * {@link Node}s keep their positions. The crossing reduction is skipped, a
+	 * re-placed {@link Node} is positioned within its layer at the barycenter
+	 * of its unchanged neighbors instead, using the nearest free slot. The
+	 * previous layer of a {@link Node} is determined from its location, so
+	 * that the previous layout is preserved even if it was computed for a
+	 * copy of the graph (see {@link LayoutContext#applyLayoutAsync(boolean,
+	 * Object)}). A clean layout pass is performed instead if the bounds
+	 * changed since the last clean layout pass, so that its distances are
+	 * stale.
+	 */
+	private void applyIncrementalLayout(Set<Node> affectedNodes) {
+		if (layoutBounds == null || !layoutBounds.equals(getLayoutBounds())) {
+			// no previous layout that could be preserved
+			applyLayout(true, null);
+			return;
+		}
+		map = new IdentityHashMap<>();
+		layers.clear();
+		layers = layerProvider.calculateLayers(
+				new ArrayList<>(Arrays.asList(context.getNodes())));
+		for (List<NodeWrapper> layer : layers) {
+			for (NodeWrapper nw : layer) {
+				map.put(nw.node, nw);
+			}
+		}
+
+		// determine the nodes that need to be placed, i.e. the affected nodes
+		// and those that are not located within their layer
+		boolean horizontal = direction == Direction.HORIZONTAL;
+		double layerDistance = horizontal ? dx : dy;
+		double nodeDistance = horizontal ? dy : dx;
+		Set<Node> dirtyNodes = Collections
+				.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+		for (Node node : context.getNodes()) {
+			Point location = LayoutProperties.getLocation(node);
+			if (affectedNodes.contains(node) || location == null
+					|| (int) Math.floor((horizontal ? location.x : location.y)
+							/ layerDistance) != map.get(node).layer) {
+				dirtyNodes.add(node);
+			}
+		}
+
+		// collect the occupied positions within each layer
+		List<NavigableSet<Double>> occupied = new ArrayList<>(layers.size());
+		for (int i = 0; i < layers.size(); i++) {
+			occupied.add(new TreeSet<Double>());
+		}
+		for (Node node : context.getNodes()) {
+			if (!dirtyNodes.contains(node)) {
+				occupied.get(map.get(node).layer)
+						.add(getPositionInLayer(node));
+			}
+		}
+
+		for (Node node : context.getNodes()) {
+			if (!dirtyNodes.contains(node)) {
+				continue;
+			}
+			// determine the desired position from the unchanged neighbors
+			double sum = 0;
+			int count = 0;
+			for (Node neighbor : getNeighbors(node)) {
+				if (map.containsKey(neighbor)
+						&& !dirtyNodes.contains(neighbor)) {
+					sum += getPositionInLayer(neighbor);
+					count++;
+				}
+			}
+			NavigableSet<Double> positions = occupied
+					.get(map.get(node).layer);
+			double desired;
+			if (count > 0) {
+				desired = sum / count;
+			} else if (LayoutProperties.getLocation(node) != null) {
+				desired = getPositionInLayer(node);
+			} else {
+				desired = (positions.size() + 0.5d) * nodeDistance;
+			}
+			double position = findFreePosition(desired, positions,
+					nodeDistance);
+			positions.add(position);
+			double layerPosition = (map.get(node).layer + 0.5d)
+					* layerDistance;
+			LayoutProperties.setLocation(node,
+					horizontal ? new Point(layerPosition, position)
+							: new Point(position, layerPosition));
+		}
+	}
+
+	private double getPositionInLayer(Node node) {
+		Point location = LayoutProperties.getLocation(node);
+		return direction == Direction.HORIZONTAL ? location.y : location.x;
+	}
+
+	/**
+	 * Returns the predecessor and successor nodes of the given {@link Node}
+	 * (without duplicates).
+	 */
+	private static Collection<Node> getNeighbors(Node node) {
+		Set<Node> neighbors = Collections
+				.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+		neighbors.addAll(node.getPredecessorNodes());
+		neighbors.addAll(node.getSuccessorNodes());
+		return neighbors;
+	}
+
+	/**
+	 * Returns the position closest to the desired position (in steps of the
+	 * given distance, preferring greater positions) that keeps the given
+	 * distance to all occupied positions. Only the occupied positions that
+	 * block a candidate are looked up, so that the costs depend on the
+	 * number of blocking positions rather than on the size of the layer.
+	 */
+	private static double findFreePosition(double desired,
+			NavigableSet<Double> occupied, double distance) {
+		double min = distance / 2;
+		int upSteps = 0;
+		if (desired < min) {
+			upSteps = (int) Math.ceil((min - desired) / distance);
+		}
+		while (!isFree(desired + upSteps * distance, occupied, distance)) {
+			upSteps++;
+		}
+		for (int downSteps = 1; downSteps < upSteps; downSteps++) {
+			double candidate = desired - downSteps * distance;
+			if (candidate < min) {
+				break;
+			}
+			if (isFree(candidate, occupied, distance)) {
+				return candidate;
+			}
+		}
+		return desired + upSteps * distance;
+	}
+
+	private static boolean isFree(double position,
+			NavigableSet<Double> occupied, double distance) {
+		Double next = occupied.higher(position - distance);
+		return next == null || next >= position + distance;
+	}
 }
\ No newline at end of file
@@ -14,13 +14,20 @@
  ******************************************************************************/
 package org.eclipse.gef.layout.algorithms;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.gef.geometry.planar.Dimension;
 import org.eclipse.gef.geometry.planar.Point;
 import org.eclipse.gef.geometry.planar.Rectangle;
 import org.eclipse.gef.graph.Node;
-import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.ICacheableLayoutAlgorithm;
 import org.eclipse.gef.layout.LayoutContext;
 import org.eclipse.gef.layout.LayoutProperties;
 import org.eclipse.gef.layout.algorithms.TreeLayoutObserver.TreeNode;
@@ -28,6 +35,13 @@ import org.eclipse.gef.layout.algorithms.TreeLayoutObserver.TreeNode;
 /**
  * The TreeLayoutAlgorithm class implements a simple algorithm to arrange graph
  * nodes in a layered tree-like layout.
+ * <p>
+ * By default, the leaves are distributed evenly within the layout bounds, and
+ * the drawing is scaled to fit them. A compact, size-aware placement in linear
+ * time is available as {@link #setTidy(boolean) tidy} mode, which is
+ * recommended for large or unbalanced trees. It is not the default, because
+ * its drawing is not fitted to the layout bounds, which existing clients (e.g.
+ * viewers that expect the layout to fill the visible area) rely on.
  * 
  * @author Casey Best
  * @author Ian Bull
@@ -37,7 +51,7 @@ import org.eclipse.gef.layout.algorithms.TreeLayoutObserver.TreeNode;
  * @author Miles Parker
  * @author mwienand
  */
-public class TreeLayoutAlgorithm implements ILayoutAlgorithm {
+public class TreeLayoutAlgorithm implements ICacheableLayoutAlgorithm {
 
 	/**
 	 * Tree direction constant for which root is placed at the top and branches
@@ -63,6 +77,12 @@ public class TreeLayoutAlgorithm implements ILayoutAlgorithm {
 	 */
 	public final static int RIGHT_LEFT = 4;
 
+	/**
+	 * The default distance between adjacent nodes and between adjacent layers
+	 * in {@link #isTidy() tidy} mode.
+	 */
+	public final static double DEFAULT_SPACING = 10;
+
 	private int direction = TOP_DOWN;
 
 	private boolean resize = false;
@@ -71,12 +91,23 @@ public class TreeLayoutAlgorithm implements ILayoutAlgorithm {
 
 	private Rectangle bounds;
 
+	// the graph bounds and the layout bounds that were scaled to them in the
+	// last clean layout pass (if any)
+	private Rectangle scaledBounds, scaledLayoutBounds;
+
 	private double leafSize, layerSize;
 
 	private TreeLayoutObserver treeObserver;
 
 	private Dimension nodeSpace;
 
+	private boolean tidy = false;
+
+	private double spacing = DEFAULT_SPACING;
+
+	// locations computed by the tidy tree placement (null otherwise)
+	private Map<Node, Point> tidyLocations;
+
 	/**
 	 * Create a default Tree Layout.
 	 */
@@ -115,6 +146,13 @@ public class TreeLayoutAlgorithm implements ILayoutAlgorithm {
 		this.nodeSpace = nodeSpace;
 	}
 
+	/**
+	 * @return the nodeSpace size, may be <code>null</code>
+	 */
+	public Dimension getNodeSpace() {
+		return nodeSpace;
+	}
+
 	/**
 	 * @param nodeSpace
 	 *            the nodeSpace size to set
@@ -149,6 +187,64 @@ public class TreeLayoutAlgorithm implements ILayoutAlgorithm {
 					"Invalid direction: " + direction);
 	}
 
+	/**
+	 * Returns <code>true</code> if this {@link TreeLayoutAlgorithm} places the
+	 * nodes as a tidy tree, otherwise <code>false</code>.
+	 * 
+	 * @return <code>true</code> if the tidy tree placement is used, otherwise
+	 *         <code>false</code>.
+	 * @see #setTidy(boolean)
+	 */
+	public boolean isTidy() {
+		return tidy;
+	}
+
+	/**
+	 * Specifies whether the nodes are placed as a tidy tree, using the
+	 * algorithm of Buchheim, Jünger, and Leipert ("Improving Walker's
+	 * Algorithm to Run in Linear Time", 2002). In this mode, the subtrees are
+	 * placed as close to each other as their contours permit, taking the size
+	 * of the nodes (or the node space, if specified) into account, and parents
+	 * are centered above their children. The resulting drawing is not scaled
+	 * to the layout bounds, but placed at their origin, and the nodes are not
+	 * resized. For compatibility with clients that rely on the layout being
+	 * fitted to the layout bounds, this mode has to be enabled explicitly.
+	 * 
+	 * @param tidy
+	 *            <code>true</code> to use the tidy tree placement,
+	 *            <code>false</code> to distribute the leaves evenly within the
+	 *            layout bounds (default).
+	 */
+	public void setTidy(boolean tidy) {
+		this.tidy = tidy;
+	}
+
+	/**
+	 * Returns the distance between adjacent nodes and between adjacent layers
+	 * in {@link #isTidy() tidy} mode.
+	 * 
+	 * @return The distance between adjacent nodes and layers.
+	 */
+	public double getSpacing() {
+		return spacing;
+	}
+
+	/**
+	 * Changes the distance between adjacent nodes and between adjacent layers
+	 * in {@link #isTidy() tidy} mode. Defaults to {@link #DEFAULT_SPACING}.
+	 * 
+	 * @param spacing
+	 *            The new distance between adjacent nodes and layers, which
+	 *            may not be negative.
+	 */
+	public void setSpacing(double spacing) {
+		if (spacing < 0) {
+			throw new IllegalArgumentException(
+					"The spacing may not be negative: " + spacing);
+		}
+		this.spacing = spacing;
+	}
+
 	/**
 	 * 
 	 * @return true if this algorithm is set to resize elements
@@ -181,11 +277,28 @@ public class TreeLayoutAlgorithm implements ILayoutAlgorithm {
 		return context;
 	}
 
+	public String getLayoutKey() {
+		return "direction=" + direction + ";nodeSpace=" + nodeSpace
+				+ ";tidy=" + tidy + ";spacing=" + spacing + ";resizing="
+				+ resize;
+	}
+
 	public void applyLayout(boolean clean, Object extra) {
-		if (!clean)
+		if (!clean) {
+			Set<Node> affectedNodes = context.getAffectedNodes();
+			if (!affectedNodes.isEmpty()) {
+				internalApplyIncrementalLayout(affectedNodes);
+			}
 			return;
+		}
 
+		scaledBounds = null;
+		scaledLayoutBounds = null;
 		internalApplyLayout();
+		if (tidy || Thread.currentThread().isInterrupted()) {
+			// the layout was cancelled (see LayoutContext#applyLayoutAsync())
+			return;
+		}
 
 		Node[] entities = context.getNodes();
 		if (resize) {
@@ -196,16 +309,31 @@ public class TreeLayoutAlgorithm implements ILayoutAlgorithm {
 
 	private void scaleEntities(Node[] entities) {
 		if (nodeSpace == null) {
-			Rectangle resizedBounds = new Rectangle(bounds);
-			int insets = 4;
-			resizedBounds.setX(resizedBounds.getX() + insets);
-			resizedBounds.setY(resizedBounds.getY() + insets);
-			resizedBounds.setWidth(resizedBounds.getWidth() - 2 * insets);
-			resizedBounds.setHeight(resizedBounds.getHeight() - 2 * insets);
-			AlgorithmHelper.fitWithinBounds(entities, resizedBounds, resize);
+			Rectangle resizedBounds = getResizedBounds();
+			if (entities.length > 1) {
+				// remember the scaling for incremental layout passes
+				scaledBounds = bounds.getCopy();
+				scaledLayoutBounds = AlgorithmHelper.getLayoutBounds(entities,
+						false);
+				AlgorithmHelper.fitWithinBounds(entities, scaledLayoutBounds,
+						resizedBounds, resize);
+			} else {
+				AlgorithmHelper.fitWithinBounds(entities, resizedBounds,
+						resize);
+			}
 		}
 	}
 
+	private Rectangle getResizedBounds() {
+		Rectangle resizedBounds = new Rectangle(bounds);
+		int insets = 4;
+		resizedBounds.setX(resizedBounds.getX() + insets);
+		resizedBounds.setY(resizedBounds.getY() + insets);
+		resizedBounds.setWidth(resizedBounds.getWidth() - 2 * insets);
+		resizedBounds.setHeight(resizedBounds.getHeight() - 2 * insets);
+		return resizedBounds;
+	}
+
 	/**
 	 * Performs a layout pass for the tree without scaling the entities to
 	 * maximum size / use the whole bounds.
@@ -214,11 +342,81 @@ public class TreeLayoutAlgorithm implements ILayoutAlgorithm {
 		TreeNode superRoot = treeObserver.getSuperRoot();
 		bounds = LayoutProperties.getBounds(context.getGraph());
 		updateLeafAndLayerSizes();
+		tidyLocations = tidy ? computeTidyLocations(superRoot) : null;
 		int leafCountSoFar = 0;
+		// stop early when the layout is cancelled (see
+		// LayoutContext#applyLayoutAsync())
 		for (Iterator<TreeNode> iterator = superRoot.getChildren()
-				.iterator(); iterator.hasNext();) {
+				.iterator(); iterator.hasNext()
+						&& !Thread.currentThread().isInterrupted();) {
 			TreeNode rootInfo = iterator.next();
-			computePositionRecursively(rootInfo, leafCountSoFar);
+			computePositions(rootInfo, leafCountSoFar);
+			leafCountSoFar = leafCountSoFar + rootInfo.numOfLeaves;
+		}
+	}
+
+	/**
+	 * Performs a layout pass for the trees that contain any of the given
+	 * affected {@link Node}s, while all other trees keep their positions. A
+	 * re-computed tree is scaled like in the last clean layout pass, and moved
+	 * so that its root keeps its location (if it was placed before). A clean
+	 * layout pass is performed instead if that scaling cannot be reproduced,
+	 * i.e. if the bounds changed since the last clean layout pass, or if the
+	 * nodes are resized.
+	 */
+	private void internalApplyIncrementalLayout(Set<Node> affectedNodes) {
+		TreeNode superRoot = treeObserver.getSuperRoot();
+		boolean scale = !tidy && nodeSpace == null;
+		if (scale) {
+			if (resize || scaledLayoutBounds == null || !scaledBounds
+					.equals(LayoutProperties.getBounds(context.getGraph()))) {
+				applyLayout(true, null);
+				return;
+			}
+			// keep the leaf and layer sizes of the last clean layout pass, so
+			// that its scaling applies to the re-computed trees
+		} else {
+			bounds = LayoutProperties.getBounds(context.getGraph());
+			updateLeafAndLayerSizes();
+		}
+		tidyLocations = tidy ? computeTidyLocations(superRoot) : null;
+		int leafCountSoFar = 0;
+		for (TreeNode rootInfo : superRoot.getChildren()) {
+			List<Node> treeNodes = new ArrayList<>();
+			boolean isAffected = false;
+			Deque<TreeNode> stack = new ArrayDeque<>();
+			stack.push(rootInfo);
+			while (!stack.isEmpty()) {
+				TreeNode treeNode = stack.pop();
+				treeNodes.add(treeNode.getNode());
+				isAffected |= affectedNodes.contains(treeNode.getNode());
+				for (TreeNode child : treeNode.getChildren()) {
+					stack.push(child);
+				}
+			}
+			if (isAffected) {
+				Point rootLocation = LayoutProperties
+						.getLocation(rootInfo.getNode());
+				if (rootLocation != null) {
+					rootLocation = rootLocation.getCopy();
+				}
+				computePositions(rootInfo, leafCountSoFar);
+				if (scale) {
+					AlgorithmHelper.fitWithinBounds(
+							treeNodes.toArray(new Node[treeNodes.size()]),
+							scaledLayoutBounds, getResizedBounds(), false);
+				}
+				if (rootLocation != null) {
+					Point newRootLocation = LayoutProperties
+							.getLocation(rootInfo.getNode());
+					double dx = rootLocation.x - newRootLocation.x;
+					double dy = rootLocation.y - newRootLocation.y;
+					for (Node node : treeNodes) {
+						LayoutProperties.setLocation(node, LayoutProperties
+								.getLocation(node).getTranslated(dx, dy));
+					}
+				}
+			}
 			leafCountSoFar = leafCountSoFar + rootInfo.numOfLeaves;
 		}
 	}
@@ -245,10 +443,32 @@ public class TreeLayoutAlgorithm implements ILayoutAlgorithm {
 	}
 
 	/**
-	 * Computes positions recursively until the leaf nodes are reached.
+	 * Computes the positions of the given node and its descendants, using an
+	 * explicit stack instead of recursion, so that deep trees are supported.
 	 */
-	private void computePositionRecursively(TreeNode entityInfo,
-			int relativePosition) {
+	private void computePositions(TreeNode rootInfo, int rootPosition) {
+		Deque<TreeNode> stack = new ArrayDeque<>();
+		Deque<Integer> positions = new ArrayDeque<>();
+		stack.push(rootInfo);
+		positions.push(rootPosition);
+		while (!stack.isEmpty()) {
+			TreeNode entityInfo = stack.pop();
+			int relativePosition = positions.pop();
+			computePosition(entityInfo, relativePosition);
+			for (TreeNode childInfo : entityInfo.children) {
+				stack.push(childInfo);
+				positions.push(relativePosition);
+				relativePosition += childInfo.numOfLeaves;
+			}
+		}
+	}
+
+	private void computePosition(TreeNode entityInfo, int relativePosition) {
+		if (tidyLocations != null) {
+			LayoutProperties.setLocation(entityInfo.getNode(),
+					tidyLocations.get(entityInfo.getNode()));
+			return;
+		}
 		double breadthPosition = relativePosition
 				+ entityInfo.numOfLeaves / 2.0;
 		double depthPosition = (entityInfo.depth + 0.5);
@@ -273,12 +493,274 @@ public class TreeLayoutAlgorithm implements ILayoutAlgorithm {
 							breadthPosition * leafSize));
 			break;
 		}
+	}
+
+	/**
+	 * Computes the locations of all nodes below the given super root according
+	 * to the tidy tree algorithm of Buchheim, Jünger, and Leipert. The nodes
+	 * are numbered in breadth-first order, so that the children of each node
+	 * are numbered consecutively, and the (post-order) first walk and the
+	 * (pre-order) second walk are performed iteratively.
+	 */
+	private Map<Node, Point> computeTidyLocations(TreeNode superRoot) {
+		// number the nodes in breadth-first order
+		List<TreeNode> treeNodes = new ArrayList<>();
+		treeNodes.add(superRoot);
+		int n = 1;
+		int[] parent = new int[superRoot.numOfDescendants + 1];
+		int[] firstChild = new int[parent.length];
+		int[] childCount = new int[parent.length];
+		parent[0] = -1;
+		for (int v = 0; v < treeNodes.size(); v++) {
+			List<TreeNode> children = treeNodes.get(v).children;
+			firstChild[v] = n;
+			childCount[v] = children.size();
+			for (TreeNode child : children) {
+				parent[n++] = v;
+				treeNodes.add(child);
+			}
+		}
+
+		// the breadth of the nodes and the depth of the layers
+		boolean vertical = direction == TOP_DOWN || direction == BOTTOM_UP;
+		double[] size = new double[n];
+		double[] layerDepth = new double[superRoot.height];
+		for (int v = 1; v < n; v++) {
+			TreeNode treeNode = treeNodes.get(v);
+			Dimension dimension = nodeSpace != null ? nodeSpace
+					: LayoutProperties.getSize(treeNode.getNode());
+			if (dimension != null) {
+				size[v] = vertical ? dimension.getWidth()
+						: dimension.getHeight();
+				layerDepth[treeNode.depth] = Math.max(
+						layerDepth[treeNode.depth], vertical
+								? dimension.getHeight() : dimension.getWidth());
+			}
+		}
+
+		TidyTree tree = new TidyTree(parent, firstChild, childCount, size,
+				spacing);
+		double[] breadth = tree.layout();
+
+		// place the layers one after the other
+		double[] layerPosition = new double[layerDepth.length];
+		double totalDepth = 0;
+		for (int d = 0; d < layerDepth.length; d++) {
+			layerPosition[d] = totalDepth + layerDepth[d] / 2;
+			totalDepth += layerDepth[d] + spacing;
+		}
+		totalDepth = Math.max(0, totalDepth - spacing);
+		double minBreadth = Double.POSITIVE_INFINITY;
+		for (int v = 1; v < n; v++) {
+			minBreadth = Math.min(minBreadth, breadth[v] - size[v] / 2);
+		}
+
+		Map<Node, Point> locations = new IdentityHashMap<>();
+		for (int v = 1; v < n; v++) {
+			TreeNode treeNode = treeNodes.get(v);
+			double b = breadth[v] - minBreadth;
+			double d = layerPosition[treeNode.depth];
+			Point location;
+			switch (direction) {
+			case BOTTOM_UP:
+				location = new Point(b, totalDepth - d);
+				break;
+			case LEFT_RIGHT:
+				location = new Point(d, b);
+				break;
+			case RIGHT_LEFT:
+				location = new Point(totalDepth - d, b);
+				break;
+			default:
+				location = new Point(b, d);
+			}
+			location.translate(bounds.getX(), bounds.getY());
+			locations.put(treeNode.getNode(), location);
+		}
+		return locations;
+	}
+
+	/**
+	 * The tidy tree algorithm of Buchheim, Jünger, and Leipert operating on
+	 * nodes that are numbered in breadth-first order, where node
+	 * <code>0</code> is the root. Each node has a breadth, and adjacent nodes
+	 * of a layer are separated by the given spacing.
+	 */
+	private static class TidyTree {
+
+		private final int[] parent;
+		private final int[] firstChild;
+		private final int[] childCount;
+		private final double[] size;
+		private final double spacing;
+
+		private final double[] prelim;
+		private final double[] mod;
+		private final double[] shift;
+		private final double[] change;
+		private final int[] thread;
+		private final int[] ancestor;
+		private final int[] defaultAncestor;
+
+		TidyTree(int[] parent, int[] firstChild, int[] childCount,
+				double[] size, double spacing) {
+			this.parent = parent;
+			this.firstChild = firstChild;
+			this.childCount = childCount;
+			this.size = size;
+			this.spacing = spacing;
+			int n = parent.length;
+			prelim = new double[n];
+			mod = new double[n];
+			shift = new double[n];
+			change = new double[n];
+			thread = new int[n];
+			ancestor = new int[n];
+			defaultAncestor = new int[n];
+			for (int v = 0; v < n; v++) {
+				thread[v] = -1;
+				ancestor[v] = v;
+			}
+		}
+
+		/**
+		 * Returns the center of each node along the breadth axis.
+		 */
+		double[] layout() {
+			int n = parent.length;
+			// first walk (post-order), using an explicit stack
+			int[] stack = new int[n];
+			int[] next = new int[n];
+			int top = 0;
+			stack[0] = 0;
+			while (top >= 0) {
+				int v = stack[top];
+				if (next[v] < childCount[v]) {
+					if (next[v] == 0) {
+						defaultAncestor[v] = firstChild[v];
+					}
+					stack[++top] = firstChild[v] + next[v]++;
+					continue;
+				}
+				top--;
+				firstWalk(v);
+				if (v != 0) {
+					defaultAncestor[parent[v]] = apportion(v,
+							defaultAncestor[parent[v]]);
+				}
+			}
+
+			// second walk (pre-order), summing up the modifiers
+			double[] x = new double[n];
+			double[] modSum = new double[n];
+			for (int v = 0; v < n; v++) {
+				if (v > 0) {
+					modSum[v] = modSum[parent[v]] + mod[parent[v]];
+				}
+				x[v] = prelim[v] + modSum[v];
+			}
+			return x;
+		}
+
+		private void firstWalk(int v) {
+			int leftSibling = hasLeftSibling(v) ? v - 1 : -1;
+			if (childCount[v] == 0) {
+				prelim[v] = leftSibling < 0 ? 0
+						: prelim[leftSibling] + separation(leftSibling, v);
+				return;
+			}
+			executeShifts(v);
+			int lastChild = firstChild[v] + childCount[v] - 1;
+			double midpoint = (prelim[firstChild[v]] + prelim[lastChild]) / 2;
+			if (leftSibling < 0) {
+				prelim[v] = midpoint;
+			} else {
+				prelim[v] = prelim[leftSibling] + separation(leftSibling, v);
+				mod[v] = prelim[v] - midpoint;
+			}
+		}
+
+		private int apportion(int v, int defaultAncestor) {
+			if (!hasLeftSibling(v)) {
+				return defaultAncestor;
+			}
+			int vir = v;
+			int vor = v;
+			int vil = v - 1;
+			int vol = firstChild[parent[v]];
+			double sir = mod[vir];
+			double sor = mod[vor];
+			double sil = mod[vil];
+			double sol = mod[vol];
+			while (nextRight(vil) >= 0 && nextLeft(vir) >= 0) {
+				vil = nextRight(vil);
+				vir = nextLeft(vir);
+				vol = nextLeft(vol);
+				vor = nextRight(vor);
+				ancestor[vor] = v;
+				double distance = prelim[vil] + sil - (prelim[vir] + sir)
+						+ separation(vil, vir);
+				if (distance > 0) {
+					int a = parent[ancestor[vil]] == parent[v] ? ancestor[vil]
+							: defaultAncestor;
+					moveSubtree(a, v, distance);
+					sir += distance;
+					sor += distance;
+				}
+				sil += mod[vil];
+				sir += mod[vir];
+				sol += mod[vol];
+				sor += mod[vor];
+			}
+			if (nextRight(vil) >= 0 && nextRight(vor) < 0) {
+				thread[vor] = nextRight(vil);
+				mod[vor] += sil - sor;
+			}
+			if (nextLeft(vir) >= 0 && nextLeft(vol) < 0) {
+				thread[vol] = nextLeft(vir);
+				mod[vol] += sir - sol;
+				defaultAncestor = v;
+			}
+			return defaultAncestor;
+		}
+
+		private void moveSubtree(int wl, int wr, double distance) {
+			// siblings are numbered consecutively
+			int subtrees = wr - wl;
+			change[wr] -= distance / subtrees;
+			shift[wr] += distance;
+			change[wl] += distance / subtrees;
+			prelim[wr] += distance;
+			mod[wr] += distance;
+		}
+
+		private void executeShifts(int v) {
+			double s = 0;
+			double c = 0;
+			for (int w = firstChild[v] + childCount[v]
+					- 1; w >= firstChild[v]; w--) {
+				prelim[w] += s;
+				mod[w] += s;
+				c += change[w];
+				s += shift[w] + c;
+			}
+		}
+
+		private boolean hasLeftSibling(int v) {
+			return v > 0 && v > firstChild[parent[v]];
+		}
+
+		private int nextLeft(int v) {
+			return childCount[v] > 0 ? firstChild[v] : thread[v];
+		}
+
+		private int nextRight(int v) {
+			return childCount[v] > 0 ? firstChild[v] + childCount[v] - 1
+					: thread[v];
+		}
 
-		for (Iterator<TreeNode> iterator = entityInfo.children
-				.iterator(); iterator.hasNext();) {
-			TreeNode childInfo = iterator.next();
-			computePositionRecursively(childInfo, relativePosition);
-			relativePosition += childInfo.numOfLeaves;
+		private double separation(int left, int right) {
+			return (size[left] + size[right]) / 2 + spacing;
 		}
 	}
 
@@ -301,6 +783,7 @@ public class TreeLayoutAlgorithm implements ILayoutAlgorithm {
 			break;
 		}
 		sb.append(", resize : " + resize);
+		sb.append(", tidy : " + tidy);
 		sb.append(" }");
 		// TODO: include node space??
 		return sb.toString();
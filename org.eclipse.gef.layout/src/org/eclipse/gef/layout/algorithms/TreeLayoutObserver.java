@@ -14,12 +14,12 @@
 package org.eclipse.gef.layout.algorithms;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.gef.graph.Node;
@@ -244,32 +244,40 @@ public class TreeLayoutObserver {
 		}
 
 		/**
-		 * Performs a DFS on the tree structure and calculates all parameters of
-		 * its nodes. Should be called on
-		 * {@link TreeLayoutObserver#getSuperRoot() Super Root}. Uses recurrence
-		 * to go through all the nodes.
+		 * Traverses the tree structure and calculates all parameters of its
+		 * nodes. Should be called on {@link TreeLayoutObserver#getSuperRoot()
+		 * Super Root}. The nodes are processed iteratively (in breadth-first
+		 * order and then in reverse), so that the depth of the tree is not
+		 * limited by the call stack.
 		 */
 		protected void precomputeTree() {
-			if (children.isEmpty()) {
-				height = 0;
-				numOfLeaves = 1;
-				numOfDescendants = 0;
-			} else {
-				height = 0;
-				numOfLeaves = 0;
-				numOfDescendants = 0;
-				for (ListIterator<TreeNode> iterator = children
-						.listIterator(); iterator.hasNext();) {
-					TreeNode child = iterator.next();
-					child.depth = this.depth + 1;
-					child.order = this.order + this.numOfLeaves;
-					child.precomputeTree();
-					child.firstChild = (this.numOfLeaves == 0);
-					child.lastChild = !iterator.hasNext();
-
-					this.height = Math.max(this.height, child.height + 1);
-					this.numOfLeaves += child.numOfLeaves;
-					this.numOfDescendants += child.numOfDescendants + 1;
+			List<TreeNode> nodes = new ArrayList<>();
+			nodes.add(this);
+			for (int i = 0; i < nodes.size(); i++) {
+				nodes.addAll(nodes.get(i).children);
+			}
+			// children are processed before their parents
+			for (int i = nodes.size() - 1; i >= 0; i--) {
+				TreeNode node = nodes.get(i);
+				node.height = 0;
+				node.numOfLeaves = node.children.isEmpty() ? 1 : 0;
+				node.numOfDescendants = 0;
+				for (TreeNode child : node.children) {
+					node.height = Math.max(node.height, child.height + 1);
+					node.numOfLeaves += child.numOfLeaves;
+					node.numOfDescendants += child.numOfDescendants + 1;
+				}
+			}
+			// parents are processed before their children
+			for (TreeNode node : nodes) {
+				int leaves = 0;
+				for (int i = 0; i < node.children.size(); i++) {
+					TreeNode child = node.children.get(i);
+					child.depth = node.depth + 1;
+					child.order = node.order + leaves;
+					child.firstChild = i == 0;
+					child.lastChild = i == node.children.size() - 1;
+					leaves += child.numOfLeaves;
 				}
 			}
 		}
@@ -281,13 +289,11 @@ public class TreeLayoutObserver {
 		protected void findNewParent() {
 			if (parent != null)
 				parent.children.remove(this);
-			Node[] predecessingNodes = node.getAllPredecessorNodes()
-					.toArray(new Node[] {});
 			parent = null;
-			for (int i = 0; i < predecessingNodes.length; i++) {
-				TreeNode potentialParent = owner.layoutToTree
-						.get(predecessingNodes[i]);
-				if (!children.contains(potentialParent)
+			for (Node predecessor : node.getAllPredecessorNodes()) {
+				TreeNode potentialParent = owner.layoutToTree.get(predecessor);
+				// a child of this node refers to it as its parent
+				if (potentialParent != null && potentialParent.parent != this
 						&& isBetterParent(potentialParent))
 					parent = potentialParent;
 			}
@@ -421,6 +427,7 @@ public class TreeLayoutObserver {
 	 * as creating new <code>TreeLayoutObserver</code>).
 	 */
 	public void recomputeTree() {
+		layoutToTree.clear();
 		superRoot = factory.createTreeNode(null, this);
 		layoutToTree.put(null, superRoot);
 		createTrees(context.getNodes());
@@ -487,35 +494,64 @@ public class TreeLayoutObserver {
 
 	/**
 	 * Builds a tree structure using BFS method. Created trees are children of
-	 * {@link #superRoot}.
+	 * {@link #superRoot}. The adjacency of the given nodes is indexed once, so
+	 * that the construction takes linear time.
 	 * 
 	 * @param nodes
 	 */
 	private void createTrees(Node[] nodes) {
-		HashSet<Node> alreadyVisited = new HashSet<>();
-		LinkedList<Object[]> nodesToAdd = new LinkedList<>();
-		for (int i = 0; i < nodes.length; i++) {
-			Node root = findRoot(nodes[i], alreadyVisited);
-			if (root != null) {
-				alreadyVisited.add(root);
-				nodesToAdd.addLast(new Object[] { root, superRoot });
+		int n = nodes.length;
+		Map<Node, Integer> ids = new IdentityHashMap<>();
+		for (int i = 0; i < n; i++) {
+			ids.put(nodes[i], i);
+		}
+		// index the successors and the first predecessor of each node
+		int[][] successors = new int[n][];
+		int[] firstPredecessor = new int[n];
+		Arrays.fill(firstPredecessor, -1);
+		for (int i = 0; i < n; i++) {
+			Set<Node> successorNodes = nodes[i].getAllSuccessorNodes();
+			int[] indices = new int[successorNodes.size()];
+			int count = 0;
+			for (Node successor : successorNodes) {
+				Integer j = ids.get(successor);
+				if (j != null) {
+					indices[count++] = j;
+					if (firstPredecessor[j] < 0) {
+						firstPredecessor[j] = i;
+					}
+				}
+			}
+			successors[i] = count == indices.length ? indices
+					: Arrays.copyOf(indices, count);
+		}
+
+		boolean[] alreadyVisited = new boolean[n];
+		int[] queue = new int[n];
+		TreeNode[] queuedParents = new TreeNode[n];
+		int tail = 0;
+		int[] pathMark = new int[n];
+		Arrays.fill(pathMark, -1);
+		for (int i = 0; i < n; i++) {
+			int root = findRoot(i, firstPredecessor, alreadyVisited, pathMark);
+			if (root >= 0) {
+				alreadyVisited[root] = true;
+				queue[tail] = root;
+				queuedParents[tail++] = superRoot;
 			}
 		}
-		while (!nodesToAdd.isEmpty()) {
-			Object[] dequeued = nodesToAdd.removeFirst();
-			TreeNode currentNode = factory.createTreeNode((Node) dequeued[0],
+		for (int head = 0; head < tail; head++) {
+			int current = queue[head];
+			TreeNode currentNode = factory.createTreeNode(nodes[current],
 					this);
-			layoutToTree.put(dequeued[0], currentNode);
-			TreeNode currentRoot = (TreeNode) dequeued[1];
-
-			currentRoot.addChild(currentNode);
-			Node[] children = currentNode.node.getAllSuccessorNodes()
-					.toArray(new Node[] {});
-			for (int i = 0; i < children.length; i++) {
-				if (!alreadyVisited.contains(children[i])) {
-					alreadyVisited.add(children[i]);
-					nodesToAdd
-							.addLast(new Object[] { children[i], currentNode });
+			layoutToTree.put(nodes[current], currentNode);
+			queuedParents[head].addChild(currentNode);
+			queuedParents[head] = null;
+			for (int child : successors[current]) {
+				if (!alreadyVisited[child]) {
+					alreadyVisited[child] = true;
+					queue[tail] = child;
+					queuedParents[tail++] = currentNode;
 				}
 			}
 		}
@@ -525,31 +561,37 @@ public class TreeLayoutObserver {
 	/**
 	 * Searches for a root of a tree containing given node by continuously
 	 * grabbing a predecessor of current node. If it reaches an node that exists
-	 * in alreadyVisited set, it returns null. If it detects a cycle, it returns
-	 * the first found node of that cycle. If it reaches a node that has no
-	 * predecessors, it returns that node.
+	 * in alreadyVisited set, or a node that was passed by a previous search, it
+	 * returns -1. If it detects a cycle, it returns the first found node of
+	 * that cycle. If it reaches a node that has no predecessors, it returns
+	 * that node. Marking the passed nodes ensures that every node is passed
+	 * only once in total.
 	 * 
-	 * @param nodeLayout
-	 *            starting node
+	 * @param start
+	 *            index of the starting node
+	 * @param firstPredecessor
+	 *            index of the first predecessor of each node (or -1)
 	 * @param alreadyVisited
-	 *            set of nodes that can't lay on path to the root (if one does,
-	 *            method stops and returns null).
-	 * @return
+	 *            nodes that can't lay on path to the root (if one does, method
+	 *            stops and returns -1).
+	 * @param pathMark
+	 *            the index of the search that passed each node (or -1)
+	 * @return index of the root or -1
 	 */
-	private Node findRoot(Node nodeLayout, Set<Node> alreadyVisited) {
-		HashSet<Node> alreadyVisitedRoot = new HashSet<>();
+	private int findRoot(int start, int[] firstPredecessor,
+			boolean[] alreadyVisited, int[] pathMark) {
+		int current = start;
 		while (true) {
-			if (alreadyVisited.contains(nodeLayout))
-				return null;
-			if (alreadyVisitedRoot.contains(nodeLayout))
-				return nodeLayout;
-			alreadyVisitedRoot.add(nodeLayout);
-			Node[] predecessingNodes = nodeLayout.getAllPredecessorNodes()
-					.toArray(new Node[] {});
-			if (predecessingNodes.length > 0) {
-				nodeLayout = predecessingNodes[0];
+			if (alreadyVisited[current]
+					|| (pathMark[current] >= 0 && pathMark[current] != start))
+				return -1;
+			if (pathMark[current] == start)
+				return current;
+			pathMark[current] = start;
+			if (firstPredecessor[current] >= 0) {
+				current = firstPredecessor[current];
 			} else {
-				return nodeLayout;
+				return current;
 			}
 		}
 	}
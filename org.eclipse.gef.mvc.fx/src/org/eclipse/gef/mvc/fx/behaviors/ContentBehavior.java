@@ -16,6 +16,7 @@ package org.eclipse.gef.mvc.fx.behaviors;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -164,6 +165,11 @@ public class ContentBehavior extends AbstractBehavior implements IDisposable {
 		}
 	};
 
+	private boolean batchSynchronization = false;
+
+	// parts whose visual refresh is suspended during a batch synchronization
+	private Set<IVisualPart<? extends Node>> suspendedParts;
+
 	@SuppressWarnings("unchecked")
 	private List<IContentPart<? extends Node>> addAll(
 			IVisualPart<? extends Node> parent,
@@ -182,6 +188,9 @@ public class ContentBehavior extends AbstractBehavior implements IDisposable {
 		}
 		int contentChildrenSize = contentChildren.size();
 		int childContentPartsSize = childContentParts.size();
+		// in batch mode, consecutive new content parts are added at once
+		Set<IContentPart<? extends Node>> pending = new LinkedHashSet<>();
+		int pendingIndex = 0;
 		for (int i = 0; i < contentChildrenSize; i++) {
 			Object content = contentChildren.get(i);
 			// Do a quick check to see if the existing content part is at
@@ -199,11 +208,13 @@ public class ContentBehavior extends AbstractBehavior implements IDisposable {
 				// location in the children list.
 				// TODO: this is wrong, it has to take into consideration
 				// the visual parts in between
+				added.addAll(addPending(parent, pending, pendingIndex));
 				parent.reorderChild(contentPart, i);
 			} else {
 				// A ContentPart for this model does not exist yet. Create
 				// and insert one.
-				if (contentPart.getParent() != null) {
+				if (contentPart.getParent() != null
+						|| pending.contains(contentPart)) {
 					// TODO: Up to now a model element may only be
 					// controlled by a single content part; unless we
 					// differentiate content elements by context (which is not
@@ -214,12 +225,47 @@ public class ContentBehavior extends AbstractBehavior implements IDisposable {
 					throw new IllegalStateException(
 							"Located a ContentPart which controls the same (or an equal) content element but is already bound to a parent. A content element may only be controlled by a single ContentPart.");
 				}
+				if (suspendedParts != null) {
+					if (pendingIndex + pending.size() != i) {
+						added.addAll(addPending(parent, pending, pendingIndex));
+						pendingIndex = i;
+					}
+					pending.add(contentPart);
+					continue;
+				}
 				parent.addChild(contentPart, i);
 				added.add(contentPart);
 				added.addAll(addAll(contentPart,
 						contentPart.getContentChildrenUnmodifiable()));
 			}
 		}
+		added.addAll(addPending(parent, pending, pendingIndex));
+		return added;
+	}
+
+	/**
+	 * Adds the given pending {@link IContentPart}s as children to the given
+	 * parent at once (with suspended visual refreshes), synchronizes their
+	 * content children, and clears the pending set.
+	 */
+	private List<IContentPart<? extends Node>> addPending(
+			IVisualPart<? extends Node> parent,
+			Set<IContentPart<? extends Node>> pending, int index) {
+		if (pending.isEmpty()) {
+			return Collections.emptyList();
+		}
+		suspendRefreshVisual(parent);
+		for (IContentPart<? extends Node> contentPart : pending) {
+			suspendRefreshVisual(contentPart);
+		}
+		parent.addChildren(new ArrayList<>(pending), index);
+		List<IContentPart<? extends Node>> added = new ArrayList<>();
+		for (IContentPart<? extends Node> contentPart : pending) {
+			added.add(contentPart);
+			added.addAll(addAll(contentPart,
+					contentPart.getContentChildrenUnmodifiable()));
+		}
+		pending.clear();
 		return added;
 	}
 
@@ -353,6 +399,17 @@ public class ContentBehavior extends AbstractBehavior implements IDisposable {
 				.getAdapter(IContentPartFactory.class);
 	}
 
+	/**
+	 * Returns whether content synchronization is performed in batch mode.
+	 *
+	 * @return <code>true</code> if batch synchronization is enabled, otherwise
+	 *         <code>false</code>.
+	 * @see #setBatchSynchronization(boolean)
+	 */
+	public boolean isBatchSynchronization() {
+		return batchSynchronization;
+	}
+
 	/**
 	 * Returns the {@link ContentPartPool} that is used to recycle content parts
 	 * in the context of an {@link IViewer}.
@@ -430,11 +487,49 @@ public class ContentBehavior extends AbstractBehavior implements IDisposable {
 
 		// Correspondingly add the anchorages. This is done in a separate
 		// step to prevent ConcurrentModificationException.
+		if (!toAdd.isEmpty()) {
+			suspendRefreshVisual(anchored);
+		}
 		for (Entry<IVisualPart<? extends Node>, String> e : toAdd) {
+			suspendRefreshVisual(e.getKey());
 			anchored.attachToAnchorage(e.getKey(), e.getValue());
 		}
 	}
 
+	/**
+	 * Enables or disables batch synchronization. In batch mode, the visual
+	 * refreshes of all parts that are affected by a synchronization (i.e. the
+	 * added content parts, their parents, and their anchorages) are suspended
+	 * until the synchronization is finished, and consecutive content parts are
+	 * added to their parent at once (see
+	 * {@link IVisualPart#addChildren(List, int)}), so that only a single
+	 * change notification is fired and their visuals are inserted in bulk.
+	 * Afterwards, each affected part is refreshed exactly once. This
+	 * considerably speeds up the synchronization of large content models.
+	 * <p>
+	 * Parts for which {@link IVisualPart#isRefreshVisual()} is
+	 * <code>false</code> when the synchronization starts are not affected.
+	 *
+	 * @param batchSynchronization
+	 *            <code>true</code> to enable batch synchronization,
+	 *            <code>false</code> to disable it (default).
+	 */
+	public void setBatchSynchronization(boolean batchSynchronization) {
+		this.batchSynchronization = batchSynchronization;
+	}
+
+	/**
+	 * Suspends the visual refresh of the given part until the current batch
+	 * synchronization is finished. Does nothing if no batch synchronization is
+	 * in progress or if visual refreshes are already disabled for the part.
+	 */
+	private void suspendRefreshVisual(IVisualPart<? extends Node> part) {
+		if (suspendedParts != null && part.isRefreshVisual()) {
+			part.setRefreshVisual(false);
+			suspendedParts.add(part);
+		}
+	}
+
 	/**
 	 * Updates the host {@link IVisualPart}'s {@link IContentPart} children (see
 	 * {@link IVisualPart#getChildrenUnmodifiable()}) so that it is in sync with
@@ -460,18 +555,39 @@ public class ContentBehavior extends AbstractBehavior implements IDisposable {
 					"contentChildren may not be null");
 		}
 
-		List<IContentPart<? extends Node>> toRemove = detachAll(parent,
-				contentChildren);
-		for (IContentPart<? extends Node> contentPart : toRemove) {
-			contentPart.getParent().removeChild(contentPart);
-			disposeIfObsolete(contentPart);
+		// start a batch, unless we are already within one
+		boolean startBatch = batchSynchronization && suspendedParts == null;
+		if (startBatch) {
+			suspendedParts = new LinkedHashSet<>();
 		}
+		try {
+			List<IContentPart<? extends Node>> toRemove = detachAll(parent,
+					contentChildren);
+			for (IContentPart<? extends Node> contentPart : toRemove) {
+				contentPart.getParent().removeChild(contentPart);
+				disposeIfObsolete(contentPart);
+			}
 
-		List<IContentPart<? extends Node>> added = addAll(parent,
-				contentChildren);
-		for (IContentPart<? extends Node> cp : added) {
-			synchronizeContentPartAnchorages(cp,
-					cp.getContentAnchoragesUnmodifiable());
+			List<IContentPart<? extends Node>> added = addAll(parent,
+					contentChildren);
+			for (IContentPart<? extends Node> cp : added) {
+				synchronizeContentPartAnchorages(cp,
+						cp.getContentAnchoragesUnmodifiable());
+			}
+		} finally {
+			if (startBatch) {
+				// resume and perform the visual refreshes (once per part)
+				Set<IVisualPart<? extends Node>> parts = suspendedParts;
+				suspendedParts = null;
+				for (IVisualPart<? extends Node> part : parts) {
+					part.setRefreshVisual(true);
+				}
+				for (IVisualPart<? extends Node> part : parts) {
+					if (part.getViewer() != null) {
+						part.refreshVisual();
+					}
+				}
+			}
 		}
 	}
 }
@@ -17,7 +17,9 @@ package org.eclipse.gef.mvc.fx.models;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.gef.common.beans.property.ReadOnlyListWrapperEx;
 import org.eclipse.gef.common.collections.CollectionUtils;
@@ -36,6 +38,12 @@ import javafx.scene.Node;
  * It represents the selection as an ordered list of {@link IContentPart}s.
  * Thereby, it supports a multi-selection and allows to identify a primary
  * selection (the head element of the list) that may be treated specially.
+ * <p>
+ * In addition to the (observable) list, the selected {@link IContentPart}s are
+ * kept in a hash set, so that membership tests (see
+ * {@link #isSelected(IContentPart)}) and bulk updates are performed in
+ * constant, respectively linear time. Each update of the selection is
+ * propagated to the observers by a single (atomic) change.
  *
  * @author anyssen
  * @author mwienand
@@ -56,6 +64,9 @@ public class SelectionModel
 	private ObservableList<IContentPart<? extends Node>> selection = CollectionUtils
 			.observableArrayList();
 
+	// hash index of the selection, which is kept in sync with the list
+	private Set<IContentPart<? extends Node>> selectionIndex = new HashSet<>();
+
 	private ObservableList<IContentPart<? extends Node>> selectionUnmodifiable = FXCollections
 			.unmodifiableObservableList(selection);
 	private ReadOnlyListWrapper<IContentPart<? extends Node>> selectionUnmodifiableProperty = new ReadOnlyListWrapperEx<>(
@@ -97,26 +108,24 @@ public class SelectionModel
 	 */
 	public void appendToSelection(
 			List<? extends IContentPart<? extends Node>> toBeAppended) {
-		List<IContentPart<? extends Node>> newSelection = getSelectionCopy();
-		newSelection.removeAll(toBeAppended);
-		for (IContentPart<? extends Node> p : toBeAppended) {
-			if (newSelection.contains(p)) {
-				throw new IllegalArgumentException("The content part " + p
-						+ " is provided more than once in the given list.");
+		Set<IContentPart<? extends Node>> toBeAppendedSet = toSet(
+				toBeAppended);
+		List<IContentPart<? extends Node>> newSelection = new ArrayList<>(
+				selection.size() + toBeAppended.size());
+		for (IContentPart<? extends Node> p : selection) {
+			if (!toBeAppendedSet.contains(p)) {
+				newSelection.add(p);
 			}
-			newSelection.add(p);
-		}
-		// XXX: ObservableList.setAll() is not properly guarded against not
-		// having an effect (and will always notify attached listeners)
-		if (!selection.equals(newSelection)) {
-			selection.setAll(newSelection);
 		}
+		newSelection.addAll(toBeAppended);
+		updateSelection(newSelection);
 	}
 
 	/**
 	 * Clears the current selection.
 	 */
 	public void clearSelection() {
+		selectionIndex.clear();
 		selection.clear();
 	}
 
@@ -125,20 +134,10 @@ public class SelectionModel
 	 */
 	@Override
 	public void dispose() {
+		selectionIndex.clear();
 		selection.clear();
 	}
 
-	/**
-	 * Returns a modifiable list of the currently selected {@link IContentPart}
-	 * s.
-	 *
-	 * @return A modifiable list of the currently selected {@link IContentPart}
-	 *         s.
-	 */
-	private List<IContentPart<? extends Node>> getSelectionCopy() {
-		return new ArrayList<>(selection);
-	}
-
 	/**
 	 * Returns an unmodifiable observable list of the currently selected
 	 * {@link IContentPart}s.
@@ -160,7 +159,7 @@ public class SelectionModel
 	 *         current selection.
 	 */
 	public boolean isSelected(IContentPart<? extends Node> contentPart) {
-		return selection.contains(contentPart);
+		return selectionIndex.contains(contentPart);
 	}
 
 	/**
@@ -199,19 +198,17 @@ public class SelectionModel
 	 */
 	public void prependToSelection(
 			List<? extends IContentPart<? extends Node>> toBePrepended) {
-		List<IContentPart<? extends Node>> newSelection = getSelectionCopy();
-		newSelection.removeAll(toBePrepended);
-		int i = 0;
-		for (IContentPart<? extends Node> p : toBePrepended) {
-			if (newSelection.contains(p)) {
-				throw new IllegalArgumentException("The content part " + p
-						+ " is provided more than once in the given list.");
+		Set<IContentPart<? extends Node>> toBePrependedSet = toSet(
+				toBePrepended);
+		List<IContentPart<? extends Node>> newSelection = new ArrayList<>(
+				toBePrepended.size() + selection.size());
+		newSelection.addAll(toBePrepended);
+		for (IContentPart<? extends Node> p : selection) {
+			if (!toBePrependedSet.contains(p)) {
+				newSelection.add(p);
 			}
-			newSelection.add(i++, p);
-		}
-		if (!selection.equals(newSelection)) {
-			selection.setAll(newSelection);
 		}
+		updateSelection(newSelection);
 	}
 
 	/**
@@ -225,7 +222,18 @@ public class SelectionModel
 	 */
 	public void removeFromSelection(
 			Collection<? extends IContentPart<? extends Node>> contentParts) {
-		selection.removeAll(contentParts);
+		Set<IContentPart<? extends Node>> toBeRemoved = new HashSet<>(
+				contentParts);
+		List<IContentPart<? extends Node>> newSelection = new ArrayList<>(
+				selection.size());
+		for (IContentPart<? extends Node> p : selection) {
+			if (!toBeRemoved.contains(p)) {
+				newSelection.add(p);
+			}
+		}
+		if (newSelection.size() != selection.size()) {
+			updateSelection(newSelection);
+		}
 	}
 
 	/**
@@ -237,7 +245,9 @@ public class SelectionModel
 	 *            selection.
 	 */
 	public void removeFromSelection(IContentPart<? extends Node> contentPart) {
-		selection.remove(contentPart);
+		if (selectionIndex.remove(contentPart)) {
+			selection.remove(contentPart);
+		}
 	}
 
 	/**
@@ -284,17 +294,50 @@ public class SelectionModel
 	 */
 	public void setSelection(
 			List<? extends IContentPart<? extends Node>> selection) {
-		List<IContentPart<? extends Node>> newSelection = new ArrayList<>();
-		int i = 0;
-		for (IContentPart<? extends Node> p : selection) {
-			if (newSelection.contains(p)) {
+		toSet(selection);
+		updateSelection(new ArrayList<>(selection));
+	}
+
+	/**
+	 * Returns a set containing the given {@link IContentPart}s.
+	 *
+	 * @param contentParts
+	 *            The {@link IContentPart}s to put into a set.
+	 * @return A set containing the given {@link IContentPart}s.
+	 * @throws IllegalArgumentException
+	 *             if an {@link IContentPart} is provided more than once.
+	 */
+	private Set<IContentPart<? extends Node>> toSet(
+			List<? extends IContentPart<? extends Node>> contentParts) {
+		Set<IContentPart<? extends Node>> set = new HashSet<>(
+				contentParts.size());
+		for (IContentPart<? extends Node> p : contentParts) {
+			if (!set.add(p)) {
 				throw new IllegalArgumentException("The content part " + p
 						+ " is provided more than once in the given list.");
 			}
-			newSelection.add(i++, p);
 		}
-		if (!this.selection.equals(newSelection)) {
-			this.selection.setAll(newSelection);
+		return set;
+	}
+
+	/**
+	 * Replaces the current selection with the given (duplicate free) list of
+	 * {@link IContentPart}s by a single change, and updates the selection
+	 * index accordingly. Does not notify any observers if the selection does
+	 * not change.
+	 *
+	 * @param newSelection
+	 *            The new selection.
+	 */
+	private void updateSelection(
+			List<IContentPart<? extends Node>> newSelection) {
+		// XXX: ObservableList.setAll() is not properly guarded against not
+		// having an effect (and will always notify attached listeners)
+		if (!selection.equals(newSelection)) {
+			// update the index first, so that observers can query it
+			selectionIndex.clear();
+			selectionIndex.addAll(newSelection);
+			selection.setAll(newSelection);
 		}
 	}
 }
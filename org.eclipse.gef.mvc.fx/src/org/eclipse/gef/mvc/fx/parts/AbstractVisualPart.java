@@ -195,8 +195,29 @@ public abstract class AbstractVisualPart<V extends Node>
 							+ " because the following are already children: "
 							+ alreadyContainedChildren + ".");
 		}
-		for (int i = 0; i < children.size(); i++) {
-			addChild(children.get(i), index + i);
+		if (children.isEmpty()) {
+			return;
+		}
+
+		// add all children at once, so that only a single change notification
+		// is fired
+		this.children.addAll(index, children);
+		for (IVisualPart<? extends Node> child : children) {
+			child.setParent(this);
+		}
+
+		// refresh this part only once for all children, and add their
+		// visuals in bulk
+		refreshVisual();
+		doAddChildVisuals(children, index);
+		for (IVisualPart<? extends Node> child : children) {
+			child.refreshVisual();
+		}
+
+		if (isActive()) {
+			for (IVisualPart<? extends Node> child : children) {
+				child.activate();
+			}
 		}
 	}
 
@@ -431,6 +452,25 @@ public abstract class AbstractVisualPart<V extends Node>
 						+ this.getClass());
 	}
 
+	/**
+	 * Performs the addition of the children's <i>visuals</i> to this
+	 * {@link IVisualPart}'s visual. The default implementation delegates to
+	 * {@link #doAddChildVisual(IVisualPart, int)} for each child. Subclasses
+	 * may override to insert all visuals at once.
+	 *
+	 * @param children
+	 *            The {@link IVisualPart}s being added
+	 * @param index
+	 *            The position of the first child
+	 * @see #addChildren(List, int)
+	 */
+	protected void doAddChildVisuals(
+			List<? extends IVisualPart<? extends Node>> children, int index) {
+		for (int i = 0; i < children.size(); i++) {
+			doAddChildVisual(children.get(i), index + i);
+		}
+	}
+
 	/**
 	 * Attaches this part's visual to the visual of the given anchorage.
 	 *
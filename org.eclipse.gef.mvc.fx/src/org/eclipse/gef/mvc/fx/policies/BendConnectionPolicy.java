@@ -11,9 +11,12 @@
  *******************************************************************************/
 package org.eclipse.gef.mvc.fx.policies;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.gef.fx.anchors.DynamicAnchor;
 import org.eclipse.gef.fx.anchors.IAnchor;
@@ -40,10 +43,13 @@ import org.eclipse.gef.mvc.fx.parts.IVisualPart;
 import org.eclipse.gef.mvc.fx.parts.PartUtils;
 import org.eclipse.gef.mvc.fx.providers.IAnchorProvider;
 import org.eclipse.gef.mvc.fx.viewer.IViewer;
+import org.eclipse.gef.mvc.fx.viewer.InfiniteCanvasViewer;
 
 import com.google.inject.Provider;
 
+import javafx.geometry.Point2D;
 import javafx.scene.Node;
+import javafx.scene.Parent;
 
 /**
  * The {@link BendConnectionPolicy} can be used to manipulate the points
@@ -298,11 +304,19 @@ public class BendConnectionPolicy extends AbstractTransactionPolicy {
 			Point selectedPointCurrentPositionInScene = FX2Geometry
 					.toPoint(getConnection().localToScene(
 							Geometry2FX.toFXPoint(positionInLocal)));
-			List<Node> pickedNodes = NodeUtils.getNodesAt(
-					getHost().getRoot().getVisual(),
-					selectedPointCurrentPositionInScene.x,
-					selectedPointCurrentPositionInScene.y);
-			anchor = getCompatibleAnchor(getParts(pickedNodes));
+			IViewer viewer = getHost().getRoot().getViewer();
+			if (viewer instanceof InfiniteCanvasViewer) {
+				anchor = getCompatibleAnchor(
+						getPartsAt((InfiniteCanvasViewer) viewer,
+								selectedPointCurrentPositionInScene.x,
+								selectedPointCurrentPositionInScene.y));
+			} else {
+				List<Node> pickedNodes = NodeUtils.getNodesAt(
+						getHost().getRoot().getVisual(),
+						selectedPointCurrentPositionInScene.x,
+						selectedPointCurrentPositionInScene.y);
+				anchor = getCompatibleAnchor(getParts(pickedNodes));
+			}
 		}
 		if (anchor == null) {
 			anchor = createUnconnectedAnchor(positionInLocal);
@@ -517,6 +531,27 @@ public class BendConnectionPolicy extends AbstractTransactionPolicy {
 		return parts;
 	}
 
+	/**
+	 * Returns the {@link IContentPart}s at the given scene position (top-most
+	 * first), using the {@link InfiniteCanvasViewer#getContentBoundsIndex()
+	 * content bounds index} of the given viewer to determine the candidates,
+	 * which are then picked precisely.
+	 */
+	private List<IContentPart<? extends Node>> getPartsAt(
+			InfiniteCanvasViewer viewer, double sceneX, double sceneY) {
+		List<IContentPart<? extends Node>> candidates = viewer
+				.getContentBoundsIndex().getContentPartsAt(viewer.getCanvas()
+						.getContentGroup().sceneToLocal(sceneX, sceneY));
+		List<IContentPart<? extends Node>> parts = new ArrayList<>();
+		for (int i = candidates.size() - 1; i >= 0; i--) {
+			IContentPart<? extends Node> candidate = candidates.get(i);
+			if (isPicked(viewer, candidate, sceneX, sceneY)) {
+				parts.add(candidate);
+			}
+		}
+		return parts;
+	}
+
 	/**
 	 * Returns the current position for the given explicit anchor index.
 	 *
@@ -606,6 +641,50 @@ public class BendConnectionPolicy extends AbstractTransactionPolicy {
 				getPoint(overlainExplicitAnchorIndex)) <= getOverlayThreshold();
 	}
 
+	/**
+	 * Returns <code>true</code> if one of the {@link Node}s that correspond to
+	 * the given {@link IContentPart} (i.e. the descendants of its visual that
+	 * do not belong to another part) contains the given scene position.
+	 * Otherwise returns <code>false</code>.
+	 */
+	private boolean isPicked(IViewer viewer, IContentPart<? extends Node> part,
+			double sceneX, double sceneY) {
+		// a mouse transparent ancestor excludes the whole subtree from
+		// picking (see NodeUtils#getNodesAt(Node, double, double))
+		for (Node ancestor = part.getVisual()
+				.getParent(); ancestor != null; ancestor = ancestor
+						.getParent()) {
+			if (ancestor.isMouseTransparent()) {
+				return false;
+			}
+		}
+		Map<Node, IVisualPart<? extends Node>> visualPartMap = viewer
+				.getVisualPartMap();
+		Deque<Node> nodes = new ArrayDeque<>();
+		nodes.push(part.getVisual());
+		while (!nodes.isEmpty()) {
+			Node current = nodes.pop();
+			Point2D pLocal = current.sceneToLocal(sceneX, sceneY);
+			if (current.isMouseTransparent()
+					|| !current.getBoundsInLocal().contains(pLocal)) {
+				continue;
+			}
+			if (current.contains(pLocal)) {
+				return true;
+			}
+			if (current instanceof Parent) {
+				for (Node child : ((Parent) current)
+						.getChildrenUnmodifiable()) {
+					// nodes of nested parts are picked for those parts
+					if (!visualPartMap.containsKey(child)) {
+						nodes.push(child);
+					}
+				}
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Returns <code>true</code> if the selected points are on a horizontal
 	 * line. Otherwise returns <code>false</code>.
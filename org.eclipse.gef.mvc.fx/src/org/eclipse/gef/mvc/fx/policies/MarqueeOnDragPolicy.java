@@ -12,11 +12,16 @@
  *******************************************************************************/
 package org.eclipse.gef.mvc.fx.policies;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 
 import org.eclipse.core.commands.ExecutionException;
 import org.eclipse.core.runtime.NullProgressMonitor;
@@ -30,11 +35,14 @@ import org.eclipse.gef.mvc.fx.parts.IFeedbackPart;
 import org.eclipse.gef.mvc.fx.parts.IRootPart;
 import org.eclipse.gef.mvc.fx.parts.IVisualPart;
 import org.eclipse.gef.mvc.fx.parts.PartUtils;
+import org.eclipse.gef.mvc.fx.viewer.ContentBoundsIndex;
 import org.eclipse.gef.mvc.fx.viewer.IViewer;
+import org.eclipse.gef.mvc.fx.viewer.InfiniteCanvasViewer;
 
 import com.google.common.reflect.TypeToken;
 import com.google.inject.Provider;
 
+import javafx.geometry.BoundingBox;
 import javafx.geometry.Bounds;
 import javafx.geometry.Point2D;
 import javafx.scene.Node;
@@ -191,6 +199,45 @@ public class MarqueeOnDragPolicy extends AbstractInteractionPolicy
 		getHost().getRoot().addChild(feedback);
 	}
 
+	/**
+	 * Returns <code>true</code> if one of the {@link Node}s that correspond to
+	 * the given {@link IContentPart} (i.e. the descendants of its visual that
+	 * do not belong to another part) is contained within the given bounding
+	 * box (in scene coordinates). Otherwise returns <code>false</code>.
+	 */
+	private boolean containsNodeOf(IViewer viewer,
+			IContentPart<? extends Node> part, double[] bbox) {
+		Map<Node, IVisualPart<? extends Node>> visualPartMap = viewer
+				.getVisualPartMap();
+		Deque<Node> nodes = new ArrayDeque<>();
+		nodes.push(part.getVisual());
+		while (!nodes.isEmpty()) {
+			Node current = nodes.pop();
+			Bounds bounds = current.localToScene(current.getBoundsInLocal());
+			if (bounds.getMaxX() < bbox[0] || bounds.getMinX() > bbox[2]
+					|| bounds.getMaxY() < bbox[1]
+					|| bounds.getMinY() > bbox[3]) {
+				// current node is outside of marquee bounds
+				continue;
+			}
+			if (bounds.getMinX() >= bbox[0] && bounds.getMaxX() <= bbox[2]
+					&& bounds.getMinY() >= bbox[1]
+					&& bounds.getMaxY() <= bbox[3]) {
+				return true;
+			}
+			if (current instanceof Parent) {
+				for (Node child : ((Parent) current)
+						.getChildrenUnmodifiable()) {
+					// nodes of nested parts are tested for those parts
+					if (!visualPartMap.containsKey(child)) {
+						nodes.push(child);
+					}
+				}
+			}
+		}
+		return false;
+	}
+
 	@Override
 	public void drag(MouseEvent e, Dimension delta) {
 		if (invalidGesture) {
@@ -216,12 +263,16 @@ public class MarqueeOnDragPolicy extends AbstractInteractionPolicy
 		Point2D end = rootVisual.localToScene(endPosInRoot);
 		double[] bbox = bbox(start, end);
 
-		// find nodes contained in bbox
-		List<Node> nodes = findContainedNodes(rootVisual.getScene().getRoot(),
-				bbox[0], bbox[1], bbox[2], bbox[3]);
-
-		// find content parts for contained nodes
-		List<IContentPart<? extends Node>> parts = getParts(nodes);
+		// find content parts for nodes contained in bbox
+		List<IContentPart<? extends Node>> parts;
+		IViewer viewer = root.getViewer();
+		if (viewer instanceof InfiniteCanvasViewer) {
+			parts = findContainedParts((InfiniteCanvasViewer) viewer, bbox[0],
+					bbox[1], bbox[2], bbox[3]);
+		} else {
+			parts = getParts(findContainedNodes(rootVisual.getScene().getRoot(),
+					bbox[0], bbox[1], bbox[2], bbox[3]));
+		}
 
 		// filter out all parts that are not selectable
 		Iterator<IContentPart<? extends Node>> it = parts.iterator();
@@ -242,6 +293,51 @@ public class MarqueeOnDragPolicy extends AbstractInteractionPolicy
 		removeFeedback();
 	}
 
+	/**
+	 * Determines the {@link IContentPart}s for the {@link Node}s that are
+	 * contained within the specified bounds (in scene coordinates), using the
+	 * {@link InfiniteCanvasViewer#getContentBoundsIndex() content bounds index}
+	 * of the given viewer. Only the parts whose visual bounds intersect but
+	 * are not contained within the specified bounds need to be inspected
+	 * further. The result corresponds to
+	 * {@link #getParts(List) getParts(findContainedNodes(...))} for the scene
+	 * root, apart from the order of the parts.
+	 *
+	 * @param viewer
+	 *            The {@link InfiniteCanvasViewer} whose {@link IContentPart}s
+	 *            are examined.
+	 * @param x0
+	 *            The minimum x-coordinate.
+	 * @param y0
+	 *            The minimum y-coordinate.
+	 * @param x1
+	 *            The maximum x-coordinate.
+	 * @param y1
+	 *            The maximum y-coordinate.
+	 * @return A {@link List} containing all {@link IContentPart}s of the given
+	 *         viewer that correspond to {@link Node}s that are fully contained
+	 *         within the specified bounds.
+	 */
+	protected List<IContentPart<? extends Node>> findContainedParts(
+			InfiniteCanvasViewer viewer, double x0, double y0, double x1,
+			double y1) {
+		double[] bbox = new double[] { x0, y0, x1, y1 };
+		ContentBoundsIndex index = viewer.getContentBoundsIndex();
+		Bounds marqueeBounds = viewer.getCanvas().getContentGroup()
+				.sceneToLocal(new BoundingBox(bbox[0], bbox[1],
+						bbox[2] - bbox[0], bbox[3] - bbox[1]));
+		List<IContentPart<? extends Node>> parts = new ArrayList<>();
+		for (IContentPart<? extends Node> part : index
+				.getContentPartsIntersecting(marqueeBounds)) {
+			// a part is also selected if only some of its nodes are contained
+			if (marqueeBounds.contains(index.getBounds(part))
+					|| containsNodeOf(viewer, part, bbox)) {
+				parts.add(part);
+			}
+		}
+		return parts;
+	}
+
 	/**
 	 * Returns the {@link CursorSupport} of this policy.
 	 *
@@ -262,17 +358,18 @@ public class MarqueeOnDragPolicy extends AbstractInteractionPolicy
 	 *         corresponding to the given {@link Node}s.
 	 */
 	protected List<IContentPart<? extends Node>> getParts(List<Node> nodes) {
-		List<IContentPart<? extends Node>> parts = new ArrayList<>();
+		// XXX: Use a LinkedHashSet to filter duplicates in constant time,
+		// while preserving the order of the nodes.
+		Set<IContentPart<? extends Node>> parts = new LinkedHashSet<>();
 		IViewer viewer = getHost().getRoot().getViewer();
 		for (Node node : nodes) {
 			IVisualPart<? extends Node> part = PartUtils
 					.retrieveVisualPart(viewer, node);
-			if (part != null && part instanceof IContentPart
-					&& !parts.contains(part)) {
+			if (part != null && part instanceof IContentPart) {
 				parts.add((IContentPart<? extends Node>) part);
 			}
 		}
-		return parts;
+		return new ArrayList<>(parts);
 	}
 
 	/**
@@ -12,11 +12,13 @@
 package org.eclipse.gef.mvc.fx.tools;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.gef.common.adapt.AdapterKey;
 import org.eclipse.gef.common.adapt.IAdaptable;
@@ -28,6 +30,9 @@ import org.eclipse.gef.mvc.fx.viewer.IViewer;
 
 import com.google.common.reflect.TypeToken;
 
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.MapChangeListener;
 import javafx.scene.Node;
 
 /**
@@ -48,6 +53,12 @@ import javafx.scene.Node;
  * </ol>
  * For details, take a look at the
  * {@link #getTargetPolicies(ITool, Node, Class)} method.
+ * <p>
+ * The policies that are determined in the second stage are cached per target
+ * part and policy type. The cache is invalidated when the adapters of a part
+ * within a cached root-to-target path or the part hierarchy change.
+ * Therefore, the lists of target policies that are returned are
+ * unmodifiable.
  *
  * @author mwienand
  *
@@ -76,6 +87,128 @@ public class DefaultTargetPolicyResolver extends IAdaptable.Bound.Impl<IDomain>
 	private final static AdapterKeyComparator ADAPTER_KEY_COMPARATOR = new AdapterKeyComparator(
 			true);
 
+	@SuppressWarnings("serial")
+	private final static TypeToken<ITool> TOOL_TYPE = new TypeToken<ITool>() {
+	};
+
+	// target policies by target part and policy class
+	private Map<IVisualPart<? extends Node>, Map<Class<?>, List<?>>> targetPoliciesCache = new HashMap<>();
+	// parts that are observed to invalidate the target policies cache
+	private Set<IVisualPart<? extends Node>> observedParts = new HashSet<>();
+	// tools of the domain (cached)
+	private List<ITool> tools;
+
+	private MapChangeListener<AdapterKey<?>, Object> partAdaptersObserver = new MapChangeListener<AdapterKey<?>, Object>() {
+		@Override
+		public void onChanged(
+				MapChangeListener.Change<? extends AdapterKey<?>, ? extends Object> change) {
+			clearTargetPoliciesCache();
+		}
+	};
+
+	private ChangeListener<IVisualPart<? extends Node>> partParentObserver = new ChangeListener<IVisualPart<? extends Node>>() {
+		@Override
+		public void changed(
+				ObservableValue<? extends IVisualPart<? extends Node>> observable,
+				IVisualPart<? extends Node> oldValue,
+				IVisualPart<? extends Node> newValue) {
+			clearTargetPoliciesCache();
+		}
+	};
+
+	private MapChangeListener<AdapterKey<?>, Object> domainAdaptersObserver = new MapChangeListener<AdapterKey<?>, Object>() {
+		@Override
+		public void onChanged(
+				MapChangeListener.Change<? extends AdapterKey<?>, ? extends Object> change) {
+			tools = null;
+		}
+	};
+
+	/**
+	 * Clears the cached target policies and stops observing the parts.
+	 */
+	private void clearTargetPoliciesCache() {
+		for (IVisualPart<? extends Node> part : observedParts) {
+			part.getAdapters().removeListener(partAdaptersObserver);
+			part.parentProperty().removeListener(partParentObserver);
+		}
+		observedParts.clear();
+		targetPoliciesCache.clear();
+	}
+
+	/**
+	 * Determines the policies of the given type on the path from the root
+	 * part to the given target part. The policies that are registered on one
+	 * part are sorted by role, and the policies of a parent part precede the
+	 * policies of its child parts.
+	 *
+	 * @param <T>
+	 *            The type of the policies.
+	 * @param targetPart
+	 *            The target {@link IVisualPart}.
+	 * @param policyClass
+	 *            The type of the policies to determine.
+	 * @return The target policies for the given target part.
+	 */
+	private <T extends IPolicy> List<T> determineTargetPolicies(
+			IVisualPart<? extends Node> targetPart, Class<T> policyClass) {
+		// collect all on-drag-policies on the way from the target part to the
+		// root part
+		IVisualPart<? extends Node> part = targetPart;
+		List<T> policies = new ArrayList<>();
+		while (part != null) {
+			// System.out.println("[find policies for " + part + "]");
+			// determine on-drag-policies
+			Map<AdapterKey<? extends T>, T> partPolicies = part
+					.<T> getAdapters(policyClass);
+
+			// sort descending by role (converted to integer)
+			List<AdapterKey<? extends T>> descendinglySortedKeys = new ArrayList<>(
+					partPolicies.keySet());
+			Collections.sort(descendinglySortedKeys, ADAPTER_KEY_COMPARATOR);
+
+			// add to the list of policies
+			for (AdapterKey<? extends T> key : descendinglySortedKeys) {
+				// System.out.println("add policy " + key);
+				policies.add(partPolicies.get(key));
+			}
+
+			// observe the part, so that the cache is invalidated when its
+			// policies or its parent change
+			if (observedParts.add(part)) {
+				part.getAdapters().addListener(partAdaptersObserver);
+				part.parentProperty().addListener(partParentObserver);
+			}
+
+			// go one level up in the hierarchy
+			part = part.getParent();
+		}
+
+		// reverse order in which policies are returned so that parent policies
+		// are called before child policies
+		Collections.reverse(policies);
+		return policies;
+	}
+
+	/**
+	 * Returns the {@link ITool}s that are registered at the domain. The tools
+	 * are cached until the adapters of the domain change.
+	 *
+	 * @param domain
+	 *            The {@link IDomain} whose tools to return.
+	 * @return The {@link ITool}s of the given domain.
+	 */
+	private List<ITool> getTools(IDomain domain) {
+		if (domain != getAdaptable()) {
+			// XXX: Only the tools of the adaptable domain are cached.
+			return new ArrayList<>(domain.getAdapters(TOOL_TYPE).values());
+		}
+		if (tools == null) {
+			tools = new ArrayList<>(domain.getAdapters(TOOL_TYPE).values());
+		}
+		return tools;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * <p>
@@ -183,7 +316,7 @@ public class DefaultTargetPolicyResolver extends IAdaptable.Bound.Impl<IDomain>
 	 * by the calling tool.
 	 */
 	@Override
-	@SuppressWarnings({ "serial", "unchecked" })
+	@SuppressWarnings("unchecked")
 	public <T extends IPolicy> List<? extends T> getTargetPolicies(
 			ITool contextTool, Node target, IViewer viewer,
 			Class<T> policyClass) {
@@ -195,17 +328,17 @@ public class DefaultTargetPolicyResolver extends IAdaptable.Bound.Impl<IDomain>
 		// determine outer targets, i.e. already running/active policies of
 		// other tools
 		// System.out.println("Outer target policies:");
-		List<T> outerTargetPolicies = new ArrayList<>();
-		Collection<ITool> tools = viewer.getDomain()
-				.getAdapters(new TypeToken<ITool>() {
-				}).values();
-		for (ITool tool : tools) {
+		List<T> outerTargetPolicies = null;
+		for (ITool tool : getTools(viewer.getDomain())) {
 			// System.out.println("[find active policies of " + tool + "]");
 			if (tool != contextTool) {
 				for (IPolicy policy : tool.getActivePolicies(viewer)) {
 					if (policy.getClass().isAssignableFrom(policyClass)) {
 						// System.out.println("add active policy " + policy);
 						try {
+							if (outerTargetPolicies == null) {
+								outerTargetPolicies = new ArrayList<>();
+							}
 							outerTargetPolicies.add((T) policy);
 						} catch (ClassCastException e) {
 							// ignore target policy if type parameter is not
@@ -218,12 +351,12 @@ public class DefaultTargetPolicyResolver extends IAdaptable.Bound.Impl<IDomain>
 
 		// already active policies that can process the events take precedence
 		// over scene graph related target policies
-		if (!outerTargetPolicies.isEmpty()) {
+		if (outerTargetPolicies != null) {
 			// System.out.println("RETURN outer target policies:");
 			// for (T p : outerTargetPolicies) {
 			// System.out.println(p.getHost() + " -> " + p);
 			// }
-			return outerTargetPolicies;
+			return Collections.unmodifiableList(outerTargetPolicies);
 		}
 
 		// determine target part as the part that controls the first node in the
@@ -231,37 +364,26 @@ public class DefaultTargetPolicyResolver extends IAdaptable.Bound.Impl<IDomain>
 		// System.out.println("Inner target policies:");
 		IVisualPart<? extends Node> targetPart = PartUtils
 				.retrieveVisualPart(viewer, target);
+		if (targetPart == null) {
+			return Collections.emptyList();
+		}
 
 		// System.out.println("target part = " + targetPart);
 
-		// collect all on-drag-policies on the way from the target part to the
-		// root part
-		IVisualPart<? extends Node> part = targetPart;
-		List<T> policies = new ArrayList<>();
-		while (part != null) {
-			// System.out.println("[find policies for " + part + "]");
-			// determine on-drag-policies
-			Map<AdapterKey<? extends T>, T> partPolicies = part
-					.<T> getAdapters(policyClass);
-
-			// sort descending by role (converted to integer)
-			List<AdapterKey<? extends T>> descendinglySortedKeys = new ArrayList<>(
-					partPolicies.keySet());
-			Collections.sort(descendinglySortedKeys, ADAPTER_KEY_COMPARATOR);
-
-			// add to the list of policies
-			for (AdapterKey<? extends T> key : descendinglySortedKeys) {
-				// System.out.println("add policy " + key);
-				policies.add(partPolicies.get(key));
-			}
-
-			// go one level up in the hierarchy
-			part = part.getParent();
+		// look up the target policies in the cache, and determine them if they
+		// are not cached yet
+		Map<Class<?>, List<?>> partTargetPolicies = targetPoliciesCache
+				.get(targetPart);
+		if (partTargetPolicies == null) {
+			partTargetPolicies = new HashMap<>();
+			targetPoliciesCache.put(targetPart, partTargetPolicies);
+		}
+		List<T> policies = (List<T>) partTargetPolicies.get(policyClass);
+		if (policies == null) {
+			policies = Collections.unmodifiableList(
+					determineTargetPolicies(targetPart, policyClass));
+			partTargetPolicies.put(policyClass, policies);
 		}
-
-		// reverse order in which policies are returned so that parent policies
-		// are called before child policies
-		Collections.reverse(policies);
 
 		// System.out.println("RETURN in reverse order:");
 		// for (T p : policies) {
@@ -270,4 +392,18 @@ public class DefaultTargetPolicyResolver extends IAdaptable.Bound.Impl<IDomain>
 
 		return policies;
 	}
+
+	@Override
+	public void setAdaptable(IDomain adaptable) {
+		IDomain oldDomain = getAdaptable();
+		if (oldDomain != null) {
+			oldDomain.getAdapters().removeListener(domainAdaptersObserver);
+		}
+		tools = null;
+		clearTargetPoliciesCache();
+		super.setAdaptable(adaptable);
+		if (adaptable != null) {
+			adaptable.getAdapters().addListener(domainAdaptersObserver);
+		}
+	}
 }
@@ -45,7 +45,9 @@ public interface ITargetPolicyResolver extends IAdaptable.Bound<IDomain> {
 	 * @param policyClass
 	 *            The type of the policies to return.
 	 * @return All matching policies within the hierarchy from the root part to
-	 *         the target part.
+	 *         the target part. The returned {@link List} may be unmodifiable
+	 *         and shared between invocations, so that callers need to copy it
+	 *         before modifying it.
 	 */
 	public <T extends IPolicy> List<? extends T> getTargetPolicies(
 			ITool contextTool, Node target, Class<T> policyClass);
@@ -68,7 +70,9 @@ public interface ITargetPolicyResolver extends IAdaptable.Bound<IDomain> {
 	 * @param policyClass
 	 *            The type of the policies to return.
 	 * @return All matching policies within the hierarchy from the root part to
-	 *         the target part.
+	 *         the target part. The returned {@link List} may be unmodifiable
+	 *         and shared between invocations, so that callers need to copy it
+	 *         before modifying it.
 	 */
 	public <T extends IPolicy> List<? extends T> getTargetPolicies(
 			ITool contextTool, Node target, IViewer viewer,
@@ -0,0 +1,606 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Alexander Nyßen (itemis AG) - initial API & implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.mvc.fx.viewer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.gef.fx.nodes.InfiniteCanvas;
+import org.eclipse.gef.mvc.fx.parts.IContentPart;
+import org.eclipse.gef.mvc.fx.parts.IVisualPart;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.collections.MapChangeListener;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+
+/**
+ * The {@link ContentBoundsIndex} is a spatial index of the visual bounds of
+ * the {@link IContentPart}s of an {@link InfiniteCanvasViewer}. It allows to
+ * find the {@link IContentPart}s within an area (e.g. for marquee selection)
+ * or at a position (e.g. for picking) without traversing the scene graph.
+ * <p>
+ * The bounds are stored in the local coordinate system of the
+ * {@link InfiniteCanvas#getContentGroup() content group}, which is not
+ * affected by scrolling or zooming, within a uniform grid of square cells
+ * (see {@link #getCellSize()}). Bounds that span too many cells are kept in a
+ * separate list, which is always tested.
+ * <p>
+ * The index is maintained incrementally: it observes the content part map of
+ * the viewer, as well as the bounds-in-parent, local-to-parent transform, and
+ * parent of the visuals of all registered {@link IContentPart}s. Changes only
+ * mark the affected parts as dirty, and their bounds are re-computed lazily,
+ * when the index is queried the next time.
+ *
+ * @author anyssen
+ *
+ */
+public class ContentBoundsIndex {
+
+	/**
+	 * The default size of the grid cells.
+	 */
+	public static final double DEFAULT_CELL_SIZE = 256;
+
+	// bounds that span more cells are not registered within the grid
+	private static final int MAX_CELLS_PER_ENTRY = 64;
+
+	private class Entry implements InvalidationListener {
+
+		private IContentPart<? extends Node> part;
+		private Node visual;
+		private InvalidationListener transformObserver = new InvalidationListener() {
+			@Override
+			public void invalidated(Observable observable) {
+				// a transformation (or parent) change affects the
+				// descendants, too
+				markDirty(Entry.this, true);
+			}
+		};
+
+		// bounds in local coordinates of the content group
+		private double minX, minY, maxX, maxY;
+		// registered cell range
+		private int cx0, cy0, cx1, cy1;
+		private boolean indexed;
+		private boolean oversized;
+
+		// the entry of the parent part, if the visual is not directly nested
+		// within the visual of the parent part, and the respective children
+		private Entry indirectParent;
+		private List<Entry> indirectChildren;
+
+		private boolean disposed;
+		private boolean dirty;
+		private boolean propagate;
+		// used to filter duplicates when collecting entries from cells
+		private int queryStamp;
+
+		private Entry(IContentPart<? extends Node> part) {
+			this.part = part;
+			this.visual = part.getVisual();
+		}
+
+		@Override
+		public void invalidated(Observable observable) {
+			markDirty(this, false);
+		}
+	}
+
+	/**
+	 * The indices of the children of a {@link Parent}, which are used to
+	 * determine the painting order. They are cached until the children
+	 * change.
+	 */
+	private class ChildIndices implements InvalidationListener {
+
+		private Parent parent;
+		private Map<Node, Integer> indices;
+
+		private ChildIndices(Parent parent) {
+			this.parent = parent;
+			List<Node> children = parent.getChildrenUnmodifiable();
+			indices = new IdentityHashMap<>(children.size());
+			for (int i = 0; i < children.size(); i++) {
+				indices.put(children.get(i), i);
+			}
+			parent.getChildrenUnmodifiable().addListener(this);
+		}
+
+		private void dispose() {
+			parent.getChildrenUnmodifiable().removeListener(this);
+		}
+
+		@Override
+		public void invalidated(Observable observable) {
+			dispose();
+			childIndices.remove(parent);
+		}
+	}
+
+	private InfiniteCanvasViewer viewer;
+	private double cellSize = DEFAULT_CELL_SIZE;
+	private boolean active;
+
+	private Map<IContentPart<? extends Node>, Entry> entries = new IdentityHashMap<>();
+	private Map<Long, List<Entry>> cells = new HashMap<>();
+	private List<Entry> oversizedEntries = new ArrayList<>();
+	private List<Entry> dirtyEntries = new ArrayList<>();
+	private int queryStamp;
+	private Map<Parent, ChildIndices> childIndices = new IdentityHashMap<>();
+
+	private MapChangeListener<Object, IContentPart<? extends Node>> contentPartMapObserver = new MapChangeListener<Object, IContentPart<? extends Node>>() {
+		@Override
+		public void onChanged(
+				MapChangeListener.Change<? extends Object, ? extends IContentPart<? extends Node>> change) {
+			if (change.wasRemoved()) {
+				untrack(change.getValueRemoved());
+			}
+			if (change.wasAdded()) {
+				track(change.getValueAdded());
+			}
+		}
+	};
+
+	/**
+	 * Creates a new {@link ContentBoundsIndex} for the given
+	 * {@link InfiniteCanvasViewer}.
+	 *
+	 * @param viewer
+	 *            The {@link InfiniteCanvasViewer} whose {@link IContentPart}s
+	 *            are indexed.
+	 */
+	public ContentBoundsIndex(InfiniteCanvasViewer viewer) {
+		this.viewer = viewer;
+	}
+
+	/**
+	 * Starts indexing the {@link IContentPart}s of the viewer.
+	 */
+	void activate() {
+		if (active) {
+			return;
+		}
+		active = true;
+		for (IContentPart<? extends Node> part : viewer.getContentPartMap()
+				.values()) {
+			track(part);
+		}
+		viewer.contentPartMapProperty().addListener(contentPartMapObserver);
+	}
+
+	private void add(Entry entry, double minX, double minY, double maxX,
+			double maxY) {
+		entry.minX = minX;
+		entry.minY = minY;
+		entry.maxX = maxX;
+		entry.maxY = maxY;
+		entry.cx0 = toCell(minX);
+		entry.cy0 = toCell(minY);
+		entry.cx1 = toCell(maxX);
+		entry.cy1 = toCell(maxY);
+		entry.indexed = true;
+		if ((long) (entry.cx1 - entry.cx0 + 1)
+				* (entry.cy1 - entry.cy0 + 1) > MAX_CELLS_PER_ENTRY) {
+			entry.oversized = true;
+			oversizedEntries.add(entry);
+		} else {
+			for (int cx = entry.cx0; cx <= entry.cx1; cx++) {
+				for (int cy = entry.cy0; cy <= entry.cy1; cy++) {
+					Long key = toKey(cx, cy);
+					List<Entry> cell = cells.get(key);
+					if (cell == null) {
+						cell = new ArrayList<>(4);
+						cells.put(key, cell);
+					}
+					cell.add(entry);
+				}
+			}
+		}
+	}
+
+	private int comparePaths(int[] path1, int[] path2) {
+		int length = Math.min(path1.length, path2.length);
+		for (int i = 0; i < length; i++) {
+			if (path1[i] != path2[i]) {
+				return Integer.compare(path1[i], path2[i]);
+			}
+		}
+		// ancestors are painted before their descendants
+		return Integer.compare(path1.length, path2.length);
+	}
+
+	/**
+	 * Stops indexing the {@link IContentPart}s of the viewer, and clears the
+	 * index.
+	 */
+	void deactivate() {
+		if (!active) {
+			return;
+		}
+		viewer.contentPartMapProperty().removeListener(contentPartMapObserver);
+		for (Entry entry : entries.values()) {
+			unhook(entry);
+		}
+		entries.clear();
+		cells.clear();
+		oversizedEntries.clear();
+		dirtyEntries.clear();
+		for (ChildIndices indices : childIndices.values()) {
+			indices.dispose();
+		}
+		childIndices.clear();
+		active = false;
+	}
+
+	/**
+	 * Returns the bounds of the visual of the given {@link IContentPart} in
+	 * local coordinates of the {@link InfiniteCanvas#getContentGroup() content
+	 * group}, or <code>null</code> if the given part is not indexed (e.g.
+	 * because its visual is not yet part of the scene graph).
+	 *
+	 * @param part
+	 *            The {@link IContentPart} for which to return the bounds.
+	 * @return The bounds of the visual of the given {@link IContentPart} in
+	 *         local coordinates of the content group, or <code>null</code>.
+	 */
+	public Bounds getBounds(IContentPart<? extends Node> part) {
+		validate();
+		Entry entry = entries.get(part);
+		if (entry == null || !entry.indexed) {
+			return null;
+		}
+		return new BoundingBox(entry.minX, entry.minY, entry.maxX - entry.minX,
+				entry.maxY - entry.minY);
+	}
+
+	/**
+	 * Returns the size of the (square) grid cells in local coordinates of the
+	 * {@link InfiniteCanvas#getContentGroup() content group}.
+	 *
+	 * @return The size of the grid cells.
+	 */
+	public double getCellSize() {
+		return cellSize;
+	}
+
+	/**
+	 * Returns all {@link IContentPart}s whose visual bounds contain the given
+	 * position, ordered by their painting order, i.e. the top-most part is
+	 * the last one. As only the bounds are considered, the visuals of the
+	 * returned parts do not necessarily contain the position.
+	 *
+	 * @param position
+	 *            The position in local coordinates of the
+	 *            {@link InfiniteCanvas#getContentGroup() content group}.
+	 * @return The {@link IContentPart}s whose visual bounds contain the given
+	 *         position.
+	 */
+	public List<IContentPart<? extends Node>> getContentPartsAt(
+			Point2D position) {
+		return query(position.getX(), position.getY(), position.getX(),
+				position.getY(), false);
+	}
+
+	/**
+	 * Returns all {@link IContentPart}s whose visual bounds are fully
+	 * contained within the given bounds, ordered by their painting order.
+	 *
+	 * @param bounds
+	 *            The {@link Bounds} in local coordinates of the
+	 *            {@link InfiniteCanvas#getContentGroup() content group}.
+	 * @return The {@link IContentPart}s whose visual bounds are contained
+	 *         within the given bounds.
+	 */
+	public List<IContentPart<? extends Node>> getContentPartsContainedIn(
+			Bounds bounds) {
+		return query(bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(),
+				bounds.getMaxY(), true);
+	}
+
+	/**
+	 * Returns all {@link IContentPart}s whose visual bounds intersect the
+	 * given bounds, ordered by their painting order.
+	 *
+	 * @param bounds
+	 *            The {@link Bounds} in local coordinates of the
+	 *            {@link InfiniteCanvas#getContentGroup() content group}.
+	 * @return The {@link IContentPart}s whose visual bounds intersect the
+	 *         given bounds.
+	 */
+	public List<IContentPart<? extends Node>> getContentPartsIntersecting(
+			Bounds bounds) {
+		return query(bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(),
+				bounds.getMaxY(), false);
+	}
+
+	private Node getContentGroup() {
+		return viewer.getCanvas().getContentGroup();
+	}
+
+	private int[] getPath(Node visual, Node contentGroup) {
+		int depth = 0;
+		for (Node n = visual; n != contentGroup; n = n.getParent()) {
+			depth++;
+		}
+		int[] path = new int[depth];
+		Node n = visual;
+		for (int i = depth - 1; i >= 0; i--) {
+			Parent parent = n.getParent();
+			ChildIndices indices = childIndices.get(parent);
+			if (indices == null) {
+				indices = new ChildIndices(parent);
+				childIndices.put(parent, indices);
+			}
+			path[i] = indices.indices.get(n);
+			n = parent;
+		}
+		return path;
+	}
+
+	private void markDirty(Entry entry, boolean propagate) {
+		if (!entry.dirty) {
+			entry.dirty = true;
+			dirtyEntries.add(entry);
+		}
+		entry.propagate |= propagate;
+	}
+
+	private List<IContentPart<? extends Node>> query(double minX, double minY,
+			double maxX, double maxY, boolean contained) {
+		validate();
+		List<Entry> candidates = new ArrayList<>();
+		int stamp = ++queryStamp;
+		int cx0 = toCell(minX);
+		int cy0 = toCell(minY);
+		int cx1 = toCell(maxX);
+		int cy1 = toCell(maxY);
+		if ((long) (cx1 - cx0 + 1) * (cy1 - cy0 + 1) > cells.size()) {
+			// XXX: For large query areas, testing all occupied cells is
+			// cheaper than looking up all cells of the area.
+			for (List<Entry> cell : cells.values()) {
+				collect(cell, stamp, candidates);
+			}
+		} else {
+			for (int cx = cx0; cx <= cx1; cx++) {
+				for (int cy = cy0; cy <= cy1; cy++) {
+					List<Entry> cell = cells.get(toKey(cx, cy));
+					if (cell != null) {
+						collect(cell, stamp, candidates);
+					}
+				}
+			}
+		}
+		collect(oversizedEntries, stamp, candidates);
+
+		List<IContentPart<? extends Node>> parts = new ArrayList<>();
+		for (Entry entry : candidates) {
+			if (contained ? entry.minX >= minX && entry.maxX <= maxX
+					&& entry.minY >= minY && entry.maxY <= maxY
+					: entry.maxX >= minX && entry.minX <= maxX
+							&& entry.maxY >= minY && entry.minY <= maxY) {
+				parts.add(entry.part);
+			}
+		}
+		sortInPaintingOrder(parts);
+		return parts;
+	}
+
+	private void collect(List<Entry> cell, int stamp, List<Entry> candidates) {
+		for (Entry entry : cell) {
+			if (entry.queryStamp != stamp) {
+				entry.queryStamp = stamp;
+				candidates.add(entry);
+			}
+		}
+	}
+
+	private void remove(Entry entry) {
+		if (!entry.indexed) {
+			return;
+		}
+		if (entry.oversized) {
+			oversizedEntries.remove(entry);
+		} else {
+			for (int cx = entry.cx0; cx <= entry.cx1; cx++) {
+				for (int cy = entry.cy0; cy <= entry.cy1; cy++) {
+					Long key = toKey(cx, cy);
+					List<Entry> cell = cells.get(key);
+					cell.remove(entry);
+					if (cell.isEmpty()) {
+						cells.remove(key);
+					}
+				}
+			}
+		}
+		entry.indexed = false;
+		entry.oversized = false;
+	}
+
+	/**
+	 * Changes the size of the (square) grid cells to the given value and
+	 * re-builds the index. The cell size should roughly correspond to the
+	 * size of the indexed visuals.
+	 *
+	 * @param cellSize
+	 *            The new size of the grid cells in local coordinates of the
+	 *            {@link InfiniteCanvas#getContentGroup() content group}.
+	 */
+	public void setCellSize(double cellSize) {
+		if (cellSize <= 0) {
+			throw new IllegalArgumentException(
+					"The cell size has to be positive.");
+		}
+		this.cellSize = cellSize;
+		cells.clear();
+		oversizedEntries.clear();
+		for (Entry entry : entries.values()) {
+			entry.indexed = false;
+			entry.oversized = false;
+			markDirty(entry, false);
+		}
+	}
+
+	private void sortInPaintingOrder(
+			List<IContentPart<? extends Node>> parts) {
+		if (parts.size() < 2) {
+			return;
+		}
+		Node contentGroup = getContentGroup();
+		Map<IContentPart<? extends Node>, int[]> paths = new IdentityHashMap<>();
+		for (IContentPart<? extends Node> part : parts) {
+			paths.put(part, getPath(part.getVisual(), contentGroup));
+		}
+		parts.sort((p1, p2) -> comparePaths(paths.get(p1), paths.get(p2)));
+	}
+
+	private int toCell(double coordinate) {
+		return (int) Math.floor(coordinate / cellSize);
+	}
+
+	private Long toKey(int cx, int cy) {
+		// XXX: Multiply by an odd constant (which is a bijection), because
+		// the hash code of a Long would otherwise be cx ^ cy, so that all
+		// cells of a diagonal would collide.
+		return (((long) cx << 32) | (cy & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+	}
+
+	private void track(IContentPart<? extends Node> part) {
+		Entry entry = new Entry(part);
+		entries.put(part, entry);
+		entry.visual.boundsInParentProperty().addListener(entry);
+		entry.visual.localToParentTransformProperty()
+				.addListener(entry.transformObserver);
+		entry.visual.parentProperty().addListener(entry.transformObserver);
+		markDirty(entry, false);
+	}
+
+	private void setIndirectParent(Entry entry, Entry indirectParent) {
+		if (entry.indirectParent == indirectParent) {
+			return;
+		}
+		if (entry.indirectParent != null) {
+			entry.indirectParent.indirectChildren.remove(entry);
+		}
+		entry.indirectParent = indirectParent;
+		if (indirectParent != null) {
+			if (indirectParent.indirectChildren == null) {
+				indirectParent.indirectChildren = new ArrayList<>(2);
+			}
+			indirectParent.indirectChildren.add(entry);
+		}
+	}
+
+	private void unhook(Entry entry) {
+		entry.visual.boundsInParentProperty().removeListener(entry);
+		entry.visual.localToParentTransformProperty()
+				.removeListener(entry.transformObserver);
+		entry.visual.parentProperty().removeListener(entry.transformObserver);
+		entry.disposed = true;
+	}
+
+	private void untrack(IContentPart<? extends Node> part) {
+		Entry entry = entries.remove(part);
+		if (entry != null) {
+			unhook(entry);
+			remove(entry);
+			setIndirectParent(entry, null);
+			// XXX: The entry is not removed from the dirty entries, which
+			// would be expensive, but skipped when validating.
+		}
+	}
+
+	/**
+	 * Re-computes the bounds of the given entry, and updates its registration
+	 * within the grid. Returns <code>false</code> if the bounds could not be
+	 * computed, because the visual is not (yet) a descendant of the content
+	 * group.
+	 */
+	private boolean update(Entry entry, Node contentGroup) {
+		remove(entry);
+		Bounds bounds = entry.visual.getBoundsInParent();
+		// XXX: Validate the transform, so that the observer is notified about
+		// subsequent changes (the bounds are validated by the above call).
+		entry.visual.getLocalToParentTransform();
+		Parent parent = entry.visual.getParent();
+		while (parent != null && parent != contentGroup) {
+			bounds = parent.localToParent(bounds);
+			parent = parent.getParent();
+		}
+		if (parent == null) {
+			return false;
+		}
+		Entry parentEntry = entries.get(entry.part.getParent());
+		setIndirectParent(entry, parentEntry != null
+				&& entry.visual.getParent() != parentEntry.visual ? parentEntry
+						: null);
+		if (!bounds.isEmpty()) {
+			add(entry, bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(),
+					bounds.getMaxY());
+		}
+		return true;
+	}
+
+	private void validate() {
+		if (dirtyEntries.isEmpty()) {
+			return;
+		}
+		Node contentGroup = getContentGroup();
+		List<Entry> unresolved = new ArrayList<>();
+		// XXX: The list may grow while iterating, because changes are
+		// propagated to the descendants.
+		for (int i = 0; i < dirtyEntries.size(); i++) {
+			Entry entry = dirtyEntries.get(i);
+			if (entry.disposed) {
+				continue;
+			}
+			boolean propagate = entry.propagate;
+			entry.dirty = false;
+			entry.propagate = false;
+			if (!update(entry, contentGroup)) {
+				unresolved.add(entry);
+			}
+			// The bounds of the descendants change along with the transform
+			// of the visual. In case a child visual is not directly nested
+			// within the visual (e.g. it is nested within a scaled pane), its
+			// bounds may also change when the bounds of the visual change.
+			if (propagate) {
+				for (IVisualPart<? extends Node> child : entry.part
+						.getChildrenUnmodifiable()) {
+					Entry childEntry = entries.get(child);
+					if (childEntry != null) {
+						markDirty(childEntry, true);
+					}
+				}
+			} else if (entry.indirectChildren != null) {
+				for (Entry childEntry : entry.indirectChildren) {
+					markDirty(childEntry, true);
+				}
+			}
+		}
+		dirtyEntries.clear();
+		// keep the unresolved entries, so that they are resolved as soon as
+		// their visuals are added to the scene graph
+		for (Entry entry : unresolved) {
+			entry.dirty = true;
+			dirtyEntries.add(entry);
+		}
+	}
+}
@@ -46,6 +46,7 @@ import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.ObservableMap;
+import javafx.geometry.Bounds;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -150,6 +151,9 @@ public class InfiniteCanvasViewer implements IViewer {
 			.observableMap(new IdentityHashMap<>());
 	private ReadOnlyMapProperty<Node, IVisualPart<? extends Node>> visualPartMapProperty;
 
+	private ContentBoundsIndex contentBoundsIndex = new ContentBoundsIndex(
+			this);
+
 	private ReadOnlyObjectWrapper<IDomain> domainProperty = new ReadOnlyObjectWrapper<>();
 
 	/**
@@ -285,6 +289,7 @@ public class InfiniteCanvasViewer implements IViewer {
 					"Viewer controls have to be hooked (to scene) before activation.");
 		}
 		activateAdapters();
+		contentBoundsIndex.activate();
 	}
 
 	/**
@@ -292,6 +297,7 @@ public class InfiniteCanvasViewer implements IViewer {
 	 * adapters.
 	 */
 	protected void doDeactivate() {
+		contentBoundsIndex.deactivate();
 		deactivateAdapters();
 	}
 
@@ -358,6 +364,19 @@ public class InfiniteCanvasViewer implements IViewer {
 		return infiniteCanvas;
 	}
 
+	/**
+	 * Returns the {@link ContentBoundsIndex} that indexes the visual bounds of
+	 * the {@link IContentPart}s of this {@link InfiniteCanvasViewer} in local
+	 * coordinates of the {@link InfiniteCanvas#getContentGroup() content
+	 * group}. The index is only maintained while this viewer is active.
+	 *
+	 * @return The {@link ContentBoundsIndex} of this
+	 *         {@link InfiniteCanvasViewer}.
+	 */
+	public ContentBoundsIndex getContentBoundsIndex() {
+		return contentBoundsIndex;
+	}
+
 	/**
 	 * @see IViewer#getContentPartMap()
 	 */
@@ -500,7 +519,16 @@ public class InfiniteCanvasViewer implements IViewer {
 			getCanvas().setHorizontalScrollOffset(0);
 			getCanvas().setVerticalScrollOffset(0);
 		} else {
-			getCanvas().reveal(visualPart.getVisual());
+			// use the indexed bounds for content parts if available
+			Bounds bounds = visualPart instanceof IContentPart
+					? contentBoundsIndex.getBounds(
+							(IContentPart<? extends Node>) visualPart)
+					: null;
+			if (bounds != null) {
+				getCanvas().reveal(bounds);
+			} else {
+				getCanvas().reveal(visualPart.getVisual());
+			}
 		}
 	}
 
@@ -13,6 +13,7 @@ package org.eclipse.gef.mvc.tests.fx;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
@@ -109,6 +110,26 @@ public class AbstractVisualPartTests {
 		Assert.assertEquals(2, parent.getChildrenUnmodifiable().size());
 	}
 
+	@Test
+	public void testAddChildren() {
+		AbstractVisualPart<? extends Object> parent = new AbstractVisualPartStub();
+		AbstractVisualPartStub child1 = new AbstractVisualPartStub();
+		AbstractVisualPartStub child2 = new AbstractVisualPartStub();
+		AbstractVisualPartStub child3 = new AbstractVisualPartStub();
+		parent.addChild(child3);
+		ListChangeExpector<IVisualPart<? extends Object>> listChangeListener = new ListChangeExpector<>(
+				parent.getChildrenUnmodifiable());
+		parent.getChildrenUnmodifiable().addListener(listChangeListener);
+		// check that both children are added with a single change
+		listChangeListener.addExpectation(Collections.<IVisualPart<? extends Object>>emptyList(),
+				Arrays.<IVisualPart<? extends Object>>asList(child1, child2));
+		parent.addChildren(Arrays.asList(child1, child2), 0);
+		listChangeListener.check();
+		Assert.assertEquals(Arrays.asList(child1, child2, child3), parent.getChildrenUnmodifiable());
+		Assert.assertSame(parent, child1.getParent());
+		Assert.assertSame(parent, child2.getParent());
+	}
+
 	@Test
 	public void testRemoveChild() {
 		AbstractVisualPartStub parent = new AbstractVisualPartStub();
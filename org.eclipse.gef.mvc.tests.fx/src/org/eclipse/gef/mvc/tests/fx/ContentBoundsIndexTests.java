@@ -0,0 +1,333 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Alexander Nyßen (itemis AG) - initial API & implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.mvc.tests.fx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.gef.common.adapt.AdapterKey;
+import org.eclipse.gef.mvc.fx.MvcFxModule;
+import org.eclipse.gef.mvc.fx.domain.IDomain;
+import org.eclipse.gef.mvc.fx.parts.AbstractContentPart;
+import org.eclipse.gef.mvc.fx.parts.IContentPart;
+import org.eclipse.gef.mvc.fx.parts.IContentPartFactory;
+import org.eclipse.gef.mvc.fx.parts.IVisualPart;
+import org.eclipse.gef.mvc.fx.policies.MarqueeOnDragPolicy;
+import org.eclipse.gef.mvc.fx.viewer.ContentBoundsIndex;
+import org.eclipse.gef.mvc.fx.viewer.IViewer;
+import org.eclipse.gef.mvc.fx.viewer.InfiniteCanvasViewer;
+import org.eclipse.gef.mvc.tests.fx.rules.FXApplicationThreadRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.SetMultimap;
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.transform.Affine;
+import javafx.scene.transform.Scale;
+
+public class ContentBoundsIndexTests {
+
+	/**
+	 * A part whose visual is a {@link Group} that contains a 10x10
+	 * {@link Rectangle}, followed by the visuals of the child parts.
+	 */
+	static class BoxPart extends AbstractContentPart<Group> {
+
+		@Override
+		protected void doAddChildVisual(IVisualPart<? extends Node> child, int index) {
+			getVisual().getChildren().add(index + 1, child.getVisual());
+		}
+
+		@Override
+		protected Group doCreateVisual() {
+			return new Group(new Rectangle(10, 10));
+		}
+
+		@Override
+		protected SetMultimap<? extends Object, String> doGetContentAnchorages() {
+			return HashMultimap.create();
+		}
+
+		@Override
+		protected List<? extends Object> doGetContentChildren() {
+			return Collections.emptyList();
+		}
+
+		@Override
+		protected void doRefreshVisual(Group visual) {
+		}
+
+		@Override
+		protected void doRemoveChildVisual(IVisualPart<? extends Node> child, int index) {
+			getVisual().getChildren().remove(child.getVisual());
+		}
+
+		public Rectangle getRectangle() {
+			return (Rectangle) getVisual().getChildren().get(0);
+		}
+	}
+
+	/**
+	 * Provides access to the index-based and to the scene graph based marquee
+	 * part determination.
+	 */
+	static class MarqueeOnDragPolicyStub extends MarqueeOnDragPolicy {
+		public List<IContentPart<? extends Node>> findContainedPartsByIndex(InfiniteCanvasViewer viewer, double x0,
+				double y0, double x1, double y1) {
+			return findContainedParts(viewer, x0, y0, x1, y1);
+		}
+
+		public List<IContentPart<? extends Node>> findContainedPartsBySceneGraph(Scene scene, double x0, double y0,
+				double x1, double y1) {
+			return getParts(findContainedNodes(scene.getRoot(), x0, y0, x1, y1));
+		}
+	}
+
+	@Inject
+	private IDomain domain;
+
+	private InfiniteCanvasViewer viewer;
+	private ContentBoundsIndex index;
+	private Scene scene;
+
+	/**
+	 * Ensure all tests are executed on the JavaFX application thread (and the
+	 * JavaFX toolkit is properly initialized).
+	 */
+	@Rule
+	public FXApplicationThreadRule fxApplicationThreadRule = new FXApplicationThreadRule();
+
+	private void assertBounds(double x, double y, double width, double height, Bounds bounds) {
+		assertEquals(x, bounds.getMinX(), 1e-9);
+		assertEquals(y, bounds.getMinY(), 1e-9);
+		assertEquals(width, bounds.getWidth(), 1e-9);
+		assertEquals(height, bounds.getHeight(), 1e-9);
+	}
+
+	/**
+	 * Asserts that the indexed bounds of the given part correspond to the
+	 * bounds that are computed by transforming its visual into the local
+	 * coordinate system of the content group.
+	 */
+	private void assertIndexedBounds(BoxPart part) {
+		Node contentGroup = viewer.getCanvas().getContentGroup();
+		Bounds expected = contentGroup
+				.sceneToLocal(part.getVisual().localToScene(part.getVisual().getBoundsInLocal()));
+		assertBounds(expected.getMinX(), expected.getMinY(), expected.getWidth(), expected.getHeight(),
+				index.getBounds(part));
+	}
+
+	private BoxPart createPart(IVisualPart<? extends Node> parent, String content, double x, double y) {
+		BoxPart part = new BoxPart();
+		part.setContent(content);
+		part.getVisual().relocate(x, y);
+		parent.addChild(part);
+		return part;
+	}
+
+	private List<IContentPart<? extends Node>> getPartsAt(double x, double y) {
+		return index.getContentPartsAt(new Point2D(x, y));
+	}
+
+	@Before
+	public void setUp() {
+		Injector injector = Guice.createInjector(new MvcFxModule() {
+			protected void bindIContentPartFactory() {
+				binder().bind(IContentPartFactory.class).toInstance(new IContentPartFactory() {
+					@Override
+					public IContentPart<? extends Node> createContentPart(Object content, Map<Object, Object> contextMap) {
+						return null;
+					}
+				});
+			}
+
+			@Override
+			protected void configure() {
+				super.configure();
+				bindIContentPartFactory();
+			}
+		});
+		injector.injectMembers(this);
+		viewer = (InfiniteCanvasViewer) domain.getAdapter(AdapterKey.get(IViewer.class, IDomain.CONTENT_VIEWER_ROLE));
+		// hook viewer to scene
+		scene = new Scene(viewer.getCanvas(), 400, 400);
+		// activate domain, so that the index is maintained
+		domain.activate();
+		index = viewer.getContentBoundsIndex();
+	}
+
+	@Test
+	public void cellSizeChanged() {
+		BoxPart a = createPart(viewer.getRootPart(), "A", 0, 0);
+		BoxPart b = createPart(viewer.getRootPart(), "B", 300, 300);
+		BoxPart c = createPart(viewer.getRootPart(), "C", 0, 300);
+		// large enough to span more cells than are registered within the grid
+		c.getRectangle().setWidth(3000);
+		assertEquals(Arrays.asList(a), getPartsAt(5, 5));
+		assertEquals(Arrays.asList(b, c), getPartsAt(305, 305));
+
+		index.setCellSize(4);
+		assertEquals(4, index.getCellSize(), 0);
+		assertEquals(Arrays.asList(a), getPartsAt(5, 5));
+		assertEquals(Arrays.asList(b, c), getPartsAt(305, 305));
+		assertEquals(Arrays.asList(c), getPartsAt(2999, 305));
+		assertEquals(Arrays.asList(a, b, c), index.getContentPartsIntersecting(new BoundingBox(0, 0, 400, 400)));
+		assertEquals(Arrays.asList(a, b), index.getContentPartsContainedIn(new BoundingBox(0, 0, 400, 400)));
+		assertIndexedBounds(a);
+		assertIndexedBounds(c);
+
+		try {
+			index.setCellSize(0);
+			fail("The cell size has to be positive.");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void marqueeMatchesSceneGraphTraversal() {
+		// create nested parts, some of which are located within
+		// intermediate nodes and some of which are larger than their parent
+		Random random = new Random(0);
+		for (int i = 0; i < 20; i++) {
+			BoxPart parent = createPart(viewer.getRootPart(), "P" + i, random.nextInt(300), random.nextInt(300));
+			for (int j = 0; j < 3; j++) {
+				BoxPart child = createPart(parent, "C" + i + "." + j, random.nextInt(40) - 20,
+						random.nextInt(40) - 20);
+				child.getRectangle().setWidth(5 + random.nextInt(30));
+				if (j == 2) {
+					parent.getVisual().getChildren().remove(child.getVisual());
+					Group intermediate = new Group(child.getVisual());
+					intermediate.getTransforms().add(new Scale(1.5, 1.5));
+					parent.getVisual().getChildren().add(intermediate);
+				}
+			}
+		}
+		// scroll and zoom the canvas, which does not affect the index
+		viewer.getCanvas().setContentTransform(new Affine(2, 0, 30, 0, 2, -20));
+		// the canvas is clipped to its size, so that the scene graph
+		// traversal does not find anything before it is laid out
+		viewer.getCanvas().resize(400, 400);
+		viewer.getCanvas().layout();
+
+		MarqueeOnDragPolicyStub policy = new MarqueeOnDragPolicyStub();
+		viewer.getRootPart().setAdapter(policy);
+		for (int i = 0; i < 50; i++) {
+			double x0 = random.nextInt(400);
+			double y0 = random.nextInt(400);
+			double x1 = x0 + random.nextInt(400);
+			double y1 = y0 + random.nextInt(400);
+			assertEquals(new HashSet<>(policy.findContainedPartsBySceneGraph(scene, x0, y0, x1, y1)),
+					new HashSet<>(policy.findContainedPartsByIndex(viewer, x0, y0, x1, y1)));
+		}
+	}
+
+	@Test
+	public void paintingOrder() {
+		BoxPart a = createPart(viewer.getRootPart(), "A", 0, 0);
+		BoxPart b = createPart(viewer.getRootPart(), "B", 5, 5);
+		BoxPart c = createPart(a, "C", 4, 4);
+		// ancestors are painted before their descendants, and siblings are
+		// painted in the order of their visuals
+		assertEquals(Arrays.asList(a, c, b), getPartsAt(8, 8));
+
+		b.getVisual().toBack();
+		assertEquals(Arrays.asList(b, a, c), getPartsAt(8, 8));
+	}
+
+	@Test
+	public void parentTransformChanged() {
+		BoxPart parent = createPart(viewer.getRootPart(), "P", 0, 0);
+		BoxPart child = createPart(parent, "C", 20, 0);
+		assertBounds(20, 0, 10, 10, index.getBounds(child));
+
+		parent.getVisual().setTranslateX(50);
+		assertBounds(70, 0, 10, 10, index.getBounds(child));
+
+		parent.getVisual().getTransforms().add(new Scale(2, 2));
+		assertIndexedBounds(child);
+		assertIndexedBounds(parent);
+		assertEquals(Arrays.asList(parent, child), getPartsAt(95, 5));
+		assertTrue(getPartsAt(45, 5).isEmpty());
+	}
+
+	@Test
+	public void partMoved() {
+		BoxPart part = createPart(viewer.getRootPart(), "A", 0, 0);
+		assertEquals(Arrays.asList(part), getPartsAt(5, 5));
+
+		part.getVisual().relocate(100, 100);
+		assertBounds(100, 100, 10, 10, index.getBounds(part));
+		assertTrue(getPartsAt(5, 5).isEmpty());
+		assertEquals(Arrays.asList(part), getPartsAt(105, 105));
+
+		// bounds changes of the visual are detected, too
+		part.getRectangle().setWidth(1000);
+		assertBounds(100, 100, 1000, 10, index.getBounds(part));
+		assertEquals(Arrays.asList(part), getPartsAt(1095, 105));
+	}
+
+	@Test
+	public void partRemoved() {
+		BoxPart parent = createPart(viewer.getRootPart(), "P", 0, 0);
+		BoxPart child = createPart(parent, "C", 0, 0);
+		assertEquals(Arrays.asList(parent, child), getPartsAt(5, 5));
+
+		parent.removeChild(child);
+		assertNull(index.getBounds(child));
+		assertEquals(Arrays.asList(parent), getPartsAt(5, 5));
+
+		viewer.getRootPart().removeChild(parent);
+		assertNull(index.getBounds(parent));
+		assertTrue(getPartsAt(5, 5).isEmpty());
+	}
+
+	@Test
+	public void partReparented() {
+		BoxPart oldParent = createPart(viewer.getRootPart(), "P1", 0, 0);
+		BoxPart newParent = createPart(viewer.getRootPart(), "P2", 200, 0);
+		BoxPart child = createPart(oldParent, "C", 5, 5);
+		assertEquals(Arrays.asList(oldParent, child), getPartsAt(8, 8));
+
+		oldParent.removeChild(child);
+		newParent.addChild(child);
+		assertBounds(205, 5, 10, 10, index.getBounds(child));
+		assertEquals(Arrays.asList(oldParent), getPartsAt(8, 8));
+		assertEquals(Arrays.asList(newParent, child), getPartsAt(208, 8));
+
+		// the new parent's transform affects the child
+		newParent.getVisual().setTranslateY(100);
+		assertBounds(205, 105, 10, 10, index.getBounds(child));
+	}
+
+}
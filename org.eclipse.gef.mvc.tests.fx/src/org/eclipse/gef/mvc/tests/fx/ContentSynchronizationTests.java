@@ -15,6 +15,7 @@ package org.eclipse.gef.mvc.tests.fx;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
 import java.util.List;
@@ -27,6 +28,7 @@ import org.eclipse.gef.mvc.fx.behaviors.ContentBehavior;
 import org.eclipse.gef.mvc.fx.domain.IDomain;
 import org.eclipse.gef.mvc.fx.parts.IContentPart;
 import org.eclipse.gef.mvc.fx.parts.IContentPartFactory;
+import org.eclipse.gef.mvc.fx.parts.PartUtils;
 import org.eclipse.gef.mvc.fx.viewer.IViewer;
 import org.eclipse.gef.mvc.tests.fx.rules.FXNonApplicationThreadRule;
 import org.eclipse.gef.mvc.tests.fx.stubs.Cell;
@@ -109,6 +111,39 @@ public class ContentSynchronizationTests {
 		assertNotNull(contentPartMap.get(secondContents.get(0)));
 	}
 
+	/**
+	 * This scenario tests if the batch synchronization creates the same part
+	 * hierarchy as the regular synchronization, and re-enables the visual
+	 * refreshes of the created parts afterwards.
+	 */
+	@Test
+	public void batchSynchronization() throws Throwable {
+		// define data
+		List<Cell> contents = Arrays.asList(new Cell("0", new Cell("1"), new Cell("2")), new Cell("3"));
+
+		ContentBehavior contentBehavior = viewer.getRootPart().getAdapter(ContentBehavior.class);
+		contentBehavior.setBatchSynchronization(true);
+		try {
+			ctx.runAndWait(() -> {
+				viewer.getContents().setAll(contents);
+			});
+		} finally {
+			contentBehavior.setBatchSynchronization(false);
+		}
+
+		Map<Object, IContentPart<? extends Node>> contentPartMap = viewer.getContentPartMap();
+		IContentPart<? extends Node> first = contentPartMap.get(contents.get(0));
+		IContentPart<? extends Node> second = contentPartMap.get(contents.get(1));
+		assertNotNull(first);
+		assertNotNull(second);
+		assertEquals(Arrays.asList(first, second), PartUtils.filterParts(viewer.getRootPart().getChildrenUnmodifiable(), IContentPart.class));
+		assertEquals(Arrays.asList(contentPartMap.get(contents.get(0).children.get(0)),
+				contentPartMap.get(contents.get(0).children.get(1))), first.getChildrenUnmodifiable());
+		for (IContentPart<? extends Node> part : contentPartMap.values()) {
+			assertTrue(part.isRefreshVisual());
+		}
+	}
+
 	/**
 	 * This scenario tests if the synchronization correctly identifies contents
 	 * for which parts are already created in other places of the content part
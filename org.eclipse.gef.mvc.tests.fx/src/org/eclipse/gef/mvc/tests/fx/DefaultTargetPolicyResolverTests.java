@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Alexander Nyßen (itemis AG) - initial API & implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.mvc.tests.fx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.gef.common.adapt.AdapterKey;
+import org.eclipse.gef.mvc.fx.MvcFxModule;
+import org.eclipse.gef.mvc.fx.domain.IDomain;
+import org.eclipse.gef.mvc.fx.parts.AbstractVisualPart;
+import org.eclipse.gef.mvc.fx.parts.IContentPart;
+import org.eclipse.gef.mvc.fx.parts.IContentPartFactory;
+import org.eclipse.gef.mvc.fx.parts.IVisualPart;
+import org.eclipse.gef.mvc.fx.policies.AbstractPolicy;
+import org.eclipse.gef.mvc.fx.tools.ClickDragTool;
+import org.eclipse.gef.mvc.fx.tools.ITargetPolicyResolver;
+import org.eclipse.gef.mvc.fx.viewer.IViewer;
+import org.eclipse.gef.mvc.tests.fx.rules.FXApplicationThreadRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+
+import javafx.scene.Group;
+import javafx.scene.Node;
+
+public class DefaultTargetPolicyResolverTests {
+
+	static class PartStub extends AbstractVisualPart<Group> {
+		@Override
+		protected void doAddChildVisual(IVisualPart<? extends Node> child, int index) {
+			getVisual().getChildren().add(index, child.getVisual());
+		}
+
+		@Override
+		protected Group doCreateVisual() {
+			return new Group();
+		}
+
+		@Override
+		protected void doRefreshVisual(Group visual) {
+		}
+
+		@Override
+		protected void doRemoveChildVisual(IVisualPart<? extends Node> child, int index) {
+			getVisual().getChildren().remove(index);
+		}
+	}
+
+	static class PolicyStub extends AbstractPolicy {
+	}
+
+	@Inject
+	private IDomain domain;
+
+	private IViewer viewer;
+	private ITargetPolicyResolver resolver;
+	private ClickDragTool tool;
+
+	/**
+	 * Ensure all tests are executed on the JavaFX application thread (and the
+	 * JavaFX toolkit is properly initialized).
+	 */
+	@Rule
+	public FXApplicationThreadRule fxApplicationThreadRule = new FXApplicationThreadRule();
+
+	private PartStub createPart(IVisualPart<? extends Node> parent) {
+		PartStub part = new PartStub();
+		parent.addChild(part);
+		return part;
+	}
+
+	private List<? extends PolicyStub> getTargetPolicies(IVisualPart<? extends Node> target) {
+		return resolver.getTargetPolicies(tool, target.getVisual(), viewer, PolicyStub.class);
+	}
+
+	@Before
+	public void setUp() {
+		Injector injector = Guice.createInjector(new MvcFxModule() {
+			protected void bindIContentPartFactory() {
+				binder().bind(IContentPartFactory.class).toInstance(new IContentPartFactory() {
+					@Override
+					public IContentPart<? extends Node> createContentPart(Object content, Map<Object, Object> contextMap) {
+						return null;
+					}
+				});
+			}
+
+			@Override
+			protected void configure() {
+				super.configure();
+				bindIContentPartFactory();
+			}
+		});
+		injector.injectMembers(this);
+		viewer = domain.getAdapter(AdapterKey.get(IViewer.class, IDomain.CONTENT_VIEWER_ROLE));
+		resolver = domain.getAdapter(ITargetPolicyResolver.class);
+		tool = domain.getAdapter(ClickDragTool.class);
+	}
+
+	@Test
+	public void policyAddedToAncestor() {
+		PartStub parent = createPart(viewer.getRootPart());
+		PartStub target = createPart(parent);
+		PolicyStub targetPolicy = new PolicyStub();
+		target.setAdapter(targetPolicy);
+		assertEquals(Arrays.asList(targetPolicy), getTargetPolicies(target));
+
+		// the parent policies precede the target policies
+		PolicyStub parentPolicy = new PolicyStub();
+		parent.setAdapter(parentPolicy);
+		assertEquals(Arrays.asList(parentPolicy, targetPolicy), getTargetPolicies(target));
+	}
+
+	@Test
+	public void policyAddedToTarget() {
+		PartStub target = createPart(createPart(viewer.getRootPart()));
+		assertTrue(getTargetPolicies(target).isEmpty());
+
+		PolicyStub policy = new PolicyStub();
+		target.setAdapter(policy);
+		assertEquals(Arrays.asList(policy), getTargetPolicies(target));
+	}
+
+	@Test
+	public void policyRemovedFromAncestor() {
+		PartStub parent = createPart(viewer.getRootPart());
+		PartStub target = createPart(parent);
+		PolicyStub policy = new PolicyStub();
+		parent.setAdapter(policy);
+		assertEquals(Arrays.asList(policy), getTargetPolicies(target));
+
+		parent.unsetAdapter(policy);
+		assertTrue(getTargetPolicies(target).isEmpty());
+	}
+
+	@Test
+	public void policyRemovedFromTarget() {
+		PartStub target = createPart(createPart(viewer.getRootPart()));
+		PolicyStub policy = new PolicyStub();
+		target.setAdapter(policy);
+		assertEquals(Arrays.asList(policy), getTargetPolicies(target));
+
+		target.unsetAdapter(policy);
+		assertTrue(getTargetPolicies(target).isEmpty());
+	}
+
+	@Test
+	public void targetPoliciesCached() {
+		PartStub target = createPart(createPart(viewer.getRootPart()));
+		target.setAdapter(new PolicyStub());
+		// the target policies are only determined once as long as the part
+		// hierarchy and the adapters do not change
+		assertSame(getTargetPolicies(target), getTargetPolicies(target));
+	}
+
+	@Test
+	public void targetReparented() {
+		PartStub oldParent = createPart(viewer.getRootPart());
+		PartStub newParent = createPart(viewer.getRootPart());
+		PolicyStub oldParentPolicy = new PolicyStub();
+		oldParent.setAdapter(oldParentPolicy);
+		PolicyStub newParentPolicy = new PolicyStub();
+		newParent.setAdapter(newParentPolicy);
+		PartStub target = createPart(oldParent);
+		assertEquals(Arrays.asList(oldParentPolicy), getTargetPolicies(target));
+
+		oldParent.removeChild(target);
+		newParent.addChild(target);
+		assertEquals(Arrays.asList(newParentPolicy), getTargetPolicies(target));
+	}
+
+}
@@ -212,6 +212,31 @@ public class SelectionModelTests {
 		Assert.assertEquals(Collections.emptyList(), selectionModel.getSelectionUnmodifiable());
 	}
 
+	@Test
+	public void testDeselectMultiple() {
+		SelectionModel selectionModel = new SelectionModel();
+		IContentPart<Node> c1 = new ContentPartStub();
+		IContentPart<Node> c2 = new ContentPartStub();
+		IContentPart<Node> c3 = new ContentPartStub();
+		selectionModel.setSelection(Arrays.asList(c1, c2, c3));
+		ListChangeExpector<IContentPart<? extends Node>> listener = new ListChangeExpector<>(
+				selectionModel.getSelectionUnmodifiable());
+		selectionModel.getSelectionUnmodifiable().addListener(listener);
+
+		// ensure multi deselect raises a single event only
+		listener.addExpectation(Arrays.asList(c1, c2, c3), Arrays.asList(c2));
+		selectionModel.removeFromSelection(Arrays.asList(c3, c1));
+		listener.check();
+		Assert.assertEquals(Arrays.asList(c2), selectionModel.getSelectionUnmodifiable());
+		Assert.assertFalse(selectionModel.isSelected(c1));
+		Assert.assertTrue(selectionModel.isSelected(c2));
+		Assert.assertFalse(selectionModel.isSelected(c3));
+
+		// no change if deselect is without effect
+		selectionModel.removeFromSelection(Arrays.asList(c1, c3));
+		listener.check();
+	}
+
 	@Test
 	public void testDeselectAll() {
 		SelectionModel selectionModel = new SelectionModel();
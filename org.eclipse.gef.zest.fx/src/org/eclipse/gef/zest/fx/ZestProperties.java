@@ -25,6 +25,7 @@ import org.eclipse.gef.graph.Edge;
 import org.eclipse.gef.graph.Graph;
 import org.eclipse.gef.graph.Node;
 import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.LayoutCache;
 
 import com.google.inject.Provider;
 
@@ -333,6 +334,16 @@ public class ZestProperties {
 	 */
 	public static final String LAYOUT_ALGORITHM__G = "graph-layout-algorithm";
 
+	/**
+	 * This attribute determines the {@link LayoutCache} used to reuse the
+	 * results of clean layout passes of the graph. This attribute does not have
+	 * a default value, i.e. layout results are not cached by default.
+	 *
+	 * @see #getLayoutCache(Graph)
+	 * @see #setLayoutCache(Graph, LayoutCache)
+	 */
+	public static final String LAYOUT_CACHE__G = "graph-layout-cache";
+
 	/**
 	 * Returns the value of the {@link #CONTROL_POINTS__E} attribute of the
 	 * given {@link Edge}.
@@ -736,6 +747,18 @@ public class ZestProperties {
 		return (ILayoutAlgorithm) value;
 	}
 
+	/**
+	 * Returns the value of the {@link #LAYOUT_CACHE__G} attribute of the given
+	 * {@link Graph}.
+	 *
+	 * @param graph
+	 *            The {@link Graph} of which the layout cache is determined.
+	 * @return The layout cache of the given {@link Graph}.
+	 */
+	public static LayoutCache getLayoutCache(Graph graph) {
+		return (LayoutCache) graph.attributesProperty().get(LAYOUT_CACHE__G);
+	}
+
 	/**
 	 * Returns the value of the {@link #LAYOUT_IRRELEVANT__NE} attribute of the
 	 * given {@link Edge}. If the attribute is not set for the given
@@ -1910,6 +1933,24 @@ public class ZestProperties {
 		}
 	}
 
+	/**
+	 * Sets the value of the {@link #LAYOUT_CACHE__G} attribute of the given
+	 * {@link Graph} to the given value.
+	 *
+	 * @param graph
+	 *            The {@link Graph} of which the layout cache is changed.
+	 * @param layoutCache
+	 *            The new {@link LayoutCache} for the given {@link Graph}, or
+	 *            <code>null</code> to disable caching.
+	 */
+	public static void setLayoutCache(Graph graph, LayoutCache layoutCache) {
+		if (layoutCache == null) {
+			graph.getAttributes().remove(LAYOUT_CACHE__G);
+		} else {
+			graph.attributesProperty().put(LAYOUT_CACHE__G, layoutCache);
+		}
+	}
+
 	/**
 	 * Sets the value of the {@link #LAYOUT_IRRELEVANT__NE} attribute of the
 	 * given {@link Edge} to the given value.
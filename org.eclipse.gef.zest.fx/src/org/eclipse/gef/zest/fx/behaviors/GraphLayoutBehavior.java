@@ -20,6 +20,7 @@ import org.eclipse.gef.graph.Edge;
 import org.eclipse.gef.graph.Graph;
 import org.eclipse.gef.layout.ILayoutAlgorithm;
 import org.eclipse.gef.layout.ILayoutFilter;
+import org.eclipse.gef.layout.LayoutCache;
 import org.eclipse.gef.layout.LayoutContext;
 import org.eclipse.gef.layout.LayoutProperties;
 import org.eclipse.gef.mvc.fx.parts.IContentPart;
@@ -34,17 +35,37 @@ import org.eclipse.gef.zest.fx.models.NavigationModel.ViewportState;
 import org.eclipse.gef.zest.fx.parts.GraphPart;
 import org.eclipse.gef.zest.fx.parts.NodePart;
 
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.ListChangeListener;
 import javafx.collections.SetChangeListener;
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
 import javafx.geometry.Bounds;
 import javafx.scene.Node;
 import javafx.scene.Parent;
+import javafx.util.Duration;
 
 /**
  * The {@link GraphLayoutBehavior} is responsible for initiating layout passes.
  * It is only applicable to {@link GraphPart}.
+ * <p>
+ * Layout passes that are caused by changes to the children of the
+ * {@link #getHost() host}, to the {@link HidingModel}, or to the layout bounds
+ * are {@link #scheduleLayout(boolean) scheduled}, so that multiple subsequent
+ * changes result in a single layout pass. By default, a scheduled layout pass
+ * is performed when the JavaFX application thread processes its next
+ * runnable, i.e. before the next pulse. Alternatively, a
+ * {@link #setLayoutDelay(Duration) delay} can be set, so that a layout pass is
+ * only performed after no changes occurred for that time. A scheduled layout
+ * pass can be performed immediately using {@link #flushLayout()}.
+ * <p>
+ * Optionally, layout passes can be performed
+ * {@link #setProgressiveLayout(boolean) progressively}, so that the
+ * convergence of iterative layout algorithms is displayed instead of blocking
+ * the JavaFX application thread until the layout is finished.
  *
  * @author mwienand
  *
@@ -87,19 +108,32 @@ public class GraphLayoutBehavior extends AbstractLayoutBehavior {
 	private ListChangeListener<IVisualPart<? extends Node>> childrenObserver = new ListChangeListener<IVisualPart<? extends Node>>() {
 		@Override
 		public void onChanged(ListChangeListener.Change<? extends IVisualPart<? extends Node>> c) {
-			applyLayout(true, null);
+			scheduleLayout(true);
 		}
 	};
 
 	private SetChangeListener<org.eclipse.gef.graph.Node> hidingModelObserver = new SetChangeListener<org.eclipse.gef.graph.Node>() {
 		@Override
 		public void onChanged(SetChangeListener.Change<? extends org.eclipse.gef.graph.Node> change) {
-			applyLayout(true, null);
+			scheduleLayout(true);
+		}
+	};
+
+	private Runnable flushLayout = new Runnable() {
+		@Override
+		public void run() {
+			flushLayout();
 		}
 	};
 
 	private boolean skipNextLayout;
 
+	private boolean layoutScheduled;
+	private boolean scheduledLayoutClean;
+	private Duration layoutDelay = Duration.ZERO;
+	private PauseTransition layoutDelayTransition;
+	private boolean progressiveLayout;
+
 	/**
 	 * Performs one layout pass using the static layout algorithm that is
 	 * configured for the layout context.
@@ -145,13 +179,36 @@ public class GraphLayoutBehavior extends AbstractLayoutBehavior {
 			}
 		}
 
+		// update layout cache (disabled unless specified)
+		LayoutCache layoutCache = ZestProperties.getLayoutCache(graph);
+		if (layoutContext.getLayoutCache() != layoutCache) {
+			layoutContext.setLayoutCache(layoutCache);
+		}
+
 		// update the graph
 		if (layoutContext.getGraph() != graph) {
 			layoutContext.setGraph(graph);
 		}
 
 		// apply layout (if no algorithm is set, will be a no-op)
-		layoutContext.applyLayout(true, extra);
+		if (progressiveLayout) {
+			layoutContext.applyLayoutProgressive(clean, extra);
+		} else {
+			layoutContext.applyLayout(clean, extra);
+		}
+	}
+
+	/**
+	 * Cancels the scheduled layout pass (if any).
+	 *
+	 * @see #scheduleLayout(boolean)
+	 */
+	protected void cancelScheduledLayout() {
+		layoutScheduled = false;
+		scheduledLayoutClean = false;
+		if (layoutDelayTransition != null) {
+			layoutDelayTransition.stop();
+		}
 	}
 
 	/**
@@ -245,11 +302,14 @@ public class GraphLayoutBehavior extends AbstractLayoutBehavior {
 	@Override
 	protected void doDeactivate() {
 		getHost().getChildrenUnmodifiable().removeListener(childrenObserver);
+		cancelScheduledLayout();
 
 		final HidingModel hidingModel = getHost().getRoot().getViewer().getAdapter(HidingModel.class);
 		hidingModel.hiddenProperty().removeListener(hidingModelObserver);
 
 		LayoutContext layoutContext = getLayoutContext();
+		// a progressive layout would otherwise keep applying its frames
+		layoutContext.cancelAsyncLayout();
 		layoutContext.unschedulePreLayoutPass(preLayout);
 		layoutContext.unschedulePostLayoutPass(postLayout);
 		if (nestingVisual != null) {
@@ -262,6 +322,22 @@ public class GraphLayoutBehavior extends AbstractLayoutBehavior {
 		nestingVisual = null;
 	}
 
+	/**
+	 * Performs the scheduled layout pass (if any) immediately. Clients that
+	 * depend on the layout results (e.g. tests) can use this method to ensure
+	 * that all changes have been layouted.
+	 *
+	 * @see #scheduleLayout(boolean)
+	 */
+	public void flushLayout() {
+		if (!layoutScheduled) {
+			return;
+		}
+		boolean clean = scheduledLayoutClean;
+		cancelScheduledLayout();
+		applyLayout(clean, null);
+	}
+
 	@Override
 	public GraphPart getHost() {
 		return (GraphPart) super.getHost();
@@ -283,6 +359,16 @@ public class GraphLayoutBehavior extends AbstractLayoutBehavior {
 		return getHost().getAdapter(LayoutContext.class);
 	}
 
+	/**
+	 * Returns the delay after which a {@link #scheduleLayout(boolean)
+	 * scheduled} layout pass is performed.
+	 *
+	 * @return The delay after which a scheduled layout pass is performed.
+	 */
+	public Duration getLayoutDelay() {
+		return layoutDelay;
+	}
+
 	/**
 	 * Returns the {@link NodePart} that contains the nested graph to which the
 	 * behavior corresponds, if this behavior is related to a nested graph.
@@ -297,6 +383,29 @@ public class GraphLayoutBehavior extends AbstractLayoutBehavior {
 		return null;
 	}
 
+	/**
+	 * Returns <code>true</code> if layout passes are performed progressively,
+	 * otherwise <code>false</code>.
+	 *
+	 * @return <code>true</code> if layout passes are performed progressively,
+	 *         otherwise <code>false</code>.
+	 * @see #setProgressiveLayout(boolean)
+	 */
+	public boolean isProgressiveLayout() {
+		return progressiveLayout;
+	}
+
+	/**
+	 * Returns <code>true</code> if a layout pass is scheduled, i.e. if the
+	 * layout is dirty. Otherwise returns <code>false</code>.
+	 *
+	 * @return <code>true</code> if a layout pass is scheduled, otherwise
+	 *         <code>false</code>.
+	 */
+	public boolean isLayoutScheduled() {
+		return layoutScheduled;
+	}
+
 	@Override
 	protected void postLayout() {
 		// execute post-layout of all nodes and edges
@@ -319,15 +428,84 @@ public class GraphLayoutBehavior extends AbstractLayoutBehavior {
 		}
 	}
 
+	/**
+	 * Schedules a layout pass, i.e. marks the layout as dirty. Subsequent
+	 * calls are coalesced into a single layout pass, which is performed when
+	 * the JavaFX application thread processes its next runnable, or, if a
+	 * {@link #setLayoutDelay(Duration) layout delay} is set, after no layout
+	 * pass was scheduled for that time.
+	 *
+	 * @param clean
+	 *            Whether to fully re-compute the layout or not. The scheduled
+	 *            layout pass is clean if any of the coalesced calls requested
+	 *            a clean layout pass.
+	 * @see #flushLayout()
+	 */
+	public void scheduleLayout(boolean clean) {
+		scheduledLayoutClean |= clean;
+		if (layoutDelay.greaterThan(Duration.ZERO)) {
+			// restart the delay with each change
+			if (layoutDelayTransition == null) {
+				layoutDelayTransition = new PauseTransition();
+				layoutDelayTransition.setOnFinished(new EventHandler<ActionEvent>() {
+					@Override
+					public void handle(ActionEvent event) {
+						flushLayout();
+					}
+				});
+			}
+			layoutScheduled = true;
+			layoutDelayTransition.setDuration(layoutDelay);
+			layoutDelayTransition.playFromStart();
+		} else if (!layoutScheduled) {
+			layoutScheduled = true;
+			Platform.runLater(flushLayout);
+		}
+	}
+
+	/**
+	 * Sets the delay after which a {@link #scheduleLayout(boolean) scheduled}
+	 * layout pass is performed. The delay is restarted whenever another layout
+	 * pass is scheduled. A delay of {@link Duration#ZERO} (the default)
+	 * performs a scheduled layout pass before the next pulse.
+	 *
+	 * @param layoutDelay
+	 *            The delay after which a scheduled layout pass is performed.
+	 */
+	public void setLayoutDelay(Duration layoutDelay) {
+		if (layoutDelay == null || layoutDelay.lessThan(Duration.ZERO)) {
+			throw new IllegalArgumentException("The layout delay may not be null or negative.");
+		}
+		this.layoutDelay = layoutDelay;
+	}
+
+	/**
+	 * Specifies whether layout passes are performed progressively (see
+	 * {@link LayoutContext#applyLayoutProgressive(boolean, Object)}), i.e. on
+	 * a background thread, publishing intermediate results (at the
+	 * {@link LayoutContext#setMaximumFrameRate(double) maximum frame rate} of
+	 * the {@link LayoutContext}) while the layout algorithm converges.
+	 * Otherwise (default), layout passes are performed synchronously.
+	 *
+	 * @param progressiveLayout
+	 *            <code>true</code> to perform layout passes progressively,
+	 *            <code>false</code> to perform them synchronously.
+	 */
+	public void setProgressiveLayout(boolean progressiveLayout) {
+		this.progressiveLayout = progressiveLayout;
+	}
+
 	/**
 	 * Updates the bounds property from the visual (viewport or nesting node)
+	 * and schedules a non-clean layout pass, so that layout algorithms can
+	 * adapt the current layout to the new bounds incrementally.
 	 */
 	protected void updateBounds() {
 		Rectangle newBounds = computeLayoutBounds();
 		Rectangle oldBounds = LayoutProperties.getBounds(getHost().getContent());
 		if (oldBounds != newBounds && (oldBounds == null || !oldBounds.equals(newBounds))) {
 			LayoutProperties.setBounds(getHost().getContent(), newBounds);
-			applyLayout(true, null);
+			scheduleLayout(false);
 		}
 	}
 }
@@ -63,6 +63,15 @@ public class GraphPart extends AbstractContentPart<Group> {
 		getVisual().getChildren().add(index, child.getVisual());
 	}
 
+	@Override
+	protected void doAddChildVisuals(List<? extends IVisualPart<? extends Node>> children, int index) {
+		List<Node> childVisuals = new ArrayList<>(children.size());
+		for (IVisualPart<? extends Node> child : children) {
+			childVisuals.add(child.getVisual());
+		}
+		getVisual().getChildren().addAll(index, childVisuals);
+	}
+
 	@Override
 	protected Group doCreateVisual() {
 		Group visual = new Group();
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Matthias Wienand (itemis AG) - initial API & implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.zest.tests.fx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.gef.geometry.planar.Rectangle;
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.layout.LayoutProperties;
+import org.eclipse.gef.mvc.tests.fx.rules.FXApplicationThreadRule;
+import org.eclipse.gef.zest.fx.behaviors.GraphLayoutBehavior;
+import org.eclipse.gef.zest.fx.parts.GraphPart;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class GraphLayoutBehaviorTests {
+
+	/**
+	 * Records the layout passes that are performed instead of performing them.
+	 */
+	private static class GraphLayoutBehaviorStub extends GraphLayoutBehavior {
+		private final Graph graph = new Graph();
+		private final List<Boolean> layoutPasses = new ArrayList<>();
+		private Rectangle layoutBounds = new Rectangle(0, 0, 100, 100);
+		private GraphPart host;
+
+		@Override
+		public void applyLayout(boolean clean, Object extra) {
+			layoutPasses.add(clean);
+		}
+
+		@Override
+		protected Rectangle computeLayoutBounds() {
+			return layoutBounds;
+		}
+
+		@Override
+		public GraphPart getHost() {
+			if (host == null) {
+				host = new GraphPart() {
+					@Override
+					public Graph getContent() {
+						return graph;
+					}
+				};
+			}
+			return host;
+		}
+
+		@Override
+		public void updateBounds() {
+			super.updateBounds();
+		}
+	}
+
+	/**
+	 * Ensure all tests are executed on the JavaFX application thread (and the
+	 * JavaFX toolkit is properly initialized).
+	 */
+	@Rule
+	public FXApplicationThreadRule fxApplicationThreadRule = new FXApplicationThreadRule();
+
+	@Test
+	public void boundsChangeSchedulesIncrementalLayout() {
+		GraphLayoutBehaviorStub behavior = new GraphLayoutBehaviorStub();
+		behavior.updateBounds();
+		assertEquals(new Rectangle(0, 0, 100, 100), LayoutProperties.getBounds(behavior.graph));
+		assertTrue(behavior.isLayoutScheduled());
+
+		// the new bounds do not require a clean layout pass
+		behavior.flushLayout();
+		assertEquals(1, behavior.layoutPasses.size());
+		assertFalse(behavior.layoutPasses.get(0));
+
+		// unchanged bounds do not schedule a layout pass
+		behavior.updateBounds();
+		assertFalse(behavior.isLayoutScheduled());
+	}
+
+	@Test
+	public void flushLayout() {
+		GraphLayoutBehaviorStub behavior = new GraphLayoutBehaviorStub();
+		assertFalse(behavior.isLayoutScheduled());
+
+		// nothing is performed if no layout pass is scheduled
+		behavior.flushLayout();
+		assertTrue(behavior.layoutPasses.isEmpty());
+
+		// the scheduled layout pass is performed synchronously
+		behavior.scheduleLayout(true);
+		assertTrue(behavior.isLayoutScheduled());
+		assertTrue(behavior.layoutPasses.isEmpty());
+		behavior.flushLayout();
+		assertFalse(behavior.isLayoutScheduled());
+		assertEquals(1, behavior.layoutPasses.size());
+		assertTrue(behavior.layoutPasses.get(0));
+	}
+
+	@Test
+	public void scheduledLayoutsCoalesced() {
+		GraphLayoutBehaviorStub behavior = new GraphLayoutBehaviorStub();
+		for (int i = 0; i < 10; i++) {
+			behavior.scheduleLayout(false);
+			behavior.layoutBounds = new Rectangle(0, 0, 100 + i, 100);
+			behavior.updateBounds();
+		}
+		assertTrue(behavior.layoutPasses.isEmpty());
+		behavior.flushLayout();
+		assertEquals(1, behavior.layoutPasses.size());
+		assertFalse(behavior.layoutPasses.get(0));
+
+		// the coalesced layout pass is clean if any change requires it
+		behavior.scheduleLayout(false);
+		behavior.scheduleLayout(true);
+		behavior.scheduleLayout(false);
+		behavior.flushLayout();
+		assertEquals(2, behavior.layoutPasses.size());
+		assertTrue(behavior.layoutPasses.get(1));
+
+		// the pass that was scheduled for the next pulse is not repeated
+		behavior.flushLayout();
+		assertEquals(2, behavior.layoutPasses.size());
+	}
+
+}